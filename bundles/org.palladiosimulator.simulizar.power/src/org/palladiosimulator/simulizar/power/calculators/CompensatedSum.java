@@ -0,0 +1,37 @@
+package org.palladiosimulator.simulizar.power.calculators;
+
+/**
+ * Running sum of {@code double} values with compensated summation (Kahan-Babuska/Neumaier), so
+ * that the rounding error does not grow with the number of summands. This matters for energy
+ * integrators, which add millions of tiny increments to a large cumulative value in long runs.
+ */
+final class CompensatedSum {
+
+    private double sum;
+    private double compensation;
+
+    /**
+     * Adds the given value to the sum.
+     *
+     * @param value
+     *            The summand.
+     */
+    void add(final double value) {
+        double newSum = this.sum + value;
+        if (Math.abs(this.sum) >= Math.abs(value)) {
+            this.compensation += (this.sum - newSum) + value;
+        } else {
+            this.compensation += (value - newSum) + this.sum;
+        }
+        this.sum = newSum;
+    }
+
+    /**
+     * Gets the current sum.
+     *
+     * @return The sum of all values added so far.
+     */
+    double getValue() {
+        return this.sum + this.compensation;
+    }
+}
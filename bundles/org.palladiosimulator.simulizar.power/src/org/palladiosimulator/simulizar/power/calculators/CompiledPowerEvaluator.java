@@ -0,0 +1,384 @@
+package org.palladiosimulator.simulizar.power.calculators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import javax.measure.Measurable;
+import javax.measure.quantity.Power;
+import javax.measure.unit.SI;
+
+import org.palladiosimulator.simulizar.power.evaluationscope.TopologyIndex;
+
+import de.fzi.power.infrastructure.PowerConsumingEntity;
+import de.fzi.power.infrastructure.PowerConsumingResource;
+import de.fzi.power.infrastructure.PowerProvidingEntity;
+import de.fzi.power.infrastructure.StatefulPowerConsumingResource;
+import de.fzi.power.infrastructure.StatelessPowerConsumingResource;
+import de.fzi.power.interpreter.PowerConsumptionSwitch;
+import de.fzi.power.interpreter.PowerModelRegistry;
+import de.fzi.power.interpreter.calculators.IDistributionPowerModelCalculator;
+
+/**
+ * Pre-compiled evaluator of the power consumption of a {@link PowerProvidingEntity}.<br>
+ * A {@link PowerConsumptionSwitch} navigates the whole infrastructure subtree of the entity and
+ * looks up the distribution power model of every nested entity whenever the consumption is
+ * evaluated, although neither changes during a simulation run. Upon compilation, the subtree is
+ * flattened into a program of post-ordered instructions instead: each instruction either evaluates
+ * a power consuming resource, or composes the results of previous instructions by means of the
+ * distribution power model calculator that has been resolved at compilation time. The consumptions
+ * of the resources are evaluated by the case of the switch that is bound to the resource, which
+ * supplies their power models, provided by extensions, with the measurements of the scope; the case
+ * is resolved by the first evaluation, so that the switch does not dispatch by type afterwards.
+ * The results and the consumptions passed to the distribution power models are kept in buffers that
+ * are allocated upon compilation and reused by every evaluation.<br>
+ * Nested entities whose consumption may already be known, e.g., as it has been computed by the
+ * calculator of a monitored entity (cf. {@link PowerRollup}), can be given reused consumptions upon
+ * compilation. If a reused consumption is available when evaluating, the instructions of the subtree
+ * of the nested entity are skipped, at any depth; otherwise they are evaluated as usual.<br>
+ * The infrastructure model and the power model bindings must not change after compilation. As the
+ * buffers are reused, an evaluator must not be evaluated by several threads at the same time.
+ */
+public final class CompiledPowerEvaluator {
+
+    private static final int RESOURCE = -1;
+    private static final int NO_JUMP = -1;
+
+    /** Relative deviation of a verified consumption that is attributed to the order of summation. */
+    private static final double VERIFICATION_TOLERANCE = 1e-9;
+
+    private static final byte UNBOUND = 0;
+    private static final byte SPECIFIC_CASE = 1;
+    private static final byte RESOURCE_CASE = 2;
+    private static final byte SWITCH = 3;
+
+    private final PowerConsumptionSwitch resourceSwitch;
+    private final PowerConsumingEntity[] entities;
+    private final IDistributionPowerModelCalculator[] distributionCalculators;
+    /** Index of the first child instruction per instruction, or {@link #RESOURCE} for leaves. */
+    private final int[] childrenStart;
+    private final int[] childrenEnd;
+    private final int[] children;
+    /** Case of the switch that evaluates the resource per leaf, see {@link #evaluateResource(int)}. */
+    private final byte[] resourceCases;
+    private final Measurable<Power>[] results;
+    private final Map<PowerConsumingEntity, Measurable<Power>>[] consumptionsPerEntity;
+    /** Instructions with a reused consumption, in program order. */
+    private final int[] reusingInstructions;
+    private final Supplier<Measurable<Power>>[] reusedConsumptions;
+    /** Index of the first instruction of the subtree per reusing instruction. */
+    private final int[] subtreeStarts;
+    /** Reusing instruction to skip to per instruction, or {@link #NO_JUMP}. */
+    private final int[] jumps;
+    private final boolean stateful;
+
+    @SuppressWarnings("unchecked")
+    private CompiledPowerEvaluator(final PowerConsumptionSwitch resourceSwitch, final List<Instruction> program,
+            final int[] children, final boolean stateful) {
+        int length = program.size();
+        this.resourceSwitch = resourceSwitch;
+        this.stateful = stateful;
+        this.reusingInstructions = IntStream.range(0, length)
+                .filter(i -> program.get(i).reusedConsumption != null).toArray();
+        this.reusedConsumptions = new Supplier[length];
+        this.subtreeStarts = new int[length];
+        this.jumps = new int[length];
+        Arrays.fill(this.jumps, NO_JUMP);
+        this.entities = new PowerConsumingEntity[length];
+        this.distributionCalculators = new IDistributionPowerModelCalculator[length];
+        this.childrenStart = new int[length];
+        this.childrenEnd = new int[length];
+        this.children = children;
+        this.resourceCases = new byte[length];
+        this.results = new Measurable[length];
+        this.consumptionsPerEntity = new Map[length];
+        for (int i = 0; i < length; ++i) {
+            Instruction instruction = program.get(i);
+            this.entities[i] = instruction.entity;
+            this.distributionCalculators[i] = instruction.distributionCalculator;
+            this.childrenStart[i] = instruction.childrenStart;
+            this.childrenEnd[i] = instruction.childrenEnd;
+            this.reusedConsumptions[i] = instruction.reusedConsumption;
+            this.subtreeStarts[i] = instruction.subtreeStart;
+            if (instruction.childrenStart != RESOURCE) {
+                // the keys are fixed, so that evaluations only replace the values
+                Map<PowerConsumingEntity, Measurable<Power>> consumptions = new HashMap<>(
+                        (instruction.childrenEnd - instruction.childrenStart) * 4 / 3 + 1);
+                for (int j = instruction.childrenStart; j < instruction.childrenEnd; ++j) {
+                    consumptions.put(program.get(children[j]).entity, null);
+                }
+                this.consumptionsPerEntity[i] = consumptions;
+            }
+        }
+    }
+
+    /**
+     * Compiles the power model bindings of the given entity and its nested entities. Whether the
+     * subtree contains {@link StatefulPowerConsumingResource}s is looked up in the given
+     * {@link TopologyIndex}, so that the subtree is only navigated once, to compile its
+     * instructions.
+     *
+     * @param ppe
+     *            The {@link PowerProvidingEntity} whose consumption is to be evaluated.
+     * @param resourceSwitch
+     *            The {@link PowerConsumptionSwitch} used to evaluate the consumption of the power
+     *            consuming resources in the subtree of the entity.
+     * @param powerModelRegistry
+     *            The {@link PowerModelRegistry} that holds the distribution power models of the
+     *            entity and its nested entities.
+     * @param topologyIndex
+     *            The {@link TopologyIndex} of the infrastructure models.
+     * @return The compiled evaluator.
+     * @throws NullPointerException
+     *             In case any of the arguments is {@code null}.
+     * @throws IllegalStateException
+     *             In case no distribution power model is registered for an entity of the subtree.
+     */
+    public static CompiledPowerEvaluator compile(final PowerProvidingEntity ppe,
+            final PowerConsumptionSwitch resourceSwitch, final PowerModelRegistry powerModelRegistry,
+            final TopologyIndex topologyIndex) {
+        return compile(ppe, resourceSwitch, powerModelRegistry, topologyIndex, Collections.emptyMap());
+    }
+
+    /**
+     * Compiles the power model bindings of the given entity and its nested entities like
+     * {@link #compile(PowerProvidingEntity, PowerConsumptionSwitch, PowerModelRegistry, TopologyIndex)},
+     * and reuses the given consumptions of nested entities instead of evaluating their subtrees.
+     *
+     * @param ppe
+     *            The {@link PowerProvidingEntity} whose consumption is to be evaluated.
+     * @param resourceSwitch
+     *            The {@link PowerConsumptionSwitch} used to evaluate the consumption of the power
+     *            consuming resources in the subtree of the entity.
+     * @param powerModelRegistry
+     *            The {@link PowerModelRegistry} that holds the distribution power models of the
+     *            entity and its nested entities.
+     * @param topologyIndex
+     *            The {@link TopologyIndex} of the infrastructure models.
+     * @param reusedConsumptions
+     *            {@link Map} of nested entities at any depth to the {@link Supplier} of their
+     *            current consumption, which yields {@code null} if it is not available. A reused
+     *            consumption of the given entity itself is ignored.
+     * @return The compiled evaluator.
+     * @throws NullPointerException
+     *             In case any of the arguments is {@code null}.
+     * @throws IllegalStateException
+     *             In case no distribution power model is registered for an entity of the subtree.
+     */
+    public static CompiledPowerEvaluator compile(final PowerProvidingEntity ppe,
+            final PowerConsumptionSwitch resourceSwitch, final PowerModelRegistry powerModelRegistry,
+            final TopologyIndex topologyIndex,
+            final Map<PowerProvidingEntity, ? extends Supplier<Measurable<Power>>> reusedConsumptions) {
+        Objects.requireNonNull(ppe, "Given PowerProvidingEntity must not be null.");
+        boolean stateful = Objects.requireNonNull(topologyIndex, "Given TopologyIndex must not be null.")
+                .isStateful(ppe);
+        Objects.requireNonNull(resourceSwitch, "Given PowerConsumptionSwitch must not be null.");
+        Objects.requireNonNull(powerModelRegistry, "Given PowerModelRegistry must not be null.");
+        Objects.requireNonNull(reusedConsumptions, "Given reused consumptions must not be null.");
+
+        List<Instruction> program = new ArrayList<>();
+        List<Integer> children = new ArrayList<>();
+        compile(ppe, powerModelRegistry, reusedConsumptions, program, children);
+        // the consumption of the entity itself is what is evaluated
+        program.get(program.size() - 1).reusedConsumption = null;
+        return new CompiledPowerEvaluator(resourceSwitch, program,
+                children.stream().mapToInt(Integer::intValue).toArray(), stateful);
+    }
+
+    private static int compile(final PowerConsumingEntity entity, final PowerModelRegistry powerModelRegistry,
+            final Map<PowerProvidingEntity, ? extends Supplier<Measurable<Power>>> reusedConsumptions,
+            final List<Instruction> program, final List<Integer> children) {
+        int subtreeStart = program.size();
+        if (!(entity instanceof PowerProvidingEntity)) {
+            program.add(new Instruction(entity, null, RESOURCE, RESOURCE, subtreeStart));
+            return program.size() - 1;
+        }
+        PowerProvidingEntity ppe = (PowerProvidingEntity) entity;
+        IDistributionPowerModelCalculator distributionCalculator = powerModelRegistry
+                .getDistributionPowerModelCalculator(ppe);
+        if (distributionCalculator == null) {
+            throw new IllegalStateException("No distribution power model registered for entity: " + ppe);
+        }
+        List<PowerConsumingEntity> nestedEntities = ppe.getNestedPowerConsumingEntities();
+        int[] childInstructions = new int[nestedEntities.size()];
+        for (int i = 0; i < childInstructions.length; ++i) {
+            childInstructions[i] = compile(nestedEntities.get(i), powerModelRegistry, reusedConsumptions, program,
+                    children);
+        }
+        int childrenStart = children.size();
+        for (int childInstruction : childInstructions) {
+            children.add(childInstruction);
+        }
+        Instruction instruction = new Instruction(ppe, distributionCalculator, childrenStart, children.size(),
+                subtreeStart);
+        instruction.reusedConsumption = reusedConsumptions.get(ppe);
+        program.add(instruction);
+        return program.size() - 1;
+    }
+
+    /**
+     * Evaluates the current power consumption of the entity this evaluator has been compiled for.
+     *
+     * @return The power consumption of the entity.
+     */
+    public Measurable<Power> evaluate() {
+        Measurable<Power>[] results = this.results;
+        int[] jumps = this.jumps;
+        try {
+            for (int reusing : this.reusingInstructions) {
+                Measurable<Power> consumption = this.reusedConsumptions[reusing].get();
+                if (consumption != null) {
+                    results[reusing] = consumption;
+                    // subtrees sharing their first instruction are overridden by the enclosing
+                    // one, which follows them in program order
+                    jumps[this.subtreeStarts[reusing]] = reusing;
+                }
+            }
+            for (int i = 0; i < results.length; ++i) {
+                if (jumps[i] != NO_JUMP) {
+                    // the subtree is skipped up to its root, whose consumption has been reused
+                    i = jumps[i];
+                } else if (this.childrenStart[i] == RESOURCE) {
+                    results[i] = evaluateResource(i);
+                } else {
+                    Map<PowerConsumingEntity, Measurable<Power>> consumptionPerEntity = this.consumptionsPerEntity[i];
+                    for (int j = this.childrenStart[i]; j < this.childrenEnd[i]; ++j) {
+                        int child = this.children[j];
+                        consumptionPerEntity.put(this.entities[child], results[child]);
+                    }
+                    results[i] = this.distributionCalculators[i].calculate(consumptionPerEntity);
+                }
+            }
+        } finally {
+            for (int reusing : this.reusingInstructions) {
+                jumps[this.subtreeStarts[reusing]] = NO_JUMP;
+            }
+        }
+        return results[results.length - 1];
+    }
+
+    /**
+     * Evaluates the current power consumption like {@link #evaluate()}, and checks that it equals
+     * the consumption that the {@link PowerConsumptionSwitch} yields for the same scope state.<br>
+     * Entities whose subtrees contain {@link StatefulPowerConsumingResource}s are not checked, as
+     * their power models would advance their state twice per point in time.
+     *
+     * @return The power consumption of the entity.
+     * @throws IllegalStateException
+     *             In case the consumptions deviate by more than the rounding of their summation.
+     */
+    public Measurable<Power> evaluateVerified() {
+        Measurable<Power> consumption = evaluate();
+        if (!this.stateful) {
+            PowerConsumingEntity ppe = this.entities[this.entities.length - 1];
+            checkEqual(ppe, consumption, this.resourceSwitch.doSwitch(ppe));
+        }
+        return consumption;
+    }
+
+    /**
+     * Checks that an optimized evaluation of a consumption equals its reference evaluation.
+     *
+     * @param entity
+     *            The entity whose consumption has been evaluated.
+     * @param actual
+     *            The consumption yielded by the optimized evaluation.
+     * @param expected
+     *            The consumption yielded by the reference evaluation.
+     * @throws IllegalStateException
+     *             In case the consumptions deviate by more than the rounding of their summation.
+     */
+    static void checkEqual(final PowerConsumingEntity entity, final Measurable<Power> actual,
+            final Measurable<Power> expected) {
+        double actualWatts = actual.doubleValue(SI.WATT);
+        double expectedWatts = expected.doubleValue(SI.WATT);
+        double deviation = Math.abs(actualWatts - expectedWatts);
+        // NaN consumptions only equal each other
+        if (Double.compare(actualWatts, expectedWatts) != 0
+                && !(deviation <= VERIFICATION_TOLERANCE * Math.max(1d, Math.abs(expectedWatts)))) {
+            throw new IllegalStateException("Optimized evaluation of entity " + entity + " yielded " + actualWatts
+                    + " W instead of " + expectedWatts + " W.");
+        }
+    }
+
+    private Measurable<Power> evaluateResource(final int instruction) {
+        PowerConsumingEntity entity = this.entities[instruction];
+        switch (this.resourceCases[instruction]) {
+        case UNBOUND:
+            return bindResource(instruction);
+        case SPECIFIC_CASE:
+            return evaluateSpecificCase(entity);
+        case RESOURCE_CASE:
+            return this.resourceSwitch.casePowerConsumingResource((PowerConsumingResource) entity);
+        default:
+            return this.resourceSwitch.doSwitch(entity);
+        }
+    }
+
+    /**
+     * Evaluates the given leaf by the cases of the switch in the order the switch dispatches them,
+     * and binds the leaf to the first case that yields a consumption. Cases that are not handled
+     * by the switch yield {@code null} without evaluating anything.
+     */
+    private Measurable<Power> bindResource(final int instruction) {
+        PowerConsumingEntity entity = this.entities[instruction];
+        Measurable<Power> consumption = evaluateSpecificCase(entity);
+        if (consumption != null) {
+            this.resourceCases[instruction] = SPECIFIC_CASE;
+            return consumption;
+        }
+        if (entity instanceof PowerConsumingResource) {
+            consumption = this.resourceSwitch.casePowerConsumingResource((PowerConsumingResource) entity);
+            if (consumption != null) {
+                this.resourceCases[instruction] = RESOURCE_CASE;
+                return consumption;
+            }
+        }
+        this.resourceCases[instruction] = SWITCH;
+        return this.resourceSwitch.doSwitch(entity);
+    }
+
+    private Measurable<Power> evaluateSpecificCase(final PowerConsumingEntity entity) {
+        if (entity instanceof StatelessPowerConsumingResource) {
+            return this.resourceSwitch.caseStatelessPowerConsumingResource((StatelessPowerConsumingResource) entity);
+        } else if (entity instanceof StatefulPowerConsumingResource) {
+            return this.resourceSwitch.caseStatefulPowerConsumingResource((StatefulPowerConsumingResource) entity);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of instructions of the compiled program, i.e., the number of entities in the
+     * subtree of the entity.
+     *
+     * @return The length of the program.
+     */
+    public int getProgramLength() {
+        return this.entities.length;
+    }
+
+    private static final class Instruction {
+        private final PowerConsumingEntity entity;
+        private final IDistributionPowerModelCalculator distributionCalculator;
+        private final int childrenStart;
+        private final int childrenEnd;
+        private final int subtreeStart;
+        private Supplier<Measurable<Power>> reusedConsumption;
+
+        private Instruction(final PowerConsumingEntity entity,
+                final IDistributionPowerModelCalculator distributionCalculator, final int childrenStart,
+                final int childrenEnd, final int subtreeStart) {
+            this.entity = entity;
+            this.distributionCalculator = distributionCalculator;
+            this.childrenStart = childrenStart;
+            this.childrenEnd = childrenEnd;
+            this.subtreeStart = subtreeStart;
+        }
+    }
+}
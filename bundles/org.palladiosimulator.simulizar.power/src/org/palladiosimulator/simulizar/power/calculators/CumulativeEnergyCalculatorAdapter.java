@@ -0,0 +1,45 @@
+package org.palladiosimulator.simulizar.power.calculators;
+
+import javax.measure.Measurable;
+import javax.measure.Measure;
+import javax.measure.quantity.Energy;
+import javax.measure.quantity.Power;
+import javax.measure.unit.Unit;
+
+import org.palladiosimulator.simulizar.power.instrumentation.MemoryFootprint;
+
+import de.fzi.power.interpreter.calculators.energy.AbstractCumulativeEnergyCalculator;
+
+/**
+ * Adapts an {@link AbstractCumulativeEnergyCalculator}, which assumes equidistant samples and
+ * therefore ignores their points in time, to the {@link IEnergyIntegrator} interface.<br>
+ * The state of the adapted calculator is not bounded, hence each sample passed to it is accounted
+ * for as a retained measurement.
+ */
+final class CumulativeEnergyCalculatorAdapter implements IEnergyIntegrator {
+
+    private final AbstractCumulativeEnergyCalculator energyCalculator;
+    private final Unit<Power> powerUnit;
+    private final UnitConversionCache<Energy> energyConversion;
+    private long sampleCount;
+
+    CumulativeEnergyCalculatorAdapter(final AbstractCumulativeEnergyCalculator energyCalculator,
+            final Unit<Power> powerUnit, final Unit<Energy> energyUnit) {
+        this.energyCalculator = energyCalculator;
+        this.powerUnit = powerUnit;
+        this.energyConversion = new UnitConversionCache<>(energyUnit);
+    }
+
+    @Override
+    public double addSample(final double pointInTime, final double power) {
+        ++this.sampleCount;
+        // the calculator API requires a measure object
+        Measurable<Energy> energySample = this.energyCalculator.calculateNext(Measure.valueOf(power, this.powerUnit));
+        return this.energyConversion.toTargetUnit(energySample);
+    }
+
+    @Override
+    public MemoryFootprint getMemoryFootprint() {
+        return MemoryFootprint.ofMeasurements(this.sampleCount);
+    }
+}
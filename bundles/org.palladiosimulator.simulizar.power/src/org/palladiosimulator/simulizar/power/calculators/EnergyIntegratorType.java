@@ -0,0 +1,46 @@
+package org.palladiosimulator.simulizar.power.calculators;
+
+import java.util.Locale;
+
+/**
+ * The algorithms available to integrate power consumptions into energy consumptions.
+ */
+public enum EnergyIntegratorType {
+
+    /**
+     * The {@code SimpsonRuleCumulativeEnergyCalculator} of the power interpreter, which requires
+     * equidistant samples.
+     */
+    INTERPRETER_SIMPSON,
+
+    /**
+     * The {@link TrapezoidEnergyIntegrator}.
+     */
+    TRAPEZOID,
+
+    /**
+     * The {@link SimpsonEnergyIntegrator}.
+     */
+    SIMPSON;
+
+    /**
+     * Gets the type denoted by the given name, which is matched case-insensitively; dashes may be
+     * used instead of underscores.
+     *
+     * @param name
+     *            The name of the type, e.g., {@code "trapezoid"}.
+     * @param defaultType
+     *            The type to return in case the name does not denote a type.
+     * @return The denoted {@link EnergyIntegratorType}, or the given default.
+     */
+    public static EnergyIntegratorType parse(final String name, final EnergyIntegratorType defaultType) {
+        if (name == null) {
+            return defaultType;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            return defaultType;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package org.palladiosimulator.simulizar.power.calculators;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import javax.measure.Measure;
+import javax.measure.quantity.Duration;
+import javax.measure.quantity.Energy;
+import javax.measure.quantity.Power;
+import javax.measure.unit.SI;
+import javax.measure.unit.Unit;
+
+import org.palladiosimulator.edp2.util.MetricDescriptionUtility;
+import org.palladiosimulator.measurementframework.TupleMeasurement;
+import org.palladiosimulator.measurementframework.listener.IMeasurementSourceListener;
+import org.palladiosimulator.measurementframework.listener.MeasurementSource;
+import org.palladiosimulator.metricspec.MetricSetDescription;
+import org.palladiosimulator.metricspec.NumericalBaseMetricDescription;
+import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
+import org.palladiosimulator.simulizar.power.evaluationscope.ScopeOptions;
+import org.palladiosimulator.simulizar.power.instrumentation.MemoryFootprint;
+
+/**
+ * Implementation of a {@link MeasurementSource} which integrates the power consumption of an entity
+ * exactly, i.e., without sampling.<br>
+ * This calculator is meant to observe a {@link SimulationTimePowerCalculator} whose scope is
+ * event-driven (see {@link ScopeOptions#eventDriven}), so that it is
+ * passed the power consumption whenever the utilization of any resource changes. The power
+ * consumption is constant in between, hence the cumulative energy consumption is the sum of
+ * the products of each consumption and the time until the next change. Power consumptions that
+ * change without a utilization change, e.g., due to timed state transitions, are not captured.<br>
+ * Energy consumptions are not reported per change, but only at multiples of the reporting interval
+ * and once {@link #flush(double)} is invoked. In addition, the average power consumption of each
+ * reporting interval is reported by the {@link #getPowerSource() power source} of this calculator.
+ */
+public class ExactEnergyCalculator extends MeasurementSource implements IDoubleMeasurementListener {
+
+    private static final Unit<Energy> DEFAULT_ENERGY_UNIT;
+    private static final Unit<Power> DEFAULT_POWER_UNIT;
+    private static final MetricSetDescription ENERGY_CONSUMPTION_TUPLE_METRIC_DESC = MetricDescriptionConstants.CUMULATIVE_ENERGY_CONSUMPTION_TUPLE;
+    private static final MetricSetDescription POWER_CONSUMPTION_TUPLE_METRIC_DESC = MetricDescriptionConstants.POWER_CONSUMPTION_TUPLE;
+
+    static {
+        DEFAULT_ENERGY_UNIT = MetricDescriptionUtility.getDefaultUnit(
+                (NumericalBaseMetricDescription) MetricDescriptionConstants.ENERGY_CONSUMPTION, Energy.class);
+        DEFAULT_POWER_UNIT = MetricDescriptionUtility.getDefaultUnit(
+                (NumericalBaseMetricDescription) MetricDescriptionConstants.POWER_CONSUMPTION, Power.class);
+    }
+
+    private final double reportingInterval;
+    private final PowerSource powerSource = new PowerSource();
+    private final List<IDoubleMeasurementListener> energyListeners = new ArrayList<>();
+    private final List<IDoubleMeasurementListener> powerListeners = new ArrayList<>();
+
+    private double lastPointInTime = Double.NaN;
+    private double lastPower;
+    private final CompensatedSum energy = new CompensatedSum();
+    private long reportCount;
+    private double lastReportedPointInTime;
+    private double lastReportedEnergy;
+
+    /**
+     * Initializes a new instance of the {@link ExactEnergyCalculator} class.
+     *
+     * @param reportingInterval
+     *            The simulated time between two reports, in seconds.
+     * @throws IllegalArgumentException
+     *             In case the given interval is not positive and finite.
+     */
+    public ExactEnergyCalculator(final double reportingInterval) {
+        super(ENERGY_CONSUMPTION_TUPLE_METRIC_DESC);
+        if (!(reportingInterval > 0) || Double.isInfinite(reportingInterval)) {
+            throw new IllegalArgumentException("Given reporting interval must be positive and finite.");
+        }
+        this.reportingInterval = reportingInterval;
+    }
+
+    /**
+     * {@inheritDoc}<br>
+     * <br>
+     * This implementation integrates the previous power consumption up to the given point in time,
+     * reporting the energy consumption at all multiples of the reporting interval passed thereby.
+     * The given power consumption (in {@code W}) holds from now on.
+     */
+    @Override
+    public void newMeasurementAvailable(final double pointInTime, final double power) {
+        if (Double.isNaN(this.lastPointInTime)) {
+            this.lastPointInTime = pointInTime;
+        } else {
+            advanceTo(pointInTime);
+        }
+        this.lastPower = power;
+    }
+
+    /**
+     * Gets the cumulative energy consumption at the given point in time, without reporting it.
+     *
+     * @param pointInTime
+     *            A point in simulation time, in seconds, not prior to the last power consumption
+     *            passed to this calculator.
+     * @return The cumulative energy consumption in {@code J}, which is 0 if no power consumption
+     *         has been passed yet.
+     * @throws IllegalArgumentException
+     *             In case the given point in time is prior to the last power consumption.
+     */
+    public double getCumulativeEnergy(final double pointInTime) {
+        if (Double.isNaN(this.lastPointInTime)) {
+            return 0d;
+        }
+        if (pointInTime < this.lastPointInTime) {
+            throw new IllegalArgumentException("Given point in time must not be prior to the last power consumption.");
+        }
+        return energyAt(pointInTime);
+    }
+
+    /**
+     * Reports the energy consumption up to the given point in time, e.g., the end of the
+     * simulation, including an incomplete reporting interval.
+     *
+     * @param pointInTime
+     *            A point in simulation time, in seconds, not prior to the last power consumption
+     *            passed to this calculator.
+     */
+    public void flush(final double pointInTime) {
+        if (Double.isNaN(this.lastPointInTime) || pointInTime < this.lastPointInTime) {
+            return;
+        }
+        advanceTo(pointInTime);
+        if (pointInTime > this.lastReportedPointInTime) {
+            report(pointInTime, this.energy.getValue());
+        }
+    }
+
+    /**
+     * Gets the data currently retained by this calculator, which is the most recent power
+     * consumption only, as the energy consumption is integrated per change.
+     *
+     * @return The {@link MemoryFootprint} of this calculator.
+     */
+    public MemoryFootprint getMemoryFootprint() {
+        return MemoryFootprint.ofSamples(Double.isNaN(this.lastPointInTime) ? 0 : 1);
+    }
+
+    /**
+     * Gets the source of the average power consumptions per reporting interval.
+     *
+     * @return A {@link MeasurementSource} of
+     *         {@link MetricDescriptionConstants#POWER_CONSUMPTION_TUPLE} measurements.
+     */
+    public MeasurementSource getPowerSource() {
+        return this.powerSource;
+    }
+
+    /**
+     * Attaches the given listener, which is henceforth passed each reported cumulative energy
+     * consumption as primitive values in {@code J}.
+     *
+     * @param listener
+     *            The {@link IDoubleMeasurementListener} to attach.
+     * @throws NullPointerException
+     *             In case the given listener is {@code null}.
+     */
+    public void addDoubleMeasurementListener(final IDoubleMeasurementListener listener) {
+        this.energyListeners.add(Objects.requireNonNull(listener, "Given listener must not be null."));
+    }
+
+    /**
+     * Attaches the given listener, which is henceforth passed the average power consumption of each
+     * reporting interval as primitive values in {@code W}.
+     *
+     * @param listener
+     *            The {@link IDoubleMeasurementListener} to attach.
+     * @throws NullPointerException
+     *             In case the given listener is {@code null}.
+     */
+    public void addPowerDoubleMeasurementListener(final IDoubleMeasurementListener listener) {
+        this.powerListeners.add(Objects.requireNonNull(listener, "Given listener must not be null."));
+    }
+
+    private void advanceTo(final double pointInTime) {
+        // report times are computed as multiples to avoid the accumulation of rounding errors
+        double nextReport = (this.reportCount + 1) * this.reportingInterval;
+        while (nextReport <= pointInTime) {
+            ++this.reportCount;
+            report(nextReport, energyAt(nextReport));
+            nextReport = (this.reportCount + 1) * this.reportingInterval;
+        }
+        // the energy is accumulated with compensation, as long runs add many small increments
+        this.energy.add(this.lastPower * (pointInTime - this.lastPointInTime));
+        this.lastPointInTime = pointInTime;
+    }
+
+    private double energyAt(final double pointInTime) {
+        return this.energy.getValue() + this.lastPower * (pointInTime - this.lastPointInTime);
+    }
+
+    private void report(final double pointInTime, final double cumulativeEnergy) {
+        double averagePower = (cumulativeEnergy - this.lastReportedEnergy)
+                / (pointInTime - this.lastReportedPointInTime);
+        this.lastReportedPointInTime = pointInTime;
+        this.lastReportedEnergy = cumulativeEnergy;
+
+        for (int i = 0; i < this.powerListeners.size(); ++i) {
+            this.powerListeners.get(i).newMeasurementAvailable(pointInTime, averagePower);
+        }
+        for (int i = 0; i < this.energyListeners.size(); ++i) {
+            this.energyListeners.get(i).newMeasurementAvailable(pointInTime, cumulativeEnergy);
+        }
+        Measure<Double, Duration> pointInTimeMeasure = Measure.valueOf(pointInTime, SI.SECOND);
+        if (!this.powerSource.getMeasurementSourceListeners().isEmpty()) {
+            this.powerSource.report(new TupleMeasurement(POWER_CONSUMPTION_TUPLE_METRIC_DESC, pointInTimeMeasure,
+                    Measure.valueOf(averagePower, DEFAULT_POWER_UNIT)));
+        }
+        if (!getMeasurementSourceListeners().isEmpty()) {
+            notifyMeasurementSourceListener(new TupleMeasurement(ENERGY_CONSUMPTION_TUPLE_METRIC_DESC,
+                    pointInTimeMeasure, Measure.valueOf(cumulativeEnergy, DEFAULT_ENERGY_UNIT)));
+        }
+    }
+
+    @Override
+    public void preUnregister() {
+        for (IMeasurementSourceListener listener : getMeasurementSourceListeners()) {
+            listener.preUnregister();
+            super.removeObserver(listener);
+        }
+        this.powerSource.preUnregister();
+        for (int i = 0; i < this.energyListeners.size(); ++i) {
+            this.energyListeners.get(i).preUnregister();
+        }
+        for (int i = 0; i < this.powerListeners.size(); ++i) {
+            this.powerListeners.get(i).preUnregister();
+        }
+        this.energyListeners.clear();
+        this.powerListeners.clear();
+    }
+
+    /**
+     * Source of the average power consumptions per reporting interval.
+     */
+    private static final class PowerSource extends MeasurementSource {
+
+        private PowerSource() {
+            super(POWER_CONSUMPTION_TUPLE_METRIC_DESC);
+        }
+
+        private void report(final TupleMeasurement averagePowerMeasurement) {
+            notifyMeasurementSourceListener(averagePowerMeasurement);
+        }
+
+        private void preUnregister() {
+            for (IMeasurementSourceListener listener : getMeasurementSourceListeners()) {
+                listener.preUnregister();
+                removeObserver(listener);
+            }
+        }
+    }
+}
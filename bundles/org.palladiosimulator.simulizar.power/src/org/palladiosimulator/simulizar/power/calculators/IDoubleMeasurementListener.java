@@ -0,0 +1,32 @@
+package org.palladiosimulator.simulizar.power.calculators;
+
+import org.palladiosimulator.measurementframework.listener.IMeasurementSourceListener;
+
+/**
+ * Primitive counterpart of {@link IMeasurementSourceListener} for the measurements of power and
+ * energy calculators. Listeners implementing this interface receive each new measurement as a pair
+ * of {@code double} values, so that no measurement objects have to be created to pass them on.
+ * 
+ * @see SimulationTimePowerCalculator#addDoubleMeasurementListener(IDoubleMeasurementListener)
+ * @see SimulationTimeEnergyCalculator#addDoubleMeasurementListener(IDoubleMeasurementListener)
+ */
+public interface IDoubleMeasurementListener {
+
+    /**
+     * Invoked by the observed calculator once a new measurement is available.
+     * 
+     * @param pointInTime
+     *            The point in simulation time of the measurement, in seconds.
+     * @param value
+     *            The measured value, given in the default unit of the calculator's metric (e.g.,
+     *            watts for power and joules for energy measurements).
+     */
+    public void newMeasurementAvailable(double pointInTime, double value);
+
+    /**
+     * Invoked by the observed calculator before it detaches this listener, e.g., once the
+     * simulation has stopped. The default implementation does nothing.
+     */
+    public default void preUnregister() {
+    }
+}
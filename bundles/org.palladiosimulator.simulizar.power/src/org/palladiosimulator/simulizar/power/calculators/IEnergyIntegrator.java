@@ -0,0 +1,36 @@
+package org.palladiosimulator.simulizar.power.calculators;
+
+import org.palladiosimulator.simulizar.power.instrumentation.MemoryFootprint;
+
+/**
+ * Integrates a stream of power consumption samples into cumulative energy consumptions.<br>
+ * Samples are passed as primitive values in the order of their points in time.
+ * 
+ * @see SimulationTimeEnergyCalculator#SimulationTimeEnergyCalculator(IEnergyIntegrator)
+ */
+public interface IEnergyIntegrator {
+
+    /**
+     * Adds the given power consumption sample and yields the cumulative energy consumption up to
+     * its point in time.
+     * 
+     * @param pointInTime
+     *            The point in simulation time of the sample, in seconds. It must not be prior to
+     *            the point in time of the previous sample.
+     * @param power
+     *            The power consumption in {@code W}.
+     * @return The cumulative energy consumption in {@code J}.
+     */
+    public double addSample(double pointInTime, double power);
+
+    /**
+     * Gets the data currently retained by this integrator, e.g., the samples of an incomplete
+     * integration interval.
+     * 
+     * @return The {@link MemoryFootprint} of this integrator. This default implementation yields
+     *         {@link MemoryFootprint#EMPTY}.
+     */
+    public default MemoryFootprint getMemoryFootprint() {
+        return MemoryFootprint.EMPTY;
+    }
+}
@@ -0,0 +1,150 @@
+package org.palladiosimulator.simulizar.power.calculators;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import javax.measure.Measurable;
+import javax.measure.quantity.Power;
+
+import org.palladiosimulator.simulizar.power.evaluationscope.TopologyIndex;
+
+import de.fzi.power.infrastructure.PowerProvidingEntity;
+import de.fzi.power.interpreter.PowerConsumptionSwitch;
+import de.fzi.power.interpreter.PowerModelRegistry;
+
+/**
+ * Composes the power consumption of monitored {@link PowerProvidingEntity}s along the
+ * infrastructure tree.<br>
+ * Without a rollup, each {@link SimulationTimePowerCalculator} evaluates the whole subtree of its
+ * entity, so that the consumption of an entity that is nested in several monitored entities is
+ * evaluated once per monitored ancestor. Calculators registered at a rollup instead wait until the
+ * rounds of all registered calculators have been completed for the current point in simulation
+ * time. They are then evaluated bottom-up by a {@link TickCoordinator}: the consumption of an
+ * entity is evaluated by a {@link CompiledPowerEvaluator} that reuses the consumptions its
+ * monitored descendants, at any depth, have just computed, and only evaluates the parts of its
+ * subtree that are not monitored. Each entity of the infrastructure tree is thus evaluated once per
+ * point in time, also below unmonitored intermediate entities. Afterwards, all new consumptions
+ * are forwarded to the listeners in registration order.<br>
+ * A rollup must only combine calculators whose scopes use the same window length and increment,
+ * so that their rounds are completed at the same points in time.
+ */
+public final class PowerRollup {
+
+    private final PowerModelRegistry powerModelRegistry;
+    private final TopologyIndex topologyIndex;
+    private final TickCoordinator coordinator;
+    private final Map<PowerProvidingEntity, Supplier<Measurable<Power>>> reusedConsumptions = new IdentityHashMap<>();
+    private final Map<PowerProvidingEntity, EntityEvaluation> evaluationsByEntity = new IdentityHashMap<>();
+
+    /**
+     * Initializes a new instance of the {@link PowerRollup} class which evaluates all calculators
+     * on the calling thread.
+     *
+     * @param powerModelRegistry
+     *            The {@link PowerModelRegistry} holding the distribution power models of the
+     *            entities.
+     * @param topologyIndex
+     *            The {@link TopologyIndex} of the infrastructure models of the current simulation
+     *            run.
+     * @throws NullPointerException
+     *             In case any of the arguments is {@code null}.
+     */
+    public PowerRollup(final PowerModelRegistry powerModelRegistry, final TopologyIndex topologyIndex) {
+        this(powerModelRegistry, topologyIndex, new TickCoordinator());
+    }
+
+    /**
+     * Initializes a new instance of the {@link PowerRollup} class which evaluates the calculators
+     * by means of the given coordinator.
+     *
+     * @param powerModelRegistry
+     *            The {@link PowerModelRegistry} holding the distribution power models of the
+     *            entities.
+     * @param topologyIndex
+     *            The {@link TopologyIndex} of the infrastructure models of the current simulation
+     *            run.
+     * @param coordinator
+     *            The {@link TickCoordinator} the calculators are registered at. It must not be
+     *            shared with other rollups.
+     * @throws NullPointerException
+     *             In case any of the arguments is {@code null}.
+     */
+    public PowerRollup(final PowerModelRegistry powerModelRegistry, final TopologyIndex topologyIndex,
+            final TickCoordinator coordinator) {
+        this.powerModelRegistry = Objects.requireNonNull(powerModelRegistry,
+                "Given PowerModelRegistry must not be null.");
+        this.topologyIndex = Objects.requireNonNull(topologyIndex, "Given TopologyIndex must not be null.");
+        this.coordinator = Objects.requireNonNull(coordinator, "Given TickCoordinator must not be null.");
+    }
+
+    /**
+     * Registers the given calculator at this rollup. In turn, the calculator is registered at the
+     * coordinator of the rollup; the calculator must thus not be attached to its scope itself.<br>
+     * The calculator is expected to have been created with an evaluator that delegates to
+     * {@link #evaluate(PowerProvidingEntity, PowerConsumptionSwitch)}. All calculators have to be
+     * registered before the first evaluation.
+     *
+     * @param calculator
+     *            The {@link SimulationTimePowerCalculator} to register.
+     * @throws IllegalArgumentException
+     *             In case a calculator for the same entity is already registered.
+     */
+    public void register(final SimulationTimePowerCalculator calculator) {
+        PowerProvidingEntity ppe = calculator.getPowerProvidingEntity();
+        if (this.evaluationsByEntity.containsKey(ppe)) {
+            throw new IllegalArgumentException("A calculator for the given entity is already registered.");
+        }
+        this.reusedConsumptions.put(ppe,
+                () -> this.coordinator.isEvaluated(calculator) ? calculator.getCurrentConsumption() : null);
+        // the maps are populated here rather than lazily, as evaluate() may run on several threads
+        this.evaluationsByEntity.put(ppe, new EntityEvaluation());
+        this.coordinator.register(calculator);
+    }
+
+    /**
+     * Evaluates the power consumption of the given entity. If monitored descendants of the entity
+     * have already been evaluated for the current point in time, their consumptions are reused;
+     * all other parts of the subtree are evaluated by means of the given switch.<br>
+     * The subtree of a registered entity is compiled upon its first evaluation, so that the
+     * consumptions of the descendants are passed to the distribution power models in buffers that
+     * are reused by every evaluation.
+     *
+     * @param ppe
+     *            The {@link PowerProvidingEntity} to evaluate.
+     * @param consumptionSwitch
+     *            The {@link PowerConsumptionSwitch} of the calculator of the entity.
+     * @return The power consumption of the entity.
+     * @throws IllegalStateException
+     *             In case no distribution power model is registered for an entity of the subtree.
+     */
+    public Measurable<Power> evaluate(final PowerProvidingEntity ppe,
+            final PowerConsumptionSwitch consumptionSwitch) {
+        EntityEvaluation evaluation = this.evaluationsByEntity.get(ppe);
+        if (evaluation == null) {
+            return consumptionSwitch.doSwitch(ppe);
+        }
+        if (evaluation.evaluator == null) {
+            evaluation.evaluator = CompiledPowerEvaluator.compile(ppe, consumptionSwitch, this.powerModelRegistry,
+                    this.topologyIndex, this.reusedConsumptions);
+        }
+        return evaluation.evaluator.evaluate();
+    }
+
+    /**
+     * Evaluates and publishes the rounds that have been completed so far. This has to be invoked
+     * once the simulation has stopped, as the rounds of the last point in time may be incomplete.
+     */
+    public void flush() {
+        this.coordinator.flush();
+    }
+
+    /**
+     * Evaluator of a registered entity. It is only accessed by the thread that evaluates the
+     * entity, which the {@link TickCoordinator} hands over between points in time.
+     */
+    private static final class EntityEvaluation {
+        private CompiledPowerEvaluator evaluator;
+    }
+}
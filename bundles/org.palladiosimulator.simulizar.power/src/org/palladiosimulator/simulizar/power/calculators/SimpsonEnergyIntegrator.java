@@ -0,0 +1,87 @@
+package org.palladiosimulator.simulizar.power.calculators;
+
+import org.palladiosimulator.simulizar.power.instrumentation.MemoryFootprint;
+
+/**
+ * {@link IEnergyIntegrator} that applies Simpson's rule to pairs of successive sample intervals,
+ * which need not be of equal length. As the cumulative energy consumption is requested per sample,
+ * the first interval of a pair is estimated by the trapezoidal rule until the second interval is
+ * complete; the estimate is then replaced by Simpson's rule over both intervals. The power
+ * consumption prior to the first sample is assumed to equal the first sample, as the first sample
+ * of a scope describes the whole first window.<br>
+ * In contrast to the {@code SimpsonRuleCumulativeEnergyCalculator} of the power interpreter, the
+ * integrator keeps constant state regardless of the number of samples, and the completed pairs are
+ * summed up with compensation.
+ */
+public final class SimpsonEnergyIntegrator implements IEnergyIntegrator {
+
+    private final double startTime;
+    private final CompensatedSum energy = new CompensatedSum();
+    private int sampleCount;
+    /** The first sample of the current pair of intervals. */
+    private double pairStartPointInTime;
+    private double pairStartPower;
+    /** The most recent sample, which is the middle of the current pair if it is incomplete. */
+    private double lastPointInTime;
+    private double lastPower;
+
+    /**
+     * Initializes a new instance of the {@link SimpsonEnergyIntegrator} class.
+     * 
+     * @param startTime
+     *            The point in simulation time, in seconds, from which on energy is consumed.
+     */
+    public SimpsonEnergyIntegrator(final double startTime) {
+        this.startTime = startTime;
+    }
+
+    @Override
+    public double addSample(final double pointInTime, final double power) {
+        ++this.sampleCount;
+        if (this.sampleCount == 1) {
+            this.energy.add(power * Math.max(0d, pointInTime - this.startTime));
+            startPair(pointInTime, power);
+            return this.energy.getValue();
+        }
+        if (this.sampleCount % 2 == 0) {
+            // the first interval of a pair: estimate it until the pair is complete
+            this.lastPointInTime = pointInTime;
+            this.lastPower = power;
+            return this.energy.getValue()
+                    + (this.pairStartPower + power) / 2d * (pointInTime - this.pairStartPointInTime);
+        }
+        this.energy.add(integratePair(pointInTime, power));
+        startPair(pointInTime, power);
+        return this.energy.getValue();
+    }
+
+    private double integratePair(final double pointInTime, final double power) {
+        double h0 = this.lastPointInTime - this.pairStartPointInTime;
+        double h1 = pointInTime - this.lastPointInTime;
+        if (h0 <= 0 || h1 <= 0) {
+            // degenerate pair, e.g., two samples at the same point in time
+            return (this.pairStartPower + this.lastPower) / 2d * h0 + (this.lastPower + power) / 2d * h1;
+        }
+        double h = h0 + h1;
+        return h / 6d * ((2d - h1 / h0) * this.pairStartPower + h * h / (h0 * h1) * this.lastPower
+                + (2d - h0 / h1) * power);
+    }
+
+    /**
+     * {@inheritDoc}<br>
+     * <br>
+     * This implementation retains the first and the most recent sample of the current pair of
+     * intervals.
+     */
+    @Override
+    public MemoryFootprint getMemoryFootprint() {
+        return MemoryFootprint.ofSamples(Math.min(this.sampleCount, 2));
+    }
+
+    private void startPair(final double pointInTime, final double power) {
+        this.pairStartPointInTime = pointInTime;
+        this.pairStartPower = power;
+        this.lastPointInTime = pointInTime;
+        this.lastPower = power;
+    }
+}
@@ -1,11 +1,15 @@
 package org.palladiosimulator.simulizar.power.calculators;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 import javax.measure.Measurable;
 import javax.measure.Measure;
+import javax.measure.quantity.Duration;
 import javax.measure.quantity.Energy;
 import javax.measure.quantity.Power;
+import javax.measure.unit.SI;
 import javax.measure.unit.Unit;
 
 import org.palladiosimulator.edp2.util.MetricDescriptionUtility;
@@ -16,29 +20,40 @@ import org.palladiosimulator.measurementframework.listener.MeasurementSource;
 import org.palladiosimulator.metricspec.MetricSetDescription;
 import org.palladiosimulator.metricspec.NumericalBaseMetricDescription;
 import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
+import org.palladiosimulator.simulizar.power.instrumentation.MemoryFootprint;
 
 import de.fzi.power.interpreter.calculators.energy.AbstractCumulativeEnergyCalculator;
+import de.fzi.power.interpreter.calculators.energy.SimpsonRuleCumulativeEnergyCalculator;
 
 /**
  * Implementation of a {@link MeasurementSource} which uses power measurements provided by another
  * {@link MeasurementSource} (e.g., a {@link SimulationTimePowerCalculator}) to compute energy
  * consumptions at simulation-time.<br>
+ * Power measurements can also be passed as primitive values (see
+ * {@link IDoubleMeasurementListener}), which is how {@link SimulationTimePowerCalculator}s are
+ * usually connected to instances of this class.
  * 
  * @author Florian Rosenthal
  *
  */
-public class SimulationTimeEnergyCalculator extends MeasurementSource implements IMeasurementSourceListener {
+public class SimulationTimeEnergyCalculator extends MeasurementSource
+        implements IMeasurementSourceListener, IDoubleMeasurementListener {
 
     private static final Unit<Energy> DEFAULT_ENERGY_UNIT;
+    private static final Unit<Power> DEFAULT_POWER_UNIT;
     private static final MetricSetDescription ENERGY_CONSUMPTION_TUPLE_METRIC_DESC = MetricDescriptionConstants.CUMULATIVE_ENERGY_CONSUMPTION_TUPLE;
     private static final MetricSetDescription POWER_CONSUMPTION_TUPLE_METRIC_DESC = MetricDescriptionConstants.POWER_CONSUMPTION_TUPLE;
 
     static {
         DEFAULT_ENERGY_UNIT = MetricDescriptionUtility.getDefaultUnit(
                 (NumericalBaseMetricDescription) MetricDescriptionConstants.ENERGY_CONSUMPTION, Energy.class);
+        DEFAULT_POWER_UNIT = MetricDescriptionUtility.getDefaultUnit(
+                (NumericalBaseMetricDescription) MetricDescriptionConstants.POWER_CONSUMPTION, Power.class);
     }
 
-    private final AbstractCumulativeEnergyCalculator energyCalculator;
+    private final IEnergyIntegrator energyIntegrator;
+    private final UnitConversionCache<Power> powerConversion = new UnitConversionCache<>(DEFAULT_POWER_UNIT);
+    private final List<IDoubleMeasurementListener> doubleMeasurementListeners = new ArrayList<>();
 
     /**
      * Initializes a new instance of the {@link SimulationTimeEnergyCalculator} class with the given
@@ -49,8 +64,56 @@ public class SimulationTimeEnergyCalculator extends MeasurementSource implements
      *            the computation.
      */
     public SimulationTimeEnergyCalculator(final AbstractCumulativeEnergyCalculator energyCalculator) {
+        this(new CumulativeEnergyCalculatorAdapter(
+                Objects.requireNonNull(energyCalculator, "Given calculator must not be null."), DEFAULT_POWER_UNIT,
+                DEFAULT_ENERGY_UNIT));
+    }
+
+    /**
+     * Initializes a new instance of the {@link SimulationTimeEnergyCalculator} class which
+     * integrates the power consumptions by means of the given integrator. In contrast to an
+     * {@link AbstractCumulativeEnergyCalculator}, an integrator takes the points in time of the
+     * samples into account.
+     * 
+     * @param energyIntegrator
+     *            An {@link IEnergyIntegrator} denoting the algorithm to use for the computation.
+     * @throws NullPointerException
+     *             In case the given integrator is {@code null}.
+     */
+    public SimulationTimeEnergyCalculator(final IEnergyIntegrator energyIntegrator) {
         super(ENERGY_CONSUMPTION_TUPLE_METRIC_DESC);
-        this.energyCalculator = Objects.requireNonNull(energyCalculator, "Given calculator must not be null.");
+        this.energyIntegrator = Objects.requireNonNull(energyIntegrator, "Given integrator must not be null.");
+    }
+
+    /**
+     * Creates a {@link SimulationTimeEnergyCalculator} that integrates the power consumptions by
+     * means of the given algorithm.
+     * 
+     * @param type
+     *            The {@link EnergyIntegratorType} denoting the algorithm.
+     * @param samplingPeriod
+     *            The time between two power consumptions, which is only required by
+     *            {@link EnergyIntegratorType#INTERPRETER_SIMPSON}.
+     * @param initialOffset
+     *            The point in time of the first power consumption, which is only required by
+     *            {@link EnergyIntegratorType#INTERPRETER_SIMPSON}.
+     * @return The created calculator.
+     * @throws NullPointerException
+     *             In case the given type is {@code null}.
+     */
+    public static SimulationTimeEnergyCalculator create(final EnergyIntegratorType type,
+            final Measure<Double, Duration> samplingPeriod, final Measure<Double, Duration> initialOffset) {
+        switch (Objects.requireNonNull(type, "Given integrator type must not be null.")) {
+        case TRAPEZOID:
+            return new SimulationTimeEnergyCalculator(new TrapezoidEnergyIntegrator(0d));
+        case SIMPSON:
+            return new SimulationTimeEnergyCalculator(new SimpsonEnergyIntegrator(0d));
+        case INTERPRETER_SIMPSON:
+            return new SimulationTimeEnergyCalculator(
+                    new SimpsonRuleCumulativeEnergyCalculator(samplingPeriod, initialOffset));
+        default:
+            throw new IllegalArgumentException("Unknown energy integrator: " + type);
+        }
     }
 
     private void informListeners(final TupleMeasurement newEnergyMeasurement) {
@@ -67,15 +130,67 @@ public class SimulationTimeEnergyCalculator extends MeasurementSource implements
         }
         Measurable<Power> powerSample = newInputMeasurement
                 .getMeasureForMetric(MetricDescriptionConstants.POWER_CONSUMPTION);
-        Measurable<Energy> energySample = this.energyCalculator.calculateNext(powerSample);
-        Measure<?, ?> energyMeasure = Measure.valueOf(energySample.doubleValue(DEFAULT_ENERGY_UNIT),
-                DEFAULT_ENERGY_UNIT);
-        Measure<?, ?> pointInTimeMeasure = newInputMeasurement
+        Measure<Double, Duration> pointInTimeMeasure = newInputMeasurement
                 .getMeasureForMetric(MetricDescriptionConstants.POINT_IN_TIME_METRIC);
+        newMeasurementAvailable(pointInTimeMeasure.doubleValue(SI.SECOND),
+                this.powerConversion.toTargetUnit(powerSample));
+    }
+
+    /**
+     * {@inheritDoc}<br>
+     * <br>
+     * This implementation is the primitive counterpart of
+     * {@link #newMeasurementAvailable(MeasuringValue)}: the given power consumption (in {@code W})
+     * is used to compute the new cumulative energy consumption, which is then forwarded to all
+     * attached listeners. A {@link TupleMeasurement} is only created if
+     * {@link IMeasurementSourceListener}s are attached.
+     */
+    @Override
+    public void newMeasurementAvailable(final double pointInTime, final double power) {
+        double energy = this.energyIntegrator.addSample(pointInTime, power);
+
+        for (int i = 0; i < this.doubleMeasurementListeners.size(); ++i) {
+            this.doubleMeasurementListeners.get(i).newMeasurementAvailable(pointInTime, energy);
+        }
+        if (!getMeasurementSourceListeners().isEmpty()) {
+            TupleMeasurement newEnergyMeasurement = new TupleMeasurement(ENERGY_CONSUMPTION_TUPLE_METRIC_DESC,
+                    Measure.valueOf(pointInTime, SI.SECOND), Measure.valueOf(energy, DEFAULT_ENERGY_UNIT));
+            informListeners(newEnergyMeasurement);
+        }
+    }
 
-        TupleMeasurement newEnergyMeasurement = new TupleMeasurement(ENERGY_CONSUMPTION_TUPLE_METRIC_DESC,
-                pointInTimeMeasure, energyMeasure);
-        informListeners(newEnergyMeasurement);
+    /**
+     * Gets the data currently retained by this calculator, which is the data retained by its
+     * integration algorithm.
+     * 
+     * @return The {@link MemoryFootprint} of this calculator.
+     * @see IEnergyIntegrator#getMemoryFootprint()
+     */
+    public MemoryFootprint getMemoryFootprint() {
+        return this.energyIntegrator.getMemoryFootprint();
+    }
+
+    /**
+     * Attaches the given listener, which is henceforth passed each new cumulative energy
+     * consumption measurement as primitive values in {@code J}.
+     * 
+     * @param listener
+     *            The {@link IDoubleMeasurementListener} to attach.
+     * @throws NullPointerException
+     *             In case the given listener is {@code null}.
+     */
+    public void addDoubleMeasurementListener(final IDoubleMeasurementListener listener) {
+        this.doubleMeasurementListeners.add(Objects.requireNonNull(listener, "Given listener must not be null."));
+    }
+
+    /**
+     * Detaches the given listener.
+     * 
+     * @param listener
+     *            The {@link IDoubleMeasurementListener} to detach.
+     */
+    public void removeDoubleMeasurementListener(final IDoubleMeasurementListener listener) {
+        this.doubleMeasurementListeners.remove(listener);
     }
 
     @Override
@@ -84,5 +199,9 @@ public class SimulationTimeEnergyCalculator extends MeasurementSource implements
             listener.preUnregister();
             super.removeObserver(listener);
         }
+        for (int i = 0; i < this.doubleMeasurementListeners.size(); ++i) {
+            this.doubleMeasurementListeners.get(i).preUnregister();
+        }
+        this.doubleMeasurementListeners.clear();
     }
 }
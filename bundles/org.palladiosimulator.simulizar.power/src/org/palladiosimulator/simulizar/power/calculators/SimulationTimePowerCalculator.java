@@ -1,10 +1,14 @@
 package org.palladiosimulator.simulizar.power.calculators;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
 
 import javax.measure.Measurable;
 import javax.measure.Measure;
 import javax.measure.quantity.Power;
+import javax.measure.unit.SI;
 import javax.measure.unit.Unit;
 
 import org.palladiosimulator.edp2.util.MetricDescriptionUtility;
@@ -16,8 +20,11 @@ import org.palladiosimulator.metricspec.NumericalBaseMetricDescription;
 import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
 import org.palladiosimulator.simulizar.power.evaluationscope.ISimulationEvaluationScopeListener;
 import org.palladiosimulator.simulizar.power.evaluationscope.SimulationTimeEvaluationScope;
+import org.palladiosimulator.simulizar.power.evaluationscope.TopologyIndex;
+import org.palladiosimulator.simulizar.power.instrumentation.MemoryFootprint;
 
 import de.fzi.power.infrastructure.PowerProvidingEntity;
+import de.fzi.power.infrastructure.StatefulPowerConsumingResource;
 import de.fzi.power.interpreter.ConsumptionContext;
 import de.fzi.power.interpreter.PowerConsumptionSwitch;
 
@@ -39,9 +46,16 @@ public class SimulationTimePowerCalculator extends MeasurementSource implements
                 (NumericalBaseMetricDescription) MetricDescriptionConstants.POWER_CONSUMPTION, Power.class);
     }
 
-    private final PowerConsumptionSwitch consumptionSwitch;
+    private final Function<PowerProvidingEntity, Measurable<Power>> consumptionEvaluator;
     private final SimulationTimeEvaluationScope scope;
     private final PowerProvidingEntity ppe;
+    private Measurable<Power> currentConsumption;
+    private double currentPointInTime = Double.NaN;
+    private final UnitConversionCache<Power> powerConversion = new UnitConversionCache<>(DEFAULT_POWER_UNIT);
+    private final List<IDoubleMeasurementListener> doubleMeasurementListeners = new ArrayList<>();
+    private UtilizationChangeDetector changeDetector;
+    private long cacheHits;
+    private long cacheMisses;
 
     /**
      * Initializes a new instance of the {@link SimulationTimePowerCalculator} class with the given
@@ -58,11 +72,32 @@ public class SimulationTimePowerCalculator extends MeasurementSource implements
      */
     public SimulationTimePowerCalculator(final ConsumptionContext consumptionContext,
             final SimulationTimeEvaluationScope scope, final PowerProvidingEntity ppe) {
+        this(scope, ppe, PowerConsumptionSwitch.createPowerConsumptionSwitch(
+                Objects.requireNonNull(consumptionContext, "Given ConsumptionContext instance must not be null."))::doSwitch);
+    }
+
+    /**
+     * Initializes a new instance of the {@link SimulationTimePowerCalculator} class which uses the
+     * given function instead of a {@link PowerConsumptionSwitch} to evaluate the power consumption
+     * of the entity.
+     * 
+     * @param scope
+     *            The {@link SimulationTimeEvaluationScope} this instance will observe.
+     * @param ppe
+     *            The {@link PowerProvidingEntity} whose consumption is to be calculated.
+     * @param consumptionEvaluator
+     *            A {@link Function} that yields the current consumption of the entity once the scope
+     *            has been advanced.
+     * @throws NullPointerException
+     *             In case any of the arguments is {@code null}.
+     */
+    public SimulationTimePowerCalculator(final SimulationTimeEvaluationScope scope, final PowerProvidingEntity ppe,
+            final Function<PowerProvidingEntity, Measurable<Power>> consumptionEvaluator) {
         super(POWER_CONSUMPTION_TUPLE_METRIC_DESC);
 
         this.scope = Objects.requireNonNull(scope, "Given SimulationTimeEvaluationScope instance must not be null.");
-        this.consumptionSwitch = PowerConsumptionSwitch.createPowerConsumptionSwitch(
-                Objects.requireNonNull(consumptionContext, "Given ConsumptionContext instance must not be null."));
+        this.consumptionEvaluator = Objects.requireNonNull(consumptionEvaluator,
+                "Given consumption evaluator must not be null.");
         this.ppe = Objects.requireNonNull(ppe, "Given PowerProvidingEntity instance must not be null.");
     }
 
@@ -74,18 +109,174 @@ public class SimulationTimePowerCalculator extends MeasurementSource implements
      */
     @Override
     public void newElementAvailable() {
+        evaluate();
+        publish();
+    }
+
+    /**
+     * Advances the evaluation scope and evaluates the power consumption for the new measurement,
+     * without forwarding it to the attached listeners yet. The point in time of the measurement is
+     * kept along with the consumption, as the scope may move on before the consumption is
+     * published.
+     * 
+     * @see #publish()
+     * @see #getCurrentConsumption()
+     */
+    void evaluate() {
         if (this.scope.hasNext()) {
             this.scope.next();
-            Measurable<Power> calculatedConsumption = this.consumptionSwitch.doSwitch(this.ppe);
-            TupleMeasurement newPowerMeasurement = new TupleMeasurement(POWER_CONSUMPTION_TUPLE_METRIC_DESC,
-                    this.scope.getCurrentPointInTime(),
-                    Measure.valueOf(calculatedConsumption.doubleValue(DEFAULT_POWER_UNIT), DEFAULT_POWER_UNIT));
-            informListeners(newPowerMeasurement);
+            this.currentPointInTime = this.scope.getCurrentPointInTimeInSeconds();
+            if (this.changeDetector != null && this.currentConsumption != null
+                    && this.changeDetector.isUnchanged(this.scope)) {
+                ++this.cacheHits;
+            } else {
+                ++this.cacheMisses;
+                this.currentConsumption = this.consumptionEvaluator.apply(this.ppe);
+            }
         } else {
             throw new IllegalStateException("Calculator was informed by scope that new measurement "
                     + "would be available but scope.hasNext() yields false");
         }
+    }
+
+    /**
+     * Forwards the most recently evaluated power consumption to all attached listeners. A
+     * {@link TupleMeasurement} is only created if {@link IMeasurementSourceListener}s are attached;
+     * {@link IDoubleMeasurementListener}s receive the primitive values.
+     * 
+     * @see #evaluate()
+     */
+    void publish() {
+        double pointInTime = this.currentPointInTime;
+        double consumption = this.powerConversion.toTargetUnit(this.currentConsumption);
+        for (int i = 0; i < this.doubleMeasurementListeners.size(); ++i) {
+            this.doubleMeasurementListeners.get(i).newMeasurementAvailable(pointInTime, consumption);
+        }
+        if (!getMeasurementSourceListeners().isEmpty()) {
+            TupleMeasurement newPowerMeasurement = new TupleMeasurement(POWER_CONSUMPTION_TUPLE_METRIC_DESC,
+                    Measure.valueOf(pointInTime, SI.SECOND), Measure.valueOf(consumption, DEFAULT_POWER_UNIT));
+            informListeners(newPowerMeasurement);
+        }
+    }
+
+    /**
+     * Attaches the given listener, which is henceforth passed each new power consumption
+     * measurement as primitive values in {@code W}.
+     * 
+     * @param listener
+     *            The {@link IDoubleMeasurementListener} to attach.
+     * @throws NullPointerException
+     *             In case the given listener is {@code null}.
+     */
+    public void addDoubleMeasurementListener(final IDoubleMeasurementListener listener) {
+        this.doubleMeasurementListeners.add(Objects.requireNonNull(listener, "Given listener must not be null."));
+    }
+
+    /**
+     * Detaches the given listener.
+     * 
+     * @param listener
+     *            The {@link IDoubleMeasurementListener} to detach.
+     */
+    public void removeDoubleMeasurementListener(final IDoubleMeasurementListener listener) {
+        this.doubleMeasurementListeners.remove(listener);
+    }
+
+    /**
+     * Enables the reuse of the most recently evaluated power consumption for as long as the
+     * utilizations delivered by the scope do not change. This is only possible if the consumption
+     * of the entity is a function of the utilizations alone; if its subtree contains
+     * {@link StatefulPowerConsumingResource}s, as looked up in the given {@link TopologyIndex},
+     * whose consumption also depends on the simulation time, the consumption is evaluated anew in
+     * every round.
+     * 
+     * @param epsilon
+     *            The maximum absolute difference per resource up to which utilizations are
+     *            considered unchanged. With {@code 0}, they have to be bitwise equal.
+     * @param topologyIndex
+     *            The {@link TopologyIndex} of the infrastructure models of the current simulation
+     *            run.
+     * @return {@code true} if change detection has been enabled, {@code false} if the entity's
+     *         consumption has to be evaluated in every round.
+     * @throws IllegalArgumentException
+     *             In case the given epsilon is negative or not a number.
+     * @throws NullPointerException
+     *             In case the given index is {@code null}.
+     * @see #getCacheHitCount()
+     * @see #getCacheMissCount()
+     */
+    public boolean enableChangeDetection(final double epsilon, final TopologyIndex topologyIndex) {
+        if (!(epsilon >= 0)) {
+            throw new IllegalArgumentException("Given epsilon must be non-negative.");
+        }
+        if (Objects.requireNonNull(topologyIndex, "Given TopologyIndex must not be null.").isStateful(this.ppe)) {
+            return false;
+        }
+        this.changeDetector = new UtilizationChangeDetector(epsilon);
+        return true;
+    }
+
+    /**
+     * Gets the number of rounds in which the previously evaluated power consumption has been
+     * reused, as the utilizations had not changed.
+     * 
+     * @return The number of cache hits so far.
+     * @see #enableChangeDetection(double, TopologyIndex)
+     */
+    public long getCacheHitCount() {
+        return this.cacheHits;
+    }
+
+    /**
+     * Gets the number of rounds in which the power consumption has been evaluated.
+     * 
+     * @return The number of cache misses so far, which equals the number of evaluations.
+     * @see #enableChangeDetection(double, TopologyIndex)
+     */
+    public long getCacheMissCount() {
+        return this.cacheMisses;
+    }
 
+    /**
+     * Gets the data currently retained by this calculator, i.e., the most recently evaluated power
+     * consumption and, if change detection is enabled, the utilizations it was evaluated for. The
+     * data retained by the observed scope is not included.
+     * 
+     * @return The {@link MemoryFootprint} of this calculator.
+     * @see SimulationTimeEvaluationScope#getMemoryFootprint()
+     */
+    public MemoryFootprint getMemoryFootprint() {
+        MemoryFootprint footprint = MemoryFootprint.ofMeasurements(this.currentConsumption == null ? 0 : 1);
+        return this.changeDetector == null ? footprint
+                : footprint.plus(new MemoryFootprint(0, this.changeDetector.getEstimatedBytes()));
+    }
+
+    /**
+     * Gets the most recently evaluated power consumption.
+     * 
+     * @return The power consumption of the entity in the current tick, or {@code null} if nothing
+     *         has been evaluated yet.
+     */
+    Measurable<Power> getCurrentConsumption() {
+        return this.currentConsumption;
+    }
+
+    /**
+     * Gets the entity whose power consumption is calculated.
+     * 
+     * @return The observed {@link PowerProvidingEntity}.
+     */
+    PowerProvidingEntity getPowerProvidingEntity() {
+        return this.ppe;
+    }
+
+    /**
+     * Gets the evaluation scope this calculator obtains its measurements from.
+     * 
+     * @return The observed {@link SimulationTimeEvaluationScope}.
+     */
+    SimulationTimeEvaluationScope getScope() {
+        return this.scope;
     }
 
     private void informListeners(final TupleMeasurement newPowerMeasurement) {
@@ -101,5 +292,9 @@ public class SimulationTimePowerCalculator extends MeasurementSource implements
             listener.preUnregister();
             super.removeObserver(listener);
         }
+        for (int i = 0; i < this.doubleMeasurementListeners.size(); ++i) {
+            this.doubleMeasurementListeners.get(i).preUnregister();
+        }
+        this.doubleMeasurementListeners.clear();
     }
 }
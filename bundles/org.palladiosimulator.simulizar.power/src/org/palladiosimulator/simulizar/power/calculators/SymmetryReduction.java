@@ -0,0 +1,276 @@
+package org.palladiosimulator.simulizar.power.calculators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import javax.measure.Measurable;
+import javax.measure.quantity.Power;
+
+import org.palladiosimulator.pcm.resourceenvironment.ProcessingResourceSpecification;
+import org.palladiosimulator.simulizar.power.evaluationscope.SimulationTimeEvaluationScope;
+import org.palladiosimulator.simulizar.power.evaluationscope.TopologyIndex;
+import org.palladiosimulator.simulizar.power.instrumentation.MemoryFootprint;
+
+import de.fzi.power.infrastructure.PowerConsumingEntity;
+import de.fzi.power.infrastructure.PowerConsumingResource;
+import de.fzi.power.infrastructure.PowerProvidingEntity;
+
+/**
+ * Groups monitored {@link PowerProvidingEntity}s with structurally identical power model bindings,
+ * e.g., the identical servers of a rack, so that the consumption of a group is evaluated once per
+ * distinct utilization vector and point in time.<br>
+ * Two entities belong to the same group if their subtrees have the same shape and each of their
+ * entities is bound to the same power model binding, and if the resources at the same position of
+ * the subtrees are evaluated in the same slot of the respective scope. Given equal utilizations at
+ * the same point in time, the members of a group thus yield identical consumptions: the first
+ * member that is evaluated for a utilization vector evaluates it, the others reuse its result.
+ * Entities whose subtrees contain {@link de.fzi.power.infrastructure.StatefulPowerConsumingResource}s
+ * are not grouped, as their consumption also depends on their history.<br>
+ * Entities are grouped while the calculators are set up, i.e., before the simulation starts. The
+ * consumptions of a group are only kept for the point in time of its most recent evaluation, hence
+ * at most one per member. Groups may be evaluated by several threads.<br>
+ * If verification is enabled, each reused consumption is checked against the evaluation of the
+ * reusing member, which defeats the reduction and is meant for testing only.
+ */
+public final class SymmetryReduction {
+
+    private final TopologyIndex topologyIndex;
+    private final boolean verified;
+    private final Map<List<Object>, Group> groups = new LinkedHashMap<>();
+    private int entityCount;
+
+    /**
+     * Initializes a new instance of the {@link SymmetryReduction} class, which does not verify the
+     * reused consumptions.
+     *
+     * @param topologyIndex
+     *            The {@link TopologyIndex} of the infrastructure models of the current simulation
+     *            run, which tells the entities with stateful resources apart.
+     * @throws NullPointerException
+     *             In case the given index is {@code null}.
+     */
+    public SymmetryReduction(final TopologyIndex topologyIndex) {
+        this(topologyIndex, false);
+    }
+
+    /**
+     * Initializes a new instance of the {@link SymmetryReduction} class.
+     *
+     * @param topologyIndex
+     *            The {@link TopologyIndex} of the infrastructure models of the current simulation
+     *            run, which tells the entities with stateful resources apart.
+     * @param verified
+     *            Indicates whether each reused consumption shall be checked against the evaluation
+     *            of the reusing member.
+     * @throws NullPointerException
+     *             In case the given index is {@code null}.
+     */
+    public SymmetryReduction(final TopologyIndex topologyIndex, final boolean verified) {
+        this.topologyIndex = Objects.requireNonNull(topologyIndex, "Given TopologyIndex must not be null.");
+        this.verified = verified;
+    }
+
+    /**
+     * Adds the given entity to the group of its structure and returns the evaluation of its
+     * consumption within the group.
+     *
+     * @param ppe
+     *            The {@link PowerProvidingEntity} whose consumption is to be evaluated.
+     * @param scope
+     *            The {@link SimulationTimeEvaluationScope} of the entity.
+     * @param evaluation
+     *            The {@link Function} that evaluates the consumption of the entity, e.g., by means
+     *            of a {@link CompiledPowerEvaluator}.
+     * @return A {@link Function} that reuses the consumption of another member of the group, if
+     *         evaluated for the same utilizations and point in time, and otherwise delegates to the
+     *         given evaluation. For entities that are not grouped, the given evaluation is returned.
+     *         If verification is enabled, the returned {@code Function} throws an
+     *         {@link IllegalStateException} in case a reused consumption deviates from the
+     *         evaluation of the entity.
+     * @throws NullPointerException
+     *             In case any of the arguments is {@code null}.
+     */
+    public Function<PowerProvidingEntity, Measurable<Power>> share(final PowerProvidingEntity ppe,
+            final SimulationTimeEvaluationScope scope,
+            final Function<PowerProvidingEntity, Measurable<Power>> evaluation) {
+        Objects.requireNonNull(ppe, "Given PowerProvidingEntity must not be null.");
+        Objects.requireNonNull(scope, "Given SimulationTimeEvaluationScope must not be null.");
+        Objects.requireNonNull(evaluation, "Given evaluation must not be null.");
+
+        ++this.entityCount;
+        if (this.topologyIndex.isStateful(ppe)) {
+            return evaluation;
+        }
+        List<Object> signature = new ArrayList<>();
+        signature.add(scope.getResourceCount());
+        addSignature(ppe, scope, signature);
+        Group group = this.groups.computeIfAbsent(signature, key -> new Group(this.verified));
+        ++group.size;
+        return entity -> group.evaluate(entity, scope, evaluation);
+    }
+
+    private static void addSignature(final PowerConsumingEntity entity, final SimulationTimeEvaluationScope scope,
+            final List<Object> signature) {
+        // bindings are compared by identity, as identical entities refer to the same bindings
+        signature.add(entity.eClass());
+        if (entity instanceof PowerProvidingEntity) {
+            PowerProvidingEntity ppe = (PowerProvidingEntity) entity;
+            List<PowerConsumingEntity> nestedEntities = ppe.getNestedPowerConsumingEntities();
+            signature.add(ppe.getDistributionPowerAssemblyContext());
+            signature.add(nestedEntities.size());
+            for (PowerConsumingEntity nestedEntity : nestedEntities) {
+                addSignature(nestedEntity, scope, signature);
+            }
+        } else if (entity instanceof PowerConsumingResource) {
+            PowerConsumingResource resource = (PowerConsumingResource) entity;
+            ProcessingResourceSpecification spec = resource.getProcessingResourceSpecification();
+            signature.add(resource.getResourcePowerAssemblyContext());
+            signature.add(spec == null ? -1 : scope.getSlot(spec));
+        }
+    }
+
+    /**
+     * Gets the grouping of the entities and the number of evaluations so far.
+     *
+     * @return The {@link SymmetryReductionStatistics}.
+     */
+    public SymmetryReductionStatistics getStatistics() {
+        int groupCount = 0;
+        int groupedEntityCount = 0;
+        int largestGroupSize = 0;
+        long evaluationCount = 0;
+        long sharedEvaluationCount = 0;
+        long verifiedEvaluationCount = 0;
+        for (Group group : this.groups.values()) {
+            if (group.size > 1) {
+                ++groupCount;
+                groupedEntityCount += group.size;
+                largestGroupSize = Math.max(largestGroupSize, group.size);
+                synchronized (group) {
+                    evaluationCount += group.evaluationCount;
+                    sharedEvaluationCount += group.sharedEvaluationCount;
+                    verifiedEvaluationCount += group.verifiedEvaluationCount;
+                }
+            }
+        }
+        return new SymmetryReductionStatistics(this.entityCount, groupCount, groupedEntityCount, largestGroupSize,
+                evaluationCount, sharedEvaluationCount, verifiedEvaluationCount);
+    }
+
+    /**
+     * Gets the data retained by the groups, i.e., the consumptions of their most recent point in
+     * time along with the utilization vectors they were evaluated for.
+     *
+     * @return The {@link MemoryFootprint} of the groups.
+     */
+    public MemoryFootprint getMemoryFootprint() {
+        long consumptionCount = 0;
+        long utilizationBytes = 0;
+        for (Group group : this.groups.values()) {
+            synchronized (group) {
+                for (UtilizationVector utilizations : group.consumptions.keySet()) {
+                    ++consumptionCount;
+                    utilizationBytes += (long) Double.BYTES * utilizations.values.length;
+                }
+            }
+        }
+        return MemoryFootprint.ofMeasurements(consumptionCount).plus(new MemoryFootprint(0, utilizationBytes));
+    }
+
+    @Override
+    public String toString() {
+        return "SymmetryReduction " + getStatistics();
+    }
+
+    /**
+     * Entities with identical power model bindings along with the consumptions evaluated for their
+     * most recent point in time.
+     */
+    private static final class Group {
+        private final Map<UtilizationVector, Measurable<Power>> consumptions = new HashMap<>();
+        private final boolean verified;
+        private double pointInTime = Double.NaN;
+        private int size;
+        private long evaluationCount;
+        private long sharedEvaluationCount;
+        private long verifiedEvaluationCount;
+
+        private Group(final boolean verified) {
+            this.verified = verified;
+        }
+
+        private Measurable<Power> evaluate(final PowerProvidingEntity ppe, final SimulationTimeEvaluationScope scope,
+                final Function<PowerProvidingEntity, Measurable<Power>> evaluation) {
+            if (this.size == 1) {
+                return evaluation.apply(ppe);
+            }
+            UtilizationVector utilizations = new UtilizationVector(scope);
+            double currentPointInTime = scope.getCurrentPointInTimeInSeconds();
+            Measurable<Power> sharedConsumption = null;
+            synchronized (this) {
+                if (Double.compare(currentPointInTime, this.pointInTime) != 0) {
+                    // the consumptions of previous points in time are not reused
+                    this.consumptions.clear();
+                    this.pointInTime = currentPointInTime;
+                } else {
+                    sharedConsumption = this.consumptions.get(utilizations);
+                    if (sharedConsumption != null) {
+                        ++this.sharedEvaluationCount;
+                        if (!this.verified) {
+                            return sharedConsumption;
+                        }
+                    }
+                }
+            }
+            if (sharedConsumption != null) {
+                // the reused consumption must equal the one of the member itself
+                CompiledPowerEvaluator.checkEqual(ppe, sharedConsumption, evaluation.apply(ppe));
+                synchronized (this) {
+                    ++this.verifiedEvaluationCount;
+                }
+                return sharedConsumption;
+            }
+            // members of a group may be evaluated in parallel, hence not within the lock
+            Measurable<Power> consumption = evaluation.apply(ppe);
+            synchronized (this) {
+                ++this.evaluationCount;
+                if (Double.compare(currentPointInTime, this.pointInTime) == 0) {
+                    this.consumptions.putIfAbsent(utilizations, consumption);
+                }
+            }
+            return consumption;
+        }
+    }
+
+    /**
+     * Utilizations of the current round of a scope, which are equal if they are bitwise equal.
+     */
+    private static final class UtilizationVector {
+        private final double[] values;
+        private final int hashCode;
+
+        private UtilizationVector(final SimulationTimeEvaluationScope scope) {
+            this.values = new double[scope.getResourceCount()];
+            for (int slot = 0; slot < this.values.length; ++slot) {
+                this.values[slot] = scope.getCurrentUtilization(slot);
+            }
+            this.hashCode = Arrays.hashCode(this.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof UtilizationVector && Arrays.equals(this.values, ((UtilizationVector) obj).values);
+        }
+    }
+}
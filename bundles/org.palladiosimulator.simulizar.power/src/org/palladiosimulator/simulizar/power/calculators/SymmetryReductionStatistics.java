@@ -0,0 +1,156 @@
+package org.palladiosimulator.simulizar.power.calculators;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * Immutable snapshot of the grouping of the monitored entities by a {@link SymmetryReduction} and
+ * of the evaluations of the grouped entities.<br>
+ * The statistics of a run are published once the simulation has stopped by attaching them to the
+ * resource set of the PCM models, whether or not the run is instrumented.
+ */
+public final class SymmetryReductionStatistics {
+
+    /**
+     * This constant denotes the statistics of a run without symmetry reduction.
+     */
+    public static final SymmetryReductionStatistics EMPTY = new SymmetryReductionStatistics(0, 0, 0, 0, 0, 0, 0);
+
+    private final int entityCount;
+    private final int groupCount;
+    private final int groupedEntityCount;
+    private final int largestGroupSize;
+    private final long evaluationCount;
+    private final long sharedEvaluationCount;
+    private final long verifiedEvaluationCount;
+
+    SymmetryReductionStatistics(final int entityCount, final int groupCount, final int groupedEntityCount,
+            final int largestGroupSize, final long evaluationCount, final long sharedEvaluationCount,
+            final long verifiedEvaluationCount) {
+        this.entityCount = entityCount;
+        this.groupCount = groupCount;
+        this.groupedEntityCount = groupedEntityCount;
+        this.largestGroupSize = largestGroupSize;
+        this.evaluationCount = evaluationCount;
+        this.sharedEvaluationCount = sharedEvaluationCount;
+        this.verifiedEvaluationCount = verifiedEvaluationCount;
+    }
+
+    /**
+     * Gets the statistics that have been attached to the given resource set.
+     *
+     * @param resourceSet
+     *            The {@link ResourceSet} of the PCM models of a run.
+     * @return The attached {@link SymmetryReductionStatistics}, or {@link #EMPTY} if none are
+     *         attached.
+     * @see #attachTo(ResourceSet)
+     */
+    public static SymmetryReductionStatistics of(final ResourceSet resourceSet) {
+        Adapter adapter = EcoreUtil.getExistingAdapter(resourceSet, SymmetryReductionStatistics.class);
+        return adapter == null ? EMPTY : ((StatisticsAdapter) adapter).statistics;
+    }
+
+    /**
+     * Attaches these statistics to the given resource set, replacing previously attached ones.
+     *
+     * @param resourceSet
+     *            The {@link ResourceSet} of the PCM models of the run.
+     * @see #of(ResourceSet)
+     */
+    public void attachTo(final ResourceSet resourceSet) {
+        resourceSet.eAdapters().removeIf(adapter -> adapter.isAdapterForType(SymmetryReductionStatistics.class));
+        resourceSet.eAdapters().add(new StatisticsAdapter(this));
+    }
+
+    /**
+     * Gets the number of monitored entities.
+     *
+     * @return The number of entities, whether grouped or not.
+     */
+    public int getEntityCount() {
+        return this.entityCount;
+    }
+
+    /**
+     * Gets the number of groups, i.e., of sets of at least two entities with identical power model
+     * bindings.
+     *
+     * @return The number of groups.
+     */
+    public int getGroupCount() {
+        return this.groupCount;
+    }
+
+    /**
+     * Gets the number of entities that belong to a group.
+     *
+     * @return The number of grouped entities.
+     */
+    public int getGroupedEntityCount() {
+        return this.groupedEntityCount;
+    }
+
+    /**
+     * Gets the number of entities of the largest group.
+     *
+     * @return The size of the largest group, or {@code 0} if there are no groups.
+     */
+    public int getLargestGroupSize() {
+        return this.largestGroupSize;
+    }
+
+    /**
+     * Gets the number of consumptions that have been evaluated for grouped entities.
+     *
+     * @return The number of evaluations.
+     */
+    public long getEvaluationCount() {
+        return this.evaluationCount;
+    }
+
+    /**
+     * Gets the number of consumptions of grouped entities that have been reused from another
+     * member of the group instead of being evaluated.
+     *
+     * @return The number of shared evaluations.
+     */
+    public long getSharedEvaluationCount() {
+        return this.sharedEvaluationCount;
+    }
+
+    /**
+     * Gets the number of reused consumptions that have been checked against the evaluation of the
+     * reusing member, which is only done if evaluations are verified.
+     *
+     * @return The number of verified shared evaluations.
+     */
+    public long getVerifiedEvaluationCount() {
+        return this.verifiedEvaluationCount;
+    }
+
+    @Override
+    public String toString() {
+        return "SymmetryReductionStatistics [entities=" + this.entityCount + ", groups=" + this.groupCount
+                + ", grouped=" + this.groupedEntityCount + ", largest=" + this.largestGroupSize + ", evaluations="
+                + this.evaluationCount + ", shared=" + this.sharedEvaluationCount + ", verified="
+                + this.verifiedEvaluationCount + "]";
+    }
+
+    /**
+     * {@link Adapter} by means of which the statistics are attached to a resource set.
+     */
+    private static final class StatisticsAdapter extends AdapterImpl {
+        private final SymmetryReductionStatistics statistics;
+
+        private StatisticsAdapter(final SymmetryReductionStatistics statistics) {
+            this.statistics = statistics;
+        }
+
+        @Override
+        public boolean isAdapterForType(final Object type) {
+            return type == SymmetryReductionStatistics.class;
+        }
+    }
+}
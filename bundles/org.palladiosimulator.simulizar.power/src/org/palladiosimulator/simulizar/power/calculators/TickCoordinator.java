@@ -0,0 +1,285 @@
+package org.palladiosimulator.simulizar.power.calculators;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.palladiosimulator.simulizar.power.evaluationscope.ISimulationEvaluationScopeListener;
+import org.palladiosimulator.simulizar.power.evaluationscope.SimulationTimeEvaluationScope;
+
+/**
+ * Coordinates the evaluation of {@link SimulationTimePowerCalculator}s whose scopes complete their
+ * rounds at the same points in simulation time.<br>
+ * Registered calculators are not evaluated as soon as their scope has completed a round. Instead,
+ * the coordinator waits until the rounds of all registered calculators have been completed for the
+ * current point in time, evaluates the calculators bottom-up along the infrastructure tree, and
+ * afterwards forwards all new consumptions to the listeners in registration order. The recorded
+ * output is thus independent of the order in which the scopes complete their rounds. If the scope
+ * of a calculator completes its next round before the rounds of the current point in time are
+ * complete, the current point in time is evaluated without the missing rounds. Each scope holds
+ * back the round it has completed last (cf.
+ * {@link SimulationTimeEvaluationScope#holdCurrentRound()}), so that each calculator is evaluated
+ * exactly once per point in time, on the measurements of that point in time.<br>
+ * If a {@link ForkJoinPool} is given, calculators are evaluated in parallel, level by level: the
+ * calculators of all entities of equal depth in the infrastructure tree are evaluated
+ * concurrently, and the next level up is only evaluated once they are done. The evaluation of an
+ * entity invokes the power model calculators of all entities in its subtree, which are registered
+ * per entity and may keep state (e.g., those of stateful resources). Entities of equal depth are
+ * not nested in one another, hence their subtrees are disjoint and their evaluations invoke
+ * distinct power model calculators and {@link de.fzi.power.interpreter.ConsumptionContext}s, each
+ * of which belongs to one calculator and its scope. What they share, i.e., the infrastructure
+ * model, the bindings and the power model registry, has been set up before the simulation starts.
+ * As resolving a proxy modifies the model that refers to it, the coordinator resolves all proxies
+ * in the resources of the registered entities and, transitively, in the resources these refer to
+ * on the calling thread before the first parallel evaluation. The shared models are thus only read
+ * by the evaluations, which is safe from several threads. The calculators of nested entities, which
+ * do invoke the same power model calculators, are never evaluated concurrently. Listeners are
+ * always notified on the calling thread.
+ */
+public final class TickCoordinator {
+
+    private final ForkJoinPool pool;
+    private final List<Member> members = new ArrayList<>();
+    private final Map<SimulationTimePowerCalculator, Member> membersByCalculator = new IdentityHashMap<>();
+    private List<List<Member>> evaluationLevels;
+    private int arrivedRounds;
+
+    /**
+     * Initializes a new instance of the {@link TickCoordinator} class which evaluates all
+     * calculators on the calling thread.
+     */
+    public TickCoordinator() {
+        this.pool = null;
+    }
+
+    /**
+     * Initializes a new instance of the {@link TickCoordinator} class which evaluates independent
+     * calculators in parallel.
+     *
+     * @param pool
+     *            The {@link ForkJoinPool} to evaluate the calculators on.
+     * @throws NullPointerException
+     *             In case the given pool is {@code null}.
+     */
+    public TickCoordinator(final ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool, "Given ForkJoinPool must not be null.");
+    }
+
+    /**
+     * Registers the given calculator at this coordinator. In turn, the coordinator observes the
+     * scope of the calculator; the calculator must thus not be attached to its scope itself.
+     *
+     * @param calculator
+     *            The {@link SimulationTimePowerCalculator} to register.
+     * @throws IllegalArgumentException
+     *             In case the calculator is already registered.
+     */
+    public void register(final SimulationTimePowerCalculator calculator) {
+        if (this.membersByCalculator.containsKey(calculator)) {
+            throw new IllegalArgumentException("Given calculator is already registered.");
+        }
+        Member member = new Member(calculator);
+        this.members.add(member);
+        this.membersByCalculator.put(calculator, member);
+        this.evaluationLevels = null;
+        calculator.getScope().addListener(member);
+    }
+
+    /**
+     * Indicates whether the given calculator has already been evaluated for the current point in
+     * time. As calculators are evaluated bottom-up, this holds for all registered calculators of
+     * entities nested in the entity that is currently evaluated, provided their scope has completed
+     * its round.
+     *
+     * @param calculator
+     *            A {@link SimulationTimePowerCalculator}.
+     * @return {@code true} if the calculator is registered and has been evaluated for the current
+     *         point in time, {@code false} otherwise.
+     */
+    boolean isEvaluated(final SimulationTimePowerCalculator calculator) {
+        Member member = this.membersByCalculator.get(calculator);
+        return member != null && member.evaluated;
+    }
+
+    /**
+     * Evaluates and publishes the rounds that have been completed so far. This has to be invoked
+     * once the simulation has stopped, as the rounds of the last point in time may be incomplete.
+     */
+    public void flush() {
+        if (this.arrivedRounds > 0) {
+            processArrivedRounds();
+        }
+    }
+
+    private void roundCompleted(final Member member) {
+        if (member.arrived) {
+            // the previous point in time is over although not all scopes have completed their
+            // round; the scope of the member has already moved on, but held back its round
+            member.superseded = true;
+            processArrivedRounds();
+        }
+        member.arrived = true;
+        member.calculator.getScope().holdCurrentRound();
+        if (++this.arrivedRounds == this.members.size()) {
+            processArrivedRounds();
+        }
+    }
+
+    private void processArrivedRounds() {
+        for (List<Member> level : getEvaluationLevels()) {
+            if (this.pool == null || level.size() == 1) {
+                level.forEach(TickCoordinator::evaluate);
+            } else {
+                this.pool.invoke(new EvaluationTask(level, 0, level.size()));
+            }
+        }
+        for (Member member : this.members) {
+            if (member.arrived) {
+                member.calculator.publish();
+                member.arrived = false;
+                member.evaluated = false;
+            }
+        }
+        this.arrivedRounds = 0;
+    }
+
+    private static void evaluate(final Member member) {
+        if (member.superseded) {
+            SimulationTimeEvaluationScope scope = member.calculator.getScope();
+            scope.swapHeldRound();
+            try {
+                member.calculator.evaluate();
+            } finally {
+                scope.swapHeldRound();
+                member.superseded = false;
+            }
+            member.evaluated = true;
+        } else if (member.arrived) {
+            member.calculator.evaluate();
+            member.evaluated = true;
+        }
+    }
+
+    /**
+     * Partitions the members into levels of entities of equal depth, ordered bottom-up, i.e., by
+     * descending depth. Each level keeps the registration order of its members. The entities of a
+     * level are not nested in one another.
+     */
+    private List<List<Member>> getEvaluationLevels() {
+        if (this.evaluationLevels == null) {
+            Map<Integer, List<Member>> levels = new TreeMap<>(Comparator.reverseOrder());
+            for (Member member : this.members) {
+                levels.computeIfAbsent(member.depth, depth -> new ArrayList<>()).add(member);
+            }
+            this.evaluationLevels = new ArrayList<>(levels.values());
+            if (this.pool != null) {
+                resolveReachableProxies();
+            }
+        }
+        return this.evaluationLevels;
+    }
+
+    /**
+     * Resolves all proxies in the resources of the registered entities and, transitively, in the
+     * resources they refer to, which covers everything the evaluations of the entities may reach.
+     */
+    private void resolveReachableProxies() {
+        Set<Resource> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Resource> pending = new ArrayDeque<>();
+        for (Member member : this.members) {
+            enqueue(member.calculator.getPowerProvidingEntity().eResource(), visited, pending);
+        }
+        while (!pending.isEmpty()) {
+            Resource resource = pending.poll();
+            EcoreUtil.resolveAll(resource);
+            for (Iterator<EObject> contents = resource.getAllContents(); contents.hasNext();) {
+                for (EObject referenced : contents.next().eCrossReferences()) {
+                    // unresolvable proxies are not contained in a resource
+                    enqueue(referenced.eResource(), visited, pending);
+                }
+            }
+        }
+    }
+
+    private static void enqueue(final Resource resource, final Set<Resource> visited, final Deque<Resource> pending) {
+        if (resource != null && visited.add(resource)) {
+            pending.add(resource);
+        }
+    }
+
+    private static int getDepth(final EObject eObject) {
+        int depth = 0;
+        for (EObject container = eObject.eContainer(); container != null; container = container.eContainer()) {
+            ++depth;
+        }
+        return depth;
+    }
+
+    /**
+     * Evaluates a range of the members of a level, forking one subtask per member.
+     */
+    private static final class EvaluationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<Member> level;
+        private final int from;
+        private final int to;
+
+        private EvaluationTask(final List<Member> level, final int from, final int to) {
+            this.level = level;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from == 1) {
+                evaluate(this.level.get(this.from));
+            } else {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new EvaluationTask(this.level, this.from, middle),
+                        new EvaluationTask(this.level, middle, this.to));
+            }
+        }
+    }
+
+    /**
+     * Observes the scope of a registered calculator in place of the calculator itself.
+     */
+    private final class Member implements ISimulationEvaluationScopeListener {
+        private final SimulationTimePowerCalculator calculator;
+        private final int depth;
+        private boolean arrived;
+        private boolean superseded;
+        private boolean evaluated;
+
+        private Member(final SimulationTimePowerCalculator calculator) {
+            this.calculator = calculator;
+            this.depth = getDepth(calculator.getPowerProvidingEntity());
+        }
+
+        @Override
+        public void newElementAvailable() {
+            roundCompleted(this);
+        }
+
+        @Override
+        public void preUnregister() {
+            this.calculator.preUnregister();
+        }
+    }
+}
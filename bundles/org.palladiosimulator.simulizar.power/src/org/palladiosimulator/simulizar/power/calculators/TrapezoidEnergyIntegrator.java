@@ -0,0 +1,50 @@
+package org.palladiosimulator.simulizar.power.calculators;
+
+import org.palladiosimulator.simulizar.power.instrumentation.MemoryFootprint;
+
+/**
+ * {@link IEnergyIntegrator} that applies the trapezoidal rule to samples of arbitrary spacing,
+ * e.g., the samples of adaptively sampled scopes. The power consumption prior to the first sample
+ * is assumed to equal the first sample, as the first sample of a scope describes the whole first
+ * window.<br>
+ * The integrator keeps constant state, and the increments are summed up with compensation.
+ */
+public final class TrapezoidEnergyIntegrator implements IEnergyIntegrator {
+
+    private final double startTime;
+    private final CompensatedSum energy = new CompensatedSum();
+    private double lastPointInTime = Double.NaN;
+    private double lastPower;
+
+    /**
+     * Initializes a new instance of the {@link TrapezoidEnergyIntegrator} class.
+     * 
+     * @param startTime
+     *            The point in simulation time, in seconds, from which on energy is consumed.
+     */
+    public TrapezoidEnergyIntegrator(final double startTime) {
+        this.startTime = startTime;
+    }
+
+    @Override
+    public double addSample(final double pointInTime, final double power) {
+        if (Double.isNaN(this.lastPointInTime)) {
+            this.energy.add(power * Math.max(0d, pointInTime - this.startTime));
+        } else {
+            this.energy.add((this.lastPower + power) / 2d * (pointInTime - this.lastPointInTime));
+        }
+        this.lastPointInTime = pointInTime;
+        this.lastPower = power;
+        return this.energy.getValue();
+    }
+
+    /**
+     * {@inheritDoc}<br>
+     * <br>
+     * This implementation retains the previous sample only.
+     */
+    @Override
+    public MemoryFootprint getMemoryFootprint() {
+        return MemoryFootprint.ofSamples(Double.isNaN(this.lastPointInTime) ? 0 : 1);
+    }
+}
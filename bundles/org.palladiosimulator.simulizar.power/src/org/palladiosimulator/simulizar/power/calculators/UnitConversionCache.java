@@ -0,0 +1,48 @@
+package org.palladiosimulator.simulizar.power.calculators;
+
+import javax.measure.Measurable;
+import javax.measure.converter.UnitConverter;
+import javax.measure.quantity.Quantity;
+import javax.measure.unit.Unit;
+
+import org.jscience.physics.amount.Amount;
+
+/**
+ * Converts {@link Measurable}s into primitive values of a fixed target unit. The converter from
+ * the unit of the most recently converted {@link Amount} is kept, as calculators usually yield all
+ * their results in the same unit. This avoids obtaining a new converter per conversion.
+ *
+ * @param <Q>
+ *            The quantity of the converted values.
+ */
+final class UnitConversionCache<Q extends Quantity> {
+
+    private final Unit<Q> targetUnit;
+    private Unit<Q> lastSourceUnit;
+    private UnitConverter lastConverter;
+
+    UnitConversionCache(final Unit<Q> targetUnit) {
+        this.targetUnit = targetUnit;
+    }
+
+    /**
+     * Gets the value of the given measurable in the target unit.
+     *
+     * @param measurable
+     *            The {@link Measurable} to convert.
+     * @return The value of the measurable, stated in the target unit.
+     */
+    @SuppressWarnings("unchecked")
+    double toTargetUnit(final Measurable<Q> measurable) {
+        if (measurable instanceof Amount) {
+            Amount<Q> amount = (Amount<Q>) measurable;
+            Unit<Q> sourceUnit = amount.getUnit();
+            if (sourceUnit != this.lastSourceUnit) {
+                this.lastConverter = sourceUnit.getConverterTo(this.targetUnit);
+                this.lastSourceUnit = sourceUnit;
+            }
+            return this.lastConverter.convert(amount.getEstimatedValue());
+        }
+        return measurable.doubleValue(this.targetUnit);
+    }
+}
@@ -0,0 +1,70 @@
+package org.palladiosimulator.simulizar.power.calculators;
+
+import org.palladiosimulator.simulizar.power.evaluationscope.SimulationTimeEvaluationScope;
+
+/**
+ * Detects whether the utilization vector of a {@link SimulationTimeEvaluationScope} has changed
+ * since the power consumption was last evaluated.<br>
+ * The vector of the last evaluation is kept as reference and is only replaced once a change is
+ * detected. Hence, gradual drifts that stay below the tolerance per round cannot accumulate
+ * unnoticed.
+ */
+final class UtilizationChangeDetector {
+
+    private final double epsilon;
+    private double[] referenceUtilizations;
+
+    /**
+     * Initializes a new instance of the {@link UtilizationChangeDetector} class.
+     *
+     * @param epsilon
+     *            The maximum absolute difference per resource up to which utilizations are
+     *            considered equal. With {@code 0}, the utilizations have to be bitwise equal.
+     */
+    UtilizationChangeDetector(final double epsilon) {
+        this.epsilon = epsilon;
+    }
+
+    /**
+     * Compares the current utilization vector of the given scope with the reference vector, which
+     * is replaced by the current one if they differ.
+     *
+     * @param scope
+     *            The {@link SimulationTimeEvaluationScope} that has just been advanced.
+     * @return {@code true} if the utilizations are unchanged, i.e., the previously evaluated
+     *         consumption may be reused, {@code false} otherwise.
+     */
+    boolean isUnchanged(final SimulationTimeEvaluationScope scope) {
+        int resourceCount = scope.getResourceCount();
+        if (this.referenceUtilizations != null) {
+            boolean unchanged = true;
+            for (int i = 0; unchanged && i < resourceCount; ++i) {
+                unchanged = isEqual(scope.getCurrentUtilization(i), this.referenceUtilizations[i]);
+            }
+            if (unchanged) {
+                return true;
+            }
+        } else {
+            this.referenceUtilizations = new double[resourceCount];
+        }
+        for (int i = 0; i < resourceCount; ++i) {
+            this.referenceUtilizations[i] = scope.getCurrentUtilization(i);
+        }
+        return false;
+    }
+
+    /**
+     * Gets the size of the reference vector.
+     *
+     * @return The size of the reference utilizations in bytes, which is {@code 0} prior to the
+     *         first comparison.
+     */
+    long getEstimatedBytes() {
+        return this.referenceUtilizations == null ? 0 : (long) Double.BYTES * this.referenceUtilizations.length;
+    }
+
+    private boolean isEqual(final double current, final double reference) {
+        return Double.doubleToLongBits(current) == Double.doubleToLongBits(reference)
+                || Math.abs(current - reference) <= this.epsilon;
+    }
+}
@@ -0,0 +1,61 @@
+package org.palladiosimulator.simulizar.power.evaluationscope;
+
+/**
+ * Settings of the adaptive sampling of a {@link SimulationTimeEvaluationScope}.<br>
+ * The sliding windows of an adaptively sampled scope still move on by the (minimum) window
+ * increment, but not every round is passed on to the listeners of the scope. The sampling stride
+ * is doubled, up to the maximum increment, after each round that is passed on while the
+ * utilizations stay within the tolerance of those of the previously passed-on round. Once any
+ * utilization leaves the tolerance, the stride falls back to the window increment, and the round is
+ * passed on immediately, preceded by the last held-back round so that the end of the steady phase is
+ * captured as well.<br>
+ * As a consequence, the points in time of the passed-on rounds are not equidistant.
+ *
+ * @see ScopeOptions#withAdaptiveSampling(AdaptiveSampling)
+ */
+public final class AdaptiveSampling {
+
+    private final double maxIncrement;
+    private final double tolerance;
+
+    /**
+     * Initializes a new instance of the {@link AdaptiveSampling} class.
+     *
+     * @param maxIncrement
+     *            The maximum sampling stride, in seconds.
+     * @param tolerance
+     *            The maximum absolute difference per resource up to which utilizations are
+     *            considered steady.
+     * @throws IllegalArgumentException
+     *             In case the given maximum increment is not positive and finite or the tolerance is
+     *             negative or not a number.
+     */
+    public AdaptiveSampling(final double maxIncrement, final double tolerance) {
+        if (!(maxIncrement > 0) || Double.isInfinite(maxIncrement)) {
+            throw new IllegalArgumentException("Given maximum increment must be positive and finite.");
+        }
+        if (!(tolerance >= 0)) {
+            throw new IllegalArgumentException("Given tolerance must be non-negative.");
+        }
+        this.maxIncrement = maxIncrement;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Gets the maximum sampling stride.
+     *
+     * @return The maximum increment, in seconds.
+     */
+    public double getMaxIncrement() {
+        return this.maxIncrement;
+    }
+
+    /**
+     * Gets the tolerance up to which utilizations are considered steady.
+     *
+     * @return The maximum absolute difference per resource.
+     */
+    public double getTolerance() {
+        return this.tolerance;
+    }
+}
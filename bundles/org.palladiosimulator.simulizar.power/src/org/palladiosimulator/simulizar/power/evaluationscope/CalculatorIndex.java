@@ -0,0 +1,198 @@
+package org.palladiosimulator.simulizar.power.evaluationscope;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EClass;
+import org.palladiosimulator.metricspec.MetricDescription;
+import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
+import org.palladiosimulator.pcm.resourceenvironment.ProcessingResourceSpecification;
+import org.palladiosimulator.pcmmeasuringpoint.ActiveResourceMeasuringPoint;
+import org.palladiosimulator.pcmmeasuringpoint.PcmmeasuringpointPackage;
+import org.palladiosimulator.probeframework.calculator.Calculator;
+import org.palladiosimulator.probeframework.calculator.RegisterCalculatorFactoryDecorator;
+
+/**
+ * Index of the {@link Calculator}s registered at a {@link RegisterCalculatorFactoryDecorator} that
+ * are attached to active resources, keyed by resource id, replica id and metric.<br>
+ * An index is meant to be created once per simulation run and shared by all
+ * {@link SimulationTimeEvaluationScope}s of that run. It is kept up to date lazily: whenever a
+ * lookup misses and calculators have been registered since the last update, only the newly
+ * registered calculators are added to the index.
+ *
+ * @see ScopeOptions#vectorWindow(de.uka.ipd.sdq.simucomframework.model.SimuComModel,
+ *      javax.measure.Measure, javax.measure.Measure, CalculatorIndex)
+ */
+public final class CalculatorIndex {
+
+    /**
+     * Replica id under which every calculator of a resource is indexed additionally, regardless of
+     * its actual replica.
+     */
+    private static final int ANY_REPLICA = -1;
+    private static final EClass ACTIVE_RESOURCE_MP_ECLASS = PcmmeasuringpointPackage.Literals.ACTIVE_RESOURCE_MEASURING_POINT;
+    private static final MetricDescription UTILIZATION_METRIC = MetricDescriptionConstants.UTILIZATION_OF_ACTIVE_RESOURCE_TUPLE;
+    private static final MetricDescription RESOURCE_STATE_METRIC = MetricDescriptionConstants.STATE_OF_ACTIVE_RESOURCE_METRIC_TUPLE;
+
+    private final RegisterCalculatorFactoryDecorator calculatorFactory;
+    private final Map<Key, Calculator> calculators = new HashMap<>();
+    private final Set<Calculator> indexedCalculators = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Initializes a new instance of the {@link CalculatorIndex} class and indexes all calculators
+     * that are currently registered at the given factory.
+     *
+     * @param calculatorFactory
+     *            The {@link RegisterCalculatorFactoryDecorator} whose calculators shall be indexed.
+     * @throws NullPointerException
+     *             In case the given factory is {@code null}.
+     */
+    public CalculatorIndex(final RegisterCalculatorFactoryDecorator calculatorFactory) {
+        this.calculatorFactory = Objects.requireNonNull(calculatorFactory,
+                "Given RegisterCalculatorFactoryDecorator must not be null.");
+        update();
+    }
+
+    /**
+     * Looks up the calculator for the given replica of a resource and the given metric.
+     *
+     * @param resource
+     *            The {@link ProcessingResourceSpecification} the calculator is attached to.
+     * @param replicaId
+     *            The id of the resource replica.
+     * @param metric
+     *            The {@link MetricDescription} the calculator computes.
+     * @return An {@link Optional} containing the found calculator, or an empty one if none is
+     *         registered.
+     */
+    public Optional<Calculator> findCalculator(final ProcessingResourceSpecification resource, final int replicaId,
+            final MetricDescription metric) {
+        return lookup(new Key(resource.getId(), replicaId, metric.getId()));
+    }
+
+    /**
+     * Looks up a calculator for the given resource and metric, regardless of the replica it is
+     * attached to. This is used to find the calculators for the 'overall' metrics of multi-core
+     * resources.
+     *
+     * @param resource
+     *            The {@link ProcessingResourceSpecification} the calculator is attached to.
+     * @param metric
+     *            The {@link MetricDescription} the calculator computes.
+     * @return An {@link Optional} containing the found calculator, or an empty one if none is
+     *         registered.
+     */
+    public Optional<Calculator> findCalculator(final ProcessingResourceSpecification resource,
+            final MetricDescription metric) {
+        return lookup(new Key(resource.getId(), ANY_REPLICA, metric.getId()));
+    }
+
+    /**
+     * Gets the metric whose measurements describe the state changes of the given resource.
+     * 
+     * @param proc
+     *            A {@link ProcessingResourceSpecification}.
+     * @return The state of active resource metric for single-core resources, and the overall
+     *         utilization metric for multi-core resources.
+     */
+    public static MetricDescription getResourceStateMetric(final ProcessingResourceSpecification proc) {
+        // in case of a multi-core resource, always use the "overall" state which is
+        // automatically measured
+        // confer ResourceEnvironmentSyncer in Simulizar plugin
+        return proc.getNumberOfReplicas() > 1 ? UTILIZATION_METRIC : RESOURCE_STATE_METRIC;
+    }
+
+    /**
+     * Looks up the calculator that provides the state changes of the given resource, i.e., the
+     * measurements of its {@link #getResourceStateMetric(ProcessingResourceSpecification)}.
+     * 
+     * @param proc
+     *            The {@link ProcessingResourceSpecification} whose states are of interest.
+     * @return The {@link Calculator} providing the states of the resource.
+     * @throws IllegalStateException
+     *             In case no such calculator is registered.
+     */
+    public Calculator findResourceStateCalculator(final ProcessingResourceSpecification proc) {
+        MetricDescription resourceStateMetric = getResourceStateMetric(proc);
+        Optional<Calculator> resourceStateCalculator = proc.getNumberOfReplicas() > 1
+                ? findCalculator(proc, resourceStateMetric)
+                : findCalculator(proc, 0, resourceStateMetric);
+
+        return resourceStateCalculator.orElseThrow(() -> new IllegalStateException(
+                "Simulation time evaluation scope cannot be initialized.\n"
+                        + ((proc.getNumberOfReplicas() == 1)
+                                ? "No 'state of active resource calculator' available for resource: " + proc + "\n"
+                                : "No 'overall utilization of active resource' calculator available for multi-core"
+                                        + " resource: " + proc + "\n")
+                        + "Ensure that initializeModelSyncers() in SimulizarRuntimeState is called prior "
+                        + "to initializeInterpreterListeners()!"));
+    }
+
+    private Optional<Calculator> lookup(final Key key) {
+        Calculator result = this.calculators.get(key);
+        if (result == null && update()) {
+            result = this.calculators.get(key);
+        }
+        return Optional.ofNullable(result);
+    }
+
+    /**
+     * Adds the calculators that have been registered since the last update to the index.
+     *
+     * @return {@code true} if new calculators have been registered in the meantime, {@code false}
+     *         otherwise.
+     */
+    private boolean update() {
+        Collection<Calculator> registeredCalculators = this.calculatorFactory.getRegisteredCalculators();
+        if (registeredCalculators.size() == this.indexedCalculators.size()) {
+            return false;
+        }
+        for (Calculator calculator : registeredCalculators) {
+            if (this.indexedCalculators.add(calculator)
+                    && ACTIVE_RESOURCE_MP_ECLASS.isInstance(calculator.getMeasuringPoint())) {
+                ActiveResourceMeasuringPoint mp = (ActiveResourceMeasuringPoint) calculator.getMeasuringPoint();
+                String resourceId = mp.getActiveResource().getId();
+                String metricId = calculator.getMetricDesciption().getId();
+                this.calculators.put(new Key(resourceId, mp.getReplicaID(), metricId), calculator);
+                this.calculators.putIfAbsent(new Key(resourceId, ANY_REPLICA, metricId), calculator);
+            }
+        }
+        return true;
+    }
+
+    private static final class Key {
+        private final String resourceId;
+        private final int replicaId;
+        private final String metricId;
+
+        private Key(final String resourceId, final int replicaId, final String metricId) {
+            this.resourceId = resourceId;
+            this.replicaId = replicaId;
+            this.metricId = metricId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.resourceId, this.replicaId, this.metricId);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return this.replicaId == other.replicaId && this.resourceId.equals(other.resourceId)
+                    && this.metricId.equals(other.metricId);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package org.palladiosimulator.simulizar.power.evaluationscope;
+
+import java.util.Objects;
+
+import javax.measure.Measure;
+import javax.measure.quantity.Duration;
+
+import org.palladiosimulator.measurementframework.MeasuringValue;
+
+import de.fzi.power.infrastructure.PowerProvidingEntity;
+import de.fzi.power.infrastructure.StatefulPowerConsumingResource;
+import de.uka.ipd.sdq.simucomframework.model.SimuComModel;
+
+/**
+ * Options of a {@link SimulationTimeEvaluationScope}, which are passed to
+ * {@link SimulationTimeEvaluationScope#create(PowerProvidingEntity, ScopeOptions)}.<br>
+ * The kind of the scope is determined by the factory method the options are obtained from:
+ * <ul>
+ * <li>{@link #slidingWindows(SimuComModel, Measure, Measure)}: the utilizations are evaluated by
+ * one sliding window per resource.</li>
+ * <li>{@link #vectorWindow(SimuComModel, Measure, Measure, CalculatorIndex)}: the utilizations are
+ * evaluated by a single vector window, which tracks the busy times of all resources, including the
+ * states of the replicas of multi-core resources, and completes each round by one simulation
+ * event.</li>
+ * <li>{@link #eventDriven(SimuComModel, CalculatorIndex, TopologyIndex)}: the scope observes the
+ * state changes of the resources directly, and each change of the instantaneous utilization of a
+ * resource completes a new round at the point in time of the change.</li>
+ * <li>{@link #recorded()}: the scope is not attached to a simulation run, but fed with previously
+ * recorded utilization measurements by its client.</li>
+ * </ul>
+ * The remaining options are set by the {@code with} methods, each of which returns new options.
+ * Instances are immutable.
+ */
+public final class ScopeOptions {
+
+    /**
+     * The kinds of scopes.
+     */
+    enum Kind {
+        SLIDING_WINDOWS, VECTOR_WINDOW, EVENT_DRIVEN, RECORDED
+    }
+
+    private final Kind kind;
+    private final SimuComModel model;
+    private final Measure<Double, Duration> windowLength;
+    private final Measure<Double, Duration> windowIncrement;
+    private final CalculatorIndex calculatorIndex;
+    private final SlidingWindowRegistry windowRegistry;
+    private final AdaptiveSampling adaptiveSampling;
+    private final TopologyIndex topologyIndex;
+
+    private ScopeOptions(final Kind kind, final SimuComModel model, final Measure<Double, Duration> windowLength,
+            final Measure<Double, Duration> windowIncrement, final CalculatorIndex calculatorIndex,
+            final SlidingWindowRegistry windowRegistry, final AdaptiveSampling adaptiveSampling,
+            final TopologyIndex topologyIndex) {
+        this.kind = kind;
+        this.model = model;
+        this.windowLength = windowLength;
+        this.windowIncrement = windowIncrement;
+        this.calculatorIndex = calculatorIndex;
+        this.windowRegistry = windowRegistry;
+        this.adaptiveSampling = adaptiveSampling;
+        this.topologyIndex = topologyIndex;
+    }
+
+    /**
+     * Gets the options of a scope whose resources are evaluated by one sliding window each. Unless
+     * a {@link SlidingWindowRegistry} is set by {@link #withWindowRegistry(SlidingWindowRegistry)},
+     * the windows are not shared with other scopes.
+     *
+     * @param model
+     *            A reference indicating the {@link SimuComModel} that is used for the current
+     *            simulation run.
+     * @param windowLength
+     *            The length of the underlying sliding windows, given in any arbitrary
+     *            {@link Duration}.
+     * @param windowIncrement
+     *            This {@link Measure} indicates the increment by what the underlying sliding windows
+     *            are moved on, given in any arbitrary {@link Duration}.
+     * @return The {@link ScopeOptions}.
+     * @throws NullPointerException
+     *             If {@code model} is {@code null}.
+     */
+    public static ScopeOptions slidingWindows(final SimuComModel model, final Measure<Double, Duration> windowLength,
+            final Measure<Double, Duration> windowIncrement) {
+        return new ScopeOptions(Kind.SLIDING_WINDOWS,
+                Objects.requireNonNull(model, "Given SimuComModel must not be null."), windowLength, windowIncrement,
+                null, null, null, null);
+    }
+
+    /**
+     * Gets the options of a scope whose resources are evaluated by a single vector window.
+     *
+     * @param model
+     *            A reference indicating the {@link SimuComModel} that is used for the current
+     *            simulation run.
+     * @param windowLength
+     *            The length of the window, given in any arbitrary {@link Duration}. It has to be a
+     *            multiple of the window increment.
+     * @param windowIncrement
+     *            This {@link Measure} indicates the increment by what the window is moved on, given
+     *            in any arbitrary {@link Duration}.
+     * @param calculatorIndex
+     *            The {@link CalculatorIndex} to look up the resource state calculators.
+     * @return The {@link ScopeOptions}.
+     * @throws NullPointerException
+     *             If {@code model} or {@code calculatorIndex} is {@code null}.
+     * @see SimulationTimeEvaluationScope#isVectorWindowApplicable(Measure, Measure)
+     */
+    public static ScopeOptions vectorWindow(final SimuComModel model, final Measure<Double, Duration> windowLength,
+            final Measure<Double, Duration> windowIncrement, final CalculatorIndex calculatorIndex) {
+        return new ScopeOptions(Kind.VECTOR_WINDOW,
+                Objects.requireNonNull(model, "Given SimuComModel must not be null."), windowLength, windowIncrement,
+                Objects.requireNonNull(calculatorIndex, "Given CalculatorIndex must not be null."), null, null,
+                null);
+    }
+
+    /**
+     * Gets the options of an event-driven scope, which is not based on windows. Initially, all
+     * resources are considered idle at time 0.<br>
+     * As rounds are only completed upon utilization changes, the timed state transitions of
+     * {@link StatefulPowerConsumingResource}s, e.g., the power-on of a server, would be missed.
+     * Entities whose subtrees contain such resources, as looked up in the given
+     * {@link TopologyIndex}, are therefore not supported.
+     *
+     * @param model
+     *            A reference indicating the {@link SimuComModel} that is used for the current
+     *            simulation run.
+     * @param calculatorIndex
+     *            The {@link CalculatorIndex} to look up the resource state calculators.
+     * @param topologyIndex
+     *            The {@link TopologyIndex} of the infrastructure models of the current simulation
+     *            run.
+     * @return The {@link ScopeOptions}.
+     * @throws NullPointerException
+     *             If any of the arguments is {@code null}.
+     * @see SimulationTimeEvaluationScope#completeInitialRound()
+     */
+    public static ScopeOptions eventDriven(final SimuComModel model, final CalculatorIndex calculatorIndex,
+            final TopologyIndex topologyIndex) {
+        return new ScopeOptions(Kind.EVENT_DRIVEN,
+                Objects.requireNonNull(model, "Given SimuComModel must not be null."), null, null,
+                Objects.requireNonNull(calculatorIndex, "Given CalculatorIndex must not be null."), null, null,
+                Objects.requireNonNull(topologyIndex, "Given TopologyIndex must not be null."));
+    }
+
+    /**
+     * Gets the options of a scope that is not attached to a simulation run. Instead, its rounds are
+     * fed with previously recorded utilization measurements by means of
+     * {@link SimulationTimeEvaluationScope#addUtilizationMeasurement(int, MeasuringValue)}, e.g., to
+     * compute power consumptions offline.
+     *
+     * @return The {@link ScopeOptions}.
+     */
+    public static ScopeOptions recorded() {
+        return new ScopeOptions(Kind.RECORDED, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Gets these options with the sliding windows obtained from the given registry, which is
+     * typically shared among all scopes of a simulation run.
+     *
+     * @param windowRegistry
+     *            The {@link SlidingWindowRegistry} of the current simulation run.
+     * @return The new {@link ScopeOptions}.
+     * @throws NullPointerException
+     *             If {@code windowRegistry} is {@code null}.
+     * @throws IllegalStateException
+     *             In case these options do not describe a scope based on sliding windows.
+     */
+    public ScopeOptions withWindowRegistry(final SlidingWindowRegistry windowRegistry) {
+        Objects.requireNonNull(windowRegistry, "Given SlidingWindowRegistry must not be null.");
+        if (this.kind != Kind.SLIDING_WINDOWS) {
+            throw new IllegalStateException("Only scopes based on sliding windows obtain them from a registry.");
+        }
+        return new ScopeOptions(this.kind, this.model, this.windowLength, this.windowIncrement,
+                this.calculatorIndex, windowRegistry, this.adaptiveSampling, this.topologyIndex);
+    }
+
+    /**
+     * Gets these options with adaptive sampling. The rounds in which the utilizations remain
+     * steady are then partly held back, so that listeners are passed rounds at non-equidistant
+     * points in time; the window increment becomes the minimum sampling stride.
+     *
+     * @param adaptiveSampling
+     *            The {@link AdaptiveSampling} settings.
+     * @return The new {@link ScopeOptions}.
+     * @throws NullPointerException
+     *             If {@code adaptiveSampling} is {@code null}.
+     * @throws IllegalStateException
+     *             In case these options do not describe a scope based on windows.
+     */
+    public ScopeOptions withAdaptiveSampling(final AdaptiveSampling adaptiveSampling) {
+        Objects.requireNonNull(adaptiveSampling, "Given AdaptiveSampling must not be null.");
+        if (this.kind != Kind.SLIDING_WINDOWS && this.kind != Kind.VECTOR_WINDOW) {
+            throw new IllegalStateException("Only scopes based on windows can be sampled adaptively.");
+        }
+        return new ScopeOptions(this.kind, this.model, this.windowLength, this.windowIncrement,
+                this.calculatorIndex, this.windowRegistry, adaptiveSampling, this.topologyIndex);
+    }
+
+    /**
+     * Gets these options with the resources of the scope obtained from the given index rather than
+     * by navigating the subtree of the entity.
+     *
+     * @param topologyIndex
+     *            The {@link TopologyIndex} of the infrastructure models.
+     * @return The new {@link ScopeOptions}.
+     * @throws NullPointerException
+     *             If {@code topologyIndex} is {@code null}.
+     */
+    public ScopeOptions withTopologyIndex(final TopologyIndex topologyIndex) {
+        return new ScopeOptions(this.kind, this.model, this.windowLength, this.windowIncrement,
+                this.calculatorIndex, this.windowRegistry, this.adaptiveSampling,
+                Objects.requireNonNull(topologyIndex, "Given TopologyIndex must not be null."));
+    }
+
+    Kind getKind() {
+        return this.kind;
+    }
+
+    SimuComModel getModel() {
+        return this.model;
+    }
+
+    Measure<Double, Duration> getWindowLength() {
+        return this.windowLength;
+    }
+
+    Measure<Double, Duration> getWindowIncrement() {
+        return this.windowIncrement;
+    }
+
+    CalculatorIndex getCalculatorIndex() {
+        return this.calculatorIndex;
+    }
+
+    SlidingWindowRegistry getWindowRegistry() {
+        return this.windowRegistry;
+    }
+
+    AdaptiveSampling getAdaptiveSampling() {
+        return this.adaptiveSampling;
+    }
+
+    TopologyIndex getTopologyIndex() {
+        return this.topologyIndex;
+    }
+}
@@ -1,45 +1,43 @@
 package org.palladiosimulator.simulizar.power.evaluationscope;
 
-import static java.util.stream.Collectors.toMap;
-
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
-import java.util.function.Function;
 
 import javax.measure.Measure;
+import javax.measure.quantity.Dimensionless;
 import javax.measure.quantity.Duration;
+import javax.measure.unit.SI;
+import javax.measure.unit.Unit;
 
 import org.apache.commons.collections15.IteratorUtils;
-import org.eclipse.emf.ecore.EClass;
 import org.palladiosimulator.commons.designpatterns.AbstractObservable;
 import org.palladiosimulator.edp2.datastream.IDataStream;
-import org.palladiosimulator.experimentanalysis.ISlidingWindowMoveOnStrategy;
-import org.palladiosimulator.experimentanalysis.KeepLastElementPriorToLowerBoundStrategy;
 import org.palladiosimulator.experimentanalysis.SlidingWindow;
-import org.palladiosimulator.experimentanalysis.SlidingWindowRecorder;
-import org.palladiosimulator.experimentanalysis.windowaggregators.SlidingWindowUtilizationAggregator;
 import org.palladiosimulator.measurementframework.MeasuringValue;
+import org.palladiosimulator.measurementframework.TupleMeasurement;
+import org.palladiosimulator.measurementframework.listener.IMeasurementSourceListener;
 import org.palladiosimulator.metricspec.MetricDescription;
 import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
 import org.palladiosimulator.pcm.resourceenvironment.ProcessingResourceSpecification;
-import org.palladiosimulator.pcmmeasuringpoint.ActiveResourceMeasuringPoint;
-import org.palladiosimulator.pcmmeasuringpoint.PcmmeasuringpointFactory;
-import org.palladiosimulator.pcmmeasuringpoint.PcmmeasuringpointPackage;
 import org.palladiosimulator.probeframework.calculator.Calculator;
 import org.palladiosimulator.probeframework.calculator.RegisterCalculatorFactoryDecorator;
 import org.palladiosimulator.recorderframework.AbstractRecorder;
 import org.palladiosimulator.recorderframework.config.IRecorderConfiguration;
 import org.palladiosimulator.simulizar.power.calculators.SimulationTimePowerCalculator;
-import org.palladiosimulator.simulizar.slidingwindow.impl.SimulizarSlidingWindow;
+import org.palladiosimulator.simulizar.power.instrumentation.MemoryFootprint;
+import org.palladiosimulator.simulizar.power.instrumentation.StageTimer;
 
 import de.fzi.power.infrastructure.PowerProvidingEntity;
+import de.fzi.power.infrastructure.StatefulPowerConsumingResource;
 import de.fzi.power.interpreter.AbstractEvaluationScope;
 import de.fzi.power.interpreter.InterpreterUtils;
 import de.uka.ipd.sdq.simucomframework.model.SimuComModel;
@@ -65,46 +63,112 @@ public class SimulationTimeEvaluationScope extends AbstractEvaluationScope {
     private final Collection<ProcessingResourceSpecification> processingResourceSpecs;
     private final SimuComModel simModel;
     private final UtilizationMeasurementsCollector collector;
+    private final Map<ProcessingResourceSpecification, Integer> slots;
     private final RegisterCalculatorFactoryDecorator calculatorFactory;
+    private double currentPointInTimeInSeconds = Double.NaN;
+    private SingletonDataStream[] heldRound;
+    private double heldPointInTimeInSeconds = Double.NaN;
+    private StageTimer notificationTimer;
+    private UtilizationVectorWindow vectorWindow;
+    private ResourceStateListener[] stateListeners;
+    private final List<SlidingWindow> ownedWindows = new ArrayList<>();
 
     private static final MetricDescription UTILIZATION_METRIC = MetricDescriptionConstants.UTILIZATION_OF_ACTIVE_RESOURCE_TUPLE;
-    private static final MetricDescription RESOURCE_STATE_METRIC = MetricDescriptionConstants.STATE_OF_ACTIVE_RESOURCE_METRIC_TUPLE;
-    private static final EClass ACTIVE_RESOURCE_MP_ECLASS = PcmmeasuringpointPackage.Literals.ACTIVE_RESOURCE_MEASURING_POINT;
 
     /**
-     * Gets a {@link SimulationTimeEvaluationScope} instance initialized with the given parameters.
+     * Gets a {@link SimulationTimeEvaluationScope} instance initialized with the given options.
      * 
      * @param entityUnderMeasurement
      *            The {@link PowerProvidingEntity} that shall be evaluated.
-     * @param model
-     *            A reference indicating the {@link SimuComModel} that is used for the current
-     *            simulation run.
-     * @param windowLength
-     *            The length of the underlying sliding window, given in any arbitrary
-     *            {@link Duration}.
-     * @param windowIncrement
-     *            This {@link Measure} indicates the increment by what the underlying sliding window
-     *            is moved on, given in any arbitrary {@link Duration}.
+     * @param options
+     *            The {@link ScopeOptions}, which determine the kind of the scope.
      * @return A valid {@link SimulationTimeEvaluationScope} instance with the given properties.
      * @throws NullPointerException
-     *             If {@code entityUnderMeasurement} or {@code model} are {@code null}.
+     *             If any of the arguments is {@code null}.
      * @throws IllegalArgumentException
-     *             In case {@code windowLength} or {@code windowIncrement} are {@code null} or
-     *             denote a negative duration.
+     *             In case the window length or increment of a scope based on windows is
+     *             {@code null}, denotes a negative duration or, for a vector window, the window
+     *             length is not a multiple of the window increment; or in case the subtree of the
+     *             entity of an event-driven scope contains {@link StatefulPowerConsumingResource}s.
      * @throws IllegalStateException
      *             This exception is thrown, if any of the {@link ProcessingResourceSpecification}s
      *             subsumed by the given {@code entityUnderMeasurement} is not associated with
      *             {@link MetricDescriptionConstants#STATE_OF_ACTIVE_RESOURCE_METRIC_TUPLE}
      *             measurements.
      */
-    public static SimulationTimeEvaluationScope createScope(final PowerProvidingEntity entityUnderMeasurement,
-            final SimuComModel model, final Measure<Double, Duration> windowLength,
+    public static SimulationTimeEvaluationScope create(final PowerProvidingEntity entityUnderMeasurement,
+            final ScopeOptions options) {
+        Objects.requireNonNull(entityUnderMeasurement, "Given PowerProvidingEntity must not be null.");
+        Objects.requireNonNull(options, "Given ScopeOptions must not be null.");
+
+        TopologyIndex topologyIndex = options.getTopologyIndex();
+        Collection<ProcessingResourceSpecification> processingResourceSpecs = topologyIndex == null
+                ? getProcessingResourceSpecs(entityUnderMeasurement)
+                : topologyIndex.getProcessingResourceSpecifications(entityUnderMeasurement);
+        SimuComModel model = options.getModel();
+        SimulationTimeEvaluationScope scope = new SimulationTimeEvaluationScope(processingResourceSpecs, model,
+                model == null ? null : getCalculatorFactory(model));
+
+        switch (options.getKind()) {
+        case SLIDING_WINDOWS:
+            SlidingWindowRegistry windowRegistry = options.getWindowRegistry();
+            if (windowRegistry == null) {
+                windowRegistry = new SlidingWindowRegistry(model, new CalculatorIndex(scope.calculatorFactory));
+            }
+            scope.initialize(options.getWindowLength(), options.getWindowIncrement(), windowRegistry);
+            break;
+        case VECTOR_WINDOW:
+            scope.initializeVectorWindow(options.getWindowLength(), options.getWindowIncrement(),
+                    options.getCalculatorIndex());
+            break;
+        case EVENT_DRIVEN:
+            checkStateless(entityUnderMeasurement, topologyIndex.isStateful(entityUnderMeasurement));
+            scope.initializeEventDriven(options.getCalculatorIndex());
+            break;
+        default:
+            // recorded scopes are fed by their clients
+            break;
+        }
+        if (options.getAdaptiveSampling() != null) {
+            scope.enableAdaptiveSampling(options.getAdaptiveSampling(), options.getWindowIncrement());
+        }
+
+        return scope;
+    }
+
+    /**
+     * Indicates whether scopes with the given window properties can be based on a vector window.
+     * 
+     * @param windowLength
+     *            The length of the window, given in any arbitrary {@link Duration}.
+     * @param windowIncrement
+     *            The increment by what the window is moved on, given in any arbitrary
+     *            {@link Duration}.
+     * @return {@code true} if the window length is a multiple of the window increment,
+     *         {@code false} otherwise.
+     * @see ScopeOptions#vectorWindow(SimuComModel, Measure, Measure, CalculatorIndex)
+     */
+    public static boolean isVectorWindowApplicable(final Measure<Double, Duration> windowLength,
             final Measure<Double, Duration> windowIncrement) {
+        return UtilizationVectorWindow.isApplicable(windowLength, windowIncrement);
+    }
 
-        SimulationTimeEvaluationScope scope = new SimulationTimeEvaluationScope(entityUnderMeasurement, model);
-        scope.initialize(windowLength, windowIncrement);
+    private static Collection<ProcessingResourceSpecification> getProcessingResourceSpecs(
+            final PowerProvidingEntity entityUnderMeasurement) {
+        return InterpreterUtils.getProcessingResourceSpecsFromInfrastructureElement(
+                Objects.requireNonNull(entityUnderMeasurement, "Given PowerProvidingEntity must not be null."));
+    }
 
-        return scope;
+    private static void checkStateless(final PowerProvidingEntity entityUnderMeasurement, final boolean stateful) {
+        if (stateful) {
+            throw new IllegalArgumentException("Entity " + entityUnderMeasurement
+                    + " cannot be evaluated event-driven, as the timed state transitions of its stateful"
+                    + " power consuming resources are not captured. Disable exact energy integration.");
+        }
+    }
+
+    private static RegisterCalculatorFactoryDecorator getCalculatorFactory(final SimuComModel model) {
+        return RegisterCalculatorFactoryDecorator.class.cast(model.getProbeFrameworkContext().getCalculatorFactory());
     }
 
     /**
@@ -119,26 +183,37 @@ public class SimulationTimeEvaluationScope extends AbstractEvaluationScope {
      * @throws NullPointerException
      *             If either of the arguments is {@code null}, an {@link NullPointerException} is
      *             thrown.
-     * @see #createScope(PowerProvidingEntity, SimuComModel, Measure, Measure)
-     * @see #initialize(Measure, Measure)
+     * @see #create(PowerProvidingEntity, ScopeOptions)
+     * @see #initialize(Measure, Measure, SlidingWindowRegistry)
      */
     protected SimulationTimeEvaluationScope(final PowerProvidingEntity entityUnderMeasurement,
             final SimuComModel model) {
-        this.simModel = Objects.requireNonNull(model, "Given SimuComModel must not be null.");
-        this.processingResourceSpecs = InterpreterUtils.getProcessingResourceSpecsFromInfrastructureElement(
-                Objects.requireNonNull(entityUnderMeasurement, "Given PowerProvidingEntity must not be null."));
-        this.collector = new UtilizationMeasurementsCollector(this.processingResourceSpecs.size());
-
-        this.calculatorFactory = RegisterCalculatorFactoryDecorator.class
-                .cast(this.simModel.getProbeFrameworkContext().getCalculatorFactory());
+        this(getProcessingResourceSpecs(entityUnderMeasurement),
+                Objects.requireNonNull(model, "Given SimuComModel must not be null."), getCalculatorFactory(model));
+    }
 
-        this.processingResourceSpecs
-                .forEach(spec -> this.resourceMeasurements.put(spec, Collections.singleton(new SingletonDataStream())));
+    private SimulationTimeEvaluationScope(final Collection<ProcessingResourceSpecification> processingResourceSpecs,
+            final SimuComModel model, final RegisterCalculatorFactoryDecorator calculatorFactory) {
+        this.simModel = model;
+        this.processingResourceSpecs = processingResourceSpecs;
+        this.calculatorFactory = calculatorFactory;
+
+        // each resource is assigned a slot, i.e., its index in the iteration order of the specs
+        int resourceCount = this.processingResourceSpecs.size();
+        SingletonDataStream[] streams = new SingletonDataStream[resourceCount];
+        this.slots = new IdentityHashMap<>(resourceCount);
+        for (ProcessingResourceSpecification spec : this.processingResourceSpecs) {
+            SingletonDataStream stream = new SingletonDataStream();
+            streams[this.slots.size()] = stream;
+            this.slots.put(spec, this.slots.size());
+            this.resourceMeasurements.put(spec, Collections.singleton(stream));
+        }
+        this.collector = new UtilizationMeasurementsCollector(streams);
     }
 
     /**
-     * Initializes the current instance by instantiating the underlying {@link SlidingWindow} and
-     * respective aggregator and recorder.
+     * Initializes the current instance by subscribing to the {@link SlidingWindow}s of all
+     * evaluated resources.
      * 
      * @param windowLength
      *            The length of the underlying sliding window, given in any arbitrary
@@ -146,79 +221,248 @@ public class SimulationTimeEvaluationScope extends AbstractEvaluationScope {
      * @param windowIncrement
      *            This {@link Measure} indicates the increment by what the underlying sliding window
      *            is moved on, given in any arbitrary {@link Duration}.
-     * @see #createScope(PowerProvidingEntity, SimuComModel, Measure, Measure)
+     * @param windowRegistry
+     *            The {@link SlidingWindowRegistry} to obtain the windows from.
+     * @see ScopeOptions#slidingWindows(SimuComModel, Measure, Measure)
      * @see #SimulationTimeEvaluationScope(PowerProvidingEntity, SimuComModel)
      */
     private void initialize(final Measure<Double, Duration> windowLength,
+            final Measure<Double, Duration> windowIncrement, final SlidingWindowRegistry windowRegistry) {
+        for (ProcessingResourceSpecification proc : this.processingResourceSpecs) {
+            windowRegistry.subscribe(proc, windowLength, windowIncrement, new ScopeRecorder(getSlot(proc)))
+                    .ifPresent(this.ownedWindows::add);
+        }
+    }
+
+    /**
+     * Initializes the current instance by observing the state calculators of all evaluated
+     * resources, which are all considered idle initially.
+     * 
+     * @param calculatorIndex
+     *            The {@link CalculatorIndex} to look up the resource state calculators.
+     * @see ScopeOptions#eventDriven(SimuComModel, CalculatorIndex, TopologyIndex)
+     */
+    private void initializeEventDriven(final CalculatorIndex calculatorIndex) {
+        this.stateListeners = new ResourceStateListener[this.processingResourceSpecs.size()];
+        for (ProcessingResourceSpecification proc : this.processingResourceSpecs) {
+            int slot = getSlot(proc);
+            this.collector.streams[slot].setUtilization(0d, 0d);
+            ResourceStateListener stateListener = new ResourceStateListener(slot, proc.getNumberOfReplicas() > 1,
+                    calculatorIndex.findResourceStateCalculator(proc));
+            stateListener.calculator.addObserver(stateListener);
+            this.stateListeners[slot] = stateListener;
+        }
+    }
+
+    /**
+     * Initializes the current instance by creating a vector window over all evaluated resources.
+     * 
+     * @param windowLength
+     *            The length of the window.
+     * @param windowIncrement
+     *            The increment by what the window is moved on.
+     * @param calculatorIndex
+     *            The {@link CalculatorIndex} to look up the resource state calculators.
+     * @see ScopeOptions#vectorWindow(SimuComModel, Measure, Measure, CalculatorIndex)
+     */
+    private void initializeVectorWindow(final Measure<Double, Duration> windowLength,
+            final Measure<Double, Duration> windowIncrement, final CalculatorIndex calculatorIndex) {
+        this.vectorWindow = UtilizationVectorWindow.create(this.simModel,
+                new ArrayList<>(this.processingResourceSpecs), calculatorIndex, windowLength, windowIncrement,
+                this.collector::completeVectorRound);
+    }
+
+    private void enableAdaptiveSampling(final AdaptiveSampling adaptiveSampling,
             final Measure<Double, Duration> windowIncrement) {
-        ISlidingWindowMoveOnStrategy moveOnStrategy = new KeepLastElementPriorToLowerBoundStrategy();
-        PcmmeasuringpointFactory pcmMeasuringpointFactory = PcmmeasuringpointFactory.eINSTANCE;
+        this.collector.enableAdaptiveSampling(
+                Objects.requireNonNull(adaptiveSampling, "Given AdaptiveSampling must not be null."),
+                windowIncrement.doubleValue(SI.SECOND));
+    }
 
-        Map<String, Calculator> availableOverallUtilizationCalculators = getAvailableOverallUtilizationCalculators();
+    /**
+     * Completes the initial round of an event-driven scope, in which all resources are idle at
+     * time 0, unless this has already happened. This is done implicitly once the first state change
+     * is observed; if the resources of the scope may not have changed their states at all, e.g.,
+     * when the simulation stops, clients have to invoke this method so that the listeners get to
+     * know the initial state.
+     * 
+     * @see ScopeOptions#eventDriven(SimuComModel, CalculatorIndex, TopologyIndex)
+     */
+    public void completeInitialRound() {
+        this.collector.completeInitialRound();
+    }
 
-        for (ProcessingResourceSpecification proc : this.processingResourceSpecs) {
-            Optional<Calculator> resourceStateCalculator = null;
-            MetricDescription resourceStateMetric = null;
-
-            // in case of a multi-core resource, always use the "overall" state which is
-            // automatically measured
-            // confer ResourceEnvironmentSyncer in Simulizar plugin
-            if (proc.getNumberOfReplicas() > 1) {
-                resourceStateMetric = UTILIZATION_METRIC;
-                resourceStateCalculator = findOverallUtilizationCalculatorForProcessingResource(proc,
-                        availableOverallUtilizationCalculators);
-            } else {
-                ActiveResourceMeasuringPoint mp = pcmMeasuringpointFactory.createActiveResourceMeasuringPoint();
-                mp.setActiveResource(proc);
-                mp.setReplicaID(0);
+    /**
+     * Holds the current round of utilization measurements, so that it can be restored by
+     * {@link #swapHeldRound()} after this scope has completed further rounds. Clients that defer
+     * the evaluation of a round, e.g., until the scopes of other entities have completed theirs,
+     * thereby evaluate it on its own measurements even if this scope has moved on in the meantime.
+     * A previously held round is replaced.
+     */
+    public void holdCurrentRound() {
+        SingletonDataStream[] streams = this.collector.streams;
+        if (this.heldRound == null) {
+            this.heldRound = SingletonDataStream.createArray(streams.length);
+        }
+        for (int i = 0; i < streams.length; ++i) {
+            this.heldRound[i].copyFrom(streams[i]);
+        }
+        this.heldPointInTimeInSeconds = this.currentPointInTimeInSeconds;
+    }
 
-                resourceStateCalculator = Optional.ofNullable(this.calculatorFactory
-                        .getCalculatorByMeasuringPointAndMetricDescription(mp, RESOURCE_STATE_METRIC));
-                resourceStateMetric = RESOURCE_STATE_METRIC;
-            }
+    /**
+     * Exchanges the current round and the held round, and resets this scope, so that the round
+     * that has been exchanged in can be evaluated. Invoking this method once more restores the
+     * previous state. The listeners are not notified.
+     * 
+     * @throws IllegalStateException
+     *             In case no round has been held.
+     * @see #holdCurrentRound()
+     */
+    public void swapHeldRound() {
+        if (this.heldRound == null) {
+            throw new IllegalStateException("No round has been held.");
+        }
+        SingletonDataStream[] streams = this.collector.streams;
+        for (int i = 0; i < streams.length; ++i) {
+            streams[i].swapWith(this.heldRound[i]);
+        }
+        double currentPointInTime = this.currentPointInTimeInSeconds;
+        this.currentPointInTimeInSeconds = this.heldPointInTimeInSeconds;
+        this.heldPointInTimeInSeconds = currentPointInTime;
+        reset();
+    }
 
-            Calculator baseCalculator = resourceStateCalculator.orElseThrow(() ->
+    /**
+     * Sets the timer of the notifications of the listeners of this scope, which thereby also counts
+     * the completed rounds.
+     * 
+     * @param notificationTimer
+     *            The {@link StageTimer} to time the notifications with, or {@code null} to not time
+     *            them.
+     */
+    public void setNotificationTimer(final StageTimer notificationTimer) {
+        this.notificationTimer = notificationTimer;
+    }
 
-            new IllegalStateException(
-                    "Simulation time evaluation scope (sliding window based) cannot" + " be initialized.\n"
-                            + ((proc.getNumberOfReplicas() == 1)
-                                    ? "No 'state of active resource calculator' available for resource: " + proc + "\n"
-                                    : "No 'overall utilization of active resource' calculator available for multi-core"
-                                            + " resource: " + proc + "\n")
-                            + "Ensure that initializeModelSyncers() in SimulizarRuntimeState is called prior "
-                            + "to initializeInterpreterListeners()!"));
+    /**
+     * Gets the slot of the given resource, i.e., the index by which the scope internally refers to
+     * the measurements of the resource.
+     * 
+     * @param spec
+     *            One of the {@link ProcessingResourceSpecification}s evaluated by this scope.
+     * @return The slot of the resource, ranging from {@code 0} to the number of evaluated
+     *         resources (exclusive).
+     * @throws IllegalArgumentException
+     *             In case the given resource is not evaluated by this scope.
+     */
+    public int getSlot(final ProcessingResourceSpecification spec) {
+        Integer slot = this.slots.get(spec);
+        if (slot == null) {
+            throw new IllegalArgumentException("Given resource is not evaluated by this scope.");
+        }
+        return slot;
+    }
 
-            SlidingWindow slidingWindow = new SimulizarSlidingWindow(windowLength, windowIncrement, resourceStateMetric,
-                    moveOnStrategy, this.simModel);
-            SlidingWindowRecorder windowRecorder = new SlidingWindowRecorder(slidingWindow,
-                    new SlidingWindowUtilizationAggregator(resourceStateMetric, new ScopeRecorder(proc)));
+    /**
+     * Hands a new utilization measurement of the resource in the given slot to this scope, just as
+     * the sliding window of the resource does once it moves on. This method is meant for recorded
+     * scopes and for harnesses (e.g., benchmarks) that feed synthetic utilization streams into a
+     * scope. A round is completed once each resource has been handed one measurement.
+     * 
+     * @param slot
+     *            The slot of the resource the measurement belongs to.
+     * @param utilizationMeasurement
+     *            A {@link MeasuringValue} compatible with
+     *            {@link MetricDescriptionConstants#UTILIZATION_OF_ACTIVE_RESOURCE_TUPLE}.
+     * @throws IllegalStateException
+     *             In case the resource of a recorded scope has already been handed a measurement
+     *             in the current round.
+     * @see #getSlot(ProcessingResourceSpecification)
+     * @see ScopeOptions#recorded()
+     */
+    public void addUtilizationMeasurement(final int slot, final MeasuringValue utilizationMeasurement) {
+        this.collector.addUtilizationMeasurement(slot, utilizationMeasurement);
+    }
+
+    /**
+     * Gets the resources evaluated by this scope.
+     * 
+     * @return An unmodifiable {@link Collection} of the evaluated
+     *         {@link ProcessingResourceSpecification}s, in the order of their slots.
+     */
+    public Collection<ProcessingResourceSpecification> getProcessingResourceSpecifications() {
+        return Collections.unmodifiableCollection(this.processingResourceSpecs);
+    }
 
-            baseCalculator.addObserver(windowRecorder);
+    /**
+     * Gets the number of resources evaluated by this scope, i.e., the number of slots.
+     * 
+     * @return The number of evaluated {@link ProcessingResourceSpecification}s.
+     */
+    public int getResourceCount() {
+        return this.slots.size();
+    }
+
+    /**
+     * Gets the data currently retained by this scope, i.e., the utilization measurements of the
+     * current round, of the round being collected, of a held round and, if adaptively sampled, of
+     * the previous round. The footprint is bounded by the number of resources, regardless of the duration of
+     * the run.
+     * 
+     * @return The {@link MemoryFootprint} of this scope.
+     */
+    public MemoryFootprint getMemoryFootprint() {
+        MemoryFootprint footprint = this.collector.getMemoryFootprint();
+        if (this.heldRound != null) {
+            footprint = footprint.plus(SingletonDataStream.getMemoryFootprint(this.heldRound));
         }
+        return this.vectorWindow == null ? footprint
+                : footprint.plus(new MemoryFootprint(0, this.vectorWindow.getEstimatedBytes()));
     }
 
     /**
-     * Retrieve the all calculators that are compatible with the
-     * {@link MetricDescriptionConstants#UTILIZATION_OF_ACTIVE_RESOURCE_TUPLE} metric and associated
-     * with an {@link ProcessingResourceSpecification} (i.e., an active resource). These are the
-     * calculators which compute the 'overall utilization' of multi-core resources.
+     * Gets the data currently retained by the sliding windows this scope has created in its
+     * {@link SlidingWindowRegistry}, i.e., the resource state measurements they enclose. A window
+     * that is shared by the scopes of nested entities is accounted for by the scope that has
+     * subscribed to it first, so that the footprints of all scopes add up to the footprint of the
+     * registry.
      * 
-     * @return A {@link Map} with the ids of the respective resources mapped onto the found
-     *         calculators
+     * @return The {@link MemoryFootprint} of the windows created by this scope, which is empty if
+     *         the scope is not fed by a {@link SlidingWindowRegistry}.
+     * @see SlidingWindowRegistry#getMemoryFootprint()
      */
-    private Map<String, Calculator> getAvailableOverallUtilizationCalculators() {
-        return this.calculatorFactory.getRegisteredCalculators().stream()
-                .filter(calc -> calc.isCompatibleWith(UTILIZATION_METRIC)
-                        && ACTIVE_RESOURCE_MP_ECLASS.isInstance(calc.getMeasuringPoint()))
-                .collect(toMap(
-                        calc -> ((ActiveResourceMeasuringPoint) calc.getMeasuringPoint()).getActiveResource().getId(),
-                        Function.identity()));
+    public MemoryFootprint getWindowFootprint() {
+        long measurements = 0;
+        for (int i = 0; i < this.ownedWindows.size(); ++i) {
+            measurements += this.ownedWindows.get(i).getNumberOfElements();
+        }
+        return MemoryFootprint.ofMeasurements(measurements);
     }
 
-    private static Optional<Calculator> findOverallUtilizationCalculatorForProcessingResource(
-            final ProcessingResourceSpecification proc,
-            final Map<String, Calculator> availableOverallUtilizationCalculators) {
-        return Optional.ofNullable(availableOverallUtilizationCalculators.get(proc.getId()));
+    /**
+     * Gets the utilization of the resource in the given slot from the most recently completed round
+     * of utilization measurements.
+     * 
+     * @param slot
+     *            The slot of the resource, ranging from {@code 0} to {@link #getResourceCount()}
+     *            (exclusive).
+     * @return The utilization of the resource as a primitive value, or {@link Double#NaN} if no
+     *         round has been completed yet.
+     */
+    public double getCurrentUtilization(final int slot) {
+        return this.collector.streams[slot].getUtilization();
+    }
+
+    /**
+     * Gets the point in time of the most recently completed round of utilization measurements as
+     * a primitive value, i.e., without the need to convert {@link #getCurrentPointInTime()}.
+     * 
+     * @return The point in simulation time of the current measurements, in seconds, or
+     *         {@link Double#NaN} if no round has been completed yet.
+     */
+    public double getCurrentPointInTimeInSeconds() {
+        return this.currentPointInTimeInSeconds;
     }
 
     @Override
@@ -260,10 +504,17 @@ public class SimulationTimeEvaluationScope extends AbstractEvaluationScope {
 
     /**
      * Removes all currently attached listeners, i.e., call is equivalent to invocation of
-     * {@link #removeListener(ISimulationEvaluationScopeListener)} once per attached listener.
+     * {@link #removeListener(ISimulationEvaluationScopeListener)} once per attached listener. An
+     * event-driven scope additionally stops observing the state calculators of its resources.
      */
     public void removeAllListeners() {
         this.collector.getObservers().forEach(this::removeListener);
+        if (this.stateListeners != null) {
+            for (ResourceStateListener stateListener : this.stateListeners) {
+                stateListener.calculator.removeObserver(stateListener);
+            }
+            this.stateListeners = null;
+        }
     }
 
     /**
@@ -278,13 +529,20 @@ public class SimulationTimeEvaluationScope extends AbstractEvaluationScope {
     /**
      * Implementation of the {@link IDataStream} interface that is internally used to manage the
      * collected output data per resource. This stream is exceptional in that it does contain at
-     * most one element at a time.
+     * most one element at a time.<br>
+     * The element is either a measurement taken from a sliding window, or a utilization and its
+     * point in time, from which a measurement is only created once a listener reads the stream.
+     * Streams also serve to hold the elements of other rounds, which are exchanged by copying
+     * rather than by creating measurements.
      * 
      * @author Florian Rosenthal
      *
      */
     private static final class SingletonDataStream implements IDataStream<MeasuringValue> {
-        private Optional<MeasuringValue> innerElement;
+        private MeasuringValue innerElement;
+        private boolean hasUtilization;
+        private double pointInTime;
+        private double utilization;
         private boolean isClosed;
 
         private static final ListIterator<MeasuringValue> EMPTY_ITERATOR = Collections.emptyListIterator();
@@ -294,13 +552,22 @@ public class SimulationTimeEvaluationScope extends AbstractEvaluationScope {
          */
         private SingletonDataStream() {
             this.isClosed = false;
-            this.innerElement = Optional.empty();
+            this.innerElement = null;
+        }
+
+        private static SingletonDataStream[] createArray(final int length) {
+            SingletonDataStream[] streams = new SingletonDataStream[length];
+            for (int i = 0; i < length; ++i) {
+                streams[i] = new SingletonDataStream();
+            }
+            return streams;
         }
 
         @Override
         public Iterator<MeasuringValue> iterator() {
             throwExceptionIfClosed();
-            return this.innerElement.map(IteratorUtils::singletonListIterator).orElse(EMPTY_ITERATOR);
+            MeasuringValue element = getElement();
+            return element == null ? EMPTY_ITERATOR : IteratorUtils.singletonListIterator(element);
         }
 
         @Override
@@ -317,13 +584,13 @@ public class SimulationTimeEvaluationScope extends AbstractEvaluationScope {
         public void close() {
             throwExceptionIfClosed();
             this.isClosed = true;
-            this.innerElement = null;
+            clear();
         }
 
         @Override
         public int size() {
             throwExceptionIfClosed();
-            return this.innerElement.map(el -> 1).orElse(0);
+            return isEmpty() ? 0 : 1;
         }
 
         /**
@@ -336,7 +603,94 @@ public class SimulationTimeEvaluationScope extends AbstractEvaluationScope {
             assert m != null;
 
             throwExceptionIfClosed();
-            this.innerElement = Optional.of(m);
+            this.innerElement = m;
+            this.hasUtilization = false;
+        }
+
+        /**
+         * Exchanges the currently contained sole element by the given utilization, without creating
+         * a {@link MeasuringValue} unless the stream is read.
+         */
+        private void setUtilization(final double pointInTime, final double utilization) {
+            throwExceptionIfClosed();
+            this.innerElement = null;
+            this.hasUtilization = true;
+            this.pointInTime = pointInTime;
+            this.utilization = utilization;
+        }
+
+        private MeasuringValue getElement() {
+            if (this.innerElement == null && this.hasUtilization) {
+                this.innerElement = createUtilizationMeasurement(Measure.valueOf(this.pointInTime, SI.SECOND),
+                        this.utilization);
+            }
+            return this.innerElement;
+        }
+
+        private boolean isEmpty() {
+            return this.innerElement == null && !this.hasUtilization;
+        }
+
+        private double getUtilization() {
+            if (this.hasUtilization) {
+                return this.utilization;
+            }
+            if (this.innerElement == null) {
+                return Double.NaN;
+            }
+            Measure<Double, Dimensionless> measure = this.innerElement
+                    .getMeasureForMetric(MetricDescriptionConstants.UTILIZATION_OF_ACTIVE_RESOURCE);
+            return measure.doubleValue(Unit.ONE);
+        }
+
+        private double getPointInTime() {
+            if (this.hasUtilization) {
+                return this.pointInTime;
+            }
+            Measure<Double, Duration> measure = this.innerElement
+                    .getMeasureForMetric(MetricDescriptionConstants.POINT_IN_TIME_METRIC);
+            return measure.doubleValue(SI.SECOND);
+        }
+
+        private void copyFrom(final SingletonDataStream other) {
+            this.innerElement = other.innerElement;
+            this.hasUtilization = other.hasUtilization;
+            this.pointInTime = other.pointInTime;
+            this.utilization = other.utilization;
+        }
+
+        private void swapWith(final SingletonDataStream other) {
+            MeasuringValue element = this.innerElement;
+            boolean hasUtilization = this.hasUtilization;
+            double pointInTime = this.pointInTime;
+            double utilization = this.utilization;
+            copyFrom(other);
+            other.innerElement = element;
+            other.hasUtilization = hasUtilization;
+            other.pointInTime = pointInTime;
+            other.utilization = utilization;
+        }
+
+        private void clear() {
+            this.innerElement = null;
+            this.hasUtilization = false;
+        }
+
+        /**
+         * Gets the data retained by the given streams, in which a utilization that has not been
+         * read as measurement counts as its primitive values.
+         */
+        private static MemoryFootprint getMemoryFootprint(final SingletonDataStream[] streams) {
+            long measurements = 0;
+            long primitiveBytes = 0;
+            for (SingletonDataStream stream : streams) {
+                if (stream.innerElement != null) {
+                    ++measurements;
+                } else if (stream.hasUtilization) {
+                    primitiveBytes += 2L * Double.BYTES;
+                }
+            }
+            return MemoryFootprint.ofMeasurements(measurements).plus(new MemoryFootprint(0, primitiveBytes));
         }
 
         /**
@@ -350,46 +704,199 @@ public class SimulationTimeEvaluationScope extends AbstractEvaluationScope {
         }
     }
 
+    /**
+     * Collects the utilization measurements of one "round", i.e., one measurement per evaluated
+     * resource. The measurements are stored in an array indexed by the slots of the resources, the
+     * slots that have already delivered their measurement are tracked in a bit set. Hence,
+     * completing a round requires neither hashing nor allocations. Rounds of vector windows and
+     * event-driven scopes, which deliver primitive utilizations, are written into the streams of
+     * the slots directly.
+     */
     private class UtilizationMeasurementsCollector extends AbstractObservable<ISimulationEvaluationScopeListener> {
 
-        private final Map<ProcessingResourceSpecification, MeasuringValue> collectedMeasurements;
-        private final int measurementsToCollect;
-
-        public UtilizationMeasurementsCollector(final int measurementsToCollect) {
-            assert measurementsToCollect > 0;
-            this.collectedMeasurements = new HashMap<ProcessingResourceSpecification, MeasuringValue>(
-                    measurementsToCollect);
-            this.measurementsToCollect = measurementsToCollect;
-        }
-
-        private void addUtilizationMeasurementForProcessingResource(final ProcessingResourceSpecification spec,
-                final MeasuringValue utilMeasurement) {
-            assert spec != null && utilMeasurement != null;
-
-            if (this.collectedMeasurements.put(spec, utilMeasurement) == null
-                    || !SimulationTimeEvaluationScope.this.simModel.getSimulationControl().isRunning()) {
-                if (this.collectedMeasurements.size() == this.measurementsToCollect) {
-                    // one "round" is complete: windows of all specs have
-                    // produced their utilization measurement
-                    // so forward data to listeners (e.g., power calculators,
-                    // consumption contexts), then clear
-                    for (ProcessingResourceSpecification proc : SimulationTimeEvaluationScope.this.processingResourceSpecs) {
-                        Set<IDataStream<MeasuringValue>> dataset = SimulationTimeEvaluationScope.this.resourceMeasurements
-                                .get(proc);
-                        assert dataset.size() == 1;
-                        // this cast is safe as we insert only
-                        // SingletonDataStream instances (cf. ctor)
-                        SingletonDataStream procMeasurements = (SingletonDataStream) dataset.iterator().next();
-                        procMeasurements.exchangeElement(this.collectedMeasurements.get(proc));
-                    }
-                    resetScope();
-                    informScopeListeners();
-                    // start anew
-                    this.collectedMeasurements.clear();
+        private final SingletonDataStream[] streams;
+        private final MeasuringValue[] collectedMeasurements;
+        private final long[] collectedSlots;
+        private final Runnable notification = () -> this.getEventDispatcher().newElementAvailable();
+        private int collectedCount;
+        private boolean initialRoundCompleted;
+
+        private AdaptiveSampling adaptiveSampling;
+        private double minIncrement;
+        private double currentIncrement;
+        private double lastAnnouncedPointInTime;
+        private double[] referenceUtilizations;
+        private SingletonDataStream[] previousRound;
+        private boolean previousRoundHeldBack;
+
+        public UtilizationMeasurementsCollector(final SingletonDataStream[] streams) {
+            assert streams.length > 0;
+            this.streams = streams;
+            this.collectedMeasurements = new MeasuringValue[streams.length];
+            this.collectedSlots = new long[(streams.length + Long.SIZE - 1) / Long.SIZE];
+            this.collectedCount = 0;
+        }
+
+        private void addUtilizationMeasurement(final int slot, final MeasuringValue utilMeasurement) {
+            assert slot >= 0 && slot < this.streams.length && utilMeasurement != null;
+
+            int word = slot >>> 6;
+            long bit = 1L << slot;
+            if ((this.collectedSlots[word] & bit) == 0) {
+                this.collectedSlots[word] |= bit;
+                ++this.collectedCount;
+            } else if (SimulationTimeEvaluationScope.this.simModel == null) {
+                throw new IllegalStateException("Given resource has already been handed a measurement in this round.");
+            } else if (SimulationTimeEvaluationScope.this.simModel.getSimulationControl().isRunning()) {
+                throw new AssertionError("This should not happen");
+            }
+            this.collectedMeasurements[slot] = utilMeasurement;
+
+            if (this.collectedCount == this.streams.length) {
+                // one "round" is complete: windows of all specs have
+                // produced their utilization measurement
+                completeCollectedRound(utilMeasurement);
+            }
+        }
+
+        /**
+         * Completes a round from the utilization vector of a vector window, which delivers the
+         * utilizations of all resources at once. The utilizations are written into the streams,
+         * so that measurements are only created for the streams that listeners read.
+         */
+        private void completeVectorRound(final double pointInTime, final double[] utilizations) {
+            assert utilizations.length == this.streams.length;
+
+            for (int i = 0; i < this.streams.length; ++i) {
+                if (this.previousRound != null) {
+                    this.previousRound[i].copyFrom(this.streams[i]);
                 }
+                this.streams[i].setUtilization(pointInTime, utilizations[i]);
+            }
+            completeCollectedRound(pointInTime);
+        }
+
+        private void completeCollectedRound(final MeasuringValue utilMeasurement) {
+            // forward data to listeners (e.g., power calculators, consumption contexts), then
+            // clear
+            for (int i = 0; i < this.streams.length; ++i) {
+                if (this.previousRound != null) {
+                    this.previousRound[i].copyFrom(this.streams[i]);
+                }
+                this.streams[i].exchangeElement(this.collectedMeasurements[i]);
+                this.collectedMeasurements[i] = null;
+            }
+            // start anew
+            Arrays.fill(this.collectedSlots, 0L);
+            this.collectedCount = 0;
+            Measure<Double, Duration> pointInTime = utilMeasurement
+                    .getMeasureForMetric(MetricDescriptionConstants.POINT_IN_TIME_METRIC);
+            completeCollectedRound(pointInTime.doubleValue(SI.SECOND));
+        }
+
+        private void completeCollectedRound(final double pointInTime) {
+            if (this.adaptiveSampling == null) {
+                completeRound(pointInTime);
             } else {
-                throw new AssertionError("This should not happen");
+                completeAdaptiveRound(pointInTime);
+            }
+        }
+
+        private MemoryFootprint getMemoryFootprint() {
+            long measurements = 0;
+            for (int i = 0; i < this.streams.length; ++i) {
+                if (this.collectedMeasurements[i] != null) {
+                    ++measurements;
+                }
+            }
+            long primitiveBytes = (long) Long.BYTES * this.collectedSlots.length;
+            if (this.referenceUtilizations != null) {
+                primitiveBytes += (long) Double.BYTES * this.referenceUtilizations.length;
+            }
+            MemoryFootprint footprint = SingletonDataStream.getMemoryFootprint(this.streams);
+            if (this.previousRound != null) {
+                footprint = footprint.plus(SingletonDataStream.getMemoryFootprint(this.previousRound));
+            }
+            return footprint.plus(MemoryFootprint.ofMeasurements(measurements))
+                    .plus(new MemoryFootprint(0, primitiveBytes));
+        }
+
+        private void enableAdaptiveSampling(final AdaptiveSampling adaptiveSampling, final double minIncrement) {
+            this.adaptiveSampling = adaptiveSampling;
+            this.minIncrement = minIncrement;
+            this.currentIncrement = minIncrement;
+            this.previousRound = SingletonDataStream.createArray(this.streams.length);
+        }
+
+        /**
+         * Decides whether the round that has just been completed is passed on to the listeners,
+         * preceded by the previous round if that one has been held back.
+         */
+        private void completeAdaptiveRound(final double pointInTime) {
+            if (this.referenceUtilizations == null) {
+                this.referenceUtilizations = new double[this.streams.length];
+            } else if (!isSteady()) {
+                this.currentIncrement = this.minIncrement;
+                if (this.previousRoundHeldBack) {
+                    completeHeldBackRound();
+                }
+            } else if (pointInTime - this.lastAnnouncedPointInTime >= this.currentIncrement - this.minIncrement / 2) {
+                this.currentIncrement = Math.min(2 * this.currentIncrement,
+                        Math.max(this.minIncrement, this.adaptiveSampling.getMaxIncrement()));
+            } else {
+                this.previousRoundHeldBack = true;
+                return;
+            }
+            for (int i = 0; i < this.streams.length; ++i) {
+                this.referenceUtilizations[i] = getCurrentUtilization(i);
+            }
+            this.lastAnnouncedPointInTime = pointInTime;
+            this.previousRoundHeldBack = false;
+            completeRound(pointInTime);
+        }
+
+        private boolean isSteady() {
+            for (int i = 0; i < this.streams.length; ++i) {
+                if (Math.abs(getCurrentUtilization(i) - this.referenceUtilizations[i]) > this.adaptiveSampling
+                        .getTolerance()) {
+                    return false;
+                }
             }
+            return true;
+        }
+
+        private void completeHeldBackRound() {
+            // the streams keep the current round in the previous one's place meanwhile
+            for (int i = 0; i < this.streams.length; ++i) {
+                this.streams[i].swapWith(this.previousRound[i]);
+            }
+            completeRound(this.streams[0].getPointInTime());
+            for (int i = 0; i < this.streams.length; ++i) {
+                this.streams[i].swapWith(this.previousRound[i]);
+            }
+        }
+
+        /**
+         * Replaces the utilization of the given slot and immediately completes a round, as done by
+         * event-driven scopes.
+         */
+        private void replaceUtilization(final int slot, final double pointInTime, final double utilization) {
+            completeInitialRound();
+            this.streams[slot].setUtilization(pointInTime, utilization);
+            completeRound(pointInTime);
+        }
+
+        private void completeInitialRound() {
+            if (!this.initialRoundCompleted) {
+                this.initialRoundCompleted = true;
+                completeRound(this.streams[0].getPointInTime());
+            }
+        }
+
+        private void completeRound(final double pointInTime) {
+            SimulationTimeEvaluationScope.this.currentPointInTimeInSeconds = pointInTime;
+            resetScope();
+            informScopeListeners();
         }
 
         private void resetScope() {
@@ -397,16 +904,69 @@ public class SimulationTimeEvaluationScope extends AbstractEvaluationScope {
         }
 
         private void informScopeListeners() {
-            this.getEventDispatcher().newElementAvailable();
+            StageTimer timer = SimulationTimeEvaluationScope.this.notificationTimer;
+            if (timer == null) {
+                this.getEventDispatcher().newElementAvailable();
+            } else {
+                timer.run(this.notification);
+            }
+        }
+    }
+
+    private static MeasuringValue createUtilizationMeasurement(final Measure<Double, Duration> pointInTime,
+            final double utilization) {
+        return new TupleMeasurement(UTILIZATION_METRIC, pointInTime, Measure.valueOf(utilization, Unit.ONE));
+    }
+
+    /**
+     * Observes the state calculator of a resource on behalf of an event-driven scope and converts
+     * the state changes into instantaneous utilization measurements.
+     */
+    private class ResourceStateListener implements IMeasurementSourceListener {
+
+        private final int slot;
+        private final boolean multiCore;
+        private final Calculator calculator;
+
+        public ResourceStateListener(final int slot, final boolean multiCore, final Calculator calculator) {
+            this.slot = slot;
+            this.multiCore = multiCore;
+            this.calculator = calculator;
+        }
+
+        @Override
+        public void newMeasurementAvailable(final MeasuringValue newMeasurement) {
+            double utilization;
+            if (this.multiCore) {
+                Measure<Double, Dimensionless> overallUtilization = newMeasurement
+                        .getMeasureForMetric(MetricDescriptionConstants.UTILIZATION_OF_ACTIVE_RESOURCE);
+                utilization = overallUtilization.doubleValue(Unit.ONE);
+            } else {
+                Measure<Long, Dimensionless> state = newMeasurement
+                        .getMeasureForMetric(MetricDescriptionConstants.STATE_OF_ACTIVE_RESOURCE_METRIC);
+                utilization = state.doubleValue(Unit.ONE) > 0 ? 1d : 0d;
+            }
+            // e.g., a growing queue of a busy resource does not change its utilization
+            if (utilization != getCurrentUtilization(this.slot)) {
+                Measure<Double, Duration> pointInTime = newMeasurement
+                        .getMeasureForMetric(MetricDescriptionConstants.POINT_IN_TIME_METRIC);
+                SimulationTimeEvaluationScope.this.collector.replaceUtilization(this.slot,
+                        pointInTime.doubleValue(SI.SECOND), utilization);
+            }
+        }
+
+        @Override
+        public void preUnregister() {
+            // implementation is not required
         }
     }
 
     private class ScopeRecorder extends AbstractRecorder {
 
-        private final ProcessingResourceSpecification spec;
+        private final int slot;
 
-        public ScopeRecorder(final ProcessingResourceSpecification spec) {
-            this.spec = spec;
+        public ScopeRecorder(final int slot) {
+            this.slot = slot;
         }
 
         @Override
@@ -419,8 +979,7 @@ public class SimulationTimeEvaluationScope extends AbstractEvaluationScope {
             // we receive a new utilization measurement now
             if (Objects.requireNonNull(measurement, "Somehow 'null' measurement was passed to recorder.")
                     .isCompatibleWith(UTILIZATION_METRIC)) {
-                SimulationTimeEvaluationScope.this.collector.addUtilizationMeasurementForProcessingResource(spec,
-                        measurement);
+                SimulationTimeEvaluationScope.this.collector.addUtilizationMeasurement(this.slot, measurement);
             }
         }
 
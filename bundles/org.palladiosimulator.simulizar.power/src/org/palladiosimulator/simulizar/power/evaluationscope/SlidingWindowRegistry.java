@@ -0,0 +1,197 @@
+package org.palladiosimulator.simulizar.power.evaluationscope;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.measure.Measure;
+import javax.measure.quantity.Duration;
+import javax.measure.unit.SI;
+
+import org.palladiosimulator.experimentanalysis.ISlidingWindowMoveOnStrategy;
+import org.palladiosimulator.experimentanalysis.KeepLastElementPriorToLowerBoundStrategy;
+import org.palladiosimulator.experimentanalysis.SlidingWindow;
+import org.palladiosimulator.experimentanalysis.SlidingWindowRecorder;
+import org.palladiosimulator.experimentanalysis.windowaggregators.SlidingWindowUtilizationAggregator;
+import org.palladiosimulator.measurementframework.MeasuringValue;
+import org.palladiosimulator.metricspec.MetricDescription;
+import org.palladiosimulator.pcm.resourceenvironment.ProcessingResourceSpecification;
+import org.palladiosimulator.probeframework.calculator.Calculator;
+import org.palladiosimulator.recorderframework.AbstractRecorder;
+import org.palladiosimulator.recorderframework.IRecorder;
+import org.palladiosimulator.recorderframework.config.IRecorderConfiguration;
+import org.palladiosimulator.simulizar.power.instrumentation.MemoryFootprint;
+import org.palladiosimulator.simulizar.slidingwindow.impl.SimulizarSlidingWindow;
+
+import de.uka.ipd.sdq.simucomframework.model.SimuComModel;
+
+/**
+ * Registry of the utilization {@link SlidingWindow}s that feed the
+ * {@link SimulationTimeEvaluationScope}s of a simulation run.<br>
+ * Windows are shared per resource, metric, window length and window increment: in nested
+ * infrastructures, a resource is typically subsumed by several monitored entities (e.g., a server,
+ * its rack and the PDU above it), and all of their scopes are served by the same window. Its
+ * aggregated utilization measurements are fanned out to every subscribed scope.
+ *
+ * @see ScopeOptions#withWindowRegistry(SlidingWindowRegistry)
+ */
+public final class SlidingWindowRegistry {
+
+    private final SimuComModel simModel;
+    private final CalculatorIndex calculatorIndex;
+    private final ISlidingWindowMoveOnStrategy moveOnStrategy = new KeepLastElementPriorToLowerBoundStrategy();
+    private final Map<WindowKey, FanOutRecorder> windows = new HashMap<>();
+
+    /**
+     * Initializes a new instance of the {@link SlidingWindowRegistry} class.
+     *
+     * @param simModel
+     *            The {@link SimuComModel} of the current simulation run.
+     * @param calculatorIndex
+     *            The {@link CalculatorIndex} to look up the calculators the windows are attached to.
+     * @throws NullPointerException
+     *             In case any of the arguments is {@code null}.
+     */
+    public SlidingWindowRegistry(final SimuComModel simModel, final CalculatorIndex calculatorIndex) {
+        this.simModel = Objects.requireNonNull(simModel, "Given SimuComModel must not be null.");
+        this.calculatorIndex = Objects.requireNonNull(calculatorIndex, "Given CalculatorIndex must not be null.");
+    }
+
+    /**
+     * Subscribes the given recorder to the aggregated utilization measurements of the given
+     * resource. The underlying window is created on first subscription only.
+     *
+     * @param proc
+     *            The {@link ProcessingResourceSpecification} whose utilization is of interest.
+     * @param windowLength
+     *            The length of the window, given in any arbitrary {@link Duration}.
+     * @param windowIncrement
+     *            The increment by what the window is moved on, given in any arbitrary
+     *            {@link Duration}.
+     * @param subscriber
+     *            The {@link IRecorder} to pass the utilization measurements to.
+     * @return The {@link SlidingWindow} created by this subscription, or an empty {@link Optional}
+     *         if the subscriber has been subscribed to an existing window. A window is thus only
+     *         returned to its first subscriber, which may account for its memory footprint.
+     * @throws IllegalStateException
+     *             In case no calculator is available that provides the resource states or
+     *             utilization of the given resource.
+     */
+    public Optional<SlidingWindow> subscribe(final ProcessingResourceSpecification proc,
+            final Measure<Double, Duration> windowLength, final Measure<Double, Duration> windowIncrement,
+            final IRecorder subscriber) {
+        Objects.requireNonNull(subscriber, "Given subscriber must not be null.");
+        MetricDescription resourceStateMetric = CalculatorIndex.getResourceStateMetric(proc);
+        WindowKey key = new WindowKey(proc.getId(), resourceStateMetric.getId(), windowLength.doubleValue(SI.SECOND),
+                windowIncrement.doubleValue(SI.SECOND));
+
+        FanOutRecorder fanOut = this.windows.get(key);
+        SlidingWindow createdWindow = null;
+        if (fanOut == null) {
+            Calculator baseCalculator = this.calculatorIndex.findResourceStateCalculator(proc);
+            SlidingWindow slidingWindow = new SimulizarSlidingWindow(windowLength, windowIncrement,
+                    resourceStateMetric, this.moveOnStrategy, this.simModel);
+            fanOut = new FanOutRecorder(slidingWindow);
+            SlidingWindowRecorder windowRecorder = new SlidingWindowRecorder(slidingWindow,
+                    new SlidingWindowUtilizationAggregator(resourceStateMetric, fanOut));
+            baseCalculator.addObserver(windowRecorder);
+            this.windows.put(key, fanOut);
+            createdWindow = slidingWindow;
+        }
+        fanOut.subscribers.add(subscriber);
+        return Optional.ofNullable(createdWindow);
+    }
+
+    /**
+     * Gets the number of distinct windows created so far.
+     *
+     * @return The number of windows, which is at most the number of subscriptions.
+     */
+    public int getWindowCount() {
+        return this.windows.size();
+    }
+
+    /**
+     * Gets the data currently retained by the windows, i.e., the resource state measurements they
+     * enclose. With the {@link KeepLastElementPriorToLowerBoundStrategy}, each window additionally
+     * keeps the last measurement prior to its lower bound, so the footprint is bounded by the
+     * number of state changes per window length rather than by the duration of the run.
+     *
+     * @return The {@link MemoryFootprint} of all windows.
+     * @see SimulationTimeEvaluationScope#getWindowFootprint()
+     */
+    public MemoryFootprint getMemoryFootprint() {
+        long measurements = 0;
+        for (FanOutRecorder fanOut : this.windows.values()) {
+            measurements += fanOut.window.getNumberOfElements();
+        }
+        return MemoryFootprint.ofMeasurements(measurements);
+    }
+
+    /**
+     * Recorder which passes each aggregated utilization measurement on to all subscribers.
+     */
+    private static final class FanOutRecorder extends AbstractRecorder {
+
+        private final SlidingWindow window;
+        private final List<IRecorder> subscribers = new ArrayList<>();
+
+        private FanOutRecorder(final SlidingWindow window) {
+            this.window = window;
+        }
+
+        @Override
+        public void initialize(final IRecorderConfiguration recorderConfiguration) {
+            // implementation is not required
+        }
+
+        @Override
+        public void writeData(final MeasuringValue measurement) {
+            for (int i = 0; i < this.subscribers.size(); ++i) {
+                this.subscribers.get(i).writeData(measurement);
+            }
+        }
+
+        @Override
+        public void flush() {
+            this.subscribers.forEach(IRecorder::flush);
+        }
+    }
+
+    private static final class WindowKey {
+        private final String resourceId;
+        private final String metricId;
+        private final double windowLength;
+        private final double windowIncrement;
+
+        private WindowKey(final String resourceId, final String metricId, final double windowLength,
+                final double windowIncrement) {
+            this.resourceId = resourceId;
+            this.metricId = metricId;
+            this.windowLength = windowLength;
+            this.windowIncrement = windowIncrement;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.resourceId, this.metricId, this.windowLength, this.windowIncrement);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof WindowKey)) {
+                return false;
+            }
+            WindowKey other = (WindowKey) obj;
+            return Double.compare(this.windowLength, other.windowLength) == 0
+                    && Double.compare(this.windowIncrement, other.windowIncrement) == 0
+                    && this.resourceId.equals(other.resourceId) && this.metricId.equals(other.metricId);
+        }
+    }
+}
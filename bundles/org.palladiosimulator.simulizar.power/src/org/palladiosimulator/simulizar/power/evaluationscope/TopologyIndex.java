@@ -0,0 +1,226 @@
+package org.palladiosimulator.simulizar.power.evaluationscope;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.palladiosimulator.edp2.models.measuringpoint.MeasuringPoint;
+import org.palladiosimulator.edp2.models.measuringpoint.ResourceURIMeasuringPoint;
+import org.palladiosimulator.pcm.resourceenvironment.ProcessingResourceSpecification;
+
+import de.fzi.power.infrastructure.PowerConsumingEntity;
+import de.fzi.power.infrastructure.PowerConsumingResource;
+import de.fzi.power.infrastructure.PowerInfrastructureRepository;
+import de.fzi.power.infrastructure.PowerProvidingEntity;
+import de.fzi.power.infrastructure.StatefulPowerConsumingResource;
+import de.fzi.power.interpreter.InterpreterUtils;
+
+/**
+ * Index of the topology of the power infrastructure models of a simulation run.<br>
+ * Looking up the {@link PowerProvidingEntity} of each measuring point and the
+ * {@link ProcessingResourceSpecification}s of each entity separately navigates the subtree of an
+ * entity once per monitored ancestor, which is quadratic in the depth of nested entities. The index
+ * is instead built in a single post-order traversal of all infrastructure models, in which the
+ * resources of an entity are composed of the resources of its children. It maps
+ * <ul>
+ * <li>the URI of each entity to the entity, which resolves {@link ResourceURIMeasuringPoint}s,</li>
+ * <li>each entity to the flattened list of the resources in its subtree, i.e., the slots of a
+ * {@link SimulationTimeEvaluationScope} of the entity, and</li>
+ * <li>each entity to its nested entities, and</li>
+ * <li>each entity to whether its subtree contains {@link StatefulPowerConsumingResource}s.</li>
+ * </ul>
+ * The setup of the power measurements thus navigates the subtrees via the index rather than
+ * traversing the subtree of each entity anew.
+ * Measuring points and entities that are not covered by the index, e.g., as they are not contained
+ * in an infrastructure model of the resource set, are resolved and indexed on first access.
+ * Instances are not thread-safe; they are meant to be used while the power measurements of a run
+ * are set up.
+ */
+public final class TopologyIndex {
+
+    private final ResourceSet resourceSet;
+    private final URIConverter uriConverter;
+    private final Map<URI, PowerProvidingEntity> entitiesByURI = new HashMap<>();
+    private final Map<MeasuringPoint, PowerProvidingEntity> entitiesByMeasuringPoint = new IdentityHashMap<>();
+    private final Map<PowerProvidingEntity, List<ProcessingResourceSpecification>> resourcesByEntity = new IdentityHashMap<>();
+    private final Map<PowerProvidingEntity, List<PowerProvidingEntity>> childrenByEntity = new IdentityHashMap<>();
+    private final Set<PowerProvidingEntity> statefulEntities = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private TopologyIndex(final ResourceSet resourceSet) {
+        this.resourceSet = resourceSet;
+        this.uriConverter = resourceSet.getURIConverter();
+    }
+
+    /**
+     * Builds the index of all {@link PowerInfrastructureRepository}s in the given resource set.
+     *
+     * @param resourceSet
+     *            The {@link ResourceSet} of the PCM models of the current run, which also contains
+     *            the infrastructure models.
+     * @return The built {@link TopologyIndex}.
+     * @throws NullPointerException
+     *             In case the given resource set is {@code null}.
+     */
+    public static TopologyIndex build(final ResourceSet resourceSet) {
+        TopologyIndex index = new TopologyIndex(
+                Objects.requireNonNull(resourceSet, "Given ResourceSet must not be null."));
+        // indexing may add resources to the set, e.g., when resource specifications are resolved
+        for (Resource resource : new ArrayList<>(resourceSet.getResources())) {
+            for (EObject root : resource.getContents()) {
+                if (root instanceof PowerInfrastructureRepository) {
+                    index.indexRepository(root);
+                }
+            }
+        }
+        return index;
+    }
+
+    private void indexRepository(final EObject repository) {
+        for (TreeIterator<EObject> contents = repository.eAllContents(); contents.hasNext();) {
+            EObject eObject = contents.next();
+            if (eObject instanceof PowerProvidingEntity) {
+                // nested entities are indexed along with their top-level entity
+                indexEntity((PowerProvidingEntity) eObject);
+                contents.prune();
+            }
+        }
+    }
+
+    private List<ProcessingResourceSpecification> indexEntity(final PowerProvidingEntity ppe) {
+        List<ProcessingResourceSpecification> resources = this.resourcesByEntity.get(ppe);
+        if (resources != null) {
+            return resources;
+        }
+        List<ProcessingResourceSpecification> subtreeResources = new ArrayList<>();
+        Set<ProcessingResourceSpecification> uniqueResources = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<PowerProvidingEntity> children = new ArrayList<>();
+        boolean stateful = false;
+        for (PowerConsumingEntity nestedEntity : ppe.getNestedPowerConsumingEntities()) {
+            if (nestedEntity instanceof PowerProvidingEntity) {
+                PowerProvidingEntity child = (PowerProvidingEntity) nestedEntity;
+                children.add(child);
+                for (ProcessingResourceSpecification spec : indexEntity(child)) {
+                    if (uniqueResources.add(spec)) {
+                        subtreeResources.add(spec);
+                    }
+                }
+                stateful |= this.statefulEntities.contains(child);
+            } else if (nestedEntity instanceof PowerConsumingResource) {
+                stateful |= nestedEntity instanceof StatefulPowerConsumingResource;
+                ProcessingResourceSpecification spec = ((PowerConsumingResource) nestedEntity)
+                        .getProcessingResourceSpecification();
+                if (spec != null && uniqueResources.add(spec)) {
+                    subtreeResources.add(spec);
+                }
+            }
+        }
+        resources = Collections.unmodifiableList(subtreeResources);
+        this.resourcesByEntity.put(ppe, resources);
+        this.childrenByEntity.put(ppe, Collections.unmodifiableList(children));
+        if (stateful) {
+            this.statefulEntities.add(ppe);
+        }
+        this.entitiesByURI.put(this.uriConverter.normalize(EcoreUtil.getURI(ppe)), ppe);
+        return resources;
+    }
+
+    /**
+     * Gets the entity the given measuring point refers to.
+     *
+     * @param measuringPoint
+     *            The {@link MeasuringPoint} of a power monitor.
+     * @return The {@link PowerProvidingEntity} the measuring point refers to, or {@code null} if it
+     *         does not refer to an entity.
+     * @throws NullPointerException
+     *             In case the given measuring point is {@code null}.
+     * @see InterpreterUtils#getPowerProvidingEntityFromMeasuringPoint(ResourceSet, MeasuringPoint)
+     */
+    public PowerProvidingEntity getPowerProvidingEntity(final MeasuringPoint measuringPoint) {
+        Objects.requireNonNull(measuringPoint, "Given MeasuringPoint must not be null.");
+        if (this.entitiesByMeasuringPoint.containsKey(measuringPoint)) {
+            return this.entitiesByMeasuringPoint.get(measuringPoint);
+        }
+        PowerProvidingEntity ppe = null;
+        if (measuringPoint instanceof ResourceURIMeasuringPoint) {
+            String resourceURI = ((ResourceURIMeasuringPoint) measuringPoint).getResourceURI();
+            if (resourceURI != null) {
+                ppe = this.entitiesByURI.get(this.uriConverter.normalize(URI.createURI(resourceURI)));
+            }
+        }
+        if (ppe == null) {
+            ppe = InterpreterUtils.getPowerProvidingEntityFromMeasuringPoint(this.resourceSet, measuringPoint);
+            if (ppe != null) {
+                indexEntity(ppe);
+            }
+        }
+        this.entitiesByMeasuringPoint.put(measuringPoint, ppe);
+        return ppe;
+    }
+
+    /**
+     * Gets the resources in the subtree of the given entity, in the order of the slots of a
+     * {@link SimulationTimeEvaluationScope} of the entity.
+     *
+     * @param ppe
+     *            A {@link PowerProvidingEntity}.
+     * @return An unmodifiable {@link List} of the {@link ProcessingResourceSpecification}s that
+     *         supply the power consuming resources in the subtree of the entity, without duplicates.
+     * @throws NullPointerException
+     *             In case the given entity is {@code null}.
+     */
+    public List<ProcessingResourceSpecification> getProcessingResourceSpecifications(final PowerProvidingEntity ppe) {
+        return indexEntity(Objects.requireNonNull(ppe, "Given PowerProvidingEntity must not be null."));
+    }
+
+    /**
+     * Gets the entities that are directly nested in the given entity.
+     *
+     * @param ppe
+     *            A {@link PowerProvidingEntity}.
+     * @return An unmodifiable {@link List} of the nested {@link PowerProvidingEntity}s, in model
+     *         order.
+     * @throws NullPointerException
+     *             In case the given entity is {@code null}.
+     */
+    public List<PowerProvidingEntity> getChildren(final PowerProvidingEntity ppe) {
+        indexEntity(Objects.requireNonNull(ppe, "Given PowerProvidingEntity must not be null."));
+        return this.childrenByEntity.get(ppe);
+    }
+
+    /**
+     * Indicates whether the consumption of the given entity depends on the history of the
+     * simulation, i.e., whether its subtree contains {@link StatefulPowerConsumingResource}s.
+     *
+     * @param ppe
+     *            A {@link PowerProvidingEntity}.
+     * @return {@code true} if a stateful resource is nested in the entity at any depth,
+     *         {@code false} otherwise.
+     * @throws NullPointerException
+     *             In case the given entity is {@code null}.
+     */
+    public boolean isStateful(final PowerProvidingEntity ppe) {
+        indexEntity(Objects.requireNonNull(ppe, "Given PowerProvidingEntity must not be null."));
+        return this.statefulEntities.contains(ppe);
+    }
+
+    /**
+     * Gets the number of indexed entities.
+     *
+     * @return The number of {@link PowerProvidingEntity}s in the index.
+     */
+    public int getEntityCount() {
+        return this.resourcesByEntity.size();
+    }
+}
@@ -0,0 +1,319 @@
+package org.palladiosimulator.simulizar.power.evaluationscope;
+
+import java.util.List;
+import java.util.Optional;
+
+import javax.measure.Measure;
+import javax.measure.quantity.Dimensionless;
+import javax.measure.quantity.Duration;
+import javax.measure.unit.SI;
+import javax.measure.unit.Unit;
+
+import org.palladiosimulator.measurementframework.MeasuringValue;
+import org.palladiosimulator.measurementframework.listener.IMeasurementSourceListener;
+import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
+import org.palladiosimulator.pcm.resourceenvironment.ProcessingResourceSpecification;
+import org.palladiosimulator.probeframework.calculator.Calculator;
+
+import de.uka.ipd.sdq.simucomframework.model.SimuComModel;
+import de.uka.ipd.sdq.simulation.abstractsimengine.AbstractSimEntityDelegator;
+import de.uka.ipd.sdq.simulation.abstractsimengine.AbstractSimEventDelegator;
+
+/**
+ * Sliding window over the utilizations of all resources of a {@link SimulationTimeEvaluationScope}
+ * at once.<br>
+ * In contrast to one {@code SimulizarSlidingWindow} per resource, each of which keeps the state
+ * measurements it encloses and moves on by a simulation event of its own, this window observes the
+ * state calculators of all resources and accumulates their busy times as primitive values. It
+ * moves on by a single simulation event per window increment, which yields the utilization vector
+ * of all resources over the past window length. The busy time of each increment is kept in a ring
+ * buffer, so the window length has to be a multiple of the increment.<br>
+ * The state of each replica of a multi-core resource is tracked separately if a state calculator is
+ * registered per replica; the utilization of the resource is then the fraction of busy replicas.
+ * Otherwise, the overall utilization of the resource is tracked instead. Initially, all resources
+ * are considered idle at time 0, and the first vector is yielded once a whole window has passed.
+ */
+final class UtilizationVectorWindow {
+
+    /**
+     * Consumer of the utilization vectors of a {@link UtilizationVectorWindow}.
+     */
+    interface RoundListener {
+
+        /**
+         * Is invoked once the window has moved on.
+         *
+         * @param pointInTime
+         *            The upper bound of the window, in seconds.
+         * @param utilizations
+         *            The utilizations of the resources over the window, indexed by their slots.
+         *            The array is reused by the window, i.e., it is only valid during the call.
+         */
+        void roundCompleted(double pointInTime, double[] utilizations);
+    }
+
+    /**
+     * Tolerance of the check whether the window length is a multiple of the increment.
+     */
+    private static final double MULTIPLE_TOLERANCE = 1e-9;
+
+    private final SimuComModel model;
+    private final RoundListener listener;
+    private final double windowLength;
+    private final double windowIncrement;
+    private final int incrementsPerWindow;
+    private final WindowEntity entity;
+    private final MoveOnEvent moveOnEvent;
+
+    /** The current utilization of each resource, e.g., the fraction of its busy replicas. */
+    private final double[] currentUtilizations;
+    private final int[] busyReplicas;
+    private final int[] replicaCounts;
+    /** The busy time of each resource since the last move, up to its last state change. */
+    private final double[] busyTimes;
+    private final double[] lastChanges;
+    /** The busy times of the past increments, per increment and resource. */
+    private final double[][] incrementBusyTimes;
+    private final double[] utilizations;
+    private long moveCount;
+
+    private UtilizationVectorWindow(final SimuComModel model, final int resourceCount,
+            final double windowLength, final double windowIncrement, final RoundListener listener) {
+        this.model = model;
+        this.listener = listener;
+        this.windowLength = windowLength;
+        this.windowIncrement = windowIncrement;
+        this.incrementsPerWindow = (int) Math.round(windowLength / windowIncrement);
+        this.entity = new WindowEntity();
+        this.moveOnEvent = new MoveOnEvent();
+        this.currentUtilizations = new double[resourceCount];
+        this.busyReplicas = new int[resourceCount];
+        this.replicaCounts = new int[resourceCount];
+        this.busyTimes = new double[resourceCount];
+        this.lastChanges = new double[resourceCount];
+        this.incrementBusyTimes = new double[this.incrementsPerWindow][resourceCount];
+        this.utilizations = new double[resourceCount];
+    }
+
+    /**
+     * Indicates whether a vector window can be used for the given window properties.
+     *
+     * @param windowLength
+     *            The length of the window.
+     * @param windowIncrement
+     *            The increment by which the window moves on.
+     * @return {@code true} if the length is a positive multiple of the increment, {@code false}
+     *         otherwise.
+     */
+    static boolean isApplicable(final Measure<Double, Duration> windowLength,
+            final Measure<Double, Duration> windowIncrement) {
+        double length = windowLength.doubleValue(SI.SECOND);
+        double increment = windowIncrement.doubleValue(SI.SECOND);
+        if (!(increment > 0) || !(length >= increment) || Double.isInfinite(length)) {
+            return false;
+        }
+        double ratio = length / increment;
+        return Math.abs(ratio - Math.rint(ratio)) <= MULTIPLE_TOLERANCE * ratio;
+    }
+
+    /**
+     * Creates a window over the given resources, which starts observing their state calculators
+     * and schedules its first move right away.
+     *
+     * @param model
+     *            The {@link SimuComModel} of the current simulation run.
+     * @param resources
+     *            The {@link ProcessingResourceSpecification}s of the scope, in the order of their
+     *            slots.
+     * @param calculatorIndex
+     *            The {@link CalculatorIndex} to look up the state calculators.
+     * @param windowLength
+     *            The length of the window.
+     * @param windowIncrement
+     *            The increment by which the window moves on.
+     * @param listener
+     *            The {@link RoundListener} to pass the utilization vectors to.
+     * @return The created window.
+     * @throws IllegalArgumentException
+     *             In case the window length is not a multiple of the increment.
+     * @throws IllegalStateException
+     *             In case no state calculator is registered for any of the resources.
+     * @see #isApplicable(Measure, Measure)
+     */
+    static UtilizationVectorWindow create(final SimuComModel model,
+            final List<ProcessingResourceSpecification> resources, final CalculatorIndex calculatorIndex,
+            final Measure<Double, Duration> windowLength, final Measure<Double, Duration> windowIncrement,
+            final RoundListener listener) {
+        if (!isApplicable(windowLength, windowIncrement)) {
+            throw new IllegalArgumentException("Window length must be a multiple of the window increment.");
+        }
+        UtilizationVectorWindow window = new UtilizationVectorWindow(model, resources.size(),
+                windowLength.doubleValue(SI.SECOND), windowIncrement.doubleValue(SI.SECOND), listener);
+        for (int slot = 0; slot < resources.size(); ++slot) {
+            window.observe(slot, resources.get(slot), calculatorIndex);
+        }
+        window.scheduleMove();
+        return window;
+    }
+
+    private void observe(final int slot, final ProcessingResourceSpecification proc,
+            final CalculatorIndex calculatorIndex) {
+        int replicaCount = proc.getNumberOfReplicas();
+        if (replicaCount > 1) {
+            Calculator[] replicaCalculators = new Calculator[replicaCount];
+            for (int replica = 0; replica < replicaCount; ++replica) {
+                Optional<Calculator> calculator = calculatorIndex.findCalculator(proc, replica,
+                        MetricDescriptionConstants.STATE_OF_ACTIVE_RESOURCE_METRIC_TUPLE);
+                if (!calculator.isPresent()) {
+                    // fall back to the overall utilization of the resource
+                    calculatorIndex.findResourceStateCalculator(proc).addObserver(new UtilizationListener(slot));
+                    return;
+                }
+                replicaCalculators[replica] = calculator.get();
+            }
+            this.replicaCounts[slot] = replicaCount;
+            for (Calculator calculator : replicaCalculators) {
+                calculator.addObserver(new ReplicaStateListener(slot));
+            }
+        } else {
+            this.replicaCounts[slot] = 1;
+            calculatorIndex.findResourceStateCalculator(proc).addObserver(new ReplicaStateListener(slot));
+        }
+    }
+
+    private void changeUtilization(final int slot, final MeasuringValue stateMeasurement,
+            final double utilization) {
+        if (utilization != this.currentUtilizations[slot]) {
+            Measure<Double, Duration> pointInTime = stateMeasurement
+                    .getMeasureForMetric(MetricDescriptionConstants.POINT_IN_TIME_METRIC);
+            accumulate(slot, pointInTime.doubleValue(SI.SECOND));
+            this.currentUtilizations[slot] = utilization;
+        }
+    }
+
+    private void accumulate(final int slot, final double pointInTime) {
+        this.busyTimes[slot] += this.currentUtilizations[slot] * (pointInTime - this.lastChanges[slot]);
+        this.lastChanges[slot] = pointInTime;
+    }
+
+    private void scheduleMove() {
+        // move times are computed as multiples to avoid the accumulation of rounding errors
+        double nextMove = (this.moveCount + 1) * this.windowIncrement;
+        this.moveOnEvent.schedule(this.entity, nextMove - this.model.getSimulationControl().getCurrentSimulationTime());
+    }
+
+    private void moveOn() {
+        ++this.moveCount;
+        double pointInTime = this.moveCount * this.windowIncrement;
+        double[] increment = this.incrementBusyTimes[(int) (this.moveCount % this.incrementsPerWindow)];
+        for (int slot = 0; slot < this.busyTimes.length; ++slot) {
+            accumulate(slot, pointInTime);
+            increment[slot] = this.busyTimes[slot];
+            this.busyTimes[slot] = 0d;
+        }
+        if (this.moveCount >= this.incrementsPerWindow) {
+            for (int slot = 0; slot < this.utilizations.length; ++slot) {
+                double busyTime = 0d;
+                for (double[] pastIncrement : this.incrementBusyTimes) {
+                    busyTime += pastIncrement[slot];
+                }
+                this.utilizations[slot] = Math.min(1d, busyTime / this.windowLength);
+            }
+            this.listener.roundCompleted(pointInTime, this.utilizations);
+        }
+        if (this.model.getSimulationControl().isRunning()) {
+            scheduleMove();
+        }
+    }
+
+    /**
+     * Gets the size of the primitive values kept by this window.
+     *
+     * @return The size in bytes, which depends on the number of resources and of increments per
+     *         window only.
+     */
+    long getEstimatedBytes() {
+        long resourceCount = this.utilizations.length;
+        return Double.BYTES * (this.incrementsPerWindow + 4) * resourceCount + Integer.BYTES * 2 * resourceCount;
+    }
+
+    /**
+     * Observes the state of one replica of a resource, i.e., its number of jobs.
+     */
+    private final class ReplicaStateListener implements IMeasurementSourceListener {
+
+        private final int slot;
+        private boolean busy;
+
+        private ReplicaStateListener(final int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public void newMeasurementAvailable(final MeasuringValue newMeasurement) {
+            Measure<Long, Dimensionless> state = newMeasurement
+                    .getMeasureForMetric(MetricDescriptionConstants.STATE_OF_ACTIVE_RESOURCE_METRIC);
+            boolean nowBusy = state.doubleValue(Unit.ONE) > 0;
+            if (nowBusy != this.busy) {
+                this.busy = nowBusy;
+                int busyReplicas = UtilizationVectorWindow.this.busyReplicas[this.slot] += nowBusy ? 1 : -1;
+                changeUtilization(this.slot, newMeasurement,
+                        (double) busyReplicas / UtilizationVectorWindow.this.replicaCounts[this.slot]);
+            }
+        }
+
+        @Override
+        public void preUnregister() {
+            // implementation is not required
+        }
+    }
+
+    /**
+     * Observes the overall utilization of a multi-core resource.
+     */
+    private final class UtilizationListener implements IMeasurementSourceListener {
+
+        private final int slot;
+
+        private UtilizationListener(final int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public void newMeasurementAvailable(final MeasuringValue newMeasurement) {
+            Measure<Double, Dimensionless> utilization = newMeasurement
+                    .getMeasureForMetric(MetricDescriptionConstants.UTILIZATION_OF_ACTIVE_RESOURCE);
+            changeUtilization(this.slot, newMeasurement, utilization.doubleValue(Unit.ONE));
+        }
+
+        @Override
+        public void preUnregister() {
+            // implementation is not required
+        }
+    }
+
+    /**
+     * Simulation entity on whose behalf the window moves on.
+     */
+    private final class WindowEntity extends AbstractSimEntityDelegator {
+
+        private WindowEntity() {
+            super(UtilizationVectorWindow.this.model, "UtilizationVectorWindow");
+        }
+    }
+
+    /**
+     * Simulation event that moves the window on.
+     */
+    private final class MoveOnEvent extends AbstractSimEventDelegator<WindowEntity> {
+
+        private MoveOnEvent() {
+            super(UtilizationVectorWindow.this.model, "MoveOnUtilizationVectorWindow");
+        }
+
+        @Override
+        public void eventRoutine(final WindowEntity who) {
+            moveOn();
+        }
+    }
+}
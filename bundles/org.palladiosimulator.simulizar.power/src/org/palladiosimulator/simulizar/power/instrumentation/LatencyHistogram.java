@@ -0,0 +1,47 @@
+package org.palladiosimulator.simulizar.power.instrumentation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe histogram of latencies with buckets of exponentially growing width, i.e., bucket
+ * {@code i} counts the latencies below {@code 2^i} nanoseconds that do not fall into a lower
+ * bucket. The last bucket counts all longer latencies.
+ */
+final class LatencyHistogram {
+
+    static final int BUCKET_COUNT = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    void record(final long nanos) {
+        long latency = Math.max(0L, nanos);
+        this.buckets.incrementAndGet(Math.min(BUCKET_COUNT - 1, Long.SIZE - Long.numberOfLeadingZeros(latency)));
+        this.count.increment();
+        this.totalNanos.add(latency);
+        if (latency > this.maxNanos.get()) {
+            this.maxNanos.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    LatencyStatistics snapshot() {
+        long[] bucketCounts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            bucketCounts[i] = this.buckets.get(i);
+        }
+        return new LatencyStatistics(this.count.sum(), this.totalNanos.sum(), this.maxNanos.get(), bucketCounts);
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            this.buckets.set(i, 0L);
+        }
+        this.count.reset();
+        this.totalNanos.reset();
+        this.maxNanos.set(0L);
+    }
+}
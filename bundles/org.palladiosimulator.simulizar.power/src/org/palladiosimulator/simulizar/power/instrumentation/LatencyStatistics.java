@@ -0,0 +1,80 @@
+package org.palladiosimulator.simulizar.power.instrumentation;
+
+/**
+ * Immutable snapshot of the latencies recorded for a {@link Stage}.
+ */
+public final class LatencyStatistics {
+
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long[] bucketCounts;
+
+    LatencyStatistics(final long count, final long totalNanos, final long maxNanos, final long[] bucketCounts) {
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.bucketCounts = bucketCounts;
+    }
+
+    /**
+     * Gets the number of recorded invocations.
+     *
+     * @return The number of invocations.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Gets the sum of the recorded latencies.
+     *
+     * @return The total latency, in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return this.totalNanos;
+    }
+
+    /**
+     * Gets the longest recorded latency.
+     *
+     * @return The maximum latency, in nanoseconds.
+     */
+    public long getMaxNanos() {
+        return this.maxNanos;
+    }
+
+    /**
+     * Gets the mean of the recorded latencies.
+     *
+     * @return The mean latency, in nanoseconds, or {@code 0} if nothing has been recorded.
+     */
+    public double getMeanNanos() {
+        return this.count == 0 ? 0d : (double) this.totalNanos / this.count;
+    }
+
+    /**
+     * Gets the number of latencies per histogram bucket.
+     *
+     * @return The counts, one per bucket.
+     * @see #getBucketUpperBoundsNanos()
+     */
+    public long[] getBucketCounts() {
+        return this.bucketCounts.clone();
+    }
+
+    /**
+     * Gets the exclusive upper bounds of the histogram buckets, i.e., the powers of two. The last
+     * bucket is unbounded, which is denoted by {@link Long#MAX_VALUE}.
+     *
+     * @return The upper bounds, in nanoseconds, one per bucket.
+     * @see #getBucketCounts()
+     */
+    public long[] getBucketUpperBoundsNanos() {
+        long[] upperBounds = new long[this.bucketCounts.length];
+        for (int i = 0; i < upperBounds.length; ++i) {
+            upperBounds[i] = i == upperBounds.length - 1 ? Long.MAX_VALUE : 1L << i;
+        }
+        return upperBounds;
+    }
+}
@@ -0,0 +1,112 @@
+package org.palladiosimulator.simulizar.power.instrumentation;
+
+/**
+ * Immutable estimate of the data retained by a component of the power analysis, e.g., an
+ * evaluation scope or a calculator.<br>
+ * The byte estimates are coarse: they assume a 64-bit JVM with compressed references, and each
+ * retained measurement object is accounted for with the size of a {@code TupleMeasurement} of a
+ * point in time and one value. They are meant to reveal growth over a run, not to predict the
+ * exact heap usage.
+ */
+public final class MemoryFootprint {
+
+    /**
+     * This constant denotes a component that retains nothing.
+     */
+    public static final MemoryFootprint EMPTY = new MemoryFootprint(0, 0);
+
+    /**
+     * This constant holds the estimated size of a measurement object in bytes.
+     */
+    public static final long BYTES_PER_MEASUREMENT = 224;
+
+    /**
+     * This constant holds the size of a measurement kept as primitive values, i.e., a point in time
+     * and a value, in bytes.
+     */
+    public static final long BYTES_PER_SAMPLE = 2 * Double.BYTES;
+
+    private final long retainedMeasurements;
+    private final long estimatedBytes;
+
+    /**
+     * Initializes a new instance of the {@link MemoryFootprint} class.
+     *
+     * @param retainedMeasurements
+     *            The number of retained measurements, whether kept as objects or as primitive
+     *            values.
+     * @param estimatedBytes
+     *            The estimated size of the retained data in bytes.
+     * @throws IllegalArgumentException
+     *             In case any of the arguments is negative.
+     */
+    public MemoryFootprint(final long retainedMeasurements, final long estimatedBytes) {
+        if (retainedMeasurements < 0 || estimatedBytes < 0) {
+            throw new IllegalArgumentException("Given counts must be non-negative.");
+        }
+        this.retainedMeasurements = retainedMeasurements;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    /**
+     * Creates the footprint of the given number of measurement objects.
+     *
+     * @param count
+     *            The number of retained measurement objects.
+     * @return The {@link MemoryFootprint}.
+     * @see #BYTES_PER_MEASUREMENT
+     */
+    public static MemoryFootprint ofMeasurements(final long count) {
+        return count == 0 ? EMPTY : new MemoryFootprint(count, count * BYTES_PER_MEASUREMENT);
+    }
+
+    /**
+     * Creates the footprint of the given number of measurements kept as primitive values.
+     *
+     * @param count
+     *            The number of retained samples.
+     * @return The {@link MemoryFootprint}.
+     * @see #BYTES_PER_SAMPLE
+     */
+    public static MemoryFootprint ofSamples(final long count) {
+        return count == 0 ? EMPTY : new MemoryFootprint(count, count * BYTES_PER_SAMPLE);
+    }
+
+    /**
+     * Adds the given footprint to this one.
+     *
+     * @param other
+     *            Another {@link MemoryFootprint}.
+     * @return The {@link MemoryFootprint} of both components together.
+     */
+    public MemoryFootprint plus(final MemoryFootprint other) {
+        if (other.retainedMeasurements == 0 && other.estimatedBytes == 0) {
+            return this;
+        }
+        return new MemoryFootprint(this.retainedMeasurements + other.retainedMeasurements,
+                this.estimatedBytes + other.estimatedBytes);
+    }
+
+    /**
+     * Gets the number of retained measurements.
+     *
+     * @return The number of measurements, whether kept as objects or as primitive values.
+     */
+    public long getRetainedMeasurements() {
+        return this.retainedMeasurements;
+    }
+
+    /**
+     * Gets the estimated size of the retained data.
+     *
+     * @return The estimated size in bytes.
+     */
+    public long getEstimatedBytes() {
+        return this.estimatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return this.retainedMeasurements + " measurements, ~" + this.estimatedBytes + " bytes";
+    }
+}
@@ -0,0 +1,432 @@
+package org.palladiosimulator.simulizar.power.instrumentation;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.palladiosimulator.measurementframework.MeasuringValue;
+import org.palladiosimulator.measurementframework.listener.IMeasurementSourceListener;
+import org.palladiosimulator.recorderframework.AbstractRecorder;
+import org.palladiosimulator.recorderframework.IRecorder;
+import org.palladiosimulator.recorderframework.config.IRecorderConfiguration;
+import org.palladiosimulator.simulizar.power.calculators.IDoubleMeasurementListener;
+import org.palladiosimulator.simulizar.power.calculators.SymmetryReductionStatistics;
+
+/**
+ * Collects counters and latency histograms of the stages of the power analysis of a simulation
+ * run, and exposes them as MXBean. In addition, each timed invocation is emitted as flight recorder
+ * event (see {@link StageTimer}).<br>
+ * The analysis is instrumented by wrapping its listeners, recorders and evaluation functions by
+ * means of the {@code instrument} methods. Hence, the analysis is not affected at all unless the
+ * instrumentation is enabled in the run configuration.<br>
+ * In addition, the components of the analysis can register suppliers of their
+ * {@link MemoryFootprint}s, which are queried on demand. Once the run has ended, the suppliers are
+ * replaced by their final footprints, so that the instrumentation, which stays registered, does
+ * not keep the components of the run alive.<br>
+ * Runs that execute concurrently in one JVM are registered under distinct names; the name of a
+ * finished run is taken over by the next run.
+ */
+public final class PowerInstrumentation implements PowerInstrumentationMXBean {
+
+    /**
+     * This constant holds the name under which the instrumentation of the most recent simulation run
+     * is registered at the platform MBean server. Runs that are active at the same time are
+     * registered under this name with an additional {@code run} key, e.g., {@code run=2}.
+     */
+    public static final String OBJECT_NAME = "org.palladiosimulator.simulizar.power:type=PowerInstrumentation";
+
+    /** The instrumentations registered by this class, by their names. */
+    private static final Map<ObjectName, PowerInstrumentation> REGISTERED = new HashMap<>();
+
+    private final Map<Stage, LatencyHistogram> histograms = new EnumMap<>(Stage.class);
+    private final List<StageTimer> timers = new CopyOnWriteArrayList<>();
+    private final List<FootprintEntry> footprints = new CopyOnWriteArrayList<>();
+    private volatile Supplier<SymmetryReductionStatistics> symmetryReduction = () -> SymmetryReductionStatistics.EMPTY;
+    private ObjectName objectName;
+    private boolean running;
+
+    /**
+     * Initializes a new instance of the {@link PowerInstrumentation} class.
+     */
+    public PowerInstrumentation() {
+        for (Stage stage : Stage.values()) {
+            this.histograms.put(stage, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Registers this instrumentation at the platform MBean server under {@link #OBJECT_NAME},
+     * replacing the instrumentation of a previous run, if any. If the instrumentation under this
+     * name belongs to a run that has not finished yet, the first numbered name that does not is
+     * used instead. The instrumentation stays registered after the run, so that it can
+     * be inspected afterwards.
+     *
+     * @throws IllegalStateException
+     *             In case the registration fails.
+     * @see #finish()
+     */
+    public void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        synchronized (REGISTERED) {
+            ObjectName name = getObjectName(1);
+            for (int run = 2; REGISTERED.containsKey(name) && REGISTERED.get(name).running; ++run) {
+                name = getObjectName(run);
+            }
+            try {
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+                server.registerMBean(this, name);
+            } catch (JMException e) {
+                throw new IllegalStateException("Power instrumentation could not be registered.", e);
+            }
+            REGISTERED.put(name, this);
+            this.objectName = name;
+            this.running = true;
+        }
+    }
+
+    /**
+     * Gets the name under which this instrumentation is registered.
+     *
+     * @return The {@link ObjectName}, or {@code null} if this instrumentation has not been
+     *         registered.
+     */
+    public ObjectName getRegisteredName() {
+        synchronized (REGISTERED) {
+            return this.objectName;
+        }
+    }
+
+    /**
+     * Marks the run of this instrumentation as finished and releases its footprint suppliers. The
+     * instrumentation stays registered until its name is taken over by a later run.
+     *
+     * @see #releaseFootprints()
+     */
+    public void finish() {
+        releaseFootprints();
+        SymmetryReductionStatistics finalSymmetryReduction = this.symmetryReduction.get();
+        this.symmetryReduction = () -> finalSymmetryReduction;
+        synchronized (REGISTERED) {
+            this.running = false;
+        }
+    }
+
+    /**
+     * Creates a timer for the invocations of the given stage on behalf of the given source.
+     *
+     * @param stage
+     *            The timed {@link Stage}.
+     * @param source
+     *            The name of the source, e.g., the monitor, on whose behalf the stage is invoked.
+     * @return The {@link StageTimer}.
+     * @throws NullPointerException
+     *             In case any of the arguments is {@code null}.
+     */
+    public StageTimer createTimer(final Stage stage, final String source) {
+        StageTimer timer = new StageTimer(Objects.requireNonNull(stage, "Given stage must not be null."),
+                Objects.requireNonNull(source, "Given source must not be null."), this.histograms.get(stage));
+        this.timers.add(timer);
+        return timer;
+    }
+
+    /**
+     * Wraps the given function so that its applications are timed.
+     *
+     * @param <T>
+     *            The type of the input of the function.
+     * @param <R>
+     *            The type of the result of the function.
+     * @param function
+     *            The function to instrument, e.g., the evaluation of a power consumption.
+     * @param stage
+     *            The {@link Stage} the function implements.
+     * @param source
+     *            The name of the source the function belongs to.
+     * @return The instrumented function.
+     */
+    public <T, R> Function<T, R> instrument(final Function<T, R> function, final Stage stage,
+            final String source) {
+        Objects.requireNonNull(function, "Given function must not be null.");
+        StageTimer timer = createTimer(stage, source);
+        return input -> timer.call(() -> function.apply(input));
+    }
+
+    /**
+     * Wraps the given listener so that its notifications are timed.
+     *
+     * @param listener
+     *            The {@link IDoubleMeasurementListener} to instrument, e.g., an energy calculator.
+     * @param stage
+     *            The {@link Stage} the listener implements.
+     * @param source
+     *            The name of the source the listener belongs to.
+     * @return The instrumented listener.
+     */
+    public IDoubleMeasurementListener instrument(final IDoubleMeasurementListener listener, final Stage stage,
+            final String source) {
+        Objects.requireNonNull(listener, "Given listener must not be null.");
+        StageTimer timer = createTimer(stage, source);
+        return new IDoubleMeasurementListener() {
+            @Override
+            public void newMeasurementAvailable(final double pointInTime, final double value) {
+                timer.run(() -> listener.newMeasurementAvailable(pointInTime, value));
+            }
+
+            @Override
+            public void preUnregister() {
+                listener.preUnregister();
+            }
+        };
+    }
+
+    /**
+     * Wraps the given listener so that its notifications are timed.
+     *
+     * @param listener
+     *            The {@link IMeasurementSourceListener} to instrument, e.g., a runtime measurement
+     *            recorder.
+     * @param stage
+     *            The {@link Stage} the listener implements.
+     * @param source
+     *            The name of the source the listener belongs to.
+     * @return The instrumented listener.
+     */
+    public IMeasurementSourceListener instrument(final IMeasurementSourceListener listener, final Stage stage,
+            final String source) {
+        Objects.requireNonNull(listener, "Given listener must not be null.");
+        StageTimer timer = createTimer(stage, source);
+        return new IMeasurementSourceListener() {
+            @Override
+            public void newMeasurementAvailable(final MeasuringValue newMeasurement) {
+                timer.run(() -> listener.newMeasurementAvailable(newMeasurement));
+            }
+
+            @Override
+            public void preUnregister() {
+                listener.preUnregister();
+            }
+        };
+    }
+
+    /**
+     * Wraps the given recorder so that its writes and flushes are timed as
+     * {@link Stage#RECORDER_WRITE}.
+     *
+     * @param recorder
+     *            The {@link IRecorder} to instrument.
+     * @param source
+     *            The name of the source the recorder belongs to.
+     * @return The instrumented recorder.
+     */
+    public IRecorder instrument(final IRecorder recorder, final String source) {
+        return new InstrumentedRecorder(Objects.requireNonNull(recorder, "Given recorder must not be null."),
+                createTimer(Stage.RECORDER_WRITE, source));
+    }
+
+    /**
+     * Registers the given supplier of the memory footprint of a component of the analysis.
+     *
+     * @param source
+     *            The name of the source the component belongs to, e.g., the monitor.
+     * @param component
+     *            The name of the component, e.g., {@code "scope"}.
+     * @param footprint
+     *            The {@link Supplier} of the current {@link MemoryFootprint} of the component. It
+     *            is invoked from management threads while the run is in progress, hence the
+     *            footprints are approximate until the run has ended.
+     * @throws NullPointerException
+     *             In case any of the arguments is {@code null}.
+     * @see #releaseFootprints()
+     */
+    public void registerFootprint(final String source, final String component,
+            final Supplier<MemoryFootprint> footprint) {
+        this.footprints.add(new FootprintEntry(Objects.requireNonNull(source, "Given source must not be null."),
+                Objects.requireNonNull(component, "Given component must not be null."),
+                Objects.requireNonNull(footprint, "Given footprint supplier must not be null.")));
+    }
+
+    /**
+     * Registers the supplier of the statistics of the symmetry reduction of the run.
+     *
+     * @param statistics
+     *            The {@link Supplier} of the current {@link SymmetryReductionStatistics}, e.g.,
+     *            {@code SymmetryReduction::getStatistics}. It is replaced by the statistics it
+     *            yields once the run has finished.
+     * @throws NullPointerException
+     *             In case the given supplier is {@code null}.
+     * @see #finish()
+     */
+    public void registerSymmetryReduction(final Supplier<SymmetryReductionStatistics> statistics) {
+        this.symmetryReduction = Objects.requireNonNull(statistics, "Given statistics supplier must not be null.");
+    }
+
+    /**
+     * Replaces each registered footprint supplier by the footprint it currently yields, which
+     * releases the references to the components of the run. This is meant to be invoked once the
+     * run has ended.
+     */
+    public void releaseFootprints() {
+        for (FootprintEntry entry : this.footprints) {
+            MemoryFootprint finalFootprint = entry.supplier.get();
+            entry.supplier = () -> finalFootprint;
+        }
+    }
+
+    @Override
+    public long getWindowRounds() {
+        long rounds = 0;
+        for (StageTimer timer : this.timers) {
+            if (timer.getStage() == Stage.SCOPE_NOTIFICATION) {
+                rounds += timer.getInvocationCount();
+            }
+        }
+        return rounds;
+    }
+
+    @Override
+    public Map<String, Long> getWindowRoundsPerScope() {
+        Map<String, Long> rounds = new TreeMap<>();
+        for (StageTimer timer : this.timers) {
+            if (timer.getStage() == Stage.SCOPE_NOTIFICATION) {
+                rounds.merge(timer.getSource(), timer.getInvocationCount(), Long::sum);
+            }
+        }
+        return rounds;
+    }
+
+    @Override
+    public MemoryFootprint getMemoryFootprint() {
+        MemoryFootprint total = MemoryFootprint.EMPTY;
+        for (FootprintEntry entry : this.footprints) {
+            total = total.plus(entry.supplier.get());
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, MemoryFootprint> getMemoryFootprintPerSource() {
+        Map<String, MemoryFootprint> footprints = new TreeMap<>();
+        for (FootprintEntry entry : this.footprints) {
+            footprints.merge(entry.source, entry.supplier.get(), MemoryFootprint::plus);
+        }
+        return footprints;
+    }
+
+    @Override
+    public Map<String, MemoryFootprint> getMemoryFootprintPerComponent() {
+        Map<String, MemoryFootprint> footprints = new TreeMap<>();
+        for (FootprintEntry entry : this.footprints) {
+            footprints.merge(entry.source + " / " + entry.component, entry.supplier.get(), MemoryFootprint::plus);
+        }
+        return footprints;
+    }
+
+    @Override
+    public SymmetryReductionStatistics getSymmetryReduction() {
+        return this.symmetryReduction.get();
+    }
+
+    @Override
+    public LatencyStatistics getScopeNotificationLatency() {
+        return this.histograms.get(Stage.SCOPE_NOTIFICATION).snapshot();
+    }
+
+    @Override
+    public LatencyStatistics getPowerEvaluationLatency() {
+        return this.histograms.get(Stage.POWER_EVALUATION).snapshot();
+    }
+
+    @Override
+    public LatencyStatistics getEnergyCalculationLatency() {
+        return this.histograms.get(Stage.ENERGY_CALCULATION).snapshot();
+    }
+
+    @Override
+    public LatencyStatistics getRecorderWriteLatency() {
+        return this.histograms.get(Stage.RECORDER_WRITE).snapshot();
+    }
+
+    @Override
+    public LatencyStatistics getRuntimeMeasurementUpdateLatency() {
+        return this.histograms.get(Stage.RUNTIME_MEASUREMENT_UPDATE).snapshot();
+    }
+
+    @Override
+    public void reset() {
+        this.histograms.values().forEach(LatencyHistogram::reset);
+        this.timers.forEach(StageTimer::reset);
+    }
+
+    private static ObjectName getObjectName(final int run) {
+        try {
+            return new ObjectName(run == 1 ? OBJECT_NAME : OBJECT_NAME + ",run=" + run);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Registered footprint supplier of a component.
+     */
+    private static final class FootprintEntry {
+
+        private final String source;
+        private final String component;
+        private volatile Supplier<MemoryFootprint> supplier;
+
+        private FootprintEntry(final String source, final String component,
+                final Supplier<MemoryFootprint> supplier) {
+            this.source = source;
+            this.component = component;
+            this.supplier = supplier;
+        }
+    }
+
+    /**
+     * Recorder which times the writes and flushes of another recorder.
+     */
+    private static final class InstrumentedRecorder extends AbstractRecorder {
+
+        private final IRecorder recorder;
+        private final StageTimer timer;
+
+        private InstrumentedRecorder(final IRecorder recorder, final StageTimer timer) {
+            this.recorder = recorder;
+            this.timer = timer;
+        }
+
+        @Override
+        public void initialize(final IRecorderConfiguration recorderConfiguration) {
+            this.recorder.initialize(recorderConfiguration);
+        }
+
+        @Override
+        public void writeData(final MeasuringValue measurement) {
+            this.timer.run(() -> this.recorder.writeData(measurement));
+        }
+
+        @Override
+        public void flush() {
+            this.timer.run(this.recorder::flush);
+        }
+
+        @Override
+        public void preUnregister() {
+            this.timer.run(this.recorder::preUnregister);
+        }
+    }
+}
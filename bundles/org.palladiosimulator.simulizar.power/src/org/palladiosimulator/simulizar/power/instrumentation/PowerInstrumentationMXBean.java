@@ -0,0 +1,99 @@
+package org.palladiosimulator.simulizar.power.instrumentation;
+
+import java.util.Map;
+
+import org.palladiosimulator.simulizar.power.calculators.SymmetryReductionStatistics;
+
+/**
+ * Management interface of the {@link PowerInstrumentation}, through which the counters and
+ * latency histograms of the power analysis can be inspected, e.g., with JConsole or JDK Mission
+ * Control.
+ */
+public interface PowerInstrumentationMXBean {
+
+    /**
+     * Gets the number of completed sliding window rounds of all evaluation scopes.
+     *
+     * @return The number of rounds.
+     */
+    long getWindowRounds();
+
+    /**
+     * Gets the number of completed sliding window rounds per evaluation scope.
+     *
+     * @return The number of rounds, keyed by the name of the monitor of the scope.
+     */
+    Map<String, Long> getWindowRoundsPerScope();
+
+    /**
+     * Gets the memory footprint of all registered components of the analysis.
+     *
+     * @return The total {@link MemoryFootprint}.
+     */
+    MemoryFootprint getMemoryFootprint();
+
+    /**
+     * Gets the memory footprint of the registered components per source.
+     *
+     * @return The {@link MemoryFootprint}s, keyed by the name of the monitor the components belong
+     *         to.
+     */
+    Map<String, MemoryFootprint> getMemoryFootprintPerSource();
+
+    /**
+     * Gets the memory footprint of each registered component, e.g., of each scope and calculator.
+     *
+     * @return The {@link MemoryFootprint}s, keyed by the name of the monitor and the name of the
+     *         component, separated by {@code " / "}.
+     */
+    Map<String, MemoryFootprint> getMemoryFootprintPerComponent();
+
+    /**
+     * Gets the grouping of the monitored entities with identical power model bindings and the
+     * number of evaluations shared within the groups.
+     *
+     * @return The {@link SymmetryReductionStatistics}, which are empty unless symmetry reduction is
+     *         enabled.
+     */
+    SymmetryReductionStatistics getSymmetryReduction();
+
+    /**
+     * Gets the latencies of the notifications of scope listeners.
+     *
+     * @return The {@link LatencyStatistics} of {@link Stage#SCOPE_NOTIFICATION}.
+     */
+    LatencyStatistics getScopeNotificationLatency();
+
+    /**
+     * Gets the latencies of power consumption evaluations.
+     *
+     * @return The {@link LatencyStatistics} of {@link Stage#POWER_EVALUATION}.
+     */
+    LatencyStatistics getPowerEvaluationLatency();
+
+    /**
+     * Gets the latencies of the energy calculators.
+     *
+     * @return The {@link LatencyStatistics} of {@link Stage#ENERGY_CALCULATION}.
+     */
+    LatencyStatistics getEnergyCalculationLatency();
+
+    /**
+     * Gets the latencies of recorder writes.
+     *
+     * @return The {@link LatencyStatistics} of {@link Stage#RECORDER_WRITE}.
+     */
+    LatencyStatistics getRecorderWriteLatency();
+
+    /**
+     * Gets the latencies of runtime measurement updates.
+     *
+     * @return The {@link LatencyStatistics} of {@link Stage#RUNTIME_MEASUREMENT_UPDATE}.
+     */
+    LatencyStatistics getRuntimeMeasurementUpdateLatency();
+
+    /**
+     * Resets all counters and histograms.
+     */
+    void reset();
+}
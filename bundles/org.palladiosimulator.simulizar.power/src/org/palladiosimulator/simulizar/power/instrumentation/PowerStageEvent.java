@@ -0,0 +1,60 @@
+package org.palladiosimulator.simulizar.power.instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event that spans one invocation of a {@link Stage} of the power analysis.<br>
+ * This class must only be loaded if the flight recorder API is available at runtime, as it is
+ * imported optionally.
+ */
+@Name("org.palladiosimulator.simulizar.power.Stage")
+@Label("Power Analysis Stage")
+@Category({ "Palladio", "SimuLizar Power" })
+@Description("Invocation of a stage of the power analysis, e.g., the evaluation of a power consumption.")
+@StackTrace(false)
+final class PowerStageEvent extends Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Source")
+    @Description("The monitor the invocation belongs to.")
+    String source;
+
+    /**
+     * Creates an event and begins its timing.
+     *
+     * @return The created event.
+     */
+    static PowerStageEvent beginStage() {
+        PowerStageEvent event = new PowerStageEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the timing of the given event, and commits it if it is enabled in the running recording.
+     *
+     * @param event
+     *            An event created by {@link #beginStage()}. It is passed as {@link Object}, so that
+     *            callers need not refer to this class.
+     * @param stage
+     *            The invoked {@link Stage}.
+     * @param source
+     *            The monitor the invocation belongs to.
+     */
+    static void endStage(final Object event, final Stage stage, final String source) {
+        PowerStageEvent stageEvent = (PowerStageEvent) event;
+        stageEvent.end();
+        if (stageEvent.shouldCommit()) {
+            stageEvent.stage = stage.getLabel();
+            stageEvent.source = source;
+            stageEvent.commit();
+        }
+    }
+}
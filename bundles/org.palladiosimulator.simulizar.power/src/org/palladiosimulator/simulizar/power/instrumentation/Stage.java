@@ -0,0 +1,52 @@
+package org.palladiosimulator.simulizar.power.instrumentation;
+
+/**
+ * The stages of the power analysis whose latencies are recorded by the
+ * {@link PowerInstrumentation}. Stages nest: the notification of the listeners of a scope includes
+ * the evaluation of the power consumption, which in turn includes the passing on of the
+ * consumption to the energy calculator, the recorders and the runtime measurement model.
+ */
+public enum Stage {
+
+    /**
+     * The notification of the listeners of an evaluation scope once it has completed a round of
+     * its sliding windows.
+     */
+    SCOPE_NOTIFICATION("Scope notification"),
+
+    /**
+     * The evaluation of the power consumption of a monitored entity, i.e., of the
+     * {@code PowerConsumptionSwitch} or the compiled power model structure.
+     */
+    POWER_EVALUATION("Power evaluation"),
+
+    /**
+     * The integration of a power consumption by an energy calculator.
+     */
+    ENERGY_CALCULATION("Energy calculation"),
+
+    /**
+     * The writing of a measurement by a recorder, e.g., to EDP2.
+     */
+    RECORDER_WRITE("Recorder write"),
+
+    /**
+     * The update of the runtime measurement model with a measurement.
+     */
+    RUNTIME_MEASUREMENT_UPDATE("Runtime measurement update");
+
+    private final String label;
+
+    Stage(final String label) {
+        this.label = label;
+    }
+
+    /**
+     * Gets the human-readable name of this stage.
+     *
+     * @return The label of the stage.
+     */
+    public String getLabel() {
+        return this.label;
+    }
+}
@@ -0,0 +1,98 @@
+package org.palladiosimulator.simulizar.power.instrumentation;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Times the invocations of a {@link Stage} on behalf of one source, e.g., the monitor of a power
+ * consumption. Each invocation is recorded in the latency histogram of the stage and emitted as
+ * flight recorder event, provided the event is enabled in the running recording. The flight
+ * recorder API is imported optionally; if the runtime does not provide it, invocations are only
+ * recorded in the histograms.<br>
+ * Timers are obtained from a {@link PowerInstrumentation} and may be used concurrently.
+ */
+public final class StageTimer {
+
+    private static final boolean FLIGHT_RECORDER_AVAILABLE = isFlightRecorderAvailable();
+
+    private final Stage stage;
+    private final String source;
+    private final LatencyHistogram histogram;
+    private final LongAdder invocations = new LongAdder();
+
+    StageTimer(final Stage stage, final String source, final LatencyHistogram histogram) {
+        this.stage = stage;
+        this.source = source;
+        this.histogram = histogram;
+    }
+
+    /**
+     * Runs and times the given action.
+     *
+     * @param action
+     *            The invocation of the stage.
+     */
+    public void run(final Runnable action) {
+        // the event class is only loaded if the flight recorder API is available
+        Object event = FLIGHT_RECORDER_AVAILABLE ? PowerStageEvent.beginStage() : null;
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            record(event, start);
+        }
+    }
+
+    /**
+     * Runs and times the given action.
+     *
+     * @param <T>
+     *            The type of the result of the action.
+     * @param action
+     *            The invocation of the stage.
+     * @return The result of the action.
+     */
+    public <T> T call(final Supplier<T> action) {
+        // the event class is only loaded if the flight recorder API is available
+        Object event = FLIGHT_RECORDER_AVAILABLE ? PowerStageEvent.beginStage() : null;
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            record(event, start);
+        }
+    }
+
+    Stage getStage() {
+        return this.stage;
+    }
+
+    String getSource() {
+        return this.source;
+    }
+
+    long getInvocationCount() {
+        return this.invocations.sum();
+    }
+
+    void reset() {
+        this.invocations.reset();
+    }
+
+    private void record(final Object event, final long start) {
+        this.histogram.record(System.nanoTime() - start);
+        this.invocations.increment();
+        if (event != null) {
+            PowerStageEvent.endStage(event, this.stage, this.source);
+        }
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, StageTimer.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
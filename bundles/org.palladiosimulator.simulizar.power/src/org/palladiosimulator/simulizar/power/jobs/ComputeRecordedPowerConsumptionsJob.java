@@ -0,0 +1,365 @@
+package org.palladiosimulator.simulizar.power.jobs;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.measure.quantity.Energy;
+import javax.measure.quantity.Power;
+import javax.measure.quantity.Quantity;
+import javax.measure.unit.Unit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.emf.ecore.EObject;
+import org.palladiosimulator.analyzer.workflow.jobs.LoadPCMModelsIntoBlackboardJob;
+import org.palladiosimulator.edp2.datastream.IDataStream;
+import org.palladiosimulator.edp2.datastream.edp2source.Edp2DataTupleDataSource;
+import org.palladiosimulator.edp2.models.ExperimentData.ExperimentRun;
+import org.palladiosimulator.edp2.models.ExperimentData.Measurement;
+import org.palladiosimulator.edp2.models.measuringpoint.MeasuringPoint;
+import org.palladiosimulator.edp2.util.MetricDescriptionUtility;
+import org.palladiosimulator.measurementframework.MeasuringValue;
+import org.palladiosimulator.metricspec.MetricDescription;
+import org.palladiosimulator.metricspec.MetricSetDescription;
+import org.palladiosimulator.metricspec.NumericalBaseMetricDescription;
+import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
+import org.palladiosimulator.monitorrepository.MeasurementSpecification;
+import org.palladiosimulator.monitorrepository.Monitor;
+import org.palladiosimulator.monitorrepository.MonitorRepository;
+import org.palladiosimulator.monitorrepository.MonitorRepositoryPackage;
+import org.palladiosimulator.monitorrepository.TimeDriven;
+import org.palladiosimulator.pcm.resourceenvironment.ProcessingResourceSpecification;
+import org.palladiosimulator.pcmmeasuringpoint.ActiveResourceMeasuringPoint;
+import org.palladiosimulator.recorderframework.AbstractRecorder;
+import org.palladiosimulator.recorderframework.IRecorder;
+import org.palladiosimulator.recorderframework.config.AbstractRecorderConfiguration;
+import org.palladiosimulator.recorderframework.config.IRecorderConfiguration;
+import org.palladiosimulator.recorderframework.utils.RecorderExtensionHelper;
+import org.palladiosimulator.simulizar.power.evaluationscope.TopologyIndex;
+import org.palladiosimulator.simulizar.power.offline.RecordedPowerAnalysis;
+import org.palladiosimulator.simulizar.power.recording.BatchingRecorder;
+import org.palladiosimulator.simulizar.power.runconfig.ComputeRecordedPowerConsumptionsJobConfig;
+import org.palladiosimulator.simulizar.power.runconfig.PowerAnalysisConfig;
+
+import de.fzi.power.infrastructure.PowerProvidingEntity;
+import de.uka.ipd.sdq.workflow.extension.AbstractExtensionJobConfiguration;
+import de.uka.ipd.sdq.workflow.extension.AbstractWorkflowExtensionJob;
+import de.uka.ipd.sdq.workflow.jobs.CleanupFailedException;
+import de.uka.ipd.sdq.workflow.jobs.JobFailedException;
+import de.uka.ipd.sdq.workflow.jobs.UserCanceledException;
+import de.uka.ipd.sdq.workflow.mdsd.blackboard.MDSDBlackboard;
+import de.uka.ipd.sdq.workflow.mdsd.blackboard.ResourceSetPartition;
+
+/**
+ * This class is an {@link AbstractWorkflowExtensionJob} implementation to compute the power and
+ * energy consumptions of all monitored {@link PowerProvidingEntity}s from a previous simulation
+ * run, so that changed power bindings can be evaluated without simulating again.<br>
+ * For each power {@link MeasurementSpecification} of the monitor repository in the blackboard, the
+ * recorded state series (or, if there are none, the recorded utilization series) of the resources
+ * of the entity are read from the recorded {@link ExperimentRun} and streamed through a
+ * {@link RecordedPowerAnalysis}. The state series of multi-core resources are recorded per replica,
+ * i.e., per core, and are only used if the series of all replicas have been recorded. Recorded
+ * utilization series must have been aggregated by the sliding windows of the power measurement
+ * specification. The series are consumed lazily and the consumptions are written in
+ * chunks, hence the memory required does not grow with the length of the run. Entities are
+ * processed in parallel according to the evaluation parallelism of the {@link PowerAnalysisConfig};
+ * the writes to the recorders are serialized.
+ * 
+ * @see ComputeRecordedPowerConsumptionsJobConfig
+ */
+public final class ComputeRecordedPowerConsumptionsJob extends AbstractWorkflowExtensionJob<MDSDBlackboard> {
+
+    /** Replica id denoting that the replica of a recorded series is irrelevant. */
+    private static final int ANY_REPLICA = -1;
+
+    private static final MetricSetDescription POWER_CONSUMPTION_TUPLE_METRIC_DESC = MetricDescriptionConstants.POWER_CONSUMPTION_TUPLE;
+    private static final MetricSetDescription ENERGY_CONSUMPTION_TUPLE_METRIC_DESC = MetricDescriptionConstants.CUMULATIVE_ENERGY_CONSUMPTION_TUPLE;
+    private static final Unit<Power> POWER_UNIT = MetricDescriptionUtility.getDefaultUnit(
+            (NumericalBaseMetricDescription) MetricDescriptionConstants.POWER_CONSUMPTION, Power.class);
+    private static final Unit<Energy> ENERGY_UNIT = MetricDescriptionUtility.getDefaultUnit(
+            (NumericalBaseMetricDescription) MetricDescriptionConstants.ENERGY_CONSUMPTION, Energy.class);
+
+    private ComputeRecordedPowerConsumptionsJobConfig config;
+
+    /**
+     * {@inheritDoc}<br>
+     * In this case, the passed configuration must be a
+     * {@link ComputeRecordedPowerConsumptionsJobConfig}.
+     * 
+     * @throws IllegalArgumentException
+     *             In case the given configuration is not a
+     *             {@code ComputeRecordedPowerConsumptionsJobConfig}.
+     */
+    @Override
+    public void setJobConfiguration(final AbstractExtensionJobConfiguration configuration) {
+        if (!(configuration instanceof ComputeRecordedPowerConsumptionsJobConfig)) {
+            throw new IllegalArgumentException(
+                    "Given configuration must be of type 'ComputeRecordedPowerConsumptionsJobConfig'.");
+        }
+        this.config = (ComputeRecordedPowerConsumptionsJobConfig) configuration;
+        super.setJobConfiguration(configuration);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws IllegalArgumentException
+     *             In case the given blackboard is {@code null}.
+     */
+    @Override
+    public void setBlackboard(final MDSDBlackboard blackboard) {
+        if (blackboard == null) {
+            throw new IllegalArgumentException("Blackboard to set must not be null.");
+        }
+        super.setBlackboard(blackboard);
+    }
+
+    @Override
+    public MDSDBlackboard getBlackboard() {
+        return this.myBlackboard;
+    }
+
+    @Override
+    public void cleanup(final IProgressMonitor monitor) throws CleanupFailedException {
+    }
+
+    /**
+     * {@inheritDoc}<br>
+     * In this implementation, the consumptions of all monitored entities are computed and written.
+     * 
+     * @throws JobFailedException
+     *             In case the consumptions of any entity could not be computed, e.g., because the
+     *             series of a resource have not been recorded.
+     */
+    @Override
+    public void execute(final IProgressMonitor monitor) throws JobFailedException, UserCanceledException {
+        if (this.myBlackboard == null || this.config == null) {
+            throw new IllegalStateException("Blackboard and configuration have to be set beforehand!");
+        }
+        ResourceSetPartition partition = this.myBlackboard
+                .getPartition(LoadPCMModelsIntoBlackboardJob.PCM_MODELS_PARTITION_ID);
+        // analyses and recorders are set up sequentially, as the models are modified thereby
+        List<RecordedPowerAnalysis> analyses = new ArrayList<>();
+        List<Collection<IDataStream<MeasuringValue>>> openedStreams = new ArrayList<>();
+        try {
+            setUp(partition, analyses, openedStreams);
+        } catch (RuntimeException | JobFailedException e) {
+            openedStreams.forEach(streams -> streams.forEach(IDataStream::close));
+            throw e;
+        }
+
+        monitor.beginTask(getName(), analyses.size());
+        ForkJoinPool pool = new ForkJoinPool(this.config.getPowerAnalysisConfig().getEvaluationParallelism());
+        // the streams of an analysis are closed by whoever claims it first: its task, or the
+        // clean-up below if the task has not started before the pool was shut down
+        AtomicBoolean[] claims = new AtomicBoolean[analyses.size()];
+        try {
+            List<Future<Long>> results = new ArrayList<>(analyses.size());
+            for (int i = 0; i < analyses.size(); ++i) {
+                RecordedPowerAnalysis analysis = analyses.get(i);
+                Collection<IDataStream<MeasuringValue>> streams = openedStreams.get(i);
+                AtomicBoolean claim = new AtomicBoolean();
+                claims[i] = claim;
+                results.add(pool.submit(() -> {
+                    if (!claim.compareAndSet(false, true)) {
+                        throw new CancellationException("Computation has been abandoned.");
+                    }
+                    try {
+                        return analysis.run();
+                    } finally {
+                        streams.forEach(IDataStream::close);
+                    }
+                }));
+            }
+            for (Future<Long> result : results) {
+                result.get();
+                monitor.worked(1);
+            }
+        } catch (ExecutionException e) {
+            throw new JobFailedException("Recorded power consumptions could not be computed.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JobFailedException("Computation of recorded power consumptions has been interrupted.", e);
+        } finally {
+            pool.shutdownNow();
+            for (int i = 0; i < claims.length; ++i) {
+                if (claims[i] == null || claims[i].compareAndSet(false, true)) {
+                    openedStreams.get(i).forEach(IDataStream::close);
+                }
+            }
+            monitor.done();
+        }
+    }
+
+    private void setUp(final ResourceSetPartition partition, final List<RecordedPowerAnalysis> analyses,
+            final List<Collection<IDataStream<MeasuringValue>>> openedStreams) throws JobFailedException {
+        TopologyIndex topologyIndex = TopologyIndex.build(partition.getResourceSet());
+        PowerAnalysisConfig powerAnalysisConfig = this.config.getPowerAnalysisConfig();
+        Object writeLock = new Object();
+        for (MeasurementSpecification powerSpec : getPowerMeasurementSpecifications(partition)) {
+            MeasuringPoint measuringPoint = powerSpec.getMonitor().getMeasuringPoint();
+            PowerProvidingEntity ppe = topologyIndex.getPowerProvidingEntity(measuringPoint);
+            if (ppe == null) {
+                throw new JobFailedException("MeasurementSpecification '" + powerSpec.getName()
+                        + "' has to be related to a power providing entity.");
+            }
+            TimeDriven timeDriven = (TimeDriven) powerSpec.getProcessingType();
+            RecordedPowerAnalysis analysis = new RecordedPowerAnalysis(ppe, timeDriven.getWindowLengthAsMeasure(),
+                    timeDriven.getWindowIncrementAsMeasure(),
+                    powerAnalysisConfig.getEnergyIntegrator(powerSpec.getId(), true), topologyIndex);
+            openedStreams.add(setSeries(analysis, powerSpec));
+            analysis.addPowerListener(createRecorder(measuringPoint, POWER_CONSUMPTION_TUPLE_METRIC_DESC,
+                    POWER_UNIT, writeLock));
+            analysis.addEnergyListener(createRecorder(measuringPoint, ENERGY_CONSUMPTION_TUPLE_METRIC_DESC,
+                    ENERGY_UNIT, writeLock));
+            analyses.add(analysis);
+        }
+    }
+
+    private static Collection<MeasurementSpecification> getPowerMeasurementSpecifications(
+            final ResourceSetPartition partition) {
+        Collection<MeasurementSpecification> powerSpecs = new ArrayList<>();
+        for (EObject repository : partition.getElement(MonitorRepositoryPackage.eINSTANCE.getMonitorRepository())) {
+            for (Monitor monitor : ((MonitorRepository) repository).getMonitors()) {
+                for (MeasurementSpecification spec : monitor.getMeasurementSpecifications()) {
+                    if (isPowerMetric(spec.getMetricDescription()) && spec.getProcessingType() instanceof TimeDriven) {
+                        powerSpecs.add(spec);
+                    }
+                }
+            }
+        }
+        return powerSpecs;
+    }
+
+    private static boolean isPowerMetric(final MetricDescription metric) {
+        return metric != null && (metric.getId().equals(MetricDescriptionConstants.POWER_CONSUMPTION.getId())
+                || metric.getId().equals(POWER_CONSUMPTION_TUPLE_METRIC_DESC.getId()));
+    }
+
+    private Collection<IDataStream<MeasuringValue>> setSeries(final RecordedPowerAnalysis analysis,
+            final MeasurementSpecification powerSpec) throws JobFailedException {
+        Collection<IDataStream<MeasuringValue>> streams = new ArrayList<>();
+        for (ProcessingResourceSpecification resource : analysis.getResources()) {
+            int replicaCount = Math.max(1, resource.getNumberOfReplicas());
+            List<Measurement> replicaStates = new ArrayList<>(replicaCount);
+            for (int replica = 0; replica < replicaCount; ++replica) {
+                findMeasurement(resource, replica, MetricDescriptionConstants.STATE_OF_ACTIVE_RESOURCE_METRIC_TUPLE)
+                        .ifPresent(replicaStates::add);
+            }
+            if (replicaStates.size() == replicaCount) {
+                List<Iterator<MeasuringValue>> series = new ArrayList<>(replicaCount);
+                for (Measurement measurement : replicaStates) {
+                    series.add(openStream(measurement, streams).iterator());
+                }
+                if (replicaCount == 1) {
+                    analysis.setStates(resource, series.get(0));
+                } else {
+                    analysis.setReplicaStates(resource, series);
+                }
+            } else {
+                // the overall utilization of a multi-core resource is recorded for any replica
+                Measurement utilizations = findMeasurement(resource, ANY_REPLICA,
+                        MetricDescriptionConstants.UTILIZATION_OF_ACTIVE_RESOURCE_TUPLE).orElseThrow(
+                                () -> new JobFailedException("No state or utilization series of resource '"
+                                        + resource.getId() + "' required by '" + powerSpec.getName()
+                                        + "' has been recorded."));
+                analysis.setUtilizations(resource, openStream(utilizations, streams).iterator());
+            }
+        }
+        return streams;
+    }
+
+    private static IDataStream<MeasuringValue> openStream(final Measurement measurement,
+            final Collection<IDataStream<MeasuringValue>> streams) {
+        IDataStream<MeasuringValue> stream = new Edp2DataTupleDataSource(
+                measurement.getMeasurementRanges().get(0).getRawMeasurements()).getDataStream();
+        streams.add(stream);
+        return stream;
+    }
+
+    private Optional<Measurement> findMeasurement(final ProcessingResourceSpecification resource,
+            final int replicaId, final MetricDescription metric) {
+        for (Measurement measurement : this.config.getRecordedRun().getMeasurement()) {
+            MeasuringPoint measuringPoint = measurement.getMeasuringType().getMeasuringPoint();
+            if (measuringPoint instanceof ActiveResourceMeasuringPoint
+                    && (replicaId == ANY_REPLICA
+                            || ((ActiveResourceMeasuringPoint) measuringPoint).getReplicaID() == replicaId)
+                    && resource.getId().equals(((ActiveResourceMeasuringPoint) measuringPoint).getActiveResource()
+                            .getId())
+                    && metric.getId().equals(measurement.getMeasuringType().getMetric().getId())
+                    && !measurement.getMeasurementRanges().isEmpty()) {
+                return Optional.of(measurement);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private <Q extends Quantity> BatchingRecorder<Q> createRecorder(
+            final MeasuringPoint measuringPoint, final MetricSetDescription metric, final Unit<Q> valueUnit,
+            final Object writeLock) {
+        Map<String, Object> recorderConfigurationMap = new HashMap<>();
+        recorderConfigurationMap.put(AbstractRecorderConfiguration.RECORDER_ACCEPTED_METRIC, metric);
+        recorderConfigurationMap.put(AbstractRecorderConfiguration.MEASURING_POINT, measuringPoint);
+        IRecorder recorder = RecorderExtensionHelper
+                .instantiateRecorderImplementationForRecorder(this.config.getRecorderName());
+        recorder.initialize(
+                this.config.getRecorderConfigurationFactory().createRecorderConfiguration(recorderConfigurationMap));
+        return new BatchingRecorder<>(new SerializedRecorder(recorder, writeLock), metric, valueUnit,
+                this.config.getChunkSize());
+    }
+
+    @Override
+    public String getName() {
+        return "Compute Power Consumptions From Recorded Utilizations";
+    }
+
+    /**
+     * Recorder which serializes the writes to another recorder, as recorders that share a
+     * repository must not be written to concurrently.
+     */
+    private static final class SerializedRecorder extends AbstractRecorder {
+
+        private final IRecorder recorder;
+        private final Object lock;
+
+        private SerializedRecorder(final IRecorder recorder, final Object lock) {
+            this.recorder = recorder;
+            this.lock = lock;
+        }
+
+        @Override
+        public void initialize(final IRecorderConfiguration recorderConfiguration) {
+            // the recorder has been initialized beforehand
+        }
+
+        @Override
+        public void writeData(final MeasuringValue measurement) {
+            synchronized (this.lock) {
+                this.recorder.writeData(measurement);
+            }
+        }
+
+        @Override
+        public void flush() {
+            synchronized (this.lock) {
+                this.recorder.flush();
+            }
+        }
+
+        @Override
+        public void preUnregister() {
+            synchronized (this.lock) {
+                this.recorder.preUnregister();
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package org.palladiosimulator.simulizar.power.jobs;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.emf.ecore.util.InternalEList;
+import org.palladiosimulator.simulizar.power.runconfig.InfrastructureCacheValidation;
+
+/**
+ * Cache of binary serializations of infrastructure models, which load considerably faster than the
+ * XMI files they stem from.<br>
+ * There is one entry per model URI. An entry consists of a header with the SHA-256 hashes of the
+ * contents of the model file and of all model files it references, followed by the model in the
+ * binary format of EMF. The entry is loaded into a {@link BinaryResourceImpl} with the URI of the
+ * model file, so that references to and from the model resolve as if the file itself was loaded.
+ * Cross references to other models are written as proxies and thus resolved as usual. Entries are
+ * written to a temporary file and moved into place atomically, so that runs executing concurrently
+ * may share the cache directory; each run loads its own copy of the model into its resource set.
+ */
+final class InfrastructureRepositoryCache {
+
+    private static final int MAGIC = 0x50574943;
+    private static final int FORMAT_VERSION = 1;
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final String ENTRY_EXTENSION = ".bin";
+
+    private final Path directory;
+    private final InfrastructureCacheValidation validation;
+
+    /**
+     * Initializes a new instance of the {@link InfrastructureRepositoryCache} class.
+     *
+     * @param directory
+     *            The directory of the cache entries, which is created if it does not exist.
+     * @param validation
+     *            The {@link InfrastructureCacheValidation} that decides whether entries may be
+     *            loaded.
+     */
+    InfrastructureRepositoryCache(final Path directory, final InfrastructureCacheValidation validation) {
+        this.directory = Objects.requireNonNull(directory, "Given directory must not be null.");
+        this.validation = Objects.requireNonNull(validation, "Given validation must not be null.");
+    }
+
+    /**
+     * Loads the model with the given URI into the given resource set from its cache entry, provided
+     * the entry is valid.
+     *
+     * @param resourceSet
+     *            The {@link ResourceSet} to load the model into.
+     * @param modelURI
+     *            The {@link URI} of the model file.
+     * @return The loaded {@link Resource}, or {@code null} if there is no valid entry or it could
+     *         not be loaded. In the latter case, the resource set is left unchanged.
+     */
+    Resource load(final ResourceSet resourceSet, final URI modelURI) {
+        Path entry = getEntry(modelURI);
+        if (this.validation == InfrastructureCacheValidation.REBUILD || !Files.isRegularFile(entry)) {
+            return null;
+        }
+        URIConverter uriConverter = resourceSet.getURIConverter();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !modelURI.toString().equals(in.readUTF())
+                    || !Arrays.equals(readHash(in), hash(uriConverter, modelURI))) {
+                return null;
+            }
+            for (int i = in.readInt(); i > 0; --i) {
+                URI dependency = URI.createURI(in.readUTF());
+                if (!Arrays.equals(readHash(in), hash(uriConverter, dependency))) {
+                    return null;
+                }
+            }
+            Resource resource = new BinaryResourceImpl(modelURI);
+            resourceSet.getResources().add(resource);
+            try {
+                resource.load(in, resourceSet.getLoadOptions());
+            } catch (IOException | RuntimeException e) {
+                resourceSet.getResources().remove(resource);
+                return null;
+            }
+            return resource;
+        } catch (IOException e) {
+            // entry is corrupt or a model file is not readable anymore
+            return null;
+        }
+    }
+
+    /**
+     * Writes the cache entry of the given resource, replacing a previous entry atomically. Proxies
+     * within the resource are not resolved thereby.
+     *
+     * @param resource
+     *            The {@link Resource} of the model, which has been loaded from its model file.
+     * @throws IOException
+     *             In case the entry could not be written.
+     */
+    void store(final Resource resource) throws IOException {
+        URI modelURI = resource.getURI();
+        URIConverter uriConverter = resource.getResourceSet().getURIConverter();
+        Files.createDirectories(this.directory);
+        Path temporary = Files.createTempFile(this.directory, null, ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(modelURI.toString());
+                writeHash(out, hash(uriConverter, modelURI));
+                Set<String> dependencies = getDependencies(resource);
+                out.writeInt(dependencies.size());
+                for (String dependency : dependencies) {
+                    out.writeUTF(dependency);
+                    writeHash(out, hash(uriConverter, URI.createURI(dependency)));
+                }
+                BinaryResourceImpl.EObjectOutputStream eObjectOut = new BinaryResourceImpl.EObjectOutputStream(out,
+                        null);
+                eObjectOut.saveResource(resource);
+                eObjectOut.flush();
+            }
+            Files.move(temporary, getEntry(modelURI), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private Path getEntry(final URI modelURI) {
+        return this.directory.resolve(toHex(digest(modelURI.toString().getBytes(StandardCharsets.UTF_8)))
+                + ENTRY_EXTENSION);
+    }
+
+    /**
+     * Collects the URIs of the other resources the contents of the given resource refer to,
+     * without resolving proxies.
+     */
+    private static Set<String> getDependencies(final Resource resource) {
+        Set<String> dependencies = new TreeSet<>();
+        for (TreeIterator<EObject> contents = resource.getAllContents(); contents.hasNext();) {
+            Iterator<EObject> references = ((InternalEList<EObject>) contents.next().eCrossReferences())
+                    .basicIterator();
+            while (references.hasNext()) {
+                InternalEObject referenced = (InternalEObject) references.next();
+                URI dependency = referenced.eIsProxy() ? referenced.eProxyURI().trimFragment()
+                        : referenced.eResource() == null ? null : referenced.eResource().getURI();
+                if (dependency != null && !dependency.equals(resource.getURI())) {
+                    dependencies.add(dependency.toString());
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    private static byte[] hash(final URIConverter uriConverter, final URI uri) throws IOException {
+        MessageDigest digest = createDigest();
+        try (InputStream in = new DigestInputStream(uriConverter.createInputStream(uri), digest)) {
+            byte[] buffer = new byte[8192];
+            while (in.read(buffer) >= 0) {
+                // the digest is updated while reading
+            }
+        }
+        return digest.digest();
+    }
+
+    private static byte[] digest(final byte[] bytes) {
+        return createDigest().digest(bytes);
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] readHash(final DataInputStream in) throws IOException {
+        byte[] hash = new byte[in.readUnsignedByte()];
+        in.readFully(hash);
+        return hash;
+    }
+
+    private static void writeHash(final DataOutputStream out, final byte[] hash) throws IOException {
+        out.writeByte(hash.length);
+        out.write(hash);
+    }
+
+    private static String toHex(final byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -1,12 +1,36 @@
 package org.palladiosimulator.simulizar.power.jobs;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.palladiosimulator.analyzer.workflow.jobs.LoadPCMModelsIntoBlackboardJob;
+import org.palladiosimulator.edp2.models.measuringpoint.MeasuringPoint;
+import org.palladiosimulator.metricspec.MetricDescription;
+import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
+import org.palladiosimulator.monitorrepository.MeasurementSpecification;
+import org.palladiosimulator.monitorrepository.Monitor;
+import org.palladiosimulator.monitorrepository.MonitorRepository;
+import org.palladiosimulator.monitorrepository.MonitorRepositoryPackage;
 import org.palladiosimulator.simulizar.power.runconfig.LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig;
 import org.palladiosimulator.simulizar.power.runconfig.LoadPowerInfrastructureRepositoryIntoBlackboardJobConfigBuilder;
+import org.palladiosimulator.simulizar.power.runconfig.PowerAnalysisConfig;
 
 import de.fzi.power.infrastructure.PowerInfrastructureRepository;
+import de.fzi.power.infrastructure.PowerProvidingEntity;
+import de.fzi.power.interpreter.InterpreterUtils;
 import de.uka.ipd.sdq.workflow.extension.AbstractExtensionJobConfiguration;
 import de.uka.ipd.sdq.workflow.extension.AbstractWorkflowExtensionJob;
 import de.uka.ipd.sdq.workflow.jobs.CleanupFailedException;
@@ -26,6 +50,8 @@ import de.uka.ipd.sdq.workflow.mdsd.blackboard.ResourceSetPartition;
 public final class LoadPowerInfrastructureRepositoryIntoBlackboardJob extends AbstractWorkflowExtensionJob<MDSDBlackboard> {
     
     private String path;
+    private PowerAnalysisConfig powerAnalysisConfig;
+    private InfrastructureRepositoryCache cache;
     
     /**
     * Initializes a new instance of the {@link LoadPowerInfrastructureRepositoryIntoBlackboardJob} class.
@@ -47,7 +73,13 @@ public final class LoadPowerInfrastructureRepositoryIntoBlackboardJob extends Ab
             throw new IllegalArgumentException("Given configuration must be of type "
                     + "'LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig'.");
         }
-        this.path = ((LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig) configuration).getInfrastructureRepositoryPath();
+        LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig config =
+                (LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig) configuration;
+        this.path = config.getInfrastructureRepositoryPath();
+        this.powerAnalysisConfig = config.getPowerAnalysisConfig();
+        this.cache = config.isCacheEnabled()
+                ? new InfrastructureRepositoryCache(Paths.get(config.getCacheDirectory()), config.getCacheValidation())
+                : null;
         super.setJobConfiguration(configuration);
     }
     
@@ -76,6 +108,13 @@ public final class LoadPowerInfrastructureRepositoryIntoBlackboardJob extends Ab
      * {@inheritDoc}<br>
      * In this implementation, the infrastructure model is loaded into the blackboard.
      * Therefore, a {@link PowerInfrastructureRepositoryResourceSetPartition} is created and added to the blackboard.
+     * Furthermore, the {@link PowerAnalysisConfig} of the run is attached to the resource set of the PCM models.<br>
+     * If targeted proxy resolution is enabled (see {@link PowerAnalysisConfig#isTargetedProxyResolutionEnabled()}),
+     * only the cross references reachable from the power providing entities that power monitors point to are
+     * resolved upfront, whereas all other proxies are resolved lazily on first access. If no such monitor is found,
+     * all proxies are resolved as usual. If the binary infrastructure model cache is enabled, the model is loaded from
+     * a valid cache entry, or otherwise loaded from its file and written to the cache afterwards. The time taken to
+     * load and resolve is reported to the given monitor.
      * @see LoadPowerInfrastructureRepositoryIntoBlackboardJob#POWER_INFRASTRUCTURE_REPOSITORY_MODEL_PARTITION_ID
      */
     @Override
@@ -83,12 +122,101 @@ public final class LoadPowerInfrastructureRepositoryIntoBlackboardJob extends Ab
         if (this.myBlackboard == null) {
             throw new IllegalStateException("Blackboard has been not set beforehand!");
         }
+        SubMonitor progress = SubMonitor.convert(arg0, getName(), 2);
+        long start = System.nanoTime();
         ResourceSetPartition partition = this.myBlackboard.getPartition(LoadPCMModelsIntoBlackboardJob.PCM_MODELS_PARTITION_ID);
+        String source = "file";
         if (!this.path.equals("")) {
-            partition.loadModel(URI.createURI(!this.path.startsWith("platform:") ? "file:///" + this.path : this.path));
+            URI modelURI = URI.createURI(!this.path.startsWith("platform:") ? "file:///" + this.path : this.path);
+            if (this.cache != null && this.cache.load(partition.getResourceSet(), modelURI) != null) {
+                source = "cache";
+            } else {
+                partition.loadModel(modelURI);
+                storeInCache(partition.getResourceSet().getResource(modelURI, false), progress);
+            }
+        }
+        progress.worked(1);
+        String resolution;
+        int resolvedObjects = this.powerAnalysisConfig.isTargetedProxyResolutionEnabled()
+                ? resolvePowerRelevantProxies(partition) : 0;
+        if (resolvedObjects > 0) {
+            resolution = resolvedObjects + " power relevant model elements resolved, others resolved lazily";
+        } else {
+            // now resolve all cross references from current resource to PCM
+            partition.resolveAllProxies();
+            resolution = "all proxies resolved";
+        }
+        progress.worked(1);
+        // make the power analysis settings available to the simulation
+        this.powerAnalysisConfig.attachTo(partition.getResourceSet());
+        progress.subTask("Power infrastructure loaded from " + source + " in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms (" + resolution + ")");
+        progress.done();
+    }
+
+    private void storeInCache(Resource resource, IProgressMonitor progress) {
+        if (this.cache == null || resource == null) {
+            return;
+        }
+        try {
+            this.cache.store(resource);
+        } catch (IOException e) {
+            // the cache is an optimization only, so the run proceeds without it
+            progress.subTask("Power infrastructure could not be cached: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Resolves the cross references that are reachable from the power providing entities which power monitors point
+     * to, i.e., the monitors themselves, the subtrees of the entities and the transitive closure of their cross
+     * references. Containment trees of referenced elements outside of these subtrees are not traversed.
+     * @return The number of visited model elements, which is 0 if no power monitor has been found.
+     */
+    private static int resolvePowerRelevantProxies(ResourceSetPartition partition) {
+        ResourceSet resourceSet = partition.getResourceSet();
+        Set<EObject> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<EObject> pending = new ArrayDeque<>();
+        for (EObject repository : partition.getElement(MonitorRepositoryPackage.eINSTANCE.getMonitorRepository())) {
+            for (Monitor monitor : ((MonitorRepository) repository).getMonitors()) {
+                if (!isPowerMonitor(monitor)) {
+                    continue;
+                }
+                enqueue(monitor, visited, pending);
+                MeasuringPoint measuringPoint = monitor.getMeasuringPoint();
+                PowerProvidingEntity ppe = measuringPoint == null ? null
+                        : InterpreterUtils.getPowerProvidingEntityFromMeasuringPoint(resourceSet, measuringPoint);
+                if (ppe != null) {
+                    enqueue(ppe, visited, pending);
+                    for (Iterator<EObject> contents = ppe.eAllContents(); contents.hasNext();) {
+                        enqueue(contents.next(), visited, pending);
+                    }
+                }
+            }
+        }
+        while (!pending.isEmpty()) {
+            // iterating the cross references resolves them
+            for (EObject referenced : pending.poll().eCrossReferences()) {
+                enqueue(referenced, visited, pending);
+            }
+        }
+        return visited.size();
+    }
+
+    private static void enqueue(EObject eObject, Set<EObject> visited, Deque<EObject> pending) {
+        if (visited.add(eObject)) {
+            pending.add(eObject);
+        }
+    }
+
+    private static boolean isPowerMonitor(Monitor monitor) {
+        for (MeasurementSpecification spec : monitor.getMeasurementSpecifications()) {
+            MetricDescription metric = spec.getMetricDescription();
+            if (metric != null && (metric.getId().equals(MetricDescriptionConstants.POWER_CONSUMPTION.getId())
+                    || metric.getId().equals(MetricDescriptionConstants.POWER_CONSUMPTION_TUPLE.getId()))) {
+                return true;
+            }
         }
-        // now resolve all cross references from current resource to PCM
-        partition.resolveAllProxies();
+        return false;
     }
 
     @Override
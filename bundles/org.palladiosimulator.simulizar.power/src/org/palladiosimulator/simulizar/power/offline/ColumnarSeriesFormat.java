@@ -0,0 +1,145 @@
+package org.palladiosimulator.simulizar.power.offline;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of the columnar files that hold the power and energy time series of one measuring point.
+ * <br>
+ * A file starts with a header of {@link #HEADER_SIZE} bytes, which holds the magic number, the
+ * format version, the number of rows per block, the number of rows written so far and the
+ * measuring point as UTF-8 string. The header is followed by blocks of a fixed number of rows.
+ * Within a block, the values are stored column by column, i.e., first the points in time of all
+ * rows of the block in seconds, then the power consumptions in watts and finally the cumulative
+ * energy consumptions in joules. All values are stored in {@link #BYTE_ORDER}. Files are only
+ * ever appended to; the row count in the header is updated after the values of a row have been
+ * written, so that readers never see incomplete rows.
+ *
+ * @see org.palladiosimulator.simulizar.power.recording.ColumnarSeriesWriter
+ * @see ColumnarSeriesReader
+ */
+public final class ColumnarSeriesFormat {
+
+    /**
+     * This constant holds the extension of columnar series files.
+     */
+    public static final String FILE_EXTENSION = ".pcol";
+
+    /**
+     * This constant holds the magic number each file starts with, i.e., the characters "PCOL".
+     */
+    public static final int MAGIC = 0x4C4F4350;
+
+    /**
+     * This constant holds the current version of the format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * This constant holds the byte order of the header fields and the values.
+     */
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * This constant holds the size of the header in bytes, i.e., the position of the first block.
+     */
+    public static final int HEADER_SIZE = 4096;
+
+    /**
+     * This constant holds the default number of rows per block.
+     */
+    public static final int DEFAULT_BLOCK_CAPACITY = 4096;
+
+    /**
+     * This constant holds the number of columns, i.e., point in time, power and energy.
+     */
+    public static final int COLUMN_COUNT = 3;
+
+    /**
+     * This constant holds the index of the column of the points in time.
+     */
+    public static final int TIME_COLUMN = 0;
+
+    /**
+     * This constant holds the index of the column of the power consumptions.
+     */
+    public static final int POWER_COLUMN = 1;
+
+    /**
+     * This constant holds the index of the column of the cumulative energy consumptions.
+     */
+    public static final int ENERGY_COLUMN = 2;
+
+    /**
+     * This constant holds the position of the format version ({@code int}) in the header.
+     */
+    public static final int VERSION_OFFSET = 4;
+
+    /**
+     * This constant holds the position of the number of rows per block ({@code int}) in the header.
+     */
+    public static final int BLOCK_CAPACITY_OFFSET = 8;
+
+    /**
+     * This constant holds the position of the length of the measuring point in bytes ({@code int})
+     * in the header.
+     */
+    public static final int MEASURING_POINT_LENGTH_OFFSET = 12;
+
+    /**
+     * This constant holds the position of the number of rows ({@code long}) in the header.
+     */
+    public static final int ROW_COUNT_OFFSET = 16;
+
+    /**
+     * This constant holds the position of the measuring point in the header.
+     */
+    public static final int MEASURING_POINT_OFFSET = 24;
+
+    /**
+     * This constant holds the maximum length of the measuring point in bytes.
+     */
+    public static final int MAX_MEASURING_POINT_LENGTH = HEADER_SIZE - MEASURING_POINT_OFFSET;
+
+    private ColumnarSeriesFormat() {
+        // no instances
+    }
+
+    /**
+     * Gets the size of a block.
+     *
+     * @param blockCapacity
+     *            The number of rows per block.
+     * @return The size of a block in bytes.
+     */
+    public static long getBlockSize(final int blockCapacity) {
+        return (long) COLUMN_COUNT * blockCapacity * Double.BYTES;
+    }
+
+    /**
+     * Gets the position of a block in the file.
+     *
+     * @param blockCapacity
+     *            The number of rows per block.
+     * @param block
+     *            The index of the block.
+     * @return The position of the first byte of the block.
+     */
+    public static long getBlockPosition(final int blockCapacity, final long block) {
+        return HEADER_SIZE + block * getBlockSize(blockCapacity);
+    }
+
+    /**
+     * Gets the position of a value within its block.
+     *
+     * @param blockCapacity
+     *            The number of rows per block.
+     * @param column
+     *            The index of the column, e.g., {@link #POWER_COLUMN}.
+     * @param index
+     *            The index of the row within the block.
+     * @return The position of the value relative to the first byte of the block.
+     */
+    public static int getValueOffset(final int blockCapacity, final int column, final int index) {
+        return (column * blockCapacity + index) * Double.BYTES;
+    }
+}
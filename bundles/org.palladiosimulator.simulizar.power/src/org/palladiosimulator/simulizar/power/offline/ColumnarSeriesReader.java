@@ -0,0 +1,293 @@
+package org.palladiosimulator.simulizar.power.offline;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Reads the power and energy time series of one measuring point from a file in the
+ * {@link ColumnarSeriesFormat}.<br>
+ * The file is memory-mapped one block at a time, on first access to the block; the series is thus
+ * never loaded into the heap as a whole, and scanning or slicing it only touches the pages of the
+ * requested rows. Slices are located by a binary search on the column of the points in time, which
+ * are non-decreasing. The reader sees the rows that have been written when it was opened; rows
+ * appended afterwards require the file to be opened again.<br>
+ * Instances are not thread-safe.
+ *
+ * @see org.palladiosimulator.simulizar.power.recording.ColumnarSeriesWriter
+ */
+public final class ColumnarSeriesReader implements Closeable {
+
+    /**
+     * Consumer of the rows of a series.
+     */
+    @FunctionalInterface
+    public interface RowConsumer {
+
+        /**
+         * Is invoked for each row, in the order of the rows.
+         *
+         * @param pointInTime
+         *            The point in simulation time of the row, in seconds.
+         * @param power
+         *            The power consumption in watts, or {@link Double#NaN} if missing.
+         * @param energy
+         *            The cumulative energy consumption in joules, or {@link Double#NaN} if missing.
+         */
+        void accept(double pointInTime, double power, double energy);
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final String measuringPoint;
+    private final int blockCapacity;
+    private final long rowCount;
+    private final MappedByteBuffer[] blocks;
+
+    private ColumnarSeriesReader(final Path file, final FileChannel channel, final String measuringPoint,
+            final int blockCapacity, final long rowCount) {
+        this.file = file;
+        this.channel = channel;
+        this.measuringPoint = measuringPoint;
+        this.blockCapacity = blockCapacity;
+        this.rowCount = rowCount;
+        this.blocks = new MappedByteBuffer[(int) ((rowCount + blockCapacity - 1) / blockCapacity)];
+    }
+
+    /**
+     * Opens the given file for reading.
+     *
+     * @param file
+     *            The {@link Path} of a file written by a
+     *            {@link org.palladiosimulator.simulizar.power.recording.ColumnarSeriesWriter}.
+     * @return The {@link ColumnarSeriesReader} of the file.
+     * @throws NullPointerException
+     *             In case the given path is {@code null}.
+     * @throws IOException
+     *             In case the file cannot be read, is not a columnar series file of a supported
+     *             version or is truncated.
+     */
+    public static ColumnarSeriesReader open(final Path file) throws IOException {
+        Objects.requireNonNull(file, "Given Path must not be null.");
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (channel.size() < ColumnarSeriesFormat.HEADER_SIZE) {
+                throw new IOException("File '" + file + "' is not a columnar series file.");
+            }
+            ByteBuffer header = channel.map(MapMode.READ_ONLY, 0, ColumnarSeriesFormat.HEADER_SIZE)
+                    .order(ColumnarSeriesFormat.BYTE_ORDER);
+            if (header.getInt(0) != ColumnarSeriesFormat.MAGIC) {
+                throw new IOException("File '" + file + "' is not a columnar series file.");
+            }
+            int version = header.getInt(ColumnarSeriesFormat.VERSION_OFFSET);
+            if (version != ColumnarSeriesFormat.VERSION) {
+                throw new IOException("Version " + version + " of columnar series file '" + file
+                        + "' is not supported.");
+            }
+            int blockCapacity = header.getInt(ColumnarSeriesFormat.BLOCK_CAPACITY_OFFSET);
+            int nameLength = header.getInt(ColumnarSeriesFormat.MEASURING_POINT_LENGTH_OFFSET);
+            long rowCount = header.getLong(ColumnarSeriesFormat.ROW_COUNT_OFFSET);
+            if (blockCapacity < 1 || nameLength < 0 || nameLength > ColumnarSeriesFormat.MAX_MEASURING_POINT_LENGTH
+                    || rowCount < 0) {
+                throw new IOException("Header of columnar series file '" + file + "' is corrupt.");
+            }
+            long blockCount = (rowCount + blockCapacity - 1) / blockCapacity;
+            if (blockCount > Integer.MAX_VALUE
+                    || channel.size() < ColumnarSeriesFormat.getBlockPosition(blockCapacity, blockCount)) {
+                throw new IOException("Columnar series file '" + file + "' is truncated.");
+            }
+            byte[] name = new byte[nameLength];
+            header.position(ColumnarSeriesFormat.MEASURING_POINT_OFFSET);
+            header.get(name);
+            return new ColumnarSeriesReader(file, channel, new String(name, StandardCharsets.UTF_8), blockCapacity,
+                    rowCount);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the measuring point of the series.
+     *
+     * @return The string representation of the measuring point.
+     */
+    public String getMeasuringPoint() {
+        return this.measuringPoint;
+    }
+
+    /**
+     * Gets the number of rows of the series.
+     *
+     * @return The number of rows that had been written when the file was opened.
+     */
+    public long getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * Gets the point in time of a row.
+     *
+     * @param row
+     *            The index of the row.
+     * @return The point in simulation time, in seconds.
+     * @throws IndexOutOfBoundsException
+     *             In case the index is negative or not less than the row count.
+     */
+    public double getPointInTime(final long row) {
+        return getValue(ColumnarSeriesFormat.TIME_COLUMN, row);
+    }
+
+    /**
+     * Gets the power consumption of a row.
+     *
+     * @param row
+     *            The index of the row.
+     * @return The power consumption in watts, or {@link Double#NaN} if missing.
+     * @throws IndexOutOfBoundsException
+     *             In case the index is negative or not less than the row count.
+     */
+    public double getPower(final long row) {
+        return getValue(ColumnarSeriesFormat.POWER_COLUMN, row);
+    }
+
+    /**
+     * Gets the cumulative energy consumption of a row.
+     *
+     * @param row
+     *            The index of the row.
+     * @return The cumulative energy consumption in joules, or {@link Double#NaN} if missing.
+     * @throws IndexOutOfBoundsException
+     *             In case the index is negative or not less than the row count.
+     */
+    public double getEnergy(final long row) {
+        return getValue(ColumnarSeriesFormat.ENERGY_COLUMN, row);
+    }
+
+    private double getValue(final int column, final long row) {
+        if (row < 0 || row >= this.rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " is out of bounds for " + this.rowCount + " rows.");
+        }
+        return getBlock((int) (row / this.blockCapacity)).getDouble(ColumnarSeriesFormat
+                .getValueOffset(this.blockCapacity, column, (int) (row % this.blockCapacity)));
+    }
+
+    /**
+     * Gets the index of the first row at or after the given point in time.
+     *
+     * @param pointInTime
+     *            A point in simulation time, in seconds.
+     * @return The index of the first row whose point in time is not less than the given one, or the
+     *         row count if there is none.
+     */
+    public long findRow(final double pointInTime) {
+        long low = 0;
+        long high = this.rowCount;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (getPointInTime(middle) < pointInTime) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Passes all rows of the series to the given consumer.
+     *
+     * @param consumer
+     *            The {@link RowConsumer} to pass the rows to.
+     * @throws NullPointerException
+     *             In case the given consumer is {@code null}.
+     */
+    public void scan(final RowConsumer consumer) {
+        scan(0, this.rowCount, Double.POSITIVE_INFINITY,
+                Objects.requireNonNull(consumer, "Given RowConsumer must not be null."));
+    }
+
+    /**
+     * Passes the rows within the given time range to the given consumer.
+     *
+     * @param from
+     *            The lower bound of the range, inclusive, in seconds.
+     * @param to
+     *            The upper bound of the range, inclusive, in seconds.
+     * @param consumer
+     *            The {@link RowConsumer} to pass the rows to.
+     * @return The number of rows passed to the consumer.
+     * @throws NullPointerException
+     *             In case the given consumer is {@code null}.
+     * @throws IllegalArgumentException
+     *             In case the lower bound is greater than the upper bound or any bound is not a
+     *             number.
+     */
+    public long slice(final double from, final double to, final RowConsumer consumer) {
+        Objects.requireNonNull(consumer, "Given RowConsumer must not be null.");
+        if (!(from <= to)) {
+            throw new IllegalArgumentException("Given lower bound must not be greater than the upper bound.");
+        }
+        return scan(findRow(from), this.rowCount, to, consumer);
+    }
+
+    private long scan(final long firstRow, final long endRow, final double to, final RowConsumer consumer) {
+        long row = firstRow;
+        while (row < endRow) {
+            int blockIndex = (int) (row / this.blockCapacity);
+            ByteBuffer block = getBlock(blockIndex);
+            int end = (int) Math.min(this.blockCapacity, endRow - (long) blockIndex * this.blockCapacity);
+            for (int index = (int) (row % this.blockCapacity); index < end; ++index, ++row) {
+                double pointInTime = block.getDouble(ColumnarSeriesFormat.getValueOffset(this.blockCapacity,
+                        ColumnarSeriesFormat.TIME_COLUMN, index));
+                if (pointInTime > to) {
+                    return row - firstRow;
+                }
+                consumer.accept(pointInTime,
+                        block.getDouble(ColumnarSeriesFormat.getValueOffset(this.blockCapacity,
+                                ColumnarSeriesFormat.POWER_COLUMN, index)),
+                        block.getDouble(ColumnarSeriesFormat.getValueOffset(this.blockCapacity,
+                                ColumnarSeriesFormat.ENERGY_COLUMN, index)));
+            }
+        }
+        return row - firstRow;
+    }
+
+    private ByteBuffer getBlock(final int blockIndex) {
+        MappedByteBuffer block = this.blocks[blockIndex];
+        if (block == null) {
+            if (!this.channel.isOpen()) {
+                throw new IllegalStateException("Columnar series file '" + this.file + "' has already been closed.");
+            }
+            try {
+                block = this.channel.map(MapMode.READ_ONLY,
+                        ColumnarSeriesFormat.getBlockPosition(this.blockCapacity, blockIndex),
+                        ColumnarSeriesFormat.getBlockSize(this.blockCapacity));
+            } catch (IOException e) {
+                throw new IllegalStateException("Columnar series file '" + this.file + "' could not be mapped.", e);
+            }
+            block.order(ColumnarSeriesFormat.BYTE_ORDER);
+            this.blocks[blockIndex] = block;
+        }
+        return block;
+    }
+
+    /**
+     * Closes the file. Blocks that have already been mapped stay readable until they are released
+     * by the garbage collector; other blocks can no longer be accessed.
+     *
+     * @throws IOException
+     *             In case the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -0,0 +1,235 @@
+package org.palladiosimulator.simulizar.power.offline;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+import javax.measure.Measure;
+import javax.measure.quantity.Duration;
+import javax.measure.unit.SI;
+
+import org.jscience.physics.amount.Amount;
+import org.palladiosimulator.measurementframework.MeasuringValue;
+import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
+import org.palladiosimulator.pcm.resourceenvironment.ProcessingResourceSpecification;
+import org.palladiosimulator.simulizar.power.calculators.CompiledPowerEvaluator;
+import org.palladiosimulator.simulizar.power.calculators.EnergyIntegratorType;
+import org.palladiosimulator.simulizar.power.calculators.IDoubleMeasurementListener;
+import org.palladiosimulator.simulizar.power.calculators.SimulationTimeEnergyCalculator;
+import org.palladiosimulator.simulizar.power.calculators.SimulationTimePowerCalculator;
+import org.palladiosimulator.simulizar.power.evaluationscope.ScopeOptions;
+import org.palladiosimulator.simulizar.power.evaluationscope.SimulationTimeEvaluationScope;
+import org.palladiosimulator.simulizar.power.evaluationscope.TopologyIndex;
+
+import de.fzi.power.infrastructure.PowerProvidingEntity;
+import de.fzi.power.interpreter.ConsumptionContext;
+import de.fzi.power.interpreter.PowerConsumptionSwitch;
+import de.fzi.power.interpreter.PowerModelRegistry;
+import de.fzi.power.interpreter.PowerModelUpdaterSwitch;
+import de.fzi.power.interpreter.calculators.ExtensibleCalculatorInstantiatorImpl;
+
+/**
+ * Computes the power and energy consumptions of a {@link PowerProvidingEntity} from previously
+ * recorded utilization or state series of its resources, i.e., without simulating again.<br>
+ * The series are streamed through a recorded {@link SimulationTimeEvaluationScope} and the same
+ * calculators that are used at simulation time, one round of windows at a time. The power models
+ * are instantiated per analysis; analyses of different entities may thus run concurrently.
+ *
+ * @see ScopeOptions#recorded()
+ */
+public final class RecordedPowerAnalysis {
+
+    private final Measure<Double, Duration> windowLength;
+    private final Measure<Double, Duration> windowIncrement;
+    private final SimulationTimeEvaluationScope scope;
+    private final Iterator<?>[] utilizations;
+    private final PowerModelRegistry powerModelRegistry = new PowerModelRegistry();
+    private final ConsumptionContext context;
+    private final SimulationTimePowerCalculator powerCalculator;
+    private final SimulationTimeEnergyCalculator energyCalculator;
+
+    /**
+     * Initializes a new instance of the {@link RecordedPowerAnalysis} class.
+     *
+     * @param powerProvidingEntity
+     *            The {@link PowerProvidingEntity} whose consumptions are to be computed.
+     * @param windowLength
+     *            The length of the sliding windows of the power measurement specification.
+     * @param windowIncrement
+     *            The increment of the sliding windows of the power measurement specification.
+     * @param energyIntegrator
+     *            The {@link EnergyIntegratorType} to compute the energy consumptions with.
+     * @param topologyIndex
+     *            The {@link TopologyIndex} of the infrastructure models.
+     * @throws NullPointerException
+     *             In case any of the arguments is {@code null}.
+     */
+    public RecordedPowerAnalysis(final PowerProvidingEntity powerProvidingEntity,
+            final Measure<Double, Duration> windowLength, final Measure<Double, Duration> windowIncrement,
+            final EnergyIntegratorType energyIntegrator, final TopologyIndex topologyIndex) {
+        this.windowLength = Objects.requireNonNull(windowLength, "Given window length must not be null.");
+        this.windowIncrement = Objects.requireNonNull(windowIncrement, "Given window increment must not be null.");
+
+        this.scope = SimulationTimeEvaluationScope.create(powerProvidingEntity,
+                ScopeOptions.recorded().withTopologyIndex(topologyIndex));
+        this.utilizations = new Iterator<?>[this.scope.getResourceCount()];
+        new PowerModelUpdaterSwitch(this.powerModelRegistry, new ExtensibleCalculatorInstantiatorImpl(
+                () -> Amount.valueOf(this.scope.getCurrentPointInTimeInSeconds(), SI.SECOND)))
+                        .doSwitch(powerProvidingEntity);
+        this.context = ConsumptionContext.createConsumptionContext(powerProvidingEntity, this.scope,
+                this.powerModelRegistry);
+        PowerConsumptionSwitch consumptionSwitch = PowerConsumptionSwitch.createPowerConsumptionSwitch(this.context);
+        CompiledPowerEvaluator evaluator = CompiledPowerEvaluator.compile(powerProvidingEntity, consumptionSwitch,
+                this.powerModelRegistry, topologyIndex);
+        this.powerCalculator = new SimulationTimePowerCalculator(this.scope, powerProvidingEntity,
+                ppe -> evaluator.evaluate());
+        this.scope.addListener(this.powerCalculator);
+        this.energyCalculator = SimulationTimeEnergyCalculator.create(energyIntegrator, windowIncrement,
+                windowLength);
+        this.powerCalculator.addDoubleMeasurementListener(this.energyCalculator);
+    }
+
+    /**
+     * Gets the resources whose series are required by this analysis.
+     *
+     * @return The {@link ProcessingResourceSpecification}s subsumed by the entity.
+     */
+    public Collection<ProcessingResourceSpecification> getResources() {
+        return this.scope.getProcessingResourceSpecifications();
+    }
+
+    /**
+     * Sets the utilizations of the given resource, which have been aggregated by sliding windows
+     * that are equal to those of this analysis. While the series is streamed, the points in time of
+     * its utilizations are checked against the ends of the windows of this analysis.
+     *
+     * @param resource
+     *            One of the {@link #getResources() resources} of this analysis.
+     * @param utilizationSeries
+     *            The utilizations, ordered by their points in time, which are compatible with
+     *            {@link MetricDescriptionConstants#UTILIZATION_OF_ACTIVE_RESOURCE_TUPLE}. The series
+     *            is consumed lazily.
+     * @see WindowedSeriesValidation
+     */
+    public void setUtilizations(final ProcessingResourceSpecification resource,
+            final Iterator<? extends MeasuringValue> utilizationSeries) {
+        setWindowedUtilizations(resource,
+                new WindowedSeriesValidation(Objects.requireNonNull(utilizationSeries,
+                        "Given series must not be null."), this.windowLength.doubleValue(SI.SECOND),
+                        this.windowIncrement.doubleValue(SI.SECOND)));
+    }
+
+    /**
+     * Sets the states of the given resource, which are aggregated by the sliding windows of this
+     * analysis.
+     *
+     * @param resource
+     *            One of the {@link #getResources() resources} of this analysis.
+     * @param stateSeries
+     *            The states of the whole resource, i.e., its number of jobs over all of its
+     *            replicas, ordered by their points in time, which are compatible with
+     *            {@link MetricDescriptionConstants#STATE_OF_ACTIVE_RESOURCE_METRIC_TUPLE}. The
+     *            series is consumed lazily.
+     * @see StateSeriesWindowing
+     */
+    public void setStates(final ProcessingResourceSpecification resource,
+            final Iterator<? extends MeasuringValue> stateSeries) {
+        setWindowedUtilizations(resource,
+                new StateSeriesWindowing(Objects.requireNonNull(stateSeries, "Given series must not be null."),
+                        this.windowLength.doubleValue(SI.SECOND), this.windowIncrement.doubleValue(SI.SECOND),
+                        resource.getNumberOfReplicas()));
+    }
+
+    /**
+     * Sets the states of each replica of the given multi-core resource, which are merged into the
+     * number of busy replicas and aggregated by the sliding windows of this analysis.
+     *
+     * @param resource
+     *            One of the {@link #getResources() resources} of this analysis.
+     * @param replicaStateSeries
+     *            The states of each replica, i.e., of each core, ordered by their points in time,
+     *            which are compatible with
+     *            {@link MetricDescriptionConstants#STATE_OF_ACTIVE_RESOURCE_METRIC_TUPLE}. The
+     *            series are consumed lazily.
+     * @throws IllegalArgumentException
+     *             In case the number of series differs from the number of replicas of the resource.
+     * @see ReplicaStateMerging
+     */
+    public void setReplicaStates(final ProcessingResourceSpecification resource,
+            final List<? extends Iterator<? extends MeasuringValue>> replicaStateSeries) {
+        Objects.requireNonNull(replicaStateSeries, "Given series must not be null.");
+        if (replicaStateSeries.size() != resource.getNumberOfReplicas()) {
+            throw new IllegalArgumentException("Given series must cover the " + resource.getNumberOfReplicas()
+                    + " replicas of resource '" + resource.getId() + "'.");
+        }
+        setStates(resource, new ReplicaStateMerging(replicaStateSeries));
+    }
+
+    private void setWindowedUtilizations(final ProcessingResourceSpecification resource,
+            final Iterator<MeasuringValue> utilizationSeries) {
+        this.utilizations[this.scope.getSlot(resource)] = utilizationSeries;
+    }
+
+    /**
+     * Attaches the given listener, which is henceforth passed each power consumption as primitive
+     * values in {@code W}.
+     *
+     * @param listener
+     *            The {@link IDoubleMeasurementListener} to attach.
+     */
+    public void addPowerListener(final IDoubleMeasurementListener listener) {
+        this.powerCalculator.addDoubleMeasurementListener(listener);
+    }
+
+    /**
+     * Attaches the given listener, which is henceforth passed each cumulative energy consumption as
+     * primitive values in {@code J}.
+     *
+     * @param listener
+     *            The {@link IDoubleMeasurementListener} to attach.
+     */
+    public void addEnergyListener(final IDoubleMeasurementListener listener) {
+        this.energyCalculator.addDoubleMeasurementListener(listener);
+    }
+
+    /**
+     * Streams the series through the calculators, round by round, until any of the series ends.
+     * Afterwards, the listeners are unregistered, so that they can flush their measurements.
+     *
+     * @return The number of processed rounds.
+     * @throws IllegalStateException
+     *             In case the series of a resource has not been set.
+     * @throws IllegalArgumentException
+     *             In case a utilization series does not match the sliding windows of this analysis.
+     */
+    public long run() {
+        for (Iterator<?> series : this.utilizations) {
+            if (series == null) {
+                throw new IllegalStateException("The series of all resources must be set beforehand.");
+            }
+        }
+        long rounds = 0;
+        try {
+            while (hasNextRound()) {
+                for (int slot = 0; slot < this.utilizations.length; ++slot) {
+                    this.scope.addUtilizationMeasurement(slot, (MeasuringValue) this.utilizations[slot].next());
+                }
+                ++rounds;
+            }
+        } finally {
+            this.scope.removeAllListeners();
+            this.context.cleanUp();
+        }
+        return rounds;
+    }
+
+    private boolean hasNextRound() {
+        for (Iterator<?> series : this.utilizations) {
+            if (!series.hasNext()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
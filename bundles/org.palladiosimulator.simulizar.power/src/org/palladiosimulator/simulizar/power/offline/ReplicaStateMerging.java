@@ -0,0 +1,103 @@
+package org.palladiosimulator.simulizar.power.offline;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.measure.Measure;
+import javax.measure.quantity.Dimensionless;
+import javax.measure.quantity.Duration;
+import javax.measure.unit.SI;
+import javax.measure.unit.Unit;
+
+import org.palladiosimulator.measurementframework.MeasuringValue;
+import org.palladiosimulator.measurementframework.TupleMeasurement;
+import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
+
+/**
+ * Merges the recorded state series of the replicas, i.e., the cores, of a multi-core resource into
+ * the state series of the resource, whose number of jobs is the number of busy replicas. A replica
+ * is busy if it has at least one job. The series are merged by their points in time, and only the
+ * current state change of each replica is retained.
+ */
+final class ReplicaStateMerging implements Iterator<MeasuringValue> {
+
+    private final Iterator<? extends MeasuringValue>[] replicaStates;
+    /** The point in time of the pending state change of each replica, or NaN if it has ended. */
+    private final double[] pendingTimes;
+    private final boolean[] pendingBusy;
+    private final boolean[] busy;
+    private int busyCount;
+
+    /**
+     * Initializes a new instance of the {@link ReplicaStateMerging} class.
+     *
+     * @param replicaStates
+     *            The state series of each replica, ordered by their points in time, which are
+     *            compatible with
+     *            {@link MetricDescriptionConstants#STATE_OF_ACTIVE_RESOURCE_METRIC_TUPLE}.
+     */
+    @SuppressWarnings("unchecked")
+    ReplicaStateMerging(final List<? extends Iterator<? extends MeasuringValue>> replicaStates) {
+        if (replicaStates.isEmpty()) {
+            throw new IllegalArgumentException("Given series of replica states must not be empty.");
+        }
+        this.replicaStates = replicaStates.toArray(new Iterator[replicaStates.size()]);
+        this.pendingTimes = new double[this.replicaStates.length];
+        this.pendingBusy = new boolean[this.replicaStates.length];
+        this.busy = new boolean[this.replicaStates.length];
+        for (int replica = 0; replica < this.replicaStates.length; ++replica) {
+            fetchPending(replica);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextReplica() >= 0;
+    }
+
+    @Override
+    public MeasuringValue next() {
+        int replica = nextReplica();
+        if (replica < 0) {
+            throw new NoSuchElementException();
+        }
+        double pointInTime = this.pendingTimes[replica];
+        // simultaneous changes of several replicas yield a single state
+        while (replica >= 0 && this.pendingTimes[replica] == pointInTime) {
+            if (this.busy[replica] != this.pendingBusy[replica]) {
+                this.busy[replica] = this.pendingBusy[replica];
+                this.busyCount += this.busy[replica] ? 1 : -1;
+            }
+            fetchPending(replica);
+            replica = nextReplica();
+        }
+        return new TupleMeasurement(MetricDescriptionConstants.STATE_OF_ACTIVE_RESOURCE_METRIC_TUPLE,
+                Measure.valueOf(pointInTime, SI.SECOND), Measure.valueOf((long) this.busyCount, Unit.ONE));
+    }
+
+    private int nextReplica() {
+        int result = -1;
+        for (int replica = 0; replica < this.pendingTimes.length; ++replica) {
+            if (!Double.isNaN(this.pendingTimes[replica])
+                    && (result < 0 || this.pendingTimes[replica] < this.pendingTimes[result])) {
+                result = replica;
+            }
+        }
+        return result;
+    }
+
+    private void fetchPending(final int replica) {
+        if (!this.replicaStates[replica].hasNext()) {
+            this.pendingTimes[replica] = Double.NaN;
+            return;
+        }
+        MeasuringValue state = this.replicaStates[replica].next();
+        Measure<Double, Duration> pointInTime = state
+                .getMeasureForMetric(MetricDescriptionConstants.POINT_IN_TIME_METRIC);
+        Measure<Long, Dimensionless> jobs = state
+                .getMeasureForMetric(MetricDescriptionConstants.STATE_OF_ACTIVE_RESOURCE_METRIC);
+        this.pendingTimes[replica] = pointInTime.doubleValue(SI.SECOND);
+        this.pendingBusy[replica] = jobs.doubleValue(Unit.ONE) > 0;
+    }
+}
@@ -0,0 +1,139 @@
+package org.palladiosimulator.simulizar.power.offline;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.measure.Measure;
+import javax.measure.quantity.Dimensionless;
+import javax.measure.quantity.Duration;
+import javax.measure.unit.SI;
+import javax.measure.unit.Unit;
+
+import org.palladiosimulator.measurementframework.MeasuringValue;
+import org.palladiosimulator.measurementframework.TupleMeasurement;
+import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
+
+/**
+ * Aggregates a recorded series of resource states into the utilizations of sliding windows, just
+ * as the sliding windows of a simulation run do: the {@code k}-th window spans
+ * {@code [k * increment, k * increment + length]} and yields the fraction of busy cores averaged
+ * over the window, at the end of the window. A resource with {@code n} jobs and {@code c} cores is
+ * considered to have {@code min(n, c)} busy cores.<br>
+ * The busy time is accumulated incrementally, and only the accumulated busy time at the starts of
+ * the windows that are still open is retained. Hence, the memory required is bounded by the ratio
+ * of window length and increment rather than by the length of the series. Windows ending after the
+ * last recorded state change are not yielded.
+ */
+final class StateSeriesWindowing implements Iterator<MeasuringValue> {
+
+    private final Iterator<? extends MeasuringValue> states;
+    private final double length;
+    private final double increment;
+    private final double cores;
+    /** The accumulated busy time at the starts of the open windows, as ring buffer. */
+    private final double[] busyTimeAtStarts;
+
+    private double changeTime;
+    private double busyFraction;
+    private double busyTimeAtChange;
+    private double pendingTime = Double.NaN;
+    private double pendingBusyFraction;
+    private long startCount;
+    private long endCount;
+    private MeasuringValue next;
+
+    /**
+     * Initializes a new instance of the {@link StateSeriesWindowing} class.
+     *
+     * @param states
+     *            The resource states, ordered by their points in time, which are compatible with
+     *            {@link MetricDescriptionConstants#STATE_OF_ACTIVE_RESOURCE_METRIC_TUPLE}.
+     * @param length
+     *            The window length, in seconds.
+     * @param increment
+     *            The window increment, in seconds.
+     * @param cores
+     *            The number of cores of the resource.
+     */
+    StateSeriesWindowing(final Iterator<? extends MeasuringValue> states, final double length,
+            final double increment, final int cores) {
+        if (!(length > 0) || !(increment > 0)) {
+            throw new IllegalArgumentException("Given window length and increment must be positive.");
+        }
+        this.states = states;
+        this.length = length;
+        this.increment = increment;
+        this.cores = Math.max(1, cores);
+        this.busyTimeAtStarts = new double[(int) Math.floor(length / increment) + 2];
+        fetchPending();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.next == null) {
+            this.next = computeNext();
+        }
+        return this.next != null;
+    }
+
+    @Override
+    public MeasuringValue next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        MeasuringValue result = this.next;
+        this.next = null;
+        return result;
+    }
+
+    private MeasuringValue computeNext() {
+        // multiples are computed to avoid the accumulation of rounding errors
+        double end = this.endCount * this.increment + this.length;
+        while (!Double.isNaN(this.pendingTime) && this.pendingTime <= end) {
+            recordStartsUpTo(this.pendingTime);
+            this.busyTimeAtChange = busyTimeAt(this.pendingTime);
+            this.changeTime = this.pendingTime;
+            this.busyFraction = this.pendingBusyFraction;
+            fetchPending();
+        }
+        if (Double.isNaN(this.pendingTime) && end > this.changeTime) {
+            return null;
+        }
+        recordStartsUpTo(end);
+        double utilization = (busyTimeAt(end) - this.busyTimeAtStarts[slotOf(this.endCount)]) / this.length;
+        ++this.endCount;
+        return new TupleMeasurement(MetricDescriptionConstants.UTILIZATION_OF_ACTIVE_RESOURCE_TUPLE,
+                Measure.valueOf(end, SI.SECOND), Measure.valueOf(utilization, Unit.ONE));
+    }
+
+    private void recordStartsUpTo(final double pointInTime) {
+        double start = this.startCount * this.increment;
+        while (start <= pointInTime) {
+            this.busyTimeAtStarts[slotOf(this.startCount)] = busyTimeAt(start);
+            ++this.startCount;
+            start = this.startCount * this.increment;
+        }
+    }
+
+    private double busyTimeAt(final double pointInTime) {
+        return this.busyTimeAtChange + this.busyFraction * Math.max(0d, pointInTime - this.changeTime);
+    }
+
+    private int slotOf(final long windowIndex) {
+        return (int) (windowIndex % this.busyTimeAtStarts.length);
+    }
+
+    private void fetchPending() {
+        if (!this.states.hasNext()) {
+            this.pendingTime = Double.NaN;
+            return;
+        }
+        MeasuringValue state = this.states.next();
+        Measure<Double, Duration> pointInTime = state
+                .getMeasureForMetric(MetricDescriptionConstants.POINT_IN_TIME_METRIC);
+        Measure<Long, Dimensionless> jobs = state
+                .getMeasureForMetric(MetricDescriptionConstants.STATE_OF_ACTIVE_RESOURCE_METRIC);
+        this.pendingTime = pointInTime.doubleValue(SI.SECOND);
+        this.pendingBusyFraction = Math.min(jobs.doubleValue(Unit.ONE), this.cores) / this.cores;
+    }
+}
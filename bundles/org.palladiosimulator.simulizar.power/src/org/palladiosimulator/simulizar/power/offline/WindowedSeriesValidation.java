@@ -0,0 +1,77 @@
+package org.palladiosimulator.simulizar.power.offline;
+
+import java.util.Iterator;
+
+import javax.measure.Measure;
+import javax.measure.quantity.Duration;
+import javax.measure.unit.SI;
+
+import org.palladiosimulator.measurementframework.MeasuringValue;
+import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
+
+/**
+ * Passes on a recorded series of window utilizations, and checks that the series has been
+ * aggregated by the expected sliding windows, i.e., that its {@code k}-th measurement is taken at
+ * the end {@code k * increment + length} of the {@code k}-th window. Series of other window
+ * settings, or of instantaneous utilizations, are thus rejected once their first deviating
+ * measurement is reached.
+ */
+final class WindowedSeriesValidation implements Iterator<MeasuringValue> {
+
+    /** Tolerated deviation of the window ends, relative to the increment. */
+    private static final double TOLERANCE = 1e-6;
+
+    private final Iterator<? extends MeasuringValue> utilizations;
+    private final double length;
+    private final double increment;
+    private long count;
+
+    /**
+     * Initializes a new instance of the {@link WindowedSeriesValidation} class.
+     *
+     * @param utilizations
+     *            The utilizations, ordered by their points in time, which are compatible with
+     *            {@link MetricDescriptionConstants#UTILIZATION_OF_ACTIVE_RESOURCE_TUPLE}.
+     * @param length
+     *            The expected window length, in seconds.
+     * @param increment
+     *            The expected window increment, in seconds.
+     */
+    WindowedSeriesValidation(final Iterator<? extends MeasuringValue> utilizations, final double length,
+            final double increment) {
+        if (!(length > 0) || !(increment > 0)) {
+            throw new IllegalArgumentException("Given window length and increment must be positive.");
+        }
+        this.utilizations = utilizations;
+        this.length = length;
+        this.increment = increment;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return this.utilizations.hasNext();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException
+     *             In case the measurement is not taken at the end of the expected window.
+     */
+    @Override
+    public MeasuringValue next() {
+        MeasuringValue utilization = this.utilizations.next();
+        Measure<Double, Duration> pointInTime = utilization
+                .getMeasureForMetric(MetricDescriptionConstants.POINT_IN_TIME_METRIC);
+        // multiples are computed to avoid the accumulation of rounding errors
+        double expectedEnd = this.count * this.increment + this.length;
+        double end = pointInTime.doubleValue(SI.SECOND);
+        if (!(Math.abs(end - expectedEnd) <= TOLERANCE * this.increment)) {
+            throw new IllegalArgumentException("Recorded utilization at " + end + " s does not match the sliding "
+                    + "windows of length " + this.length + " s and increment " + this.increment
+                    + " s, whose window " + this.count + " ends at " + expectedEnd + " s.");
+        }
+        ++this.count;
+        return utilization;
+    }
+}
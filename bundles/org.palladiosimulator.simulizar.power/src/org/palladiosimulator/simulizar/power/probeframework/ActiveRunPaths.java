@@ -0,0 +1,59 @@
+package org.palladiosimulator.simulizar.power.probeframework;
+
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the output paths of the simulation runs that are currently active in this JVM.<br>
+ * Runs that execute concurrently, e.g., replications or the runs of a parameter sweep, share their
+ * run configuration and thus their configured output paths. A run claims each of its output paths
+ * before it writes to it; if the path has already been claimed by another active run, a numbered
+ * variant of the path is claimed instead, e.g., {@code stats-2.csv} for {@code stats.csv}. Paths
+ * are released once the run has stopped, so that sequential runs keep writing to the configured
+ * paths.
+ */
+final class ActiveRunPaths {
+
+    private static final Set<Path> CLAIMED_PATHS = ConcurrentHashMap.newKeySet();
+
+    private ActiveRunPaths() {
+        // no instances
+    }
+
+    /**
+     * Claims the given path or, if it is claimed by another active run, the first numbered variant
+     * of the path that is not.
+     *
+     * @param path
+     *            The configured output path, i.e., a file or directory.
+     * @return The claimed path, which has to be released once the run has stopped.
+     * @see #release(Path)
+     */
+    static Path claim(final Path path) {
+        Path normalizedPath = path.toAbsolutePath().normalize();
+        if (CLAIMED_PATHS.add(normalizedPath)) {
+            return normalizedPath;
+        }
+        String fileName = normalizedPath.getFileName().toString();
+        int extensionStart = fileName.lastIndexOf('.');
+        String baseName = extensionStart > 0 ? fileName.substring(0, extensionStart) : fileName;
+        String extension = extensionStart > 0 ? fileName.substring(extensionStart) : "";
+        for (int run = 2;; ++run) {
+            Path variant = normalizedPath.resolveSibling(baseName + '-' + run + extension);
+            if (CLAIMED_PATHS.add(variant)) {
+                return variant;
+            }
+        }
+    }
+
+    /**
+     * Releases a path claimed by {@link #claim(Path)}.
+     *
+     * @param claimedPath
+     *            The claimed path.
+     */
+    static void release(final Path claimedPath) {
+        CLAIMED_PATHS.remove(claimedPath);
+    }
+}
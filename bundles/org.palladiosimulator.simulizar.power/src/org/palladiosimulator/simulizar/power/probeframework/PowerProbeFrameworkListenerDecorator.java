@@ -1,22 +1,41 @@
 package org.palladiosimulator.simulizar.power.probeframework;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+import javax.measure.Measurable;
 import javax.measure.Measure;
 import javax.measure.quantity.Duration;
+import javax.measure.quantity.Energy;
+import javax.measure.quantity.Power;
+import javax.measure.quantity.Quantity;
 import javax.measure.unit.SI;
+import javax.measure.unit.Unit;
 
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.jscience.physics.amount.Amount;
 import org.palladiosimulator.edp2.models.measuringpoint.MeasuringPoint;
+import org.palladiosimulator.edp2.util.MetricDescriptionUtility;
+import org.palladiosimulator.measurementframework.listener.IMeasurementSourceListener;
 import org.palladiosimulator.measurementframework.listener.MeasurementSource;
 import org.palladiosimulator.metricspec.BaseMetricDescription;
 import org.palladiosimulator.metricspec.MetricDescription;
 import org.palladiosimulator.metricspec.MetricSetDescription;
+import org.palladiosimulator.metricspec.NumericalBaseMetricDescription;
 import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
 import org.palladiosimulator.monitorrepository.FeedThrough;
 import org.palladiosimulator.monitorrepository.MeasurementSpecification;
@@ -27,31 +46,58 @@ import org.palladiosimulator.monitorrepository.ProcessingType;
 import org.palladiosimulator.monitorrepository.TimeDriven;
 import org.palladiosimulator.monitorrepository.TimeDrivenAggregation;
 import org.palladiosimulator.monitorrepository.util.MonitorRepositorySwitch;
+import org.palladiosimulator.recorderframework.IRecorder;
+import org.palladiosimulator.probeframework.calculator.RegisterCalculatorFactoryDecorator;
 import org.palladiosimulator.runtimemeasurement.RuntimeMeasurementModel;
 import org.palladiosimulator.runtimemeasurement.RuntimeMeasurementPackage;
 import org.palladiosimulator.simulizar.interpreter.listener.AbstractProbeFrameworkListener;
 import org.palladiosimulator.simulizar.interpreter.listener.AbstractRecordingProbeFrameworkListenerDecorator;
+import org.palladiosimulator.simulizar.power.calculators.CompiledPowerEvaluator;
+import org.palladiosimulator.simulizar.power.calculators.ExactEnergyCalculator;
+import org.palladiosimulator.simulizar.power.calculators.IDoubleMeasurementListener;
+import org.palladiosimulator.simulizar.power.calculators.PowerRollup;
 import org.palladiosimulator.simulizar.power.calculators.SimulationTimeEnergyCalculator;
 import org.palladiosimulator.simulizar.power.calculators.SimulationTimePowerCalculator;
+import org.palladiosimulator.simulizar.power.calculators.SymmetryReduction;
+import org.palladiosimulator.simulizar.power.calculators.TickCoordinator;
+import org.palladiosimulator.simulizar.power.evaluationscope.AdaptiveSampling;
+import org.palladiosimulator.simulizar.power.evaluationscope.CalculatorIndex;
+import org.palladiosimulator.simulizar.power.evaluationscope.ScopeOptions;
 import org.palladiosimulator.simulizar.power.evaluationscope.SimulationTimeEvaluationScope;
+import org.palladiosimulator.simulizar.power.evaluationscope.SlidingWindowRegistry;
+import org.palladiosimulator.simulizar.power.evaluationscope.TopologyIndex;
+import org.palladiosimulator.simulizar.power.instrumentation.MemoryFootprint;
+import org.palladiosimulator.simulizar.power.instrumentation.PowerInstrumentation;
+import org.palladiosimulator.simulizar.power.instrumentation.Stage;
+import org.palladiosimulator.simulizar.power.offline.ColumnarSeriesFormat;
+import org.palladiosimulator.simulizar.power.recording.BatchingRecorder;
+import org.palladiosimulator.simulizar.power.recording.CoalescingMeasurementListener;
+import org.palladiosimulator.simulizar.power.recording.ColumnarSeriesWriter;
+import org.palladiosimulator.simulizar.power.runconfig.PowerAnalysisConfig;
+import org.palladiosimulator.simulizar.power.statistics.PowerStatistics;
+import org.palladiosimulator.simulizar.power.statistics.PowerStatisticsReport;
+import org.palladiosimulator.simulizar.power.statistics.PowerSummary;
 import org.palladiosimulator.simulizar.slidingwindow.runtimemeasurement.SlidingWindowRuntimeMeasurementsRecorder;
 
 import de.fzi.power.infrastructure.InfrastructurePackage;
 import de.fzi.power.infrastructure.PowerProvidingEntity;
 import de.fzi.power.interpreter.ConsumptionContext;
-import de.fzi.power.interpreter.InterpreterUtils;
+import de.fzi.power.interpreter.PowerConsumptionSwitch;
 import de.fzi.power.interpreter.PowerModelRegistry;
 import de.fzi.power.interpreter.PowerModelUpdaterSwitch;
 import de.fzi.power.interpreter.calculators.ExtensibleCalculatorInstantiatorImpl;
 import de.fzi.power.interpreter.calculators.ITimeProvider;
-import de.fzi.power.interpreter.calculators.energy.SimpsonRuleCumulativeEnergyCalculator;
 import de.uka.ipd.sdq.simucomframework.model.SimuComModel;
 import de.uka.ipd.sdq.simulation.ISimulationListener;
 
 /**
  * Implementation of the {@link AbstractRecordingProbeFrameworkListenerDecorator} class dedicated to
  * initialize sliding-window based (i.e., {@link TimeDriven}) computations of power and energy
- * consumption (based on utilization measurements).
+ * consumption (based on utilization measurements).<br>
+ * An instance serves a single simulation run, whose state it keeps. Several runs may thus execute
+ * concurrently in one JVM, e.g., replications or the runs of a parameter sweep: the models of the
+ * run, in particular the monitor repository and the infrastructure model, are only read, and
+ * output paths configured for all runs are claimed per active run (see {@link ActiveRunPaths}).
  * 
  * @author Florian Rosenthal
  *
@@ -61,6 +107,10 @@ public class PowerProbeFrameworkListenerDecorator extends AbstractRecordingProbe
     private static final MetricSetDescription POWER_CONSUMPTION_TUPLE_METRIC_DESC = MetricDescriptionConstants.POWER_CONSUMPTION_TUPLE;
     private static final BaseMetricDescription POWER_CONSUMPTION_METRIC_DESC = MetricDescriptionConstants.POWER_CONSUMPTION;
     private static final MetricSetDescription ENERGY_CONSUMPTION_TUPLE_METRIC_DESC = MetricDescriptionConstants.CUMULATIVE_ENERGY_CONSUMPTION_TUPLE;
+    private static final Unit<Power> POWER_UNIT = MetricDescriptionUtility
+            .getDefaultUnit((NumericalBaseMetricDescription) POWER_CONSUMPTION_METRIC_DESC, Power.class);
+    private static final Unit<Energy> ENERGY_UNIT = MetricDescriptionUtility.getDefaultUnit(
+            (NumericalBaseMetricDescription) MetricDescriptionConstants.ENERGY_CONSUMPTION, Energy.class);
 
     private static final MonitorRepositorySwitch<Optional<TimeDriven>> PROCESSING_TYPE_SWITCH = new MonitorRepositorySwitch<Optional<TimeDriven>>() {
         @Override
@@ -77,6 +127,8 @@ public class PowerProbeFrameworkListenerDecorator extends AbstractRecordingProbe
     private SimuComModel model = null;
     private RuntimeMeasurementModel rmModel;
     private ResourceSet globalPCMModelResourceSet;
+    private PowerAnalysisConfig config;
+    private PowerInstrumentation instrumentation;
 
     @Override
     public void registerMeasurements() {
@@ -92,12 +144,16 @@ public class PowerProbeFrameworkListenerDecorator extends AbstractRecordingProbe
 
     @Override
     public void setProbeFrameworkListener(final AbstractProbeFrameworkListener probeFrameworkListener) {
+        if (this.model != null && probeFrameworkListener.getSimuComModel() != this.model) {
+            throw new IllegalStateException("Power analysis decorator has already been set up for another run.");
+        }
         super.setProbeFrameworkListener(probeFrameworkListener);
         this.model = getProbeFrameworkListener().getSimuComModel();
         this.rmModel = getProbeFrameworkListener().getPCMPartitionManager() 
 				.findModel(RuntimeMeasurementPackage.eINSTANCE.getRuntimeMeasurementModel());
         this.globalPCMModelResourceSet = getProbeFrameworkListener().getPCMPartitionManager().getGlobalPCMModel()
                 .getResourceSet();
+        this.config = PowerAnalysisConfig.of(this.globalPCMModelResourceSet);
     }
 
     /**
@@ -105,73 +161,80 @@ public class PowerProbeFrameworkListenerDecorator extends AbstractRecordingProbe
      * the monitored elements from the monitor repository, then creates corresponding calculators
      * and recorders.
      * 
+     * @param powerMeasurementSpecs
+     *            {@link Collection} of the {@link MeasurementSpecification}s of the power
+     *            measurements of the run.
+     * @see PowerMeasurementsSetup
      */
     private void initPowerMeasurements(final Collection<MeasurementSpecification> powerMeasurementSpecs) {
+        if (powerMeasurementSpecs.isEmpty()) {
+            return;
+        }
+        PowerMeasurementsSetup setup = new PowerMeasurementsSetup(powerMeasurementSpecs.size());
+        for (MeasurementSpecification powerSpec : powerMeasurementSpecs) {
+            setup.initPowerMeasurement(powerSpec);
+        }
+        setup.triggerAfterSimulationCleanup();
+    }
 
-        if (!powerMeasurementSpecs.isEmpty()) {
-            PowerModelRegistry powerModelRegistry = new PowerModelRegistry();
-            // Register simulation time provider. This is used to calculate transitions between power states.
-            ITimeProvider provider = new ITimeProvider() {
-                @Override
-                public Amount<Duration> getCurrentTime() {
-                    return Amount.valueOf(model.getSimulationControl().getCurrentSimulationTime(), SI.SECOND);
-                }
-            };
-            PowerModelUpdaterSwitch modelUpdaterSwitch = new PowerModelUpdaterSwitch(powerModelRegistry,
-                    new ExtensibleCalculatorInstantiatorImpl(provider));
-            Collection<ConsumptionContext> createdContexts = new ArrayList<>(powerMeasurementSpecs.size());
-            Collection<SimulationTimeEvaluationScope> createdScopes = new ArrayList<>(powerMeasurementSpecs.size());
-
-            for (MeasurementSpecification powerSpec : powerMeasurementSpecs) {
-                Monitor powerSpecMonitor = powerSpec.getMonitor();
-                MeasuringPoint measuringPoint = powerSpecMonitor.getMeasuringPoint();
-
-                Optional<TimeDriven> timeDrivenSpecification = PROCESSING_TYPE_SWITCH
-                        .doSwitch(powerSpec.getProcessingType());
-                PowerProvidingEntity powerProvidingEntity = InterpreterUtils
-                        .getPowerProvidingEntityFromMeasuringPoint(this.globalPCMModelResourceSet, measuringPoint);
-
-                // this call crashes in case measurement specification or ppe are invalid
-                checkValidity(powerSpec, powerProvidingEntity, timeDrivenSpecification);
-
-                TimeDriven timeDriven = timeDrivenSpecification.get();
-
-                Measure<Double, Duration> initialOffset = timeDriven.getWindowLengthAsMeasure();
-                Measure<Double, Duration> samplingPeriod = timeDriven.getWindowIncrementAsMeasure();
-                SimulationTimeEvaluationScope scope = SimulationTimeEvaluationScope.createScope(powerProvidingEntity,
-                        this.model, initialOffset, samplingPeriod);
-
-                modelUpdaterSwitch.doSwitch(powerProvidingEntity);
-                ConsumptionContext context = ConsumptionContext.createConsumptionContext(powerProvidingEntity, scope,
-                        powerModelRegistry);
-
-                createdContexts.add(context);
-                createdScopes.add(scope);
-                SimulationTimePowerCalculator powerConsumptionCalculator = new SimulationTimePowerCalculator(context,
-                        scope, powerProvidingEntity);
-                SimulationTimeEnergyCalculator energyConsumptionCalculator = new SimulationTimeEnergyCalculator(
-                        new SimpsonRuleCumulativeEnergyCalculator(samplingPeriod, initialOffset));
-
-                // calculate power and energy consumption
-                scope.addListener(powerConsumptionCalculator);
-                powerConsumptionCalculator.addObserver(energyConsumptionCalculator);
-                // the following two lines are optional: measurements are
-                // recorded (e.g., by an EDP2 recorder)
-                triggerMeasurementsRecording(powerConsumptionCalculator, measuringPoint,
-                        POWER_CONSUMPTION_TUPLE_METRIC_DESC);
-                triggerMeasurementsRecording(energyConsumptionCalculator, measuringPoint,
-                        ENERGY_CONSUMPTION_TUPLE_METRIC_DESC);
-
-                // write measurements to RuntimeMeasurement (both power and energy measurements
-                // are forwarded)
-                triggerRuntimeMeasurementsRecording(powerConsumptionCalculator, powerSpec);
-                triggerRuntimeMeasurementsRecording(energyConsumptionCalculator,
-                        createSpecificationForEnergyMeasurements(powerSpecMonitor, timeDriven));
+    private void initInstrumentation(final SymmetryReduction symmetryReduction) {
+        // without instrumentation, nothing is wrapped at all
+        this.instrumentation = this.config.isInstrumentationEnabled() ? new PowerInstrumentation() : null;
+        if (this.instrumentation != null) {
+            this.instrumentation.register();
+            if (symmetryReduction != null) {
+                this.instrumentation.registerSymmetryReduction(symmetryReduction::getStatistics);
+                this.instrumentation.registerFootprint("(shared)", "symmetry groups",
+                        symmetryReduction::getMemoryFootprint);
             }
-            triggerAfterSimulationCleanup(createdContexts, createdScopes);
         }
     }
 
+    private AdaptiveSampling createAdaptiveSampling(final Measure<Double, Duration> windowIncrement) {
+        return new AdaptiveSampling(
+                this.config.getAdaptiveSamplingMaxIncrement(windowIncrement.doubleValue(SI.SECOND)),
+                this.config.getAdaptiveSamplingTolerance());
+    }
+
+    private Function<PowerProvidingEntity, Measurable<Power>> instrumentEvaluation(
+            final Function<PowerProvidingEntity, Measurable<Power>> evaluation, final String source) {
+        return this.instrumentation == null ? evaluation
+                : this.instrumentation.instrument(evaluation, Stage.POWER_EVALUATION, source);
+    }
+
+    private static Function<PowerProvidingEntity, Measurable<Power>> shareEvaluation(
+            final SymmetryReduction symmetryReduction, final PowerProvidingEntity ppe,
+            final SimulationTimeEvaluationScope scope,
+            final Function<PowerProvidingEntity, Measurable<Power>> evaluation) {
+        return symmetryReduction == null ? evaluation : symmetryReduction.share(ppe, scope, evaluation);
+    }
+
+    private IDoubleMeasurementListener instrumentEnergyCalculator(
+            final IDoubleMeasurementListener energyCalculator, final String source) {
+        return this.instrumentation == null ? energyCalculator
+                : this.instrumentation.instrument(energyCalculator, Stage.ENERGY_CALCULATION, source);
+    }
+
+    private void registerFootprint(final String source, final String component,
+            final Supplier<MemoryFootprint> footprint) {
+        if (this.instrumentation != null) {
+            this.instrumentation.registerFootprint(source, component, footprint);
+        }
+    }
+
+    private IRecorder instrumentRecorder(final IRecorder recorder, final String source) {
+        return this.instrumentation == null ? recorder : this.instrumentation.instrument(recorder, source);
+    }
+
+    private static TickCoordinator createCoordinator(final ForkJoinPool pool) {
+        return pool == null ? new TickCoordinator() : new TickCoordinator(pool);
+    }
+
+    /**
+     * Creates the specification of the energy measurements that accompany the given power
+     * measurements. The specification belongs to a copy of the given monitor, which is not
+     * contained in the monitor repository, so that the repository is not modified by a run.
+     */
     private static MeasurementSpecification createSpecificationForEnergyMeasurements(final Monitor monitor,
             final TimeDriven fromProcessingType) {
         assert monitor != null && fromProcessingType != null;
@@ -187,7 +250,11 @@ public class PowerProbeFrameworkListenerDecorator extends AbstractRecordingProbe
         energySpec.setTriggersSelfAdaptations(
                 fromProcessingType.getMeasurementSpecification().isTriggersSelfAdaptations());
 
-        monitor.getMeasurementSpecifications().add(energySpec);
+        Monitor energyMonitor = MonitorRepositoryFactory.eINSTANCE.createMonitor();
+        energyMonitor.setId(monitor.getId());
+        energyMonitor.setEntityName(monitor.getEntityName());
+        energyMonitor.setMeasuringPoint(monitor.getMeasuringPoint());
+        energyMonitor.getMeasurementSpecifications().add(energySpec);
 
         assert energySpec.getMonitor().getId().equals(monitor.getId());
         return energySpec;
@@ -236,16 +303,81 @@ public class PowerProbeFrameworkListenerDecorator extends AbstractRecordingProbe
     }
 
     private void triggerMeasurementsRecording(final MeasurementSource measurementSource, final MeasuringPoint mp,
-            final MetricDescription recorderAcceptedMetric) {
+            final String source, final MetricDescription recorderAcceptedMetric) {
         assert measurementSource != null && mp != null && recorderAcceptedMetric != null;
 
         Map<String, Object> recorderConfigurationMap = createRecorderConfigMapWithAcceptedMetricAndMeasuringPoint(
                 recorderAcceptedMetric, mp);
-        registerMeasurementsRecorder(measurementSource, initializeRecorder(recorderConfigurationMap));
+        registerMeasurementsRecorder(measurementSource,
+                instrumentRecorder(initializeRecorder(recorderConfigurationMap), source));
+    }
+
+    private <Q extends Quantity> BatchingRecorder<Q> createBatchingRecorder(final MeasuringPoint mp,
+            final String source, final MetricSetDescription recorderAcceptedMetric, final Unit<Q> valueUnit,
+            final int batchSize) {
+        assert mp != null && recorderAcceptedMetric != null && valueUnit != null;
+
+        Map<String, Object> recorderConfigurationMap = createRecorderConfigMapWithAcceptedMetricAndMeasuringPoint(
+                recorderAcceptedMetric, mp);
+        return new BatchingRecorder<>(instrumentRecorder(initializeRecorder(recorderConfigurationMap), source),
+                recorderAcceptedMetric, valueUnit, batchSize);
+    }
+
+    private void publishStatistics(final Collection<PowerStatistics> statistics, final Path statisticsFile) {
+        List<PowerSummary> summaries = new ArrayList<>(statistics.size());
+        statistics.forEach(entityStatistics -> summaries.add(entityStatistics.getSummary()));
+        PowerStatisticsReport report = new PowerStatisticsReport(summaries);
+        report.attachTo(this.globalPCMModelResourceSet);
+        if (statisticsFile != null) {
+            try {
+                report.writeCsv(statisticsFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Power statistics file '" + statisticsFile + "' could not be written.",
+                        e);
+            }
+        }
+    }
+
+    private Path createExportDirectory(final Collection<Path> claimedPaths) {
+        Path exportDirectory = claim(this.config.getColumnarExportDirectory(), claimedPaths);
+        if (exportDirectory != null) {
+            try {
+                Files.createDirectories(exportDirectory);
+            } catch (IOException e) {
+                throw new UncheckedIOException(
+                        "Columnar export directory '" + exportDirectory + "' could not be created.", e);
+            }
+        }
+        return exportDirectory;
+    }
+
+    private static Path claim(final Path configuredPath, final Collection<Path> claimedPaths) {
+        if (configuredPath == null) {
+            return null;
+        }
+        Path claimedPath = ActiveRunPaths.claim(configuredPath);
+        claimedPaths.add(claimedPath);
+        return claimedPath;
+    }
+
+    private static ColumnarSeriesWriter createColumnarSeriesWriter(final Path exportDirectory,
+            final MeasurementSpecification powerSpec, final MeasuringPoint mp) {
+        assert exportDirectory != null && powerSpec != null && mp != null;
+
+        // the id keeps the file names of equally named monitors apart
+        String fileName = (powerSpec.getMonitor().getEntityName() + '_' + powerSpec.getId())
+                .replaceAll("[^\\w.-]", "_") + ColumnarSeriesFormat.FILE_EXTENSION;
+        try {
+            return ColumnarSeriesWriter.create(exportDirectory.resolve(fileName), mp.getStringRepresentation(),
+                    ColumnarSeriesFormat.DEFAULT_BLOCK_CAPACITY);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Columnar series file '" + fileName + "' could not be created.", e);
+        }
     }
 
     private void triggerRuntimeMeasurementsRecording(final MeasurementSource calculator,
-            final MeasurementSpecification measurementSpec) {
+            final MeasurementSpecification measurementSpec, final String source,
+            final BaseMetricDescription valueMetric, final Collection<Runnable> runtimeMeasurementFlushes) {
         assert calculator != null && measurementSpec != null;
 
         if (measurementSpec.isTriggersSelfAdaptations()) {
@@ -254,7 +386,20 @@ public class PowerProbeFrameworkListenerDecorator extends AbstractRecordingProbe
                     return null;
                 };
                 public Void caseTimeDrivenAggregation(TimeDrivenAggregation aggr) {
-                    calculator.addObserver(new SlidingWindowRuntimeMeasurementsRecorder(rmModel, measurementSpec));
+                    SlidingWindowRuntimeMeasurementsRecorder recorder = new SlidingWindowRuntimeMeasurementsRecorder(
+                            rmModel, measurementSpec);
+                    IMeasurementSourceListener listener = instrumentation == null ? recorder
+                            : instrumentation.instrument(recorder, Stage.RUNTIME_MEASUREMENT_UPDATE, source);
+                    // held-back updates are passed on once the simulation has stopped
+                    if (config.isRuntimeMeasurementCoalescingEnabled()) {
+                        CoalescingMeasurementListener coalescingListener = new CoalescingMeasurementListener(
+                                listener, valueMetric, config.getRuntimeMeasurementMinInterval(),
+                                config.getRuntimeMeasurementMinRelativeChange());
+                        runtimeMeasurementFlushes.add(coalescingListener::flush);
+                        registerFootprint(source, "runtime measurements", coalescingListener::getMemoryFootprint);
+                        listener = coalescingListener;
+                    }
+                    calculator.addObserver(listener);
                     return null;
                 }
             }.doSwitch(measurementSpec.getProcessingType());
@@ -271,10 +416,21 @@ public class PowerProbeFrameworkListenerDecorator extends AbstractRecordingProbe
      *            {@link Collection} of contexts to clean up.
      * @param scopesToCleanup
      *            {@link Collection} of scopes to clean up.
-     * @see #initPowerMeasurements()
+     * @param flushes
+     *            {@link Collection} of actions, in order of execution, that publish and record the
+     *            pending measurements before the clean-up.
+     * @param claimedPaths
+     *            {@link Collection} of the output paths claimed by the run, which are released
+     *            after the flushes.
+     * @param poolToShutdown
+     *            The {@link ForkJoinPool} used for the evaluation of the consumptions, or
+     *            {@code null} if none is used.
+     * @see #initPowerMeasurements(Collection)
      */
     private void triggerAfterSimulationCleanup(final Collection<ConsumptionContext> contextsToCleanup,
-            final Collection<SimulationTimeEvaluationScope> scopesToCleanup) {
+            final Collection<SimulationTimeEvaluationScope> scopesToCleanup,
+            final Collection<Runnable> flushes, final Collection<Path> claimedPaths,
+            final ForkJoinPool poolToShutdown) {
         assert contextsToCleanup != null && !contextsToCleanup.isEmpty();
         assert scopesToCleanup != null && !scopesToCleanup.isEmpty();
         assert this.model != null;
@@ -282,8 +438,20 @@ public class PowerProbeFrameworkListenerDecorator extends AbstractRecordingProbe
         this.model.getConfiguration().addListener(new ISimulationListener() {
             @Override
             public void simulationStop() {
+                try {
+                    flushes.forEach(Runnable::run);
+                } finally {
+                    claimedPaths.forEach(ActiveRunPaths::release);
+                }
                 contextsToCleanup.forEach(ConsumptionContext::cleanUp);
                 scopesToCleanup.forEach(SimulationTimeEvaluationScope::removeAllListeners);
+                if (poolToShutdown != null) {
+                    poolToShutdown.shutdown();
+                }
+                // the instrumentation outlives the run, but must not keep its components alive
+                if (instrumentation != null) {
+                    instrumentation.finish();
+                }
             }
 
             @Override
@@ -291,4 +459,352 @@ public class PowerProbeFrameworkListenerDecorator extends AbstractRecordingProbe
             }
         });
     }
+
+    /**
+     * Sets up the power and energy measurements of a run, one monitored entity at a time. It holds
+     * what the measurements of all entities share, i.e., the indices and registries of the run,
+     * the evaluation pool and the output resources, and collects the actions that are performed
+     * once the simulation has stopped.
+     */
+    private final class PowerMeasurementsSetup {
+        private final PowerModelRegistry powerModelRegistry = new PowerModelRegistry();
+        private final PowerModelUpdaterSwitch modelUpdaterSwitch;
+        private final Collection<ConsumptionContext> createdContexts;
+        private final Collection<SimulationTimeEvaluationScope> createdScopes;
+        private final CalculatorIndex calculatorIndex;
+        private final SlidingWindowRegistry windowRegistry;
+        private final TopologyIndex topologyIndex;
+        private final Map<List<Double>, PowerRollup> rollups = new HashMap<>();
+        private final Map<List<Double>, TickCoordinator> coordinators = new HashMap<>();
+        private final ForkJoinPool pool;
+        private final int batchSize;
+        private final Collection<BatchingRecorder<?>> batchingRecorders = new ArrayList<>();
+        private final Collection<Path> claimedPaths = new ArrayList<>();
+        private final Path exportDirectory;
+        private final Collection<ColumnarSeriesWriter> columnarSeriesWriters = new ArrayList<>();
+        private final Collection<PowerStatistics> statistics = new ArrayList<>();
+        private final boolean exactEnergy;
+        private final Collection<Runnable> exactEnergyFlushes = new ArrayList<>();
+        private final Collection<Runnable> runtimeMeasurementFlushes = new ArrayList<>();
+        private final boolean adaptiveSampling;
+        private final boolean independentRounds;
+        private final SymmetryReduction symmetryReduction;
+
+        private PowerMeasurementsSetup(final int specCount) {
+            // Register simulation time provider. This is used to calculate transitions between power states.
+            ITimeProvider provider = new SimulationTimeProvider(model);
+            this.modelUpdaterSwitch = new PowerModelUpdaterSwitch(this.powerModelRegistry,
+                    new ExtensibleCalculatorInstantiatorImpl(provider));
+            this.createdContexts = new ArrayList<>(specCount);
+            this.createdScopes = new ArrayList<>(specCount);
+            // calculators are looked up once per run rather than once per scope, and the scopes
+            // of nested entities share the windows of their common resources
+            this.calculatorIndex = new CalculatorIndex(RegisterCalculatorFactoryDecorator.class
+                    .cast(model.getProbeFrameworkContext().getCalculatorFactory()));
+            this.windowRegistry = new SlidingWindowRegistry(model, this.calculatorIndex);
+            // the infrastructure is traversed once rather than once per monitored entity
+            this.topologyIndex = TopologyIndex.build(globalPCMModelResourceSet);
+            // calculators of scopes with equal windows are rolled up and/or evaluated in
+            // parallel, if enabled
+            int parallelism = config.getEvaluationParallelism();
+            this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+            this.batchSize = config.getRecordingBatchSize();
+            // output paths are claimed per run, as concurrent runs share their configuration
+            this.exportDirectory = createExportDirectory(this.claimedPaths);
+            this.exactEnergy = config.isExactEnergyIntegrationEnabled();
+            this.adaptiveSampling = config.isAdaptiveSamplingEnabled() && !this.exactEnergy;
+            // the rounds of event-driven and adaptively sampled scopes are not synchronized
+            this.independentRounds = this.exactEnergy || this.adaptiveSampling;
+            // entities with identical power model bindings share the evaluation of equal
+            // utilizations, if enabled
+            this.symmetryReduction = config.isSymmetryReductionEnabled()
+                    ? new SymmetryReduction(this.topologyIndex, config.isEvaluationVerificationEnabled())
+                    : null;
+            initInstrumentation(this.symmetryReduction);
+        }
+
+        /**
+         * Sets up the power and energy measurements of the entity monitored by the given
+         * specification: its scope, its power and energy calculators, and whatever observes
+         * them.
+         */
+        private void initPowerMeasurement(final MeasurementSpecification powerSpec) {
+            Monitor powerSpecMonitor = powerSpec.getMonitor();
+            MeasuringPoint measuringPoint = powerSpecMonitor.getMeasuringPoint();
+            String source = powerSpecMonitor.getEntityName();
+
+            Optional<TimeDriven> timeDrivenSpecification = PROCESSING_TYPE_SWITCH
+                    .doSwitch(powerSpec.getProcessingType());
+            PowerProvidingEntity powerProvidingEntity = this.topologyIndex.getPowerProvidingEntity(measuringPoint);
+
+            // this call crashes in case measurement specification or ppe are invalid
+            checkValidity(powerSpec, powerProvidingEntity, timeDrivenSpecification);
+
+            TimeDriven timeDriven = timeDrivenSpecification.get();
+
+            Measure<Double, Duration> initialOffset = timeDriven.getWindowLengthAsMeasure();
+            Measure<Double, Duration> samplingPeriod = timeDriven.getWindowIncrementAsMeasure();
+            SimulationTimeEvaluationScope scope = createScope(powerProvidingEntity, initialOffset, samplingPeriod,
+                    source);
+            SimulationTimePowerCalculator powerConsumptionCalculator = createPowerCalculator(powerProvidingEntity,
+                    scope, Arrays.asList(initialOffset.doubleValue(SI.SECOND), samplingPeriod.doubleValue(SI.SECOND)),
+                    source);
+            // calculate power and energy consumption
+            ConsumptionOutputs outputs = createEnergyCalculator(powerSpec, scope, powerConsumptionCalculator,
+                    initialOffset, samplingPeriod, source);
+            attachStatistics(outputs, measuringPoint, source);
+            attachRecorders(outputs, powerSpec, measuringPoint, source);
+
+            // write measurements to RuntimeMeasurement (both power and energy measurements
+            // are forwarded)
+            triggerRuntimeMeasurementsRecording(outputs.powerSource, powerSpec, source,
+                    POWER_CONSUMPTION_METRIC_DESC, this.runtimeMeasurementFlushes);
+            triggerRuntimeMeasurementsRecording(outputs.energySource,
+                    createSpecificationForEnergyMeasurements(powerSpecMonitor, timeDriven), source,
+                    MetricDescriptionConstants.ENERGY_CONSUMPTION, this.runtimeMeasurementFlushes);
+        }
+
+        private SimulationTimeEvaluationScope createScope(final PowerProvidingEntity powerProvidingEntity,
+                final Measure<Double, Duration> initialOffset, final Measure<Double, Duration> samplingPeriod,
+                final String source) {
+            // exact energy integration requires the consumption per utilization change
+            // rather than per window
+            ScopeOptions scopeOptions;
+            if (this.exactEnergy) {
+                scopeOptions = ScopeOptions.eventDriven(model, this.calculatorIndex, this.topologyIndex);
+            } else {
+                if (config.isVectorWindowsEnabled()
+                        && SimulationTimeEvaluationScope.isVectorWindowApplicable(initialOffset, samplingPeriod)) {
+                    // one window and one move-on event per scope rather than per resource
+                    scopeOptions = ScopeOptions.vectorWindow(model, initialOffset, samplingPeriod,
+                            this.calculatorIndex);
+                } else {
+                    scopeOptions = ScopeOptions.slidingWindows(model, initialOffset, samplingPeriod)
+                            .withWindowRegistry(this.windowRegistry);
+                }
+                if (this.adaptiveSampling) {
+                    scopeOptions = scopeOptions.withAdaptiveSampling(createAdaptiveSampling(samplingPeriod));
+                }
+            }
+            SimulationTimeEvaluationScope scope = SimulationTimeEvaluationScope.create(powerProvidingEntity,
+                    scopeOptions.withTopologyIndex(this.topologyIndex));
+
+            if (instrumentation != null) {
+                scope.setNotificationTimer(instrumentation.createTimer(Stage.SCOPE_NOTIFICATION, source));
+                instrumentation.registerFootprint(source, "scope", scope::getMemoryFootprint);
+                // windows shared by the scopes of nested entities are accounted for only once
+                instrumentation.registerFootprint(source, "sliding windows", scope::getWindowFootprint);
+            }
+            this.createdScopes.add(scope);
+            return scope;
+        }
+
+        /**
+         * Creates the power calculator of the given entity, which is either registered at the
+         * rollup or coordinator of the given windows, or observes the scope itself.
+         */
+        private SimulationTimePowerCalculator createPowerCalculator(final PowerProvidingEntity powerProvidingEntity,
+                final SimulationTimeEvaluationScope scope, final List<Double> windows, final String source) {
+            this.modelUpdaterSwitch.doSwitch(powerProvidingEntity);
+            ConsumptionContext context = ConsumptionContext.createConsumptionContext(powerProvidingEntity, scope,
+                    this.powerModelRegistry);
+            this.createdContexts.add(context);
+
+            SimulationTimePowerCalculator powerConsumptionCalculator;
+            PowerConsumptionSwitch consumptionSwitch = PowerConsumptionSwitch.createPowerConsumptionSwitch(context);
+            if (config.isRollupEnabled() && !this.independentRounds) {
+                PowerRollup rollup = this.rollups.computeIfAbsent(windows,
+                        key -> new PowerRollup(this.powerModelRegistry, this.topologyIndex,
+                                this.coordinators.computeIfAbsent(key, k -> createCoordinator(this.pool))));
+                powerConsumptionCalculator = new SimulationTimePowerCalculator(scope, powerProvidingEntity,
+                        instrumentEvaluation(shareEvaluation(this.symmetryReduction, powerProvidingEntity, scope,
+                                ppe -> rollup.evaluate(ppe, consumptionSwitch)), source));
+                rollup.register(powerConsumptionCalculator);
+            } else {
+                // the infrastructure and its bindings are fixed for the run, so the entity's
+                // subtree is only navigated once
+                CompiledPowerEvaluator evaluator = CompiledPowerEvaluator.compile(powerProvidingEntity,
+                        consumptionSwitch, this.powerModelRegistry, this.topologyIndex);
+                Function<PowerProvidingEntity, Measurable<Power>> evaluation = config
+                        .isEvaluationVerificationEnabled() ? ppe -> evaluator.evaluateVerified()
+                                : ppe -> evaluator.evaluate();
+                powerConsumptionCalculator = new SimulationTimePowerCalculator(scope, powerProvidingEntity,
+                        instrumentEvaluation(shareEvaluation(this.symmetryReduction, powerProvidingEntity, scope,
+                                evaluation), source));
+                if (this.pool != null && !this.independentRounds) {
+                    this.coordinators.computeIfAbsent(windows, key -> createCoordinator(this.pool))
+                            .register(powerConsumptionCalculator);
+                } else {
+                    scope.addListener(powerConsumptionCalculator);
+                }
+            }
+            if (config.isChangeDetectionEnabled()) {
+                powerConsumptionCalculator.enableChangeDetection(config.getChangeDetectionEpsilon(),
+                        this.topologyIndex);
+            }
+            registerFootprint(source, "power calculator", powerConsumptionCalculator::getMemoryFootprint);
+            return powerConsumptionCalculator;
+        }
+
+        private ConsumptionOutputs createEnergyCalculator(final MeasurementSpecification powerSpec,
+                final SimulationTimeEvaluationScope scope,
+                final SimulationTimePowerCalculator powerConsumptionCalculator,
+                final Measure<Double, Duration> initialOffset, final Measure<Double, Duration> samplingPeriod,
+                final String source) {
+            if (this.exactEnergy) {
+                // power and energy are reported by the integrator at the reporting interval
+                ExactEnergyCalculator energyConsumptionCalculator = new ExactEnergyCalculator(
+                        config.getEnergyReportingInterval() > 0 ? config.getEnergyReportingInterval()
+                                : samplingPeriod.doubleValue(SI.SECOND));
+                powerConsumptionCalculator.addDoubleMeasurementListener(
+                        instrumentEnergyCalculator(energyConsumptionCalculator, source));
+                this.exactEnergyFlushes.add(() -> {
+                    scope.completeInitialRound();
+                    energyConsumptionCalculator.flush(model.getSimulationControl().getCurrentSimulationTime());
+                });
+                registerFootprint(source, "energy calculator", energyConsumptionCalculator::getMemoryFootprint);
+                return new ConsumptionOutputs(energyConsumptionCalculator.getPowerSource(),
+                        energyConsumptionCalculator, energyConsumptionCalculator::addPowerDoubleMeasurementListener,
+                        energyConsumptionCalculator::addDoubleMeasurementListener);
+            }
+            // adaptively sampled power consumptions are not equidistant
+            SimulationTimeEnergyCalculator energyConsumptionCalculator = SimulationTimeEnergyCalculator.create(
+                    config.getEnergyIntegrator(powerSpec.getId(), !this.adaptiveSampling), samplingPeriod,
+                    initialOffset);
+            powerConsumptionCalculator
+                    .addDoubleMeasurementListener(instrumentEnergyCalculator(energyConsumptionCalculator, source));
+            registerFootprint(source, "energy calculator", energyConsumptionCalculator::getMemoryFootprint);
+            return new ConsumptionOutputs(powerConsumptionCalculator, energyConsumptionCalculator,
+                    powerConsumptionCalculator::addDoubleMeasurementListener,
+                    energyConsumptionCalculator::addDoubleMeasurementListener);
+        }
+
+        /**
+         * Maintains summary statistics of the consumptions in constant memory, if enabled.
+         */
+        private void attachStatistics(final ConsumptionOutputs outputs, final MeasuringPoint measuringPoint,
+                final String source) {
+            if (config.isStatisticsEnabled()) {
+                PowerStatistics entityStatistics = new PowerStatistics(source,
+                        measuringPoint.getStringRepresentation());
+                outputs.powerListeners.accept(entityStatistics.getPowerListener());
+                outputs.energyListeners.accept(entityStatistics.getEnergyListener());
+                this.statistics.add(entityStatistics);
+                registerFootprint(source, "statistics", entityStatistics::getMemoryFootprint);
+            }
+        }
+
+        /**
+         * Exports the consumptions to a columnar file, or records them (e.g., by an EDP2 recorder),
+         * possibly in batches. Both are optional.
+         */
+        private void attachRecorders(final ConsumptionOutputs outputs, final MeasurementSpecification powerSpec,
+                final MeasuringPoint measuringPoint, final String source) {
+            if (this.exportDirectory != null) {
+                ColumnarSeriesWriter writer = createColumnarSeriesWriter(this.exportDirectory, powerSpec,
+                        measuringPoint);
+                outputs.powerListeners.accept(writer.getPowerListener());
+                outputs.energyListeners.accept(writer.getEnergyListener());
+                this.columnarSeriesWriters.add(writer);
+                registerFootprint(source, "columnar export", writer::getMemoryFootprint);
+            } else if (config.isSeriesRecordingEnabled()) {
+                if (this.batchSize > 1) {
+                    BatchingRecorder<Power> powerRecorder = createBatchingRecorder(measuringPoint, source,
+                            POWER_CONSUMPTION_TUPLE_METRIC_DESC, POWER_UNIT, this.batchSize);
+                    BatchingRecorder<Energy> energyRecorder = createBatchingRecorder(measuringPoint, source,
+                            ENERGY_CONSUMPTION_TUPLE_METRIC_DESC, ENERGY_UNIT, this.batchSize);
+                    outputs.powerListeners.accept(powerRecorder);
+                    outputs.energyListeners.accept(energyRecorder);
+                    this.batchingRecorders.add(powerRecorder);
+                    this.batchingRecorders.add(energyRecorder);
+                    registerFootprint(source, "power recorder", powerRecorder::getMemoryFootprint);
+                    registerFootprint(source, "energy recorder", energyRecorder::getMemoryFootprint);
+                } else {
+                    triggerMeasurementsRecording(outputs.powerSource, measuringPoint, source,
+                            POWER_CONSUMPTION_TUPLE_METRIC_DESC);
+                    triggerMeasurementsRecording(outputs.energySource, measuringPoint, source,
+                            ENERGY_CONSUMPTION_TUPLE_METRIC_DESC);
+                }
+            }
+        }
+
+        /**
+         * Schedules the flushes and the clean-up of all measurements that have been set up.
+         */
+        private void triggerAfterSimulationCleanup() {
+            // pending measurements are published first, and written to the recorders afterwards
+            List<Runnable> flushes = new ArrayList<>();
+            this.coordinators.values().forEach(coordinator -> flushes.add(coordinator::flush));
+            flushes.addAll(this.exactEnergyFlushes);
+            this.batchingRecorders.forEach(recorder -> flushes.add(recorder::flush));
+            this.columnarSeriesWriters.forEach(writer -> flushes.add(writer::close));
+            flushes.addAll(this.runtimeMeasurementFlushes);
+            if (!this.statistics.isEmpty()) {
+                Path statisticsFile = claim(config.getStatisticsFile(), this.claimedPaths);
+                flushes.add(() -> publishStatistics(this.statistics, statisticsFile));
+            }
+            if (this.symmetryReduction != null) {
+                // the grouping is reported whether or not the run is instrumented
+                flushes.add(() -> this.symmetryReduction.getStatistics().attachTo(globalPCMModelResourceSet));
+            }
+            PowerProbeFrameworkListenerDecorator.this.triggerAfterSimulationCleanup(this.createdContexts,
+                    this.createdScopes, flushes, this.claimedPaths, this.pool);
+        }
+    }
+
+    /**
+     * The power and energy sources of an entity, and the registration of listeners of its power and
+     * energy consumptions.
+     */
+    private static final class ConsumptionOutputs {
+        private final MeasurementSource powerSource;
+        private final MeasurementSource energySource;
+        private final Consumer<IDoubleMeasurementListener> powerListeners;
+        private final Consumer<IDoubleMeasurementListener> energyListeners;
+
+        private ConsumptionOutputs(final MeasurementSource powerSource, final MeasurementSource energySource,
+                final Consumer<IDoubleMeasurementListener> powerListeners,
+                final Consumer<IDoubleMeasurementListener> energyListeners) {
+            this.powerSource = powerSource;
+            this.energySource = energySource;
+            this.powerListeners = powerListeners;
+            this.energyListeners = energyListeners;
+        }
+    }
+
+    /**
+     * {@link ITimeProvider} that yields the current simulation time. The {@link Amount} is only
+     * created anew once the simulation time has advanced, as the power models of all entities query
+     * the time at the same simulation time instant. The provider may be queried by several
+     * evaluation threads, hence the time and its {@code Amount} are published together.
+     */
+    private static final class SimulationTimeProvider implements ITimeProvider {
+        private final SimuComModel model;
+        private volatile CachedTime lastTime;
+
+        private SimulationTimeProvider(final SimuComModel model) {
+            this.model = model;
+        }
+
+        @Override
+        public Amount<Duration> getCurrentTime() {
+            double currentSimulationTime = this.model.getSimulationControl().getCurrentSimulationTime();
+            CachedTime cachedTime = this.lastTime;
+            if (cachedTime == null || cachedTime.simulationTime != currentSimulationTime) {
+                cachedTime = new CachedTime(currentSimulationTime);
+                this.lastTime = cachedTime;
+            }
+            return cachedTime.amount;
+        }
+
+        private static final class CachedTime {
+            private final double simulationTime;
+            private final Amount<Duration> amount;
+
+            private CachedTime(final double simulationTime) {
+                this.simulationTime = simulationTime;
+                this.amount = Amount.valueOf(simulationTime, SI.SECOND);
+            }
+        }
+    }
 }
@@ -0,0 +1,101 @@
+package org.palladiosimulator.simulizar.power.recording;
+
+import java.util.Objects;
+
+import javax.measure.Measure;
+import javax.measure.quantity.Quantity;
+import javax.measure.unit.SI;
+import javax.measure.unit.Unit;
+
+import org.palladiosimulator.measurementframework.TupleMeasurement;
+import org.palladiosimulator.metricspec.MetricSetDescription;
+import org.palladiosimulator.recorderframework.IRecorder;
+import org.palladiosimulator.simulizar.power.calculators.IDoubleMeasurementListener;
+import org.palladiosimulator.simulizar.power.instrumentation.MemoryFootprint;
+
+/**
+ * Buffers the measurements of a power or energy calculator and passes them on to an
+ * {@link IRecorder} in chunks.<br>
+ * Measurements are kept as primitive values until the buffer is full or {@link #flush()} is
+ * invoked; only then are the {@link TupleMeasurement}s created and written, one chunk at a time.
+ * This keeps the recorder (e.g., an EDP2 recorder) out of the per-tick path of the calculators.
+ * Once the observed calculator is unregistered, the remaining measurements are written and the
+ * recorder is unregistered in turn.
+ *
+ * @param <Q>
+ *            The quantity of the recorded values.
+ */
+public final class BatchingRecorder<Q extends Quantity> implements IDoubleMeasurementListener {
+
+    private final IRecorder recorder;
+    private final MetricSetDescription tupleMetric;
+    private final Unit<Q> valueUnit;
+    private final double[] pointsInTime;
+    private final double[] values;
+    private int size;
+
+    /**
+     * Initializes a new instance of the {@link BatchingRecorder} class.
+     *
+     * @param recorder
+     *            The {@link IRecorder} the buffered measurements are written to.
+     * @param tupleMetric
+     *            The {@link MetricSetDescription} of the written measurements, consisting of the
+     *            point in time and the recorded value.
+     * @param valueUnit
+     *            The {@link Unit} the primitive values are given in.
+     * @param batchSize
+     *            The number of measurements to buffer before they are written.
+     * @throws NullPointerException
+     *             In case any of the object arguments is {@code null}.
+     * @throws IllegalArgumentException
+     *             In case the given batch size is not positive.
+     */
+    public BatchingRecorder(final IRecorder recorder, final MetricSetDescription tupleMetric,
+            final Unit<Q> valueUnit, final int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Given batch size must be positive.");
+        }
+        this.recorder = Objects.requireNonNull(recorder, "Given recorder must not be null.");
+        this.tupleMetric = Objects.requireNonNull(tupleMetric, "Given MetricSetDescription must not be null.");
+        this.valueUnit = Objects.requireNonNull(valueUnit, "Given unit must not be null.");
+        this.pointsInTime = new double[batchSize];
+        this.values = new double[batchSize];
+    }
+
+    @Override
+    public void newMeasurementAvailable(final double pointInTime, final double value) {
+        this.pointsInTime[this.size] = pointInTime;
+        this.values[this.size] = value;
+        if (++this.size == this.values.length) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes all buffered measurements to the recorder.
+     */
+    public void flush() {
+        for (int i = 0; i < this.size; ++i) {
+            this.recorder.writeData(new TupleMeasurement(this.tupleMetric,
+                    Measure.valueOf(this.pointsInTime[i], SI.SECOND), Measure.valueOf(this.values[i], this.valueUnit)));
+        }
+        this.size = 0;
+    }
+
+    /**
+     * Gets the data currently retained by this recorder.
+     *
+     * @return The {@link MemoryFootprint} of the buffered measurements. The estimated bytes are
+     *         those of the whole buffer, which is allocated up front.
+     */
+    public MemoryFootprint getMemoryFootprint() {
+        return new MemoryFootprint(this.size, MemoryFootprint.BYTES_PER_SAMPLE * this.values.length);
+    }
+
+    @Override
+    public void preUnregister() {
+        flush();
+        this.recorder.preUnregister();
+    }
+}
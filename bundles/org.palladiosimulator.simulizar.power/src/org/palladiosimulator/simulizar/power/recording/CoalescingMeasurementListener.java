@@ -0,0 +1,153 @@
+package org.palladiosimulator.simulizar.power.recording;
+
+import java.util.Objects;
+
+import javax.measure.Measure;
+import javax.measure.quantity.Duration;
+import javax.measure.quantity.Quantity;
+import javax.measure.unit.SI;
+
+import org.palladiosimulator.measurementframework.MeasuringValue;
+import org.palladiosimulator.measurementframework.listener.IMeasurementSourceListener;
+import org.palladiosimulator.metricspec.BaseMetricDescription;
+import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
+import org.palladiosimulator.simulizar.power.instrumentation.MemoryFootprint;
+
+/**
+ * Passes on only some of the measurements of a power or energy calculator to another
+ * {@link IMeasurementSourceListener}, typically one that updates the runtime measurement model.
+ * <br>
+ * Each update of the runtime measurement model fires EMF notifications and may trigger the
+ * evaluation of self-adaptation rules. A measurement is thus passed on only if at least the minimum
+ * interval of simulated time has passed since the last passed-on measurement, or if its value
+ * differs from that of the last passed-on measurement by at least the minimum relative change.
+ * Either criterion is disabled by a threshold of {@code 0}. The first measurement is always passed
+ * on. The latest measurement that has been held back is passed on by {@link #flush()}, e.g., once
+ * the simulation has stopped, so that the runtime measurement eventually reflects the final value.
+ */
+public final class CoalescingMeasurementListener implements IMeasurementSourceListener {
+
+    private final IMeasurementSourceListener delegate;
+    private final BaseMetricDescription valueMetric;
+    private final double minInterval;
+    private final double minRelativeChange;
+
+    private MeasuringValue heldBackMeasurement;
+    private double heldBackPointInTime;
+    private double heldBackValue;
+    private double lastPointInTime = Double.NaN;
+    private double lastValue;
+    private long heldBackCount;
+
+    /**
+     * Initializes a new instance of the {@link CoalescingMeasurementListener} class.
+     *
+     * @param delegate
+     *            The {@link IMeasurementSourceListener} to pass measurements on to.
+     * @param valueMetric
+     *            The {@link BaseMetricDescription} of the value of the measurements, e.g.,
+     *            {@link MetricDescriptionConstants#POWER_CONSUMPTION}.
+     * @param minInterval
+     *            The minimum simulated time, in seconds, between two passed-on measurements, or
+     *            {@code 0} to not coalesce by time.
+     * @param minRelativeChange
+     *            The minimum relative change of the value, e.g., {@code 0.05} for 5%, for which a
+     *            measurement is passed on regardless of the time, or {@code 0} to not consider the
+     *            value.
+     * @throws NullPointerException
+     *             In case any of the object arguments is {@code null}.
+     * @throws IllegalArgumentException
+     *             In case any of the thresholds is negative, infinite or not a number.
+     */
+    public CoalescingMeasurementListener(final IMeasurementSourceListener delegate,
+            final BaseMetricDescription valueMetric, final double minInterval, final double minRelativeChange) {
+        if (!(minInterval >= 0) || Double.isInfinite(minInterval)) {
+            throw new IllegalArgumentException("Given minimum interval must be non-negative and finite.");
+        }
+        if (!(minRelativeChange >= 0) || Double.isInfinite(minRelativeChange)) {
+            throw new IllegalArgumentException("Given minimum relative change must be non-negative and finite.");
+        }
+        this.delegate = Objects.requireNonNull(delegate, "Given listener must not be null.");
+        this.valueMetric = Objects.requireNonNull(valueMetric, "Given BaseMetricDescription must not be null.");
+        this.minInterval = minInterval;
+        this.minRelativeChange = minRelativeChange;
+    }
+
+    @Override
+    public void newMeasurementAvailable(final MeasuringValue newMeasurement) {
+        Measure<Double, Duration> pointInTimeMeasure = newMeasurement
+                .getMeasureForMetric(MetricDescriptionConstants.POINT_IN_TIME_METRIC);
+        Measure<Double, Quantity> valueMeasure = newMeasurement.getMeasureForMetric(this.valueMetric);
+        double pointInTime = pointInTimeMeasure.doubleValue(SI.SECOND);
+        double value = valueMeasure.doubleValue(valueMeasure.getUnit());
+        if (Double.isNaN(this.lastPointInTime) || isDue(pointInTime) || isSignificant(value)) {
+            this.heldBackMeasurement = null;
+            passOn(newMeasurement, pointInTime, value);
+        } else {
+            this.heldBackMeasurement = newMeasurement;
+            this.heldBackPointInTime = pointInTime;
+            this.heldBackValue = value;
+            ++this.heldBackCount;
+        }
+    }
+
+    private void passOn(final MeasuringValue measurement, final double pointInTime, final double value) {
+        this.lastPointInTime = pointInTime;
+        this.lastValue = value;
+        this.delegate.newMeasurementAvailable(measurement);
+    }
+
+    private boolean isDue(final double pointInTime) {
+        return this.minInterval > 0 && pointInTime - this.lastPointInTime >= this.minInterval;
+    }
+
+    private boolean isSignificant(final double value) {
+        if (this.minRelativeChange == 0) {
+            return false;
+        }
+        double change = Math.abs(value - this.lastValue);
+        return this.lastValue == 0 ? change > 0 : change >= this.minRelativeChange * Math.abs(this.lastValue);
+    }
+
+    /**
+     * Passes on the latest measurement that has been held back, if any.
+     */
+    public void flush() {
+        MeasuringValue measurement = this.heldBackMeasurement;
+        if (measurement != null) {
+            this.heldBackMeasurement = null;
+            passOn(measurement, this.heldBackPointInTime, this.heldBackValue);
+        }
+    }
+
+    /**
+     * Gets the number of measurements that have not been passed on so far.
+     *
+     * @return The number of held-back measurements, including those that have been superseded by
+     *         later ones.
+     */
+    public long getHeldBackCount() {
+        return this.heldBackCount;
+    }
+
+    /**
+     * Gets the data currently retained by this listener.
+     *
+     * @return The {@link MemoryFootprint} of the latest held-back measurement, if any.
+     */
+    public MemoryFootprint getMemoryFootprint() {
+        return MemoryFootprint.ofMeasurements(this.heldBackMeasurement == null ? 0 : 1);
+    }
+
+    /**
+     * {@inheritDoc}<br>
+     * <br>
+     * This implementation passes on the latest held-back measurement before the listener it
+     * delegates to is unregistered.
+     */
+    @Override
+    public void preUnregister() {
+        flush();
+        this.delegate.preUnregister();
+    }
+}
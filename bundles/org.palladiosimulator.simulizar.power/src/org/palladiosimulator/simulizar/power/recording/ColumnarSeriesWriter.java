@@ -0,0 +1,249 @@
+package org.palladiosimulator.simulizar.power.recording;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+import org.palladiosimulator.simulizar.power.calculators.IDoubleMeasurementListener;
+import org.palladiosimulator.simulizar.power.instrumentation.MemoryFootprint;
+import org.palladiosimulator.simulizar.power.offline.ColumnarSeriesFormat;
+import org.palladiosimulator.simulizar.power.offline.ColumnarSeriesReader;
+
+/**
+ * Writes the measurements of a power and an energy calculator of one measuring point to a
+ * memory-mapped, append-only file in the {@link ColumnarSeriesFormat}, without creating any
+ * measurement objects.<br>
+ * The power and energy measurements of the same point in time make up a row; a row is written
+ * once both values have arrived, regardless of the order in which the calculators publish them. A
+ * row whose counterpart does not arrive (e.g., as the next measurement is already due) is written
+ * with {@link Double#NaN} as missing value. The file grows by one mapped block at a time, so that
+ * the written values are kept off the heap and paged out by the operating system. Mapped blocks
+ * are released by the garbage collector once the writer is no longer referenced.<br>
+ * Instances are not thread-safe; they are meant to be fed on the simulation thread and to be
+ * closed once the simulation has stopped.
+ *
+ * @see ColumnarSeriesReader
+ */
+public final class ColumnarSeriesWriter implements Closeable {
+
+    private static final int POWER_BIT = 1 << ColumnarSeriesFormat.POWER_COLUMN;
+    private static final int ENERGY_BIT = 1 << ColumnarSeriesFormat.ENERGY_COLUMN;
+    private static final int COMPLETE_ROW = POWER_BIT | ENERGY_BIT;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final int blockCapacity;
+    private final IDoubleMeasurementListener powerListener = (pointInTime, value) -> append(
+            ColumnarSeriesFormat.POWER_COLUMN, pointInTime, value);
+    private final IDoubleMeasurementListener energyListener = (pointInTime, value) -> append(
+            ColumnarSeriesFormat.ENERGY_COLUMN, pointInTime, value);
+
+    private MappedByteBuffer block;
+    private long blockCount;
+    private int indexInBlock;
+    private long rowCount;
+    private final double[] pendingValues = new double[ColumnarSeriesFormat.COLUMN_COUNT];
+    private int pendingColumns;
+    private boolean closed;
+
+    private ColumnarSeriesWriter(final Path file, final FileChannel channel, final MappedByteBuffer header,
+            final int blockCapacity) {
+        this.file = file;
+        this.channel = channel;
+        this.header = header;
+        this.blockCapacity = blockCapacity;
+        this.indexInBlock = blockCapacity;
+    }
+
+    /**
+     * Creates a new file, replacing an existing one, and a writer that appends to it.
+     *
+     * @param file
+     *            The {@link Path} of the file to write.
+     * @param measuringPoint
+     *            The string representation of the measuring point, which is stored in the header.
+     * @param blockCapacity
+     *            The number of rows per mapped block, e.g.,
+     *            {@link ColumnarSeriesFormat#DEFAULT_BLOCK_CAPACITY}.
+     * @return The created {@link ColumnarSeriesWriter}.
+     * @throws NullPointerException
+     *             In case any of the object arguments is {@code null}.
+     * @throws IllegalArgumentException
+     *             In case the block capacity is not positive or a block would exceed 2 GiB, or in
+     *             case the measuring point exceeds
+     *             {@link ColumnarSeriesFormat#MAX_MEASURING_POINT_LENGTH} bytes.
+     * @throws IOException
+     *             In case the file cannot be created or mapped.
+     */
+    public static ColumnarSeriesWriter create(final Path file, final String measuringPoint,
+            final int blockCapacity) throws IOException {
+        Objects.requireNonNull(file, "Given Path must not be null.");
+        byte[] name = Objects.requireNonNull(measuringPoint, "Given measuring point must not be null.")
+                .getBytes(StandardCharsets.UTF_8);
+        if (blockCapacity < 1 || ColumnarSeriesFormat.getBlockSize(blockCapacity) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Given block capacity must be positive and fit into 2 GiB.");
+        }
+        if (name.length > ColumnarSeriesFormat.MAX_MEASURING_POINT_LENGTH) {
+            throw new IllegalArgumentException("Given measuring point must not exceed "
+                    + ColumnarSeriesFormat.MAX_MEASURING_POINT_LENGTH + " bytes.");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer header = channel.map(MapMode.READ_WRITE, 0, ColumnarSeriesFormat.HEADER_SIZE);
+            header.order(ColumnarSeriesFormat.BYTE_ORDER);
+            header.putInt(0, ColumnarSeriesFormat.MAGIC);
+            header.putInt(ColumnarSeriesFormat.VERSION_OFFSET, ColumnarSeriesFormat.VERSION);
+            header.putInt(ColumnarSeriesFormat.BLOCK_CAPACITY_OFFSET, blockCapacity);
+            header.putInt(ColumnarSeriesFormat.MEASURING_POINT_LENGTH_OFFSET, name.length);
+            header.putLong(ColumnarSeriesFormat.ROW_COUNT_OFFSET, 0L);
+            header.position(ColumnarSeriesFormat.MEASURING_POINT_OFFSET);
+            header.put(name);
+            return new ColumnarSeriesWriter(file, channel, header, blockCapacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the listener to attach to the power calculator, e.g., by
+     * {@code SimulationTimePowerCalculator#addDoubleMeasurementListener}.
+     *
+     * @return The {@link IDoubleMeasurementListener} that writes the power column.
+     */
+    public IDoubleMeasurementListener getPowerListener() {
+        return this.powerListener;
+    }
+
+    /**
+     * Gets the listener to attach to the energy calculator, e.g., by
+     * {@code SimulationTimeEnergyCalculator#addDoubleMeasurementListener}.
+     *
+     * @return The {@link IDoubleMeasurementListener} that writes the cumulative energy column.
+     */
+    public IDoubleMeasurementListener getEnergyListener() {
+        return this.energyListener;
+    }
+
+    private void append(final int column, final double pointInTime, final double value) {
+        if (this.closed) {
+            throw new IllegalStateException("Columnar series file '" + this.file + "' has already been closed.");
+        }
+        int columnBit = 1 << column;
+        if (this.pendingColumns != 0 && (pointInTime != this.pendingValues[ColumnarSeriesFormat.TIME_COLUMN]
+                || (this.pendingColumns & columnBit) != 0)) {
+            writePendingRow();
+        }
+        this.pendingValues[ColumnarSeriesFormat.TIME_COLUMN] = pointInTime;
+        this.pendingValues[column] = value;
+        this.pendingColumns |= columnBit;
+        if (this.pendingColumns == COMPLETE_ROW) {
+            writePendingRow();
+        }
+    }
+
+    private void writePendingRow() {
+        if ((this.pendingColumns & POWER_BIT) == 0) {
+            this.pendingValues[ColumnarSeriesFormat.POWER_COLUMN] = Double.NaN;
+        }
+        if ((this.pendingColumns & ENERGY_BIT) == 0) {
+            this.pendingValues[ColumnarSeriesFormat.ENERGY_COLUMN] = Double.NaN;
+        }
+        if (this.indexInBlock == this.blockCapacity) {
+            mapNextBlock();
+        }
+        for (int column = 0; column < ColumnarSeriesFormat.COLUMN_COUNT; ++column) {
+            this.block.putDouble(ColumnarSeriesFormat.getValueOffset(this.blockCapacity, column, this.indexInBlock),
+                    this.pendingValues[column]);
+        }
+        ++this.indexInBlock;
+        // the row is only published once its values have been written
+        this.header.putLong(ColumnarSeriesFormat.ROW_COUNT_OFFSET, ++this.rowCount);
+        this.pendingColumns = 0;
+    }
+
+    private void mapNextBlock() {
+        if (this.block != null) {
+            this.block.force();
+        }
+        try {
+            // mapping beyond the end of the file extends the file
+            this.block = this.channel.map(MapMode.READ_WRITE,
+                    ColumnarSeriesFormat.getBlockPosition(this.blockCapacity, this.blockCount),
+                    ColumnarSeriesFormat.getBlockSize(this.blockCapacity));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Columnar series file '" + this.file + "' could not be extended.", e);
+        }
+        this.block.order(ColumnarSeriesFormat.BYTE_ORDER);
+        ++this.blockCount;
+        this.indexInBlock = 0;
+    }
+
+    /**
+     * Gets the number of rows written so far.
+     *
+     * @return The number of complete or partial rows, excluding a pending row whose counterpart has
+     *         not arrived yet.
+     */
+    public long getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * Gets the file written by this writer.
+     *
+     * @return The {@link Path} of the file.
+     */
+    public Path getFile() {
+        return this.file;
+    }
+
+    /**
+     * Gets the data currently retained on the heap by this writer.
+     *
+     * @return The {@link MemoryFootprint} of the pending row, if any. The written rows are kept in
+     *         mapped memory and are therefore not accounted for.
+     */
+    public MemoryFootprint getMemoryFootprint() {
+        return MemoryFootprint.ofSamples(Integer.bitCount(this.pendingColumns));
+    }
+
+    /**
+     * Writes the pending row, if any, forces the written rows to the storage device and closes the
+     * file. Closing an already closed writer has no effect.
+     *
+     * @throws UncheckedIOException
+     *             In case the file cannot be extended or closed.
+     */
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        try {
+            if (this.pendingColumns != 0) {
+                writePendingRow();
+            }
+            if (this.block != null) {
+                this.block.force();
+            }
+            this.header.force();
+        } finally {
+            this.closed = true;
+            try {
+                this.channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Columnar series file '" + this.file + "' could not be closed.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.palladiosimulator.simulizar.power.runconfig;
+
+import org.palladiosimulator.edp2.models.ExperimentData.ExperimentRun;
+import org.palladiosimulator.recorderframework.config.IRecorderConfigurationFactory;
+import org.palladiosimulator.simulizar.power.jobs.ComputeRecordedPowerConsumptionsJob;
+
+import de.uka.ipd.sdq.workflow.extension.AbstractExtensionJobConfiguration;
+
+/**
+ * This class is the configuration for the {@link ComputeRecordedPowerConsumptionsJob}.
+ */
+public class ComputeRecordedPowerConsumptionsJobConfig extends AbstractExtensionJobConfiguration {
+
+    /**
+     * This constant holds the default number of power and energy measurements that are buffered per
+     * measuring point before they are written.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    private ExperimentRun recordedRun;
+    private String recorderName;
+    private IRecorderConfigurationFactory recorderConfigurationFactory;
+    private PowerAnalysisConfig powerAnalysisConfig;
+    private int chunkSize;
+
+    /**
+     * Initializes a new instance of the {@link ComputeRecordedPowerConsumptionsJobConfig} class
+     * with the given parameters.
+     * 
+     * @param recordedRun
+     *            The {@link ExperimentRun} that contains the recorded state or utilization series of
+     *            the resources.
+     * @param recorderName
+     *            The name of the recorder extension the power and energy consumptions are written
+     *            with.
+     * @param recorderConfigurationFactory
+     *            The initialized {@link IRecorderConfigurationFactory} of the recorder, which
+     *            denotes, e.g., the experiment run to write to.
+     * @param powerAnalysisConfig
+     *            The {@link PowerAnalysisConfig}, of which the energy integrators and the evaluation
+     *            parallelism apply.
+     * @param chunkSize
+     *            The number of measurements that are buffered per measuring point before they are
+     *            written.
+     * @throws IllegalArgumentException
+     *             In case any of the object arguments is {@code null} or the chunk size is not
+     *             positive.
+     */
+    public ComputeRecordedPowerConsumptionsJobConfig(final ExperimentRun recordedRun, final String recorderName,
+            final IRecorderConfigurationFactory recorderConfigurationFactory,
+            final PowerAnalysisConfig powerAnalysisConfig, final int chunkSize) {
+        if (recordedRun == null) {
+            throw new IllegalArgumentException("Given experiment run must not be null.");
+        }
+        if (recorderName == null || recorderConfigurationFactory == null) {
+            throw new IllegalArgumentException("Given recorder and its configuration factory must not be null.");
+        }
+        if (powerAnalysisConfig == null) {
+            throw new IllegalArgumentException("Given power analysis config must not be null.");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Given chunk size must be positive.");
+        }
+        this.recordedRun = recordedRun;
+        this.recorderName = recorderName;
+        this.recorderConfigurationFactory = recorderConfigurationFactory;
+        this.powerAnalysisConfig = powerAnalysisConfig;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Gets the run that contains the recorded series of the resources.
+     * 
+     * @return The recorded {@link ExperimentRun}.
+     */
+    public ExperimentRun getRecordedRun() {
+        return this.recordedRun;
+    }
+
+    /**
+     * Gets the name of the recorder extension the consumptions are written with.
+     * 
+     * @return The name of the recorder.
+     */
+    public String getRecorderName() {
+        return this.recorderName;
+    }
+
+    /**
+     * Gets the factory of the configurations of the recorders.
+     * 
+     * @return The {@link IRecorderConfigurationFactory}.
+     */
+    public IRecorderConfigurationFactory getRecorderConfigurationFactory() {
+        return this.recorderConfigurationFactory;
+    }
+
+    /**
+     * Gets the settings of the power analysis.
+     * 
+     * @return The {@link PowerAnalysisConfig}.
+     */
+    public PowerAnalysisConfig getPowerAnalysisConfig() {
+        return this.powerAnalysisConfig;
+    }
+
+    /**
+     * Gets the number of measurements that are buffered per measuring point before they are
+     * written.
+     * 
+     * @return The chunk size.
+     */
+    public int getChunkSize() {
+        return this.chunkSize;
+    }
+
+    @Override
+    public String getErrorMessage() {
+        return "Invalid Recorded Power Consumption Configuration!";
+    }
+
+    /**
+     * {@inheritDoc}<br>
+     * In this case, the power analysis settings are reset to their defaults and the chunk size is
+     * set to {@link #DEFAULT_CHUNK_SIZE}.
+     */
+    @Override
+    public void setDefaults() {
+        this.powerAnalysisConfig = PowerAnalysisConfig.getDefault();
+        this.chunkSize = DEFAULT_CHUNK_SIZE;
+    }
+}
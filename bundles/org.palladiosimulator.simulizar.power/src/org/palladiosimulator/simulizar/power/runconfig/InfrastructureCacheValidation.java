@@ -0,0 +1,46 @@
+package org.palladiosimulator.simulizar.power.runconfig;
+
+import java.util.Locale;
+
+/**
+ * The strategies to decide whether a cached binary serialization of the infrastructure model may
+ * be loaded instead of the model file itself.
+ *
+ * @see LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig#getCacheValidation()
+ */
+public enum InfrastructureCacheValidation {
+
+    /**
+     * A cache entry is valid if the contents of the infrastructure model file and of all model
+     * files it references are unchanged since the entry was written.
+     */
+    CONTENT_HASH,
+
+    /**
+     * Cache entries are never loaded, but rewritten from the infrastructure model file each time,
+     * e.g., after an update of the infrastructure metamodel.
+     */
+    REBUILD;
+
+    /**
+     * Gets the strategy denoted by the given name, which is matched case-insensitively; dashes may
+     * be used instead of underscores.
+     *
+     * @param name
+     *            The name of the strategy, e.g., {@code "content-hash"}.
+     * @param defaultValidation
+     *            The strategy to return in case the name does not denote a strategy.
+     * @return The denoted {@link InfrastructureCacheValidation}, or the given default.
+     */
+    public static InfrastructureCacheValidation parse(final String name,
+            final InfrastructureCacheValidation defaultValidation) {
+        if (name == null) {
+            return defaultValidation;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            return defaultValidation;
+        }
+    }
+}
@@ -12,7 +12,21 @@ import de.uka.ipd.sdq.workflow.extension.AbstractExtensionJobConfiguration;
  */
 public class LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig extends AbstractExtensionJobConfiguration {
 
+    /**
+     * This constant holds the run configuration key for the directory of the binary infrastructure model cache.
+     * The cache is disabled if no directory is configured.
+     */
+    public static final String INFRASTRUCTURE_CACHE_DIRECTORY = "powerInfrastructureCacheDirectory";
+    /**
+     * This constant holds the run configuration key for the {@link InfrastructureCacheValidation} of the binary
+     * infrastructure model cache.
+     */
+    public static final String INFRASTRUCTURE_CACHE_VALIDATION = "powerInfrastructureCacheValidation";
+
     private String infrastructureRepositoryPath;
+    private PowerAnalysisConfig powerAnalysisConfig;
+    private String cacheDirectory;
+    private InfrastructureCacheValidation cacheValidation;
     
     /**
      * Initializes a new instance of the {@link LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig} class
@@ -20,10 +34,48 @@ public class LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig extends Ab
      * @param infrastructureRepositoryPath A string containing the path to the power infrastructure repository model to load. 
      */
     public LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig(String infrastructureRepositoryPath) {
+        this(infrastructureRepositoryPath, PowerAnalysisConfig.getDefault());
+    }
+    
+    /**
+     * Initializes a new instance of the {@link LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig} class
+     * with the given parameters.
+     * @param infrastructureRepositoryPath A string containing the path to the power infrastructure repository model to load. 
+     * @param powerAnalysisConfig The {@link PowerAnalysisConfig} of the current run.
+     */
+    public LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig(String infrastructureRepositoryPath,
+            PowerAnalysisConfig powerAnalysisConfig) {
+        this(infrastructureRepositoryPath, powerAnalysisConfig, "", InfrastructureCacheValidation.CONTENT_HASH);
+    }
+
+    /**
+     * Initializes a new instance of the {@link LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig} class
+     * with the given parameters.
+     * @param infrastructureRepositoryPath A string containing the path to the power infrastructure repository model to load. 
+     * @param powerAnalysisConfig The {@link PowerAnalysisConfig} of the current run.
+     * @param cacheDirectory A string containing the path to the directory of the binary infrastructure model cache,
+     * or the empty string to disable the cache.
+     * @param cacheValidation The {@link InfrastructureCacheValidation} that decides whether cache entries may be loaded.
+     */
+    public LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig(String infrastructureRepositoryPath,
+            PowerAnalysisConfig powerAnalysisConfig, String cacheDirectory,
+            InfrastructureCacheValidation cacheValidation) {
         if (infrastructureRepositoryPath == null) {
             throw new IllegalArgumentException("Given path must not be null.");
         }
+        if (powerAnalysisConfig == null) {
+            throw new IllegalArgumentException("Given power analysis config must not be null.");
+        }
+        if (cacheDirectory == null) {
+            throw new IllegalArgumentException("Given cache directory must not be null.");
+        }
+        if (cacheValidation == null) {
+            throw new IllegalArgumentException("Given cache validation must not be null.");
+        }
         this.infrastructureRepositoryPath = infrastructureRepositoryPath;
+        this.powerAnalysisConfig = powerAnalysisConfig;
+        this.cacheDirectory = cacheDirectory.trim();
+        this.cacheValidation = cacheValidation;
     }
     
     /**
@@ -34,6 +86,38 @@ public class LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig extends Ab
         return this.infrastructureRepositoryPath;
     }
     
+    /**
+     * Gets the settings of the power analysis.
+     * @return The {@link PowerAnalysisConfig} of the current run.
+     */
+    public PowerAnalysisConfig getPowerAnalysisConfig() {
+        return this.powerAnalysisConfig;
+    }
+    
+    /**
+     * Gets the directory of the binary infrastructure model cache.
+     * @return A string containing the path to the cache directory, which is empty if the cache is disabled.
+     */
+    public String getCacheDirectory() {
+        return this.cacheDirectory;
+    }
+
+    /**
+     * Indicates whether the binary infrastructure model cache is enabled.
+     * @return {@code true} if a cache directory has been configured, {@code false} otherwise.
+     */
+    public boolean isCacheEnabled() {
+        return !this.cacheDirectory.isEmpty();
+    }
+
+    /**
+     * Gets the strategy that decides whether entries of the binary infrastructure model cache may be loaded.
+     * @return The {@link InfrastructureCacheValidation} of the cache.
+     */
+    public InfrastructureCacheValidation getCacheValidation() {
+        return this.cacheValidation;
+    }
+
     @Override
     public String getErrorMessage() {
        return "Invalid Power Infrastructure Configuration!";
@@ -41,11 +125,15 @@ public class LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig extends Ab
 
     /**
      * {@inheritDoc}<br>
-     * In this case, the path to the power infrastructure repository model is set to the empty string.
+     * In this case, the path to the power infrastructure repository model is set to the empty string
+     * and the power analysis settings are reset to their defaults. The binary infrastructure model cache is disabled.
      */
     @Override
     public void setDefaults() {
         this.infrastructureRepositoryPath = "";
+        this.powerAnalysisConfig = PowerAnalysisConfig.getDefault();
+        this.cacheDirectory = "";
+        this.cacheValidation = InfrastructureCacheValidation.CONTENT_HASH;
 
     }
 
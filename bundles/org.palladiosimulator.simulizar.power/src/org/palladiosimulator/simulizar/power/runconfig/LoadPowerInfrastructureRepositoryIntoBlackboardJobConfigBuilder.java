@@ -25,7 +25,8 @@ public class LoadPowerInfrastructureRepositoryIntoBlackboardJobConfigBuilder ext
      * @throws IllegalArgumentException
      *             In case the passed properties map does not contain an entry for the
      *             {@link PowerInfrastructureRepositoryFileInputHandler#INFRASTRUCTURE_MODEL_FILE}
-     *             key.
+     *             key, or in case it contains invalid power analysis settings.
+     * @see PowerAnalysisConfig#fromProperties(Map)
      */
     @Override
     public AbstractExtensionJobConfiguration buildConfiguration(Map<String, Object> properties) {
@@ -37,6 +38,14 @@ public class LoadPowerInfrastructureRepositoryIntoBlackboardJobConfigBuilder ext
         }
         String path = String.valueOf(properties
                 .get(PowerInfrastructureRepositoryFileInputConfigBuilder.INFRASTRUCTURE_MODEL_FILE));
-        return new LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig(path);
+        Object cacheDirectory = properties
+                .get(LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig.INFRASTRUCTURE_CACHE_DIRECTORY);
+        Object cacheValidation = properties
+                .get(LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig.INFRASTRUCTURE_CACHE_VALIDATION);
+        return new LoadPowerInfrastructureRepositoryIntoBlackboardJobConfig(path,
+                PowerAnalysisConfig.fromProperties(properties),
+                cacheDirectory == null ? "" : String.valueOf(cacheDirectory),
+                InfrastructureCacheValidation.parse(cacheValidation == null ? null : String.valueOf(cacheValidation),
+                        InfrastructureCacheValidation.CONTENT_HASH));
     }
 }
@@ -0,0 +1,641 @@
+package org.palladiosimulator.simulizar.power.runconfig;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.palladiosimulator.simulizar.power.calculators.EnergyIntegratorType;
+import org.palladiosimulator.simulizar.power.jobs.LoadPowerInfrastructureRepositoryIntoBlackboardJob;
+import org.palladiosimulator.simulizar.power.probeframework.PowerProbeFrameworkListenerDecorator;
+
+/**
+ * This class holds the settings of the power analysis that are taken from the run configuration.
+ * All settings are optional; absent or malformed entries yield the respective default, which
+ * corresponds to the behavior of the power analysis without any settings.<br>
+ * The settings are handed from the {@link LoadPowerInfrastructureRepositoryIntoBlackboardJob} to
+ * the {@link PowerProbeFrameworkListenerDecorator} by attaching them to the resource set of the PCM
+ * models.
+ *
+ * @see LoadPowerInfrastructureRepositoryIntoBlackboardJobConfigBuilder
+ */
+public final class PowerAnalysisConfig {
+
+    /**
+     * This constant holds the run configuration key to enable the hierarchical rollup of power
+     * consumptions.
+     */
+    public static final String ROLLUP_ENABLED = "powerRollupEnabled";
+
+    /**
+     * This constant holds the run configuration key for the number of power and energy
+     * measurements that are buffered per measuring point before they are passed to the recorder.
+     */
+    public static final String RECORDING_BATCH_SIZE = "powerRecordingBatchSize";
+
+    /**
+     * This constant holds the run configuration key to enable the reuse of power consumptions as
+     * long as the utilizations of the entities do not change.
+     */
+    public static final String CHANGE_DETECTION_ENABLED = "powerChangeDetectionEnabled";
+
+    /**
+     * This constant holds the run configuration key for the tolerance up to which utilizations are
+     * considered unchanged.
+     */
+    public static final String CHANGE_DETECTION_EPSILON = "powerChangeDetectionEpsilon";
+
+    /**
+     * This constant holds the run configuration key for the number of threads that evaluate the
+     * power consumptions of a point in simulation time.
+     */
+    public static final String EVALUATION_PARALLELISM = "powerEvaluationParallelism";
+
+    /**
+     * This constant holds the run configuration key to integrate energy consumptions exactly
+     * between utilization changes rather than based on sliding windows.
+     */
+    public static final String EXACT_ENERGY_INTEGRATION_ENABLED = "powerExactEnergyIntegrationEnabled";
+
+    /**
+     * This constant holds the run configuration key for the simulated time, in seconds, between two
+     * reports of exactly integrated energy consumptions.
+     */
+    public static final String ENERGY_REPORTING_INTERVAL = "powerEnergyReportingInterval";
+
+    /**
+     * This constant holds the run configuration key to sample the utilizations adaptively, i.e., to
+     * pass on fewer rounds while the utilizations are steady.
+     */
+    public static final String ADAPTIVE_SAMPLING_ENABLED = "powerAdaptiveSamplingEnabled";
+
+    /**
+     * This constant holds the run configuration key for the maximum sampling stride, in seconds,
+     * of adaptively sampled scopes.
+     */
+    public static final String ADAPTIVE_SAMPLING_MAX_INCREMENT = "powerAdaptiveSamplingMaxIncrement";
+
+    /**
+     * This constant holds the run configuration key for the tolerance up to which utilizations are
+     * considered steady by adaptively sampled scopes.
+     */
+    public static final String ADAPTIVE_SAMPLING_TOLERANCE = "powerAdaptiveSamplingTolerance";
+
+    /**
+     * This constant holds the run configuration key for the {@link EnergyIntegratorType} that
+     * integrates sampled power consumptions into energy consumptions. The integrator of a single
+     * measurement specification can be chosen by appending a dot and the id of the specification
+     * to this key.
+     */
+    public static final String ENERGY_INTEGRATOR = "powerEnergyIntegrator";
+
+    /**
+     * This constant holds the run configuration key to collect counters and latencies of the power
+     * analysis, which are exposed as MXBean and flight recorder events.
+     */
+    public static final String INSTRUMENTATION_ENABLED = "powerInstrumentationEnabled";
+
+    /**
+     * This constant holds the run configuration key to resolve only the cross references that are
+     * relevant to the monitored power providing entities when the infrastructure model is loaded.
+     */
+    public static final String TARGETED_PROXY_RESOLUTION_ENABLED = "powerTargetedProxyResolutionEnabled";
+
+    /**
+     * This constant holds the run configuration key for the minimum simulated time, in seconds,
+     * between two updates of a power or energy runtime measurement.
+     */
+    public static final String RUNTIME_MEASUREMENT_MIN_INTERVAL = "powerRuntimeMeasurementMinInterval";
+
+    /**
+     * This constant holds the run configuration key for the minimum relative change of a power or
+     * energy value for which its runtime measurement is updated before the minimum interval has
+     * passed.
+     */
+    public static final String RUNTIME_MEASUREMENT_MIN_RELATIVE_CHANGE = "powerRuntimeMeasurementMinRelativeChange";
+
+    /**
+     * This constant holds the run configuration key to evaluate the resources of each scope by a
+     * single vector window instead of one sliding window per resource.
+     */
+    public static final String VECTOR_WINDOWS_ENABLED = "powerVectorWindowsEnabled";
+
+    /**
+     * This constant holds the run configuration key for the directory to which the power and energy
+     * series are exported as columnar files instead of being recorded.
+     */
+    public static final String COLUMNAR_EXPORT_DIRECTORY = "powerColumnarExportDirectory";
+
+    /**
+     * This constant holds the run configuration key to maintain summary statistics of the power and
+     * energy consumptions of each monitored entity during the run.
+     */
+    public static final String STATISTICS_ENABLED = "powerStatisticsEnabled";
+
+    /**
+     * This constant holds the run configuration key for the CSV file to which the summary
+     * statistics are written once the simulation has stopped.
+     */
+    public static final String STATISTICS_FILE = "powerStatisticsFile";
+
+    /**
+     * This constant holds the run configuration key to record the full power and energy series,
+     * e.g., by EDP2 recorders.
+     */
+    public static final String SERIES_RECORDING_ENABLED = "powerSeriesRecordingEnabled";
+
+    /**
+     * This constant holds the run configuration key to evaluate the power consumptions of entities
+     * with identical power model bindings once per distinct utilization vector.
+     */
+    public static final String SYMMETRY_REDUCTION_ENABLED = "powerSymmetryReductionEnabled";
+
+    /**
+     * This constant holds the run configuration key to check each optimized evaluation of a power
+     * consumption against the evaluation by a {@link de.fzi.power.interpreter.PowerConsumptionSwitch}.
+     */
+    public static final String EVALUATION_VERIFICATION_ENABLED = "powerEvaluationVerificationEnabled";
+
+    private static final int DEFAULT_MAX_INCREMENT_FACTOR = 16;
+    private static final double DEFAULT_ADAPTIVE_SAMPLING_TOLERANCE = 0.01;
+
+    private static final PowerAnalysisConfig DEFAULT = new PowerAnalysisConfig(Collections.emptyMap());
+
+    private final boolean rollupEnabled;
+    private final int recordingBatchSize;
+    private final boolean changeDetectionEnabled;
+    private final double changeDetectionEpsilon;
+    private final int evaluationParallelism;
+    private final boolean exactEnergyIntegrationEnabled;
+    private final double energyReportingInterval;
+    private final boolean adaptiveSamplingEnabled;
+    private final double adaptiveSamplingMaxIncrement;
+    private final double adaptiveSamplingTolerance;
+    private final EnergyIntegratorType energyIntegrator;
+    private final Map<String, EnergyIntegratorType> energyIntegratorsBySpecification = new HashMap<>();
+    private final boolean instrumentationEnabled;
+    private final boolean targetedProxyResolutionEnabled;
+    private final double runtimeMeasurementMinInterval;
+    private final double runtimeMeasurementMinRelativeChange;
+    private final boolean vectorWindowsEnabled;
+    private final Path columnarExportDirectory;
+    private final boolean statisticsEnabled;
+    private final Path statisticsFile;
+    private final boolean seriesRecordingEnabled;
+    private final boolean symmetryReductionEnabled;
+    private final boolean evaluationVerificationEnabled;
+
+    private PowerAnalysisConfig(final Map<String, Object> properties) {
+        this.rollupEnabled = getBoolean(properties, ROLLUP_ENABLED, false);
+        this.recordingBatchSize = getPositiveInt(properties, RECORDING_BATCH_SIZE, 1);
+        this.changeDetectionEnabled = getBoolean(properties, CHANGE_DETECTION_ENABLED, false);
+        this.changeDetectionEpsilon = getNonNegativeDouble(properties, CHANGE_DETECTION_EPSILON, 0d);
+        this.evaluationParallelism = getPositiveInt(properties, EVALUATION_PARALLELISM, 1);
+        this.exactEnergyIntegrationEnabled = getBoolean(properties, EXACT_ENERGY_INTEGRATION_ENABLED, false);
+        this.energyReportingInterval = getNonNegativeDouble(properties, ENERGY_REPORTING_INTERVAL, 0d);
+        this.adaptiveSamplingEnabled = getBoolean(properties, ADAPTIVE_SAMPLING_ENABLED, false);
+        this.adaptiveSamplingMaxIncrement = getNonNegativeDouble(properties, ADAPTIVE_SAMPLING_MAX_INCREMENT, 0d);
+        this.adaptiveSamplingTolerance = getNonNegativeDouble(properties, ADAPTIVE_SAMPLING_TOLERANCE,
+                DEFAULT_ADAPTIVE_SAMPLING_TOLERANCE);
+        this.energyIntegrator = getEnergyIntegratorType(properties, ENERGY_INTEGRATOR, null);
+        this.instrumentationEnabled = getBoolean(properties, INSTRUMENTATION_ENABLED, false);
+        this.targetedProxyResolutionEnabled = getBoolean(properties, TARGETED_PROXY_RESOLUTION_ENABLED, false);
+        this.runtimeMeasurementMinInterval = getNonNegativeDouble(properties, RUNTIME_MEASUREMENT_MIN_INTERVAL, 0d);
+        this.runtimeMeasurementMinRelativeChange = getNonNegativeDouble(properties,
+                RUNTIME_MEASUREMENT_MIN_RELATIVE_CHANGE, 0d);
+        this.vectorWindowsEnabled = getBoolean(properties, VECTOR_WINDOWS_ENABLED, false);
+        this.columnarExportDirectory = getPath(properties, COLUMNAR_EXPORT_DIRECTORY);
+        this.statisticsFile = getPath(properties, STATISTICS_FILE);
+        this.statisticsEnabled = getBoolean(properties, STATISTICS_ENABLED, false) || this.statisticsFile != null;
+        this.seriesRecordingEnabled = getBoolean(properties, SERIES_RECORDING_ENABLED, true);
+        this.symmetryReductionEnabled = getBoolean(properties, SYMMETRY_REDUCTION_ENABLED, false);
+        this.evaluationVerificationEnabled = getBoolean(properties, EVALUATION_VERIFICATION_ENABLED, false);
+        String specificationKeyPrefix = ENERGY_INTEGRATOR + '.';
+        for (String key : properties.keySet()) {
+            if (key.startsWith(specificationKeyPrefix)) {
+                // blank values leave the specification to the global integrator
+                EnergyIntegratorType type = getEnergyIntegratorType(properties, key, null);
+                if (type != null) {
+                    this.energyIntegratorsBySpecification.put(key.substring(specificationKeyPrefix.length()), type);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the settings contained in the given run configuration properties.
+     *
+     * @param properties
+     *            The properties of the run configuration.
+     * @return The {@link PowerAnalysisConfig} described by the given properties.
+     * @throws NullPointerException
+     *             In case the given map is {@code null}.
+     * @throws IllegalArgumentException
+     *             In case the value of an energy integrator key does not denote an
+     *             {@link EnergyIntegratorType}, or the value of a file or directory key is not a
+     *             valid path.
+     */
+    public static PowerAnalysisConfig fromProperties(final Map<String, Object> properties) {
+        return new PowerAnalysisConfig(Objects.requireNonNull(properties, "Given properties must not be null."));
+    }
+
+    /**
+     * Gets the default settings.
+     *
+     * @return The {@link PowerAnalysisConfig} used if nothing is configured.
+     */
+    public static PowerAnalysisConfig getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Gets the settings that have been attached to the given resource set.
+     *
+     * @param resourceSet
+     *            The {@link ResourceSet} of the PCM models of the current run.
+     * @return The attached {@link PowerAnalysisConfig}, or the default settings if none is
+     *         attached.
+     * @see #attachTo(ResourceSet)
+     */
+    public static PowerAnalysisConfig of(final ResourceSet resourceSet) {
+        Adapter adapter = EcoreUtil.getExistingAdapter(resourceSet, PowerAnalysisConfig.class);
+        return adapter == null ? DEFAULT : ((ConfigAdapter) adapter).config;
+    }
+
+    /**
+     * Attaches these settings to the given resource set, replacing previously attached settings.
+     *
+     * @param resourceSet
+     *            The {@link ResourceSet} of the PCM models of the current run.
+     * @see #of(ResourceSet)
+     */
+    public void attachTo(final ResourceSet resourceSet) {
+        resourceSet.eAdapters().removeIf(adapter -> adapter.isAdapterForType(PowerAnalysisConfig.class));
+        resourceSet.eAdapters().add(new ConfigAdapter(this));
+    }
+
+    /**
+     * Indicates whether the consumption of a monitored entity shall be composed of the per-tick
+     * consumptions of its monitored descendants rather than re-evaluating its whole subtree.
+     *
+     * @return {@code true} if the rollup is enabled, {@code false} otherwise.
+     */
+    public boolean isRollupEnabled() {
+        return this.rollupEnabled;
+    }
+
+    /**
+     * Gets the number of power and energy measurements that are buffered per measuring point
+     * before they are recorded in one go.
+     *
+     * @return The batch size, which is at least 1. A batch size of 1 denotes that each measurement
+     *         is recorded immediately.
+     */
+    public int getRecordingBatchSize() {
+        return this.recordingBatchSize;
+    }
+
+    /**
+     * Indicates whether the power consumption of an entity shall only be evaluated if the
+     * utilizations of its resources have changed since the last evaluation.
+     *
+     * @return {@code true} if change detection is enabled, {@code false} otherwise.
+     * @see #getChangeDetectionEpsilon()
+     */
+    public boolean isChangeDetectionEnabled() {
+        return this.changeDetectionEnabled;
+    }
+
+    /**
+     * Gets the maximum absolute difference per resource up to which utilizations are considered
+     * unchanged.
+     *
+     * @return The tolerance, which is at least 0. A tolerance of 0 denotes that utilizations have
+     *         to be bitwise equal.
+     * @see #isChangeDetectionEnabled()
+     */
+    public double getChangeDetectionEpsilon() {
+        return this.changeDetectionEpsilon;
+    }
+
+    /**
+     * Gets the number of threads that evaluate the power consumptions of a point in simulation
+     * time.
+     *
+     * @return The parallelism, which is at least 1. A parallelism of 1 denotes that consumptions
+     *         are evaluated on the simulation thread only.
+     */
+    public int getEvaluationParallelism() {
+        return this.evaluationParallelism;
+    }
+
+    /**
+     * Indicates whether energy consumptions shall be integrated exactly, i.e., based on the
+     * utilization changes of the resources instead of sliding windows. Rollup and parallel
+     * evaluation do not apply in this mode. As the timed state transitions of stateful power
+     * consuming resources are not captured, entities that contain such resources are refused.
+     *
+     * @return {@code true} if exact integration is enabled, {@code false} otherwise.
+     * @see #getEnergyReportingInterval()
+     */
+    public boolean isExactEnergyIntegrationEnabled() {
+        return this.exactEnergyIntegrationEnabled;
+    }
+
+    /**
+     * Gets the simulated time between two reports of exactly integrated energy consumptions.
+     *
+     * @return The reporting interval in seconds, or 0 if the window increment of the respective
+     *         measurement specification is to be used.
+     * @see #isExactEnergyIntegrationEnabled()
+     */
+    public double getEnergyReportingInterval() {
+        return this.energyReportingInterval;
+    }
+
+    /**
+     * Indicates whether the utilizations shall be sampled adaptively. Rollup and parallel
+     * evaluation do not apply in this mode, and exact energy integration takes precedence.
+     *
+     * @return {@code true} if adaptive sampling is enabled, {@code false} otherwise.
+     * @see #getAdaptiveSamplingMaxIncrement(double)
+     * @see #getAdaptiveSamplingTolerance()
+     */
+    public boolean isAdaptiveSamplingEnabled() {
+        return this.adaptiveSamplingEnabled;
+    }
+
+    /**
+     * Gets the maximum sampling stride of adaptively sampled scopes.
+     *
+     * @param windowIncrement
+     *            The window increment of the respective measurement specification, in seconds.
+     * @return The configured maximum increment in seconds, or a multiple of the given window
+     *         increment if none is configured.
+     */
+    public double getAdaptiveSamplingMaxIncrement(final double windowIncrement) {
+        return this.adaptiveSamplingMaxIncrement > 0 ? this.adaptiveSamplingMaxIncrement
+                : DEFAULT_MAX_INCREMENT_FACTOR * windowIncrement;
+    }
+
+    /**
+     * Gets the tolerance up to which utilizations are considered steady by adaptively sampled
+     * scopes.
+     *
+     * @return The maximum absolute difference per resource.
+     */
+    public double getAdaptiveSamplingTolerance() {
+        return this.adaptiveSamplingTolerance;
+    }
+
+    /**
+     * Gets the integrator of sampled power consumptions into energy consumptions for the given
+     * measurement specification.
+     *
+     * @param measurementSpecificationId
+     *            The id of the measurement specification of the power consumption.
+     * @param equidistantSamples
+     *            Indicates whether the power consumptions are sampled at equidistant points in time.
+     * @return The {@link EnergyIntegratorType} configured for the specification, otherwise the
+     *         globally configured one. If none is configured,
+     *         {@link EnergyIntegratorType#INTERPRETER_SIMPSON} is returned for equidistant samples
+     *         and {@link EnergyIntegratorType#TRAPEZOID} otherwise; the latter is also returned in
+     *         case the configured integrator requires equidistant samples, but they are not.
+     */
+    public EnergyIntegratorType getEnergyIntegrator(final String measurementSpecificationId,
+            final boolean equidistantSamples) {
+        EnergyIntegratorType type = this.energyIntegratorsBySpecification.getOrDefault(measurementSpecificationId,
+                this.energyIntegrator);
+        if (type == null || (type == EnergyIntegratorType.INTERPRETER_SIMPSON && !equidistantSamples)) {
+            return equidistantSamples ? EnergyIntegratorType.INTERPRETER_SIMPSON : EnergyIntegratorType.TRAPEZOID;
+        }
+        return type;
+    }
+
+    /**
+     * Indicates whether the power analysis shall be instrumented. If not, the analysis is not
+     * affected by the instrumentation at all.
+     *
+     * @return {@code true} if the instrumentation is enabled, {@code false} otherwise.
+     * @see org.palladiosimulator.simulizar.power.instrumentation.PowerInstrumentation
+     */
+    public boolean isInstrumentationEnabled() {
+        return this.instrumentationEnabled;
+    }
+
+    /**
+     * Indicates whether only the cross references reachable from the monitored power providing
+     * entities shall be resolved when the infrastructure model is loaded, rather than all cross
+     * references of the PCM models. The remaining references are resolved lazily on access, unless
+     * consumptions are evaluated in parallel: then, the resources of the monitored entities and the
+     * resources they refer to are resolved completely before the first parallel evaluation.
+     *
+     * @return {@code true} if targeted proxy resolution is enabled, {@code false} otherwise.
+     */
+    public boolean isTargetedProxyResolutionEnabled() {
+        return this.targetedProxyResolutionEnabled;
+    }
+
+    /**
+     * Indicates whether updates of power and energy runtime measurements are coalesced, i.e.,
+     * whether a minimum interval or a minimum relative change is configured.
+     *
+     * @return {@code true} if runtime measurement updates are coalesced, {@code false} otherwise.
+     */
+    public boolean isRuntimeMeasurementCoalescingEnabled() {
+        return this.runtimeMeasurementMinInterval > 0 || this.runtimeMeasurementMinRelativeChange > 0;
+    }
+
+    /**
+     * Gets the minimum simulated time between two updates of a power or energy runtime measurement.
+     *
+     * @return The minimum interval in seconds, or {@code 0} if updates are not coalesced by time.
+     */
+    public double getRuntimeMeasurementMinInterval() {
+        return this.runtimeMeasurementMinInterval;
+    }
+
+    /**
+     * Gets the minimum relative change of a power or energy value for which its runtime
+     * measurement is updated before the minimum interval has passed.
+     *
+     * @return The minimum relative change, e.g., {@code 0.05} for 5%, or {@code 0} if the value is
+     *         not considered.
+     */
+    public double getRuntimeMeasurementMinRelativeChange() {
+        return this.runtimeMeasurementMinRelativeChange;
+    }
+
+    /**
+     * Indicates whether the resources of each scope shall be evaluated by a single vector window,
+     * which completes a round by one simulation event, rather than by one sliding window per
+     * resource. Scopes whose window length is not a multiple of the window increment are based on
+     * sliding windows regardless.
+     *
+     * @return {@code true} if vector windows are enabled, {@code false} otherwise.
+     * @see org.palladiosimulator.simulizar.power.evaluationscope.SimulationTimeEvaluationScope#isVectorWindowApplicable
+     */
+    public boolean isVectorWindowsEnabled() {
+        return this.vectorWindowsEnabled;
+    }
+
+    /**
+     * Gets the directory to which the power and energy series of each measuring point are exported
+     * as memory-mapped columnar files. The export replaces the recording of the series, e.g., by
+     * EDP2 recorders; runtime measurements are updated regardless. Runs that execute concurrently
+     * in one JVM export to numbered variants of the directory, e.g., {@code series-2}.
+     *
+     * @return The export directory, or {@code null} if the series are recorded instead.
+     * @see org.palladiosimulator.simulizar.power.offline.ColumnarSeriesReader
+     */
+    public Path getColumnarExportDirectory() {
+        return this.columnarExportDirectory;
+    }
+
+    /**
+     * Indicates whether summary statistics of the power and energy consumptions of each monitored
+     * entity shall be maintained during the run, which is implied by a configured statistics file.
+     *
+     * @return {@code true} if the statistics are enabled, {@code false} otherwise.
+     * @see org.palladiosimulator.simulizar.power.statistics.PowerStatisticsReport
+     */
+    public boolean isStatisticsEnabled() {
+        return this.statisticsEnabled;
+    }
+
+    /**
+     * Gets the file to which the summary statistics are written once the simulation has stopped.
+     * Runs that execute concurrently in one JVM write to numbered variants of the file, e.g.,
+     * {@code statistics-2.csv}.
+     *
+     * @return The CSV file, or {@code null} if the statistics are only attached to the resource set.
+     */
+    public Path getStatisticsFile() {
+        return this.statisticsFile;
+    }
+
+    /**
+     * Indicates whether the full power and energy series shall be recorded, e.g., by EDP2
+     * recorders. Routine runs may rely on the summary statistics instead. A configured columnar
+     * export takes precedence over this setting.
+     *
+     * @return {@code true} if the series are recorded, which is the default, {@code false}
+     *         otherwise.
+     * @see #isStatisticsEnabled()
+     * @see #getColumnarExportDirectory()
+     */
+    public boolean isSeriesRecordingEnabled() {
+        return this.seriesRecordingEnabled;
+    }
+
+    /**
+     * Indicates whether monitored entities whose subtrees are bound to the same power models, e.g.,
+     * the identical servers of a rack, shall be grouped, so that the consumption of a group is
+     * evaluated once per distinct utilization vector and point in time, and shared by its members.
+     *
+     * @return {@code true} if symmetry reduction is enabled, {@code false} otherwise.
+     * @see org.palladiosimulator.simulizar.power.calculators.SymmetryReduction
+     */
+    public boolean isSymmetryReductionEnabled() {
+        return this.symmetryReductionEnabled;
+    }
+
+    /**
+     * Indicates whether each compiled evaluation of a power consumption shall be checked against
+     * the evaluation of the same scope state by a
+     * {@link de.fzi.power.interpreter.PowerConsumptionSwitch}, and each consumption reused by
+     * symmetry reduction against the evaluation of the reusing entity. This doubles the evaluation
+     * effort and is meant for testing only.
+     *
+     * @return {@code true} if evaluations are verified, {@code false} otherwise.
+     * @see org.palladiosimulator.simulizar.power.calculators.CompiledPowerEvaluator#evaluateVerified()
+     */
+    public boolean isEvaluationVerificationEnabled() {
+        return this.evaluationVerificationEnabled;
+    }
+
+    private static boolean getBoolean(final Map<String, Object> properties, final String key,
+            final boolean defaultValue) {
+        Object value = properties.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(String.valueOf(value).trim());
+    }
+
+    private static int getPositiveInt(final Map<String, Object> properties, final String key,
+            final int defaultValue) {
+        Object value = properties.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int result = Integer.parseInt(String.valueOf(value).trim());
+            return result > 0 ? result : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static double getNonNegativeDouble(final Map<String, Object> properties, final String key,
+            final double defaultValue) {
+        Object value = properties.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            double result = Double.parseDouble(String.valueOf(value).trim());
+            return result >= 0 && !Double.isInfinite(result) ? result : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static Path getPath(final Map<String, Object> properties, final String key) {
+        Object value = properties.get(key);
+        if (value == null || String.valueOf(value).trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Paths.get(String.valueOf(value).trim());
+        } catch (InvalidPathException e) {
+            throw new IllegalArgumentException("Value '" + value + "' of key " + key + " is not a valid path.", e);
+        }
+    }
+
+    private static EnergyIntegratorType getEnergyIntegratorType(final Map<String, Object> properties,
+            final String key, final EnergyIntegratorType defaultValue) {
+        Object value = properties.get(key);
+        if (value == null || String.valueOf(value).trim().isEmpty()) {
+            return defaultValue;
+        }
+        EnergyIntegratorType type = EnergyIntegratorType.parse(String.valueOf(value), null);
+        if (type == null) {
+            throw new IllegalArgumentException("Value '" + value + "' of key " + key
+                    + " does not denote an energy integrator, expected one of "
+                    + Arrays.toString(EnergyIntegratorType.values()) + ".");
+        }
+        return type;
+    }
+
+    private static final class ConfigAdapter extends AdapterImpl {
+        private final PowerAnalysisConfig config;
+
+        private ConfigAdapter(final PowerAnalysisConfig config) {
+            this.config = config;
+        }
+
+        @Override
+        public boolean isAdapterForType(final Object type) {
+            return type == PowerAnalysisConfig.class;
+        }
+    }
+}
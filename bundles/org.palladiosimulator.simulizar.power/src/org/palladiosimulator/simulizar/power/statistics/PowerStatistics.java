@@ -0,0 +1,164 @@
+package org.palladiosimulator.simulizar.power.statistics;
+
+import java.util.Objects;
+
+import org.palladiosimulator.simulizar.power.calculators.IDoubleMeasurementListener;
+import org.palladiosimulator.simulizar.power.instrumentation.MemoryFootprint;
+
+/**
+ * Maintains summary statistics of the power and energy consumptions of one power providing entity
+ * while the simulation runs, in constant memory.<br>
+ * The listeners of the statistics are attached to the power and energy calculators of the entity
+ * (cf. {@code SimulationTimePowerCalculator#addDoubleMeasurementListener}). The minimum, maximum,
+ * mean and peak time of the power consumptions are tracked exactly, while their percentiles are
+ * estimated by a {@link QuantileSketch}.<br>
+ * The mean and the percentiles are weighted by time: each power consumption holds until the next
+ * sample, so that the mean is the integral of the power consumption over the sampled period
+ * divided by its duration, and the percentiles are those of the share of that period. Hence, they
+ * are not biased towards periods that are sampled more often, e.g., by adaptive windows or by
+ * frequent state changes. The last sample holds for no time and only counts if all samples share a
+ * point in time. The total energy consumption is the last reported
+ * cumulative energy consumption. Instances are not thread-safe; they are meant to be fed on the
+ * simulation thread.
+ */
+public final class PowerStatistics {
+
+    /**
+     * This constant holds the size of the primitive fields of an instance in bytes.
+     */
+    private static final long FIELD_BYTES = 9L * Double.BYTES;
+
+    private final String source;
+    private final String measuringPoint;
+    private final QuantileSketch sketch;
+    private final IDoubleMeasurementListener powerListener = this::addPower;
+    private final IDoubleMeasurementListener energyListener = this::addEnergy;
+
+    private long sampleCount;
+    private double minPower = Double.NaN;
+    private double maxPower = Double.NaN;
+    private double meanPower = Double.NaN;
+    private double peakPointInTime = Double.NaN;
+    private double firstPointInTime = Double.NaN;
+    private double lastPointInTime = Double.NaN;
+    private double lastPower = Double.NaN;
+    private double totalEnergy = Double.NaN;
+
+    /**
+     * Initializes a new instance of the {@link PowerStatistics} class, whose percentiles are
+     * estimated by a {@link QuantileSketch} with default accuracy.
+     *
+     * @param source
+     *            The name of the source, e.g., the monitor of the entity.
+     * @param measuringPoint
+     *            The string representation of the measuring point of the entity.
+     * @throws NullPointerException
+     *             In case any of the arguments is {@code null}.
+     */
+    public PowerStatistics(final String source, final String measuringPoint) {
+        this(source, measuringPoint, new QuantileSketch());
+    }
+
+    /**
+     * Initializes a new instance of the {@link PowerStatistics} class.
+     *
+     * @param source
+     *            The name of the source, e.g., the monitor of the entity.
+     * @param measuringPoint
+     *            The string representation of the measuring point of the entity.
+     * @param sketch
+     *            The empty {@link QuantileSketch} to estimate the percentiles with.
+     * @throws NullPointerException
+     *             In case any of the arguments is {@code null}.
+     */
+    public PowerStatistics(final String source, final String measuringPoint, final QuantileSketch sketch) {
+        this.source = Objects.requireNonNull(source, "Given source must not be null.");
+        this.measuringPoint = Objects.requireNonNull(measuringPoint, "Given measuring point must not be null.");
+        this.sketch = Objects.requireNonNull(sketch, "Given QuantileSketch must not be null.");
+    }
+
+    /**
+     * Gets the listener to attach to the power calculator of the entity.
+     *
+     * @return The {@link IDoubleMeasurementListener} of the power consumptions.
+     */
+    public IDoubleMeasurementListener getPowerListener() {
+        return this.powerListener;
+    }
+
+    /**
+     * Gets the listener to attach to the energy calculator of the entity.
+     *
+     * @return The {@link IDoubleMeasurementListener} of the cumulative energy consumptions.
+     */
+    public IDoubleMeasurementListener getEnergyListener() {
+        return this.energyListener;
+    }
+
+    private void addPower(final double pointInTime, final double power) {
+        if (Double.isNaN(power)) {
+            return;
+        }
+        if (++this.sampleCount == 1) {
+            this.minPower = power;
+            this.maxPower = power;
+            this.meanPower = power;
+            this.peakPointInTime = pointInTime;
+            this.firstPointInTime = pointInTime;
+        } else {
+            if (power < this.minPower) {
+                this.minPower = power;
+            }
+            if (power > this.maxPower) {
+                this.maxPower = power;
+                this.peakPointInTime = pointInTime;
+            }
+            double duration = pointInTime - this.lastPointInTime;
+            if (duration > 0) {
+                // the previous consumption has held since its sample; running time-weighted mean,
+                // which does not accumulate a large sum
+                this.meanPower += (this.lastPower - this.meanPower) * duration
+                        / (pointInTime - this.firstPointInTime);
+                this.sketch.add(this.lastPower, duration);
+            } else if (pointInTime == this.firstPointInTime) {
+                // the consumption at the first point in time is replaced before it has held
+                this.meanPower = power;
+            }
+        }
+        this.lastPointInTime = pointInTime;
+        this.lastPower = power;
+    }
+
+    private void addEnergy(final double pointInTime, final double cumulativeEnergy) {
+        if (!Double.isNaN(cumulativeEnergy)) {
+            this.totalEnergy = cumulativeEnergy;
+        }
+    }
+
+    /**
+     * Gets the summary of the consumptions so far.
+     *
+     * @return The {@link PowerSummary}.
+     */
+    public PowerSummary getSummary() {
+        double p95Power = this.lastPower;
+        double p99Power = this.lastPower;
+        if (this.sketch.getTotalWeight() > 0) {
+            p95Power = this.sketch.getQuantile(0.95);
+            p99Power = this.sketch.getQuantile(0.99);
+        }
+        return new PowerSummary(this.source, this.measuringPoint, this.sampleCount, this.minPower, this.maxPower,
+                this.meanPower, p95Power, p99Power, this.peakPointInTime, this.firstPointInTime,
+                this.lastPointInTime, this.totalEnergy);
+    }
+
+    /**
+     * Gets the data retained by these statistics.
+     *
+     * @return The {@link MemoryFootprint}, which does not grow with the number of samples beyond the
+     *         bounded size of the sketch.
+     */
+    public MemoryFootprint getMemoryFootprint() {
+        return new MemoryFootprint(0, FIELD_BYTES + this.sketch.getEstimatedBytes());
+    }
+}
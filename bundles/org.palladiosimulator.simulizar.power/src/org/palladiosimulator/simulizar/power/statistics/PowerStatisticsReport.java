@@ -0,0 +1,136 @@
+package org.palladiosimulator.simulizar.power.statistics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * The {@link PowerSummary}s of all monitored power providing entities of a simulation run.<br>
+ * The report is published once the simulation has stopped by attaching it to the resource set of
+ * the PCM models, from which subsequent jobs of the workflow can obtain it, and optionally by
+ * writing it to a CSV file.
+ */
+public final class PowerStatisticsReport {
+
+    /**
+     * This constant denotes a report without summaries.
+     */
+    public static final PowerStatisticsReport EMPTY = new PowerStatisticsReport(Collections.emptyList());
+
+    private static final String CSV_HEADER = "source,measuringPoint,samples,minPower,maxPower,meanPower,p95Power,"
+            + "p99Power,peakPointInTime,firstPointInTime,lastPointInTime,totalEnergy";
+
+    private final List<PowerSummary> summaries;
+
+    /**
+     * Initializes a new instance of the {@link PowerStatisticsReport} class.
+     *
+     * @param summaries
+     *            The {@link PowerSummary}s of the entities, in the order of their measurement
+     *            specifications.
+     * @throws NullPointerException
+     *             In case the given collection is {@code null}.
+     */
+    public PowerStatisticsReport(final Collection<PowerSummary> summaries) {
+        this.summaries = Collections.unmodifiableList(
+                new ArrayList<>(Objects.requireNonNull(summaries, "Given summaries must not be null.")));
+    }
+
+    /**
+     * Gets the report that has been attached to the given resource set.
+     *
+     * @param resourceSet
+     *            The {@link ResourceSet} of the PCM models of a run.
+     * @return The attached {@link PowerStatisticsReport}, or {@link #EMPTY} if none is attached.
+     * @see #attachTo(ResourceSet)
+     */
+    public static PowerStatisticsReport of(final ResourceSet resourceSet) {
+        Adapter adapter = EcoreUtil.getExistingAdapter(resourceSet, PowerStatisticsReport.class);
+        return adapter == null ? EMPTY : ((ReportAdapter) adapter).report;
+    }
+
+    /**
+     * Attaches this report to the given resource set, replacing a previously attached report.
+     *
+     * @param resourceSet
+     *            The {@link ResourceSet} of the PCM models of the run.
+     * @see #of(ResourceSet)
+     */
+    public void attachTo(final ResourceSet resourceSet) {
+        resourceSet.eAdapters().removeIf(adapter -> adapter.isAdapterForType(PowerStatisticsReport.class));
+        resourceSet.eAdapters().add(new ReportAdapter(this));
+    }
+
+    /**
+     * Gets the summaries of the entities.
+     *
+     * @return An unmodifiable {@link List} of the {@link PowerSummary}s.
+     */
+    public List<PowerSummary> getSummaries() {
+        return this.summaries;
+    }
+
+    /**
+     * Writes this report to a CSV file with one line per entity, replacing an existing file.
+     *
+     * @param file
+     *            The {@link Path} of the file to write.
+     * @throws NullPointerException
+     *             In case the given path is {@code null}.
+     * @throws IOException
+     *             In case the file cannot be written.
+     */
+    public void writeCsv(final Path file) throws IOException {
+        Objects.requireNonNull(file, "Given Path must not be null.");
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            for (PowerSummary summary : this.summaries) {
+                writer.write(quote(summary.getSource()) + ',' + quote(summary.getMeasuringPoint()) + ','
+                        + summary.getSampleCount() + ',' + summary.getMinPower() + ',' + summary.getMaxPower() + ','
+                        + summary.getMeanPower() + ',' + summary.getP95Power() + ',' + summary.getP99Power() + ','
+                        + summary.getPeakPointInTime() + ',' + summary.getFirstPointInTime() + ','
+                        + summary.getLastPointInTime() + ',' + summary.getTotalEnergy());
+                writer.write('\n');
+            }
+        }
+    }
+
+    private static String quote(final String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public String toString() {
+        return "PowerStatisticsReport " + this.summaries;
+    }
+
+    private static final class ReportAdapter extends AdapterImpl {
+        private final PowerStatisticsReport report;
+
+        private ReportAdapter(final PowerStatisticsReport report) {
+            this.report = report;
+        }
+
+        @Override
+        public boolean isAdapterForType(final Object type) {
+            return type == PowerStatisticsReport.class;
+        }
+    }
+}
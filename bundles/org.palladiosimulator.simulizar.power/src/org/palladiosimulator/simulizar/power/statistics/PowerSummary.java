@@ -0,0 +1,165 @@
+package org.palladiosimulator.simulizar.power.statistics;
+
+import java.util.Objects;
+
+/**
+ * Immutable summary of the power and energy consumptions of a power providing entity over a
+ * simulation run, as computed by {@link PowerStatistics}.<br>
+ * Power consumptions are given in watts, energy consumptions in joules and points in time in
+ * seconds of simulation time. The mean and the percentiles of the power consumptions are weighted by
+ * the time each sample holds until the next one.
+ */
+public final class PowerSummary {
+
+    private final String source;
+    private final String measuringPoint;
+    private final long sampleCount;
+    private final double minPower;
+    private final double maxPower;
+    private final double meanPower;
+    private final double p95Power;
+    private final double p99Power;
+    private final double peakPointInTime;
+    private final double firstPointInTime;
+    private final double lastPointInTime;
+    private final double totalEnergy;
+
+    PowerSummary(final String source, final String measuringPoint, final long sampleCount, final double minPower,
+            final double maxPower, final double meanPower, final double p95Power, final double p99Power,
+            final double peakPointInTime, final double firstPointInTime, final double lastPointInTime,
+            final double totalEnergy) {
+        this.source = Objects.requireNonNull(source, "Given source must not be null.");
+        this.measuringPoint = Objects.requireNonNull(measuringPoint, "Given measuring point must not be null.");
+        this.sampleCount = sampleCount;
+        this.minPower = minPower;
+        this.maxPower = maxPower;
+        this.meanPower = meanPower;
+        this.p95Power = p95Power;
+        this.p99Power = p99Power;
+        this.peakPointInTime = peakPointInTime;
+        this.firstPointInTime = firstPointInTime;
+        this.lastPointInTime = lastPointInTime;
+        this.totalEnergy = totalEnergy;
+    }
+
+    /**
+     * Gets the name of the source, i.e., the monitor of the entity.
+     *
+     * @return The name of the source.
+     */
+    public String getSource() {
+        return this.source;
+    }
+
+    /**
+     * Gets the measuring point of the entity.
+     *
+     * @return The string representation of the measuring point.
+     */
+    public String getMeasuringPoint() {
+        return this.measuringPoint;
+    }
+
+    /**
+     * Gets the number of power consumption samples.
+     *
+     * @return The number of samples the figures are based on.
+     */
+    public long getSampleCount() {
+        return this.sampleCount;
+    }
+
+    /**
+     * Gets the minimum power consumption.
+     *
+     * @return The minimum, or {@link Double#NaN} if there are no samples.
+     */
+    public double getMinPower() {
+        return this.minPower;
+    }
+
+    /**
+     * Gets the maximum power consumption.
+     *
+     * @return The maximum, or {@link Double#NaN} if there are no samples.
+     */
+    public double getMaxPower() {
+        return this.maxPower;
+    }
+
+    /**
+     * Gets the mean power consumption.
+     *
+     * @return The time-weighted mean of the samples, i.e., the integral of the power consumption
+     *         from the first to the last sample divided by the duration, or the last of the samples
+     *         if they share a point in time, or {@link Double#NaN} if there are no samples.
+     */
+    public double getMeanPower() {
+        return this.meanPower;
+    }
+
+    /**
+     * Gets the estimated 95th percentile of the power consumption, i.e., the consumption that is not
+     * exceeded for 95% of the time from the first to the last sample.
+     *
+     * @return The estimate, or {@link Double#NaN} if there are no samples.
+     * @see QuantileSketch
+     */
+    public double getP95Power() {
+        return this.p95Power;
+    }
+
+    /**
+     * Gets the estimated 99th percentile of the power consumption, i.e., the consumption that is not
+     * exceeded for 99% of the time from the first to the last sample.
+     *
+     * @return The estimate, or {@link Double#NaN} if there are no samples.
+     * @see QuantileSketch
+     */
+    public double getP99Power() {
+        return this.p99Power;
+    }
+
+    /**
+     * Gets the point in time at which the maximum power consumption occurred first.
+     *
+     * @return The point in time, or {@link Double#NaN} if there are no samples.
+     */
+    public double getPeakPointInTime() {
+        return this.peakPointInTime;
+    }
+
+    /**
+     * Gets the point in time of the first power consumption sample.
+     *
+     * @return The point in time, or {@link Double#NaN} if there are no samples.
+     */
+    public double getFirstPointInTime() {
+        return this.firstPointInTime;
+    }
+
+    /**
+     * Gets the point in time of the last power consumption sample.
+     *
+     * @return The point in time, or {@link Double#NaN} if there are no samples.
+     */
+    public double getLastPointInTime() {
+        return this.lastPointInTime;
+    }
+
+    /**
+     * Gets the total energy consumption, i.e., the last cumulative energy consumption.
+     *
+     * @return The total energy consumption, or {@link Double#NaN} if none has been reported.
+     */
+    public double getTotalEnergy() {
+        return this.totalEnergy;
+    }
+
+    @Override
+    public String toString() {
+        return "PowerSummary [source=" + this.source + ", samples=" + this.sampleCount + ", min=" + this.minPower
+                + " W, max=" + this.maxPower + " W at " + this.peakPointInTime + " s, mean=" + this.meanPower
+                + " W, p95=" + this.p95Power + " W, p99=" + this.p99Power + " W, energy=" + this.totalEnergy + " J]";
+    }
+}
@@ -0,0 +1,234 @@
+package org.palladiosimulator.simulizar.power.statistics;
+
+/**
+ * Streaming quantile estimator in bounded memory, with a relative error guarantee.<br>
+ * Positive values are weighted in logarithmically sized buckets: a value {@code x} falls into the
+ * bucket {@code ceil(log(x) / log(gamma))} with {@code gamma = (1 + a) / (1 - a)}, where {@code a}
+ * is the relative accuracy. Each bucket is estimated by a value that differs from all of its values
+ * by at most the relative accuracy, hence so does each estimated quantile (cf. DDSketch). Values
+ * that are not positive, e.g., the power consumption of an entity that is switched off, are
+ * counted as zeros. Each value carries a weight, e.g., the time it holds, and the quantiles are
+ * those of the weighted distribution; values added without a weight count once.<br>
+ * The number of buckets is bounded. Once the values span more buckets, the lowest buckets are
+ * collapsed, so that only quantiles below the collapsed range lose their accuracy. For power
+ * consumptions, which typically range within a few orders of magnitude, this does not happen.
+ * Instances are not thread-safe.
+ */
+public final class QuantileSketch {
+
+    /**
+     * This constant holds the default relative accuracy of the estimated quantiles.
+     */
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+    /**
+     * This constant holds the default maximum number of buckets.
+     */
+    public static final int DEFAULT_MAX_BUCKETS = 2048;
+
+    private static final int INITIAL_BUCKETS = 64;
+
+    private final double gamma;
+    private final double logGamma;
+    private final int maxBuckets;
+    private double[] weights;
+    /** The bucket index of {@code weights[0]}. */
+    private int offset;
+    private int minIndex = 0;
+    private int maxIndex = -1;
+    private double zeroWeight;
+    private double totalWeight;
+    private long count;
+
+    /**
+     * Initializes a new instance of the {@link QuantileSketch} class with the default accuracy and
+     * number of buckets.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY, DEFAULT_MAX_BUCKETS);
+    }
+
+    /**
+     * Initializes a new instance of the {@link QuantileSketch} class.
+     *
+     * @param relativeAccuracy
+     *            The relative accuracy of the estimated quantiles, e.g., {@code 0.01} for 1%.
+     * @param maxBuckets
+     *            The maximum number of buckets, which bounds the memory of the sketch.
+     * @throws IllegalArgumentException
+     *             In case the relative accuracy is not between 0 and 1, exclusive, or in case the
+     *             maximum number of buckets is less than 2.
+     */
+    public QuantileSketch(final double relativeAccuracy, final int maxBuckets) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Given relative accuracy must be between 0 and 1, exclusive.");
+        }
+        if (maxBuckets < 2) {
+            throw new IllegalArgumentException("Given maximum number of buckets must be at least 2.");
+        }
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(this.gamma);
+        this.maxBuckets = maxBuckets;
+        this.weights = new double[Math.min(INITIAL_BUCKETS, maxBuckets)];
+    }
+
+    /**
+     * Adds a value with weight {@code 1} to the sketch.
+     *
+     * @param value
+     *            The value to add. Values that are not a number are ignored.
+     */
+    public void add(final double value) {
+        add(value, 1d);
+    }
+
+    /**
+     * Adds a weighted value to the sketch.
+     *
+     * @param value
+     *            The value to add. Values that are not a number are ignored.
+     * @param weight
+     *            The weight of the value, e.g., the time it holds. Values of weight {@code 0} are
+     *            ignored.
+     * @throws IllegalArgumentException
+     *             In case the weight is negative, infinite or not a number.
+     */
+    public void add(final double value, final double weight) {
+        if (!(weight >= 0 && weight < Double.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException("Given weight must be finite and not negative.");
+        }
+        if (Double.isNaN(value) || weight == 0) {
+            return;
+        }
+        ++this.count;
+        this.totalWeight += weight;
+        if (value <= 0 || value < Double.MIN_NORMAL) {
+            this.zeroWeight += weight;
+            return;
+        }
+        int index = (int) Math.ceil(Math.log(Math.min(value, Double.MAX_VALUE)) / this.logGamma);
+        if (this.minIndex > this.maxIndex) {
+            this.offset = index - this.weights.length / 2;
+            this.minIndex = index;
+            this.maxIndex = index;
+        } else if (index < this.minIndex || index > this.maxIndex) {
+            index = extendRange(index);
+        }
+        this.weights[index - this.offset] += weight;
+    }
+
+    private int extendRange(final int index) {
+        int low = Math.min(index, this.minIndex);
+        int high = Math.max(index, this.maxIndex);
+        int bucketIndex = index;
+        if ((long) high - low >= this.maxBuckets) {
+            if (index < this.minIndex) {
+                // values below the accurate range are counted in its lowest bucket
+                bucketIndex = high - this.maxBuckets + 1;
+            }
+            low = high - this.maxBuckets + 1;
+        }
+        if (low < this.offset || high >= this.offset + this.weights.length) {
+            int length = Math.min(this.maxBuckets, Math.max(high - low + 1, 2 * this.weights.length));
+            // room is left in the direction of growth
+            relocate(index < this.minIndex ? high - length + 1 : low, length);
+        }
+        if (low > this.minIndex) {
+            // the lowest buckets are collapsed into the lowest remaining one
+            double collapsed = 0;
+            for (int i = this.minIndex; i < low; ++i) {
+                collapsed += this.weights[i - this.offset];
+                this.weights[i - this.offset] = 0;
+            }
+            this.weights[low - this.offset] += collapsed;
+        }
+        this.minIndex = Math.min(this.minIndex, low);
+        this.maxIndex = high;
+        return bucketIndex;
+    }
+
+    private void relocate(final int newOffset, final int length) {
+        double[] newWeights = new double[length];
+        double collapsed = 0;
+        for (int i = this.minIndex; i <= this.maxIndex; ++i) {
+            double bucketWeight = this.weights[i - this.offset];
+            if (i < newOffset) {
+                collapsed += bucketWeight;
+            } else if (i < newOffset + length) {
+                newWeights[i - newOffset] = bucketWeight;
+            }
+        }
+        newWeights[Math.max(this.minIndex, newOffset) - newOffset] += collapsed;
+        if (this.minIndex < newOffset) {
+            this.minIndex = newOffset;
+        }
+        this.weights = newWeights;
+        this.offset = newOffset;
+    }
+
+    /**
+     * Estimates the given quantile of the added values, i.e., the least value such that the given
+     * share of the total weight lies on values up to it.
+     *
+     * @param quantile
+     *            The quantile, e.g., {@code 0.95} for the 95th percentile.
+     * @return The estimated quantile, or {@link Double#NaN} if no value has been added.
+     * @throws IllegalArgumentException
+     *             In case the quantile is not between 0 and 1, inclusive.
+     */
+    public double getQuantile(final double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException("Given quantile must be between 0 and 1, inclusive.");
+        }
+        if (this.count == 0) {
+            return Double.NaN;
+        }
+        double rank = quantile * this.totalWeight;
+        if (this.zeroWeight > 0 && rank <= this.zeroWeight) {
+            return 0d;
+        }
+        double seen = this.zeroWeight;
+        for (int index = this.minIndex; index <= this.maxIndex; ++index) {
+            double bucketWeight = this.weights[index - this.offset];
+            seen += bucketWeight;
+            if (bucketWeight > 0 && seen >= rank) {
+                return 2 * Math.pow(this.gamma, index) / (this.gamma + 1);
+            }
+        }
+        return 2 * Math.pow(this.gamma, this.maxIndex) / (this.gamma + 1);
+    }
+
+    /**
+     * Gets the number of added values.
+     *
+     * @return The number of values, excluding those that were not a number or had no weight.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Gets the total weight of the added values.
+     *
+     * @return The sum of the weights, which equals the number of values if none has been added with
+     *         a weight.
+     */
+    public double getTotalWeight() {
+        return this.totalWeight;
+    }
+
+    /**
+     * Gets the size of the data kept by this sketch.
+     *
+     * @return The size in bytes, which is bounded by the maximum number of buckets.
+     */
+    public long getEstimatedBytes() {
+        return (long) Double.BYTES * this.weights.length;
+    }
+
+    @Override
+    public String toString() {
+        return "QuantileSketch [count=" + this.count + ", buckets=" + Math.max(0, this.maxIndex - this.minIndex + 1)
+                + "]";
+    }
+}
@@ -0,0 +1,27 @@
+package org.palladiosimulator.simulizar.power.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point to run the power extension benchmarks outside of an IDE. The GC profiler is always
+ * attached, so that the allocated bytes per operation ({@code gc.alloc.rate.norm}) are reported
+ * along with the timings.<br>
+ * The optional first argument is a regular expression that restricts the benchmarks to run, e.g.,
+ * {@code PowerPipelineBenchmark}.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(args.length > 0 ? args[0] : "org.palladiosimulator.simulizar.power")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,125 @@
+package org.palladiosimulator.simulizar.power.benchmarks;
+
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.measure.Measurable;
+import javax.measure.Measure;
+import javax.measure.quantity.Dimensionless;
+import javax.measure.quantity.Power;
+import javax.measure.unit.SI;
+import javax.measure.unit.Unit;
+
+import org.jscience.physics.amount.Amount;
+import org.mockito.invocation.InvocationOnMock;
+import org.palladiosimulator.measurementframework.MeasuringValue;
+import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
+
+import de.fzi.power.interpreter.PowerModelRegistry;
+import de.fzi.power.interpreter.calculators.IDistributionPowerModelCalculator;
+
+/**
+ * Linear power models the power benchmarks evaluate their entities with, in place of the power
+ * models a simulation run instantiates from the power model repository by means of extensions. The
+ * created {@link PowerModelRegistry} supplies a calculator for every entity: a resource consumes
+ * {@code idle + dynamic * u} at utilization {@code u}, and an entity that supplies other entities
+ * consumes the sum of their consumptions. The utilization is taken from the measurements the
+ * {@link de.fzi.power.interpreter.ConsumptionContext} passes to the calculator of the resource.<br>
+ * The registry and its calculators are stubs that do not record their invocations, so that they
+ * retain no data in proportion to the duration of a run.
+ */
+public final class SyntheticPowerModels {
+
+    private SyntheticPowerModels() {
+    }
+
+    /**
+     * Creates a registry of linear power models.
+     *
+     * @param idlePower
+     *            The consumption of an idle resource, in {@code W}.
+     * @param dynamicPower
+     *            The additional consumption of a fully utilized resource, in {@code W}.
+     * @return The created {@link PowerModelRegistry}.
+     */
+    public static PowerModelRegistry createRegistry(final double idlePower, final double dynamicPower) {
+        IDistributionPowerModelCalculator distributionCalculator = mock(IDistributionPowerModelCalculator.class,
+                withSettings().stubOnly().defaultAnswer(SyntheticPowerModels::sumConsumptions));
+        Map<Class<?>, Object> resourceCalculators = new HashMap<>();
+        return mock(PowerModelRegistry.class, withSettings().stubOnly().defaultAnswer(invocation -> {
+            Class<?> type = invocation.getMethod().getReturnType();
+            if (type == IDistributionPowerModelCalculator.class) {
+                return distributionCalculator;
+            }
+            if (type.isInterface() && type.getName().startsWith("de.fzi.power.interpreter.calculators")) {
+                return resourceCalculators.computeIfAbsent(type, key -> mock(key, withSettings().stubOnly()
+                        .defaultAnswer(resourceInvocation -> evaluate(resourceInvocation, idlePower, dynamicPower))));
+            }
+            return RETURNS_DEFAULTS.answer(invocation);
+        }));
+    }
+
+    private static Object sumConsumptions(final InvocationOnMock invocation) throws Throwable {
+        if (!invocation.getMethod().getReturnType().isAssignableFrom(Amount.class)) {
+            return RETURNS_DEFAULTS.answer(invocation);
+        }
+        double sum = 0d;
+        for (Object argument : invocation.getArguments()) {
+            if (argument instanceof Map) {
+                for (Object consumption : ((Map<?, ?>) argument).values()) {
+                    @SuppressWarnings("unchecked")
+                    Measurable<Power> power = (Measurable<Power>) consumption;
+                    sum += power.doubleValue(SI.WATT);
+                }
+            }
+        }
+        return Amount.valueOf(sum, SI.WATT);
+    }
+
+    private static Object evaluate(final InvocationOnMock invocation, final double idlePower,
+            final double dynamicPower) throws Throwable {
+        Class<?> type = invocation.getMethod().getReturnType();
+        if (type.isAssignableFrom(Set.class)) {
+            // the metrics the model requests from the scope
+            return Collections.singleton(MetricDescriptionConstants.UTILIZATION_OF_ACTIVE_RESOURCE_TUPLE);
+        }
+        if (!type.isAssignableFrom(Amount.class)) {
+            return RETURNS_DEFAULTS.answer(invocation);
+        }
+        for (Object argument : invocation.getArguments()) {
+            double utilization = findUtilization(argument);
+            if (!Double.isNaN(utilization)) {
+                return Amount.valueOf(idlePower + dynamicPower * utilization, SI.WATT);
+            }
+        }
+        throw new IllegalStateException("No utilization has been passed to the power model: " + invocation);
+    }
+
+    private static double findUtilization(final Object argument) {
+        if (argument instanceof MeasuringValue) {
+            MeasuringValue measurement = (MeasuringValue) argument;
+            if (measurement.isCompatibleWith(MetricDescriptionConstants.UTILIZATION_OF_ACTIVE_RESOURCE)) {
+                Measure<Double, Dimensionless> utilization = measurement
+                        .getMeasureForMetric(MetricDescriptionConstants.UTILIZATION_OF_ACTIVE_RESOURCE);
+                return utilization.doubleValue(Unit.ONE);
+            }
+        } else if (argument instanceof Map) {
+            return findUtilization(((Map<?, ?>) argument).values());
+        } else if (argument instanceof Iterable) {
+            // e.g., the data streams of the scope
+            for (Object element : (Iterable<?>) argument) {
+                double utilization = findUtilization(element);
+                if (!Double.isNaN(utilization)) {
+                    return utilization;
+                }
+            }
+        }
+        return Double.NaN;
+    }
+}
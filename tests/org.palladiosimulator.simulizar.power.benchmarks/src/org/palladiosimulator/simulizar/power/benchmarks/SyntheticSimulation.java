@@ -0,0 +1,249 @@
+package org.palladiosimulator.simulizar.power.benchmarks;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import javax.measure.Measure;
+import javax.measure.unit.SI;
+import javax.measure.unit.Unit;
+
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.palladiosimulator.measurementframework.MeasuringValue;
+import org.palladiosimulator.measurementframework.TupleMeasurement;
+import org.palladiosimulator.measurementframework.listener.IMeasurementSourceListener;
+import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
+import org.palladiosimulator.pcm.resourceenvironment.ProcessingResourceSpecification;
+import org.palladiosimulator.pcm.resourceenvironment.ResourceenvironmentFactory;
+import org.palladiosimulator.pcmmeasuringpoint.ActiveResourceMeasuringPoint;
+import org.palladiosimulator.pcmmeasuringpoint.PcmmeasuringpointFactory;
+import org.palladiosimulator.probeframework.ProbeFrameworkContext;
+import org.palladiosimulator.probeframework.calculator.Calculator;
+import org.palladiosimulator.probeframework.calculator.RegisterCalculatorFactoryDecorator;
+
+import de.fzi.power.infrastructure.InfrastructureFactory;
+import de.fzi.power.infrastructure.PowerDistributionUnit;
+import de.fzi.power.infrastructure.StatelessPowerConsumingResource;
+import de.uka.ipd.sdq.simucomframework.model.SimuComModel;
+import de.uka.ipd.sdq.simulation.abstractsimengine.AbstractSimEventDelegator;
+import de.uka.ipd.sdq.simulation.abstractsimengine.IEntity;
+import de.uka.ipd.sdq.simulation.abstractsimengine.ISimEngineFactory;
+import de.uka.ipd.sdq.simulation.abstractsimengine.ISimEntityDelegate;
+import de.uka.ipd.sdq.simulation.abstractsimengine.ISimEventDelegate;
+import de.uka.ipd.sdq.simulation.abstractsimengine.ISimulationControl;
+
+/**
+ * Minimal discrete-event simulation the power benchmarks are driven with. The {@link SimuComModel}
+ * is a stub whose simulation is always running and whose simulation engine executes the scheduled
+ * events, e.g., the move-on events of the sliding windows, once the simulated time is advanced
+ * past them. Each resource of the created infrastructure is observed by a stubbed state
+ * calculator that is registered at the calculator factory of the model, so that windows and scopes
+ * are attached to the resources like in a simulation run, and are fed with the resource states
+ * the benchmarks schedule. The stubs do not record their invocations, so that the simulation
+ * retains no data in proportion to the duration of a run.<br>
+ * Scheduled events cannot be removed, which none of the benchmarked components does.
+ */
+public final class SyntheticSimulation {
+
+    private final SimuComModel model;
+    private final RegisterCalculatorFactoryDecorator calculatorFactory;
+    private final Set<Calculator> calculators = new LinkedHashSet<>();
+    private final Map<ProcessingResourceSpecification, List<IMeasurementSourceListener>> stateObservers;
+    private final PriorityQueue<ScheduledAction> schedule = new PriorityQueue<>();
+    private double currentTime;
+    private long scheduledCount;
+
+    /**
+     * Initializes a new simulation at simulated time 0.
+     */
+    public SyntheticSimulation() {
+        this.stateObservers = new IdentityHashMap<>();
+        ISimulationControl simulationControl = stub(ISimulationControl.class);
+        when(simulationControl.isRunning()).thenReturn(true);
+        when(simulationControl.getCurrentSimulationTime()).thenAnswer(invocation -> this.currentTime);
+
+        this.calculatorFactory = stub(RegisterCalculatorFactoryDecorator.class);
+        when(this.calculatorFactory.getRegisteredCalculators()).thenAnswer(invocation -> this.calculators);
+        ProbeFrameworkContext probeFrameworkContext = stub(ProbeFrameworkContext.class);
+        when(probeFrameworkContext.getCalculatorFactory()).thenReturn(this.calculatorFactory);
+
+        ISimEngineFactory engineFactory = stub(ISimEngineFactory.class);
+        when(engineFactory.createSimEvent(any(), any()))
+                .thenAnswer(invocation -> createEventDelegate(invocation.getArgument(0)));
+        when(engineFactory.createEntity(any(), any())).thenAnswer(invocation -> stub(ISimEntityDelegate.class));
+
+        this.model = stub(SimuComModel.class);
+        when(this.model.getSimulationControl()).thenReturn(simulationControl);
+        when(this.model.getProbeFrameworkContext()).thenReturn(probeFrameworkContext);
+        when(this.model.getSimEngineFactory()).thenReturn(engineFactory);
+    }
+
+    /**
+     * Gets the model of the simulation.
+     *
+     * @return A {@link SimuComModel} whose simulation control always reports a running simulation.
+     */
+    public SimuComModel getModel() {
+        return this.model;
+    }
+
+    /**
+     * Gets the factory at which the state calculators of the created resources are registered.
+     *
+     * @return The {@link RegisterCalculatorFactoryDecorator} of the model.
+     */
+    public RegisterCalculatorFactoryDecorator getCalculatorFactory() {
+        return this.calculatorFactory;
+    }
+
+    /**
+     * Gets the current simulated time.
+     *
+     * @return The simulated time, in seconds.
+     */
+    public double getCurrentTime() {
+        return this.currentTime;
+    }
+
+    /**
+     * Creates a {@link PowerDistributionUnit} that directly supplies the given number of
+     * single-core resources, and registers a state calculator per resource.
+     *
+     * @param resourceCount
+     *            The number of {@link ProcessingResourceSpecification}s below the entity.
+     * @return The created entity.
+     */
+    public PowerDistributionUnit createPowerProvidingEntity(final int resourceCount) {
+        InfrastructureFactory infrastructureFactory = InfrastructureFactory.eINSTANCE;
+        PowerDistributionUnit pdu = infrastructureFactory.createPowerDistributionUnit();
+        for (int i = 0; i < resourceCount; ++i) {
+            ProcessingResourceSpecification spec = ResourceenvironmentFactory.eINSTANCE
+                    .createProcessingResourceSpecification();
+            spec.setId(EcoreUtil.generateUUID());
+            spec.setNumberOfReplicas(1);
+            registerStateCalculator(spec);
+            StatelessPowerConsumingResource resource = infrastructureFactory.createStatelessPowerConsumingResource();
+            resource.setProcessingResourceSpecification(spec);
+            pdu.getNestedPowerConsumingEntities().add(resource);
+        }
+        return pdu;
+    }
+
+    /**
+     * Schedules a state change of the given resource, which its state calculator passes to its
+     * observers once the simulated time has been advanced to the given point in time.
+     *
+     * @param resource
+     *            A {@link ProcessingResourceSpecification} created by this simulation.
+     * @param pointInTime
+     *            The simulated time of the state change, in seconds. It must not precede the
+     *            current simulated time.
+     * @param jobCount
+     *            The number of jobs at the resource from then on.
+     * @throws IllegalArgumentException
+     *             In case the resource has not been created by this simulation, or the point in
+     *             time lies in the past.
+     */
+    public void scheduleStateChange(final ProcessingResourceSpecification resource, final double pointInTime,
+            final long jobCount) {
+        List<IMeasurementSourceListener> observers = this.stateObservers.get(resource);
+        if (observers == null) {
+            throw new IllegalArgumentException("Given resource has not been created by this simulation.");
+        }
+        schedule(pointInTime, () -> {
+            MeasuringValue state = new TupleMeasurement(
+                    MetricDescriptionConstants.STATE_OF_ACTIVE_RESOURCE_METRIC_TUPLE,
+                    Measure.valueOf(this.currentTime, SI.SECOND), Measure.valueOf(jobCount, Unit.ONE));
+            for (int i = 0; i < observers.size(); ++i) {
+                observers.get(i).newMeasurementAvailable(state);
+            }
+        });
+    }
+
+    /**
+     * Advances the simulated time to the given point in time, and executes the events scheduled
+     * until then in the order of their points in time.
+     *
+     * @param pointInTime
+     *            The simulated time to advance to, in seconds.
+     */
+    public void advanceTo(final double pointInTime) {
+        while (!this.schedule.isEmpty() && this.schedule.peek().pointInTime <= pointInTime) {
+            ScheduledAction action = this.schedule.poll();
+            this.currentTime = action.pointInTime;
+            action.action.run();
+        }
+        this.currentTime = Math.max(this.currentTime, pointInTime);
+    }
+
+    private void registerStateCalculator(final ProcessingResourceSpecification spec) {
+        ActiveResourceMeasuringPoint measuringPoint = PcmmeasuringpointFactory.eINSTANCE
+                .createActiveResourceMeasuringPoint();
+        measuringPoint.setActiveResource(spec);
+        measuringPoint.setReplicaID(0);
+        List<IMeasurementSourceListener> observers = new ArrayList<>();
+        Calculator calculator = stub(Calculator.class);
+        when(calculator.getMeasuringPoint()).thenReturn(measuringPoint);
+        when(calculator.getMetricDesciption())
+                .thenReturn(MetricDescriptionConstants.STATE_OF_ACTIVE_RESOURCE_METRIC_TUPLE);
+        doAnswer(invocation -> observers.add(invocation.getArgument(0))).when(calculator).addObserver(any());
+        this.stateObservers.put(spec, observers);
+        this.calculators.add(calculator);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private ISimEventDelegate<?> createEventDelegate(final AbstractSimEventDelegator event) {
+        ISimEventDelegate delegate = stub(ISimEventDelegate.class);
+        doAnswer(invocation -> {
+            IEntity entity = invocation.getArgument(0);
+            double delay = invocation.getArgument(1);
+            schedule(this.currentTime + delay, () -> event.eventRoutine(entity));
+            return null;
+        }).when(delegate).schedule(any(), anyDouble());
+        return delegate;
+    }
+
+    private static <T> T stub(final Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+
+    private void schedule(final double pointInTime, final Runnable action) {
+        if (pointInTime < this.currentTime) {
+            throw new IllegalArgumentException("Events must not be scheduled in the past.");
+        }
+        this.schedule.add(new ScheduledAction(pointInTime, this.scheduledCount++, action));
+    }
+
+    /**
+     * Action that is executed at a simulated point in time. Actions at the same point in time are
+     * executed in the order they have been scheduled.
+     */
+    private static final class ScheduledAction implements Comparable<ScheduledAction> {
+        private final double pointInTime;
+        private final long sequenceNumber;
+        private final Runnable action;
+
+        private ScheduledAction(final double pointInTime, final long sequenceNumber, final Runnable action) {
+            this.pointInTime = pointInTime;
+            this.sequenceNumber = sequenceNumber;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(final ScheduledAction other) {
+            int comparison = Double.compare(this.pointInTime, other.pointInTime);
+            return comparison != 0 ? comparison : Long.compare(this.sequenceNumber, other.sequenceNumber);
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package org.palladiosimulator.simulizar.power.evaluationscope;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.measure.Measure;
+import javax.measure.quantity.Duration;
+import javax.measure.quantity.Energy;
+import javax.measure.quantity.Power;
+import javax.measure.unit.SI;
+
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.palladiosimulator.measurementframework.MeasuringValue;
+import org.palladiosimulator.measurementframework.listener.IMeasurementSourceListener;
+import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
+import org.palladiosimulator.pcm.resourceenvironment.ProcessingResourceSpecification;
+import org.palladiosimulator.recorderframework.AbstractRecorder;
+import org.palladiosimulator.recorderframework.config.IRecorderConfiguration;
+import org.palladiosimulator.simulizar.power.benchmarks.SyntheticPowerModels;
+import org.palladiosimulator.simulizar.power.benchmarks.SyntheticSimulation;
+import org.palladiosimulator.simulizar.power.calculators.CompiledPowerEvaluator;
+import org.palladiosimulator.simulizar.power.calculators.EnergyIntegratorType;
+import org.palladiosimulator.simulizar.power.calculators.SimulationTimeEnergyCalculator;
+import org.palladiosimulator.simulizar.power.calculators.SimulationTimePowerCalculator;
+import org.palladiosimulator.simulizar.power.instrumentation.MemoryFootprint;
+import org.palladiosimulator.simulizar.power.instrumentation.PowerInstrumentation;
+import org.palladiosimulator.simulizar.power.recording.BatchingRecorder;
+import org.palladiosimulator.simulizar.power.recording.CoalescingMeasurementListener;
+
+import de.fzi.power.infrastructure.PowerProvidingEntity;
+import de.fzi.power.interpreter.ConsumptionContext;
+import de.fzi.power.interpreter.InterpreterUtils;
+import de.fzi.power.interpreter.PowerConsumptionSwitch;
+import de.fzi.power.interpreter.PowerModelRegistry;
+import de.uka.ipd.sdq.simucomframework.model.SimuComModel;
+
+/**
+ * Soak test of the scope &rarr; power &rarr; energy &rarr; recording pipeline over long simulated
+ * runs with many PPEs. Each PPE is wired like in a simulation run: its scope is fed by the sliding
+ * windows of a {@link SlidingWindowRegistry}, which aggregate the state changes of its resources in
+ * a {@link SyntheticSimulation}, its consumption is evaluated by a {@link CompiledPowerEvaluator}
+ * through a {@link ConsumptionContext} and the linear {@link SyntheticPowerModels}, its power
+ * calculator detects unchanged utilizations, its power and energy consumptions are recorded in
+ * batches, and its energy consumptions are passed to a coalesced runtime measurement listener.<br>
+ * One benchmark operation corresponds to one window tick of all PPEs, and simulated time advances
+ * with every tick, so that a measurement iteration of ten seconds covers hours to days of
+ * simulated time, depending on the number of PPEs. After each iteration, the used heap is sampled
+ * after garbage collection, along with the {@link MemoryFootprint}s of all components, including
+ * the windows of each scope. Once the
+ * trial has ended, it fails with an {@link IllegalStateException} if the heap or the footprints
+ * have grown beyond the tolerance since the first iteration, i.e., if the pipeline retains data in
+ * proportion to the duration of the run. The message names the components and the PPEs with the
+ * largest footprints.<br>
+ * The integrator of the power interpreter keeps all samples, so
+ * {@code -p integrator=INTERPRETER_SIMPSON} is expected to fail.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 30, time = 10)
+@Fork(value = 1, jvmArgs = { "-Xms1g", "-Xmx1g" })
+public class MemorySoakBenchmark {
+
+    private static final int DISTINCT_TICKS = 128;
+    /** The number of ticks for which the busy periods of a resource stay unchanged. */
+    private static final int STEADY_TICKS = 8;
+    private static final double WINDOW_INCREMENT = 1d;
+    private static final double IDLE_POWER = 120d;
+    private static final double DYNAMIC_POWER = 80d;
+    private static final int BATCH_SIZE = 64;
+    private static final double RUNTIME_MEASUREMENT_MIN_INTERVAL = 60d;
+    private static final double RUNTIME_MEASUREMENT_MIN_RELATIVE_CHANGE = 0.05;
+    private static final int REPORTED_FOOTPRINTS = 5;
+
+    @Param({ "1000" })
+    public int ppeCount;
+
+    @Param({ "4" })
+    public int resourcesPerPpe;
+
+    @Param({ "TRAPEZOID", "SIMPSON" })
+    public EnergyIntegratorType integrator;
+
+    /**
+     * The tolerated growth of the used heap after garbage collection, in MiB.
+     */
+    @Param({ "16" })
+    public int heapToleranceMiB;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final PowerInstrumentation instrumentation = new PowerInstrumentation();
+    private SyntheticSimulation simulation;
+    private ProcessingResourceSpecification[] resources;
+    /** Start and end of the busy period per resource and tick, as fractions of the increment. */
+    private double[][] busyStarts;
+    private double[][] busyEnds;
+    private final List<ConsumptionContext> contexts = new ArrayList<>();
+    private long currentTick;
+    private final List<Long> usedHeapSamples = new ArrayList<>();
+    private final List<MemoryFootprint> footprintSamples = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.simulation = new SyntheticSimulation();
+        SimuComModel model = this.simulation.getModel();
+        SlidingWindowRegistry windowRegistry = new SlidingWindowRegistry(model,
+                new CalculatorIndex(this.simulation.getCalculatorFactory()));
+        PowerModelRegistry powerModelRegistry = SyntheticPowerModels.createRegistry(IDLE_POWER, DYNAMIC_POWER);
+        Measure<Double, Duration> windowIncrement = Measure.valueOf(WINDOW_INCREMENT, SI.SECOND);
+        // the synthetic entities are not contained in a resource; they are indexed upon first access
+        TopologyIndex topologyIndex = TopologyIndex.build(new ResourceSetImpl());
+
+        List<ProcessingResourceSpecification> allResources = new ArrayList<>(this.ppeCount * this.resourcesPerPpe);
+        NoOpRecorder recorder = new NoOpRecorder();
+        IMeasurementSourceListener sink = new NoOpListener();
+
+        for (int p = 0; p < this.ppeCount; ++p) {
+            PowerProvidingEntity ppe = this.simulation.createPowerProvidingEntity(this.resourcesPerPpe);
+            allResources.addAll(InterpreterUtils.getProcessingResourceSpecsFromInfrastructureElement(ppe));
+            SimulationTimeEvaluationScope scope = SimulationTimeEvaluationScope.create(ppe,
+                    ScopeOptions.slidingWindows(model, windowIncrement, windowIncrement)
+                            .withWindowRegistry(windowRegistry).withTopologyIndex(topologyIndex));
+            ConsumptionContext context = ConsumptionContext.createConsumptionContext(ppe, scope,
+                    powerModelRegistry);
+            this.contexts.add(context);
+            CompiledPowerEvaluator evaluator = CompiledPowerEvaluator.compile(ppe,
+                    PowerConsumptionSwitch.createPowerConsumptionSwitch(context), powerModelRegistry, topologyIndex);
+
+            SimulationTimePowerCalculator powerCalculator = new SimulationTimePowerCalculator(scope, ppe,
+                    entity -> evaluator.evaluate());
+            powerCalculator.enableChangeDetection(0d, topologyIndex);
+            SimulationTimeEnergyCalculator energyCalculator = SimulationTimeEnergyCalculator.create(this.integrator,
+                    windowIncrement, windowIncrement);
+            scope.addListener(powerCalculator);
+            powerCalculator.addDoubleMeasurementListener(energyCalculator);
+
+            BatchingRecorder<Power> powerRecorder = new BatchingRecorder<>(recorder,
+                    MetricDescriptionConstants.POWER_CONSUMPTION_TUPLE, SI.WATT, BATCH_SIZE);
+            BatchingRecorder<Energy> energyRecorder = new BatchingRecorder<>(recorder,
+                    MetricDescriptionConstants.CUMULATIVE_ENERGY_CONSUMPTION_TUPLE, SI.JOULE, BATCH_SIZE);
+            powerCalculator.addDoubleMeasurementListener(powerRecorder);
+            energyCalculator.addDoubleMeasurementListener(energyRecorder);
+            CoalescingMeasurementListener runtimeMeasurements = new CoalescingMeasurementListener(sink,
+                    MetricDescriptionConstants.ENERGY_CONSUMPTION, RUNTIME_MEASUREMENT_MIN_INTERVAL,
+                    RUNTIME_MEASUREMENT_MIN_RELATIVE_CHANGE);
+            energyCalculator.addObserver(runtimeMeasurements);
+
+            String source = "PPE " + p;
+            this.instrumentation.registerFootprint(source, "scope", scope::getMemoryFootprint);
+            this.instrumentation.registerFootprint(source, "sliding windows", scope::getWindowFootprint);
+            this.instrumentation.registerFootprint(source, "power calculator", powerCalculator::getMemoryFootprint);
+            this.instrumentation.registerFootprint(source, "energy calculator", energyCalculator::getMemoryFootprint);
+            this.instrumentation.registerFootprint(source, "power recorder", powerRecorder::getMemoryFootprint);
+            this.instrumentation.registerFootprint(source, "energy recorder", energyRecorder::getMemoryFootprint);
+            this.instrumentation.registerFootprint(source, "runtime measurements",
+                    runtimeMeasurements::getMemoryFootprint);
+        }
+
+        this.resources = allResources.toArray(new ProcessingResourceSpecification[0]);
+        this.busyStarts = new double[this.resources.length][DISTINCT_TICKS];
+        this.busyEnds = new double[this.resources.length][DISTINCT_TICKS];
+        Random random = new Random(0);
+        for (int r = 0; r < this.resources.length; ++r) {
+            for (int t = 0; t < DISTINCT_TICKS; ++t) {
+                // busy periods stay unchanged for a while, so that utilizations repeat
+                if (t % STEADY_TICKS == 0) {
+                    double start = random.nextDouble();
+                    this.busyStarts[r][t] = start;
+                    this.busyEnds[r][t] = start + random.nextDouble() * (1d - start);
+                } else {
+                    this.busyStarts[r][t] = this.busyStarts[r][t - 1];
+                    this.busyEnds[r][t] = this.busyEnds[r][t - 1];
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public long tick() {
+        double tickStart = this.currentTick * WINDOW_INCREMENT;
+        int t = (int) (this.currentTick % DISTINCT_TICKS);
+        for (int r = 0; r < this.resources.length; ++r) {
+            this.simulation.scheduleStateChange(this.resources[r], tickStart + this.busyStarts[r][t] * WINDOW_INCREMENT,
+                    1L);
+            this.simulation.scheduleStateChange(this.resources[r], tickStart + this.busyEnds[r][t] * WINDOW_INCREMENT,
+                    0L);
+        }
+        // the windows move on at the end of the tick, completing a round of all scopes
+        ++this.currentTick;
+        this.simulation.advanceTo(this.currentTick * WINDOW_INCREMENT);
+        return this.currentTick;
+    }
+
+    @TearDown(Level.Iteration)
+    public void sample() {
+        this.usedHeapSamples.add(getUsedHeapAfterGc());
+        this.footprintSamples.add(this.instrumentation.getMemoryFootprint());
+    }
+
+    @TearDown(Level.Trial)
+    public void verify() {
+        if (this.usedHeapSamples.size() < 2) {
+            return;
+        }
+        long baselineHeap = this.usedHeapSamples.get(0);
+        long finalHeap = this.usedHeapSamples.get(this.usedHeapSamples.size() - 1);
+        long heapTolerance = this.heapToleranceMiB * 1024L * 1024L;
+        MemoryFootprint baselineFootprint = this.footprintSamples.get(0);
+        MemoryFootprint finalFootprint = this.footprintSamples.get(this.footprintSamples.size() - 1);
+        // e.g., a coalesced runtime measurement may be held back at the end, but not at the start
+        long footprintTolerance = this.ppeCount * MemoryFootprint.BYTES_PER_MEASUREMENT;
+
+        List<String> violations = new ArrayList<>();
+        if (finalHeap - baselineHeap > heapTolerance) {
+            violations.add("used heap grew from " + baselineHeap + " to " + finalHeap + " bytes over "
+                    + this.currentTick + " ticks");
+        }
+        if (finalFootprint.getEstimatedBytes() - baselineFootprint.getEstimatedBytes() > footprintTolerance) {
+            violations.add("footprint grew from " + baselineFootprint + " to " + finalFootprint);
+        }
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException("Memory is not flat: " + String.join("; ", violations)
+                    + ". Largest components: "
+                    + getLargest(this.instrumentation.getMemoryFootprintPerComponent())
+                    + ". Largest PPEs: " + getLargest(this.instrumentation.getMemoryFootprintPerSource()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.contexts.forEach(ConsumptionContext::cleanUp);
+    }
+
+    private static String getLargest(final Map<String, MemoryFootprint> footprints) {
+        return footprints.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, MemoryFootprint> entry) -> entry.getValue().getEstimatedBytes())
+                        .reversed())
+                .limit(REPORTED_FOOTPRINTS).map(entry -> entry.getKey() + ": " + entry.getValue())
+                .collect(Collectors.joining(", "));
+    }
+
+    private long getUsedHeapAfterGc() {
+        // several collections, as a single one need not reclaim all unreachable objects
+        for (int i = 0; i < 3; ++i) {
+            System.gc();
+        }
+        return this.memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Recorder which discards all measurements, so that only the pipeline itself retains data.
+     */
+    private static final class NoOpRecorder extends AbstractRecorder {
+
+        @Override
+        public void initialize(final IRecorderConfiguration recorderConfiguration) {
+            // implementation is not required
+        }
+
+        @Override
+        public void writeData(final MeasuringValue measurement) {
+            // implementation is not required
+        }
+
+        @Override
+        public void flush() {
+            // implementation is not required
+        }
+    }
+
+    private static final class NoOpListener implements IMeasurementSourceListener {
+
+        @Override
+        public void newMeasurementAvailable(final MeasuringValue newMeasurement) {
+            // implementation is not required
+        }
+
+        @Override
+        public void preUnregister() {
+            // implementation is not required
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package org.palladiosimulator.simulizar.power.evaluationscope;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import javax.measure.Measure;
+import javax.measure.quantity.Duration;
+import javax.measure.unit.SI;
+
+import org.jscience.physics.amount.Amount;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.palladiosimulator.measurementframework.MeasuringValue;
+import org.palladiosimulator.measurementframework.listener.IMeasurementSourceListener;
+import org.palladiosimulator.pcm.resourceenvironment.ProcessingResourceSpecification;
+import org.palladiosimulator.simulizar.power.benchmarks.SyntheticSimulation;
+import org.palladiosimulator.simulizar.power.calculators.IDoubleMeasurementListener;
+import org.palladiosimulator.simulizar.power.calculators.SimulationTimeEnergyCalculator;
+import org.palladiosimulator.simulizar.power.calculators.SimulationTimePowerCalculator;
+import org.palladiosimulator.simulizar.power.calculators.TickCoordinator;
+
+import de.fzi.power.infrastructure.PowerProvidingEntity;
+import de.fzi.power.interpreter.InterpreterUtils;
+import de.fzi.power.interpreter.calculators.energy.SimpsonRuleCumulativeEnergyCalculator;
+import de.uka.ipd.sdq.simucomframework.model.SimuComModel;
+
+/**
+ * Measures the cost of one window tick of the window &rarr; scope &rarr; power &rarr; energy
+ * pipeline, i.e., of moving on the {@code SimulizarSlidingWindow}s of all resources, delivering
+ * the aggregated utilizations to every {@link SimulationTimeEvaluationScope} and propagating the
+ * resulting round through {@link SimulationTimePowerCalculator} and
+ * {@link SimulationTimeEnergyCalculator}.<br>
+ * The windows are obtained from a {@link SlidingWindowRegistry} and fed by the state calculators
+ * of a {@link SyntheticSimulation}, in which every resource is busy once per window increment. One
+ * benchmark operation corresponds to one tick of all PPEs, so the reported time is ns/tick and the
+ * {@code gc.alloc.rate.norm} figure of the GC profiler is bytes allocated per tick, including the
+ * resource state measurements and the events of the simulation. The power model is a synthetic
+ * linear model over the mean utilization of the current round, as the power model calculators can
+ * only be instantiated within a running Eclipse platform.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PowerPipelineBenchmark {
+
+    private static final int DISTINCT_TICKS = 64;
+    private static final double WINDOW_INCREMENT = 1d;
+    private static final double IDLE_POWER = 120d;
+    private static final double DYNAMIC_POWER = 80d;
+
+    @Param({ "1", "100", "1000" })
+    public int ppeCount;
+
+    @Param({ "1", "4", "16" })
+    public int resourcesPerPpe;
+
+    /**
+     * The length of the sliding windows in window increments, which determines the number of
+     * resource states each window encloses.
+     */
+    @Param({ "1", "4", "16" })
+    public int windowLengthToIncrementRatio;
+
+    /**
+     * Whether the energy measurements are consumed as measurement objects, like recorders do, or
+     * as primitive values.
+     */
+    @Param({ "true", "false" })
+    public boolean recorderAttached;
+
+    /**
+     * The number of threads the power calculators are evaluated on. With a parallelism of 1, the
+     * calculators observe their scopes directly; otherwise, they are registered at a
+     * {@link TickCoordinator}. Run with, e.g., {@code -p parallelism=1,8} to compare both modes.
+     */
+    @Param({ "1" })
+    public int parallelism;
+
+    private SyntheticSimulation simulation;
+    private ProcessingResourceSpecification[] resources;
+    /** Start and end of the busy period per resource and tick, as fractions of the increment. */
+    private double[][] busyStarts;
+    private double[][] busyEnds;
+    private long currentTick;
+    private final LastMeasurementListener sink = new LastMeasurementListener();
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.simulation = new SyntheticSimulation();
+        SimuComModel model = this.simulation.getModel();
+        SlidingWindowRegistry windowRegistry = new SlidingWindowRegistry(model,
+                new CalculatorIndex(this.simulation.getCalculatorFactory()));
+        Measure<Double, Duration> windowIncrement = Measure.valueOf(WINDOW_INCREMENT, SI.SECOND);
+        Measure<Double, Duration> windowLength = Measure.valueOf(WINDOW_INCREMENT * this.windowLengthToIncrementRatio,
+                SI.SECOND);
+
+        List<ProcessingResourceSpecification> allResources = new ArrayList<>(this.ppeCount * this.resourcesPerPpe);
+        TickCoordinator coordinator = null;
+        if (this.parallelism > 1) {
+            this.pool = new ForkJoinPool(this.parallelism);
+            coordinator = new TickCoordinator(this.pool);
+        }
+
+        for (int p = 0; p < this.ppeCount; ++p) {
+            PowerProvidingEntity ppe = this.simulation.createPowerProvidingEntity(this.resourcesPerPpe);
+            allResources.addAll(InterpreterUtils.getProcessingResourceSpecsFromInfrastructureElement(ppe));
+
+            SimulationTimeEvaluationScope scope = SimulationTimeEvaluationScope.create(ppe, ScopeOptions
+                    .slidingWindows(model, windowLength, windowIncrement).withWindowRegistry(windowRegistry));
+            SimulationTimePowerCalculator powerCalculator = new SimulationTimePowerCalculator(scope, ppe,
+                    entity -> Amount.valueOf(IDLE_POWER + DYNAMIC_POWER * getMeanUtilization(scope), SI.WATT));
+            SimulationTimeEnergyCalculator energyCalculator = new SimulationTimeEnergyCalculator(
+                    new SimpsonRuleCumulativeEnergyCalculator(windowIncrement, windowLength));
+            if (coordinator != null) {
+                coordinator.register(powerCalculator);
+            } else {
+                scope.addListener(powerCalculator);
+            }
+            powerCalculator.addDoubleMeasurementListener(energyCalculator);
+            if (this.recorderAttached) {
+                energyCalculator.addObserver(this.sink);
+            } else {
+                energyCalculator.addDoubleMeasurementListener(this.sink);
+            }
+        }
+
+        this.resources = allResources.toArray(new ProcessingResourceSpecification[0]);
+        this.busyStarts = new double[this.resources.length][DISTINCT_TICKS];
+        this.busyEnds = new double[this.resources.length][DISTINCT_TICKS];
+        Random random = new Random(0);
+        for (int r = 0; r < this.resources.length; ++r) {
+            for (int t = 0; t < DISTINCT_TICKS; ++t) {
+                double start = random.nextDouble();
+                this.busyStarts[r][t] = start;
+                this.busyEnds[r][t] = start + random.nextDouble() * (1d - start);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (this.pool != null) {
+            this.pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void tick(final Blackhole blackhole) {
+        double tickStart = this.currentTick * WINDOW_INCREMENT;
+        int t = (int) (this.currentTick % DISTINCT_TICKS);
+        for (int r = 0; r < this.resources.length; ++r) {
+            this.simulation.scheduleStateChange(this.resources[r], tickStart + this.busyStarts[r][t] * WINDOW_INCREMENT,
+                    1L);
+            this.simulation.scheduleStateChange(this.resources[r], tickStart + this.busyEnds[r][t] * WINDOW_INCREMENT,
+                    0L);
+        }
+        // the windows move on at the end of the tick
+        ++this.currentTick;
+        this.simulation.advanceTo(this.currentTick * WINDOW_INCREMENT);
+        // the primitive value is consumed as such, so that boxing does not add to the allocations
+        if (this.recorderAttached) {
+            blackhole.consume(this.sink.lastMeasurement);
+        } else {
+            blackhole.consume(this.sink.lastValue);
+        }
+    }
+
+    private static double getMeanUtilization(final SimulationTimeEvaluationScope scope) {
+        double sum = 0d;
+        for (int slot = 0; slot < scope.getResourceCount(); ++slot) {
+            sum += scope.getCurrentUtilization(slot);
+        }
+        return sum / scope.getResourceCount();
+    }
+
+    private static final class LastMeasurementListener
+            implements IMeasurementSourceListener, IDoubleMeasurementListener {
+
+        private MeasuringValue lastMeasurement;
+        private double lastValue;
+
+        @Override
+        public void newMeasurementAvailable(final MeasuringValue newMeasurement) {
+            this.lastMeasurement = newMeasurement;
+        }
+
+        @Override
+        public void newMeasurementAvailable(final double pointInTime, final double value) {
+            this.lastValue = value;
+        }
+
+        @Override
+        public void preUnregister() {
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.palladiosimulator.simulizar.power.calculators;
+
+import static org.junit.Assert.assertEquals;
+
+import javax.measure.Measure;
+import javax.measure.quantity.Duration;
+import javax.measure.unit.SI;
+
+import org.junit.Test;
+
+import de.fzi.power.interpreter.calculators.energy.SimpsonRuleCumulativeEnergyCalculator;
+
+/**
+ * Checks the cumulative energy consumptions of the {@link SimpsonEnergyIntegrator} on samples of
+ * arbitrary spacing, and against the {@link SimpsonRuleCumulativeEnergyCalculator} of the power
+ * interpreter on equidistant samples.
+ */
+public class SimpsonEnergyIntegratorTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void integratesQuadraticCurveExactlyPerPair() {
+        // P(t) = t^2 on pairs of unequal intervals, whose integral from 1 to t is (t^3 - 1) / 3
+        SimpsonEnergyIntegrator integrator = new SimpsonEnergyIntegrator(1d);
+        assertEquals(0d, integrator.addSample(1d, 1d), DELTA);
+        // the first interval of a pair is estimated by the trapezoidal rule
+        assertEquals(2.5, integrator.addSample(2d, 4d), DELTA);
+        assertEquals(21d, integrator.addSample(4d, 16d), DELTA);
+        assertEquals(21d + 9.0625, integrator.addSample(4.5, 20.25), DELTA);
+        assertEquals(215d / 3d, integrator.addSample(6d, 36d), DELTA);
+    }
+
+    @Test
+    public void integratesLinearCurveExactly() {
+        // P(t) = 10 + 2t, which both the estimates and the pairs integrate exactly
+        SimpsonEnergyIntegrator integrator = new SimpsonEnergyIntegrator(0d);
+        double[] pointsInTime = { 1d, 1.5, 3d, 3.25, 7d, 7.5 };
+        for (double pointInTime : pointsInTime) {
+            double expected = 12d + 10d * (pointInTime - 1d) + (pointInTime * pointInTime - 1d);
+            assertEquals(expected, integrator.addSample(pointInTime, 10d + 2d * pointInTime), DELTA);
+        }
+    }
+
+    @Test
+    public void integratesStepCurveExactly() {
+        // the step is sampled twice at the same point in time, which makes a degenerate pair
+        SimpsonEnergyIntegrator integrator = new SimpsonEnergyIntegrator(0d);
+        assertEquals(0d, integrator.addSample(0d, 100d), DELTA);
+        assertEquals(200d, integrator.addSample(2d, 100d), DELTA);
+        assertEquals(200d, integrator.addSample(2d, 300d), DELTA);
+        assertEquals(1100d, integrator.addSample(5d, 300d), DELTA);
+        assertEquals(1400d, integrator.addSample(6d, 300d), DELTA);
+    }
+
+    @Test
+    public void matchesInterpreterCalculatorOnEquidistantSamples() {
+        Measure<Double, Duration> increment = Measure.valueOf(1d, SI.SECOND);
+        IEnergyIntegrator reference = new CumulativeEnergyCalculatorAdapter(
+                new SimpsonRuleCumulativeEnergyCalculator(increment, increment), SI.WATT, SI.JOULE);
+        SimpsonEnergyIntegrator integrator = new SimpsonEnergyIntegrator(0d);
+        double referenceStart = Double.NaN;
+        double start = Double.NaN;
+        for (int i = 1; i <= 9; ++i) {
+            double power = 10d + 2d * i;
+            double referenceEnergy = reference.addSample(i, power);
+            double energy = integrator.addSample(i, power);
+            if (i == 1) {
+                // the calculators may account differently for the time before the first sample
+                referenceStart = referenceEnergy;
+                start = energy;
+            } else if (i % 2 == 1) {
+                assertEquals("Energy consumed until " + i + " s", referenceEnergy - referenceStart,
+                        energy - start, DELTA);
+            }
+        }
+    }
+}
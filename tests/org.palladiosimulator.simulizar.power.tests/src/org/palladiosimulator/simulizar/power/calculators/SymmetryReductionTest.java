@@ -0,0 +1,190 @@
+package org.palladiosimulator.simulizar.power.calculators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.measure.Measurable;
+import javax.measure.Measure;
+import javax.measure.quantity.Power;
+import javax.measure.unit.SI;
+import javax.measure.unit.Unit;
+
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.jscience.physics.amount.Amount;
+import org.junit.Before;
+import org.junit.Test;
+import org.palladiosimulator.measurementframework.TupleMeasurement;
+import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
+import org.palladiosimulator.pcm.resourceenvironment.ProcessingResourceSpecification;
+import org.palladiosimulator.pcm.resourceenvironment.ResourceenvironmentFactory;
+import org.palladiosimulator.simulizar.power.evaluationscope.ScopeOptions;
+import org.palladiosimulator.simulizar.power.evaluationscope.SimulationTimeEvaluationScope;
+import org.palladiosimulator.simulizar.power.evaluationscope.TopologyIndex;
+
+import de.fzi.power.infrastructure.InfrastructureFactory;
+import de.fzi.power.infrastructure.PowerDistributionUnit;
+import de.fzi.power.infrastructure.PowerProvidingEntity;
+import de.fzi.power.infrastructure.StatelessPowerConsumingResource;
+
+/**
+ * Checks that a verifying {@link SymmetryReduction} groups two identical servers apart from a
+ * differing one, and shares their consumptions only for equal utilizations at the same point in
+ * time.
+ */
+public class SymmetryReductionTest {
+
+    private static final double DELTA = 1e-9;
+
+    private final Map<PowerProvidingEntity, SimulationTimeEvaluationScope> scopes = new IdentityHashMap<>();
+    private final Map<PowerProvidingEntity, Integer> evaluationCounts = new IdentityHashMap<>();
+    private TopologyIndex topologyIndex;
+    private PowerProvidingEntity server;
+    private PowerProvidingEntity identicalServer;
+    private PowerProvidingEntity differingServer;
+
+    @Before
+    public void setUp() {
+        this.topologyIndex = TopologyIndex.build(new ResourceSetImpl());
+        this.server = createServer(1);
+        this.identicalServer = createServer(1);
+        this.differingServer = createServer(2);
+    }
+
+    @Test
+    public void groupsIdenticalServers() {
+        SymmetryReduction reduction = new SymmetryReduction(this.topologyIndex, true);
+        share(reduction, this.server, 0d);
+        share(reduction, this.identicalServer, 0d);
+        share(reduction, this.differingServer, 0d);
+
+        SymmetryReductionStatistics statistics = reduction.getStatistics();
+        assertEquals(3, statistics.getEntityCount());
+        assertEquals(1, statistics.getGroupCount());
+        assertEquals(2, statistics.getGroupedEntityCount());
+        assertEquals(2, statistics.getLargestGroupSize());
+        assertEquals(0L, statistics.getEvaluationCount());
+    }
+
+    @Test
+    public void verifiesSharedConsumptions() {
+        SymmetryReduction reduction = new SymmetryReduction(this.topologyIndex, true);
+        Function<PowerProvidingEntity, Measurable<Power>> serverEvaluation = share(reduction, this.server, 0d);
+        Function<PowerProvidingEntity, Measurable<Power>> identicalEvaluation = share(reduction,
+                this.identicalServer, 0d);
+        Function<PowerProvidingEntity, Measurable<Power>> differingEvaluation = share(reduction,
+                this.differingServer, 0d);
+
+        completeRound(this.server, 1d, 0.5);
+        completeRound(this.identicalServer, 1d, 0.5);
+        completeRound(this.differingServer, 1d, 0.5, 0.5);
+        assertConsumption(125d, serverEvaluation.apply(this.server));
+        assertConsumption(125d, identicalEvaluation.apply(this.identicalServer));
+        assertConsumption(150d, differingEvaluation.apply(this.differingServer));
+
+        SymmetryReductionStatistics statistics = reduction.getStatistics();
+        assertEquals(1L, statistics.getEvaluationCount());
+        assertEquals(1L, statistics.getSharedEvaluationCount());
+        assertEquals(1L, statistics.getVerifiedEvaluationCount());
+        // the shared consumption has been verified against the one of the identical server
+        assertEquals(1, this.evaluationCounts.get(this.identicalServer).intValue());
+
+        // differing utilizations are evaluated separately
+        completeRound(this.server, 2d, 0.5);
+        completeRound(this.identicalServer, 2d, 0.25);
+        assertConsumption(125d, serverEvaluation.apply(this.server));
+        assertConsumption(112.5, identicalEvaluation.apply(this.identicalServer));
+
+        statistics = reduction.getStatistics();
+        assertEquals(3L, statistics.getEvaluationCount());
+        assertEquals(1L, statistics.getSharedEvaluationCount());
+        assertEquals(1L, statistics.getVerifiedEvaluationCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsDeviatingSharedConsumption() {
+        SymmetryReduction reduction = new SymmetryReduction(this.topologyIndex, true);
+        Function<PowerProvidingEntity, Measurable<Power>> serverEvaluation = share(reduction, this.server, 0d);
+        // identical bindings that yield another consumption, e.g., due to an incorrect reduction
+        Function<PowerProvidingEntity, Measurable<Power>> identicalEvaluation = share(reduction,
+                this.identicalServer, 1d);
+
+        completeRound(this.server, 1d, 0.5);
+        completeRound(this.identicalServer, 1d, 0.5);
+        serverEvaluation.apply(this.server);
+        identicalEvaluation.apply(this.identicalServer);
+    }
+
+    @Test
+    public void reusesConsumptionsWithoutVerification() {
+        SymmetryReduction reduction = new SymmetryReduction(this.topologyIndex);
+        Function<PowerProvidingEntity, Measurable<Power>> serverEvaluation = share(reduction, this.server, 0d);
+        Function<PowerProvidingEntity, Measurable<Power>> identicalEvaluation = share(reduction,
+                this.identicalServer, 0d);
+
+        completeRound(this.server, 1d, 0.5);
+        completeRound(this.identicalServer, 1d, 0.5);
+        assertConsumption(125d, serverEvaluation.apply(this.server));
+        assertConsumption(125d, identicalEvaluation.apply(this.identicalServer));
+
+        SymmetryReductionStatistics statistics = reduction.getStatistics();
+        assertEquals(1L, statistics.getSharedEvaluationCount());
+        assertEquals(0L, statistics.getVerifiedEvaluationCount());
+        assertNull(this.evaluationCounts.get(this.identicalServer));
+    }
+
+    /**
+     * Creates a server that directly supplies the given number of resources.
+     */
+    private PowerProvidingEntity createServer(final int resourceCount) {
+        PowerDistributionUnit server = InfrastructureFactory.eINSTANCE.createPowerDistributionUnit();
+        for (int i = 0; i < resourceCount; ++i) {
+            ProcessingResourceSpecification spec = ResourceenvironmentFactory.eINSTANCE
+                    .createProcessingResourceSpecification();
+            spec.setId(EcoreUtil.generateUUID());
+            spec.setNumberOfReplicas(1);
+            StatelessPowerConsumingResource resource = InfrastructureFactory.eINSTANCE
+                    .createStatelessPowerConsumingResource();
+            resource.setProcessingResourceSpecification(spec);
+            server.getNestedPowerConsumingEntities().add(resource);
+        }
+        this.scopes.put(server, SimulationTimeEvaluationScope.create(server,
+                ScopeOptions.recorded().withTopologyIndex(this.topologyIndex)));
+        return server;
+    }
+
+    /**
+     * Shares a linear power model, in which each resource consumes {@code 50 W} at idle plus
+     * {@code 50 W} at full utilization, and the server the given offset on top.
+     */
+    private Function<PowerProvidingEntity, Measurable<Power>> share(final SymmetryReduction reduction,
+            final PowerProvidingEntity ppe, final double offset) {
+        SimulationTimeEvaluationScope scope = this.scopes.get(ppe);
+        return reduction.share(ppe, scope, entity -> {
+            this.evaluationCounts.merge(entity, 1, Integer::sum);
+            double consumption = offset;
+            for (int slot = 0; slot < scope.getResourceCount(); ++slot) {
+                consumption += 50d + 50d * scope.getCurrentUtilization(slot);
+            }
+            return Amount.valueOf(consumption, SI.WATT);
+        });
+    }
+
+    private void completeRound(final PowerProvidingEntity ppe, final double pointInTime,
+            final double... utilizations) {
+        SimulationTimeEvaluationScope scope = this.scopes.get(ppe);
+        for (int slot = 0; slot < utilizations.length; ++slot) {
+            scope.addUtilizationMeasurement(slot,
+                    new TupleMeasurement(MetricDescriptionConstants.UTILIZATION_OF_ACTIVE_RESOURCE_TUPLE,
+                            Measure.valueOf(pointInTime, SI.SECOND), Measure.valueOf(utilizations[slot], Unit.ONE)));
+        }
+    }
+
+    private static void assertConsumption(final double expected, final Measurable<Power> consumption) {
+        assertEquals(expected, consumption.doubleValue(SI.WATT), DELTA);
+    }
+}
@@ -0,0 +1,52 @@
+package org.palladiosimulator.simulizar.power.calculators;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Checks the cumulative energy consumptions of the {@link TrapezoidEnergyIntegrator} on samples
+ * of arbitrary spacing.
+ */
+public class TrapezoidEnergyIntegratorTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void integratesLinearCurveExactly() {
+        // P(t) = 10 + 2t, which the trapezoidal rule integrates exactly on any spacing
+        TrapezoidEnergyIntegrator integrator = new TrapezoidEnergyIntegrator(0d);
+        double[] pointsInTime = { 1d, 1.5, 3d, 3.25, 7d };
+        for (double pointInTime : pointsInTime) {
+            // the first sample describes the time since the start
+            double expected = 12d + 10d * (pointInTime - 1d) + (pointInTime * pointInTime - 1d);
+            assertEquals(expected, integrator.addSample(pointInTime, 10d + 2d * pointInTime), DELTA);
+        }
+    }
+
+    @Test
+    public void overestimatesQuadraticCurveByTrapezoids() {
+        // P(t) = t^2, whose integral up to 3 is 9
+        TrapezoidEnergyIntegrator integrator = new TrapezoidEnergyIntegrator(0d);
+        assertEquals(0d, integrator.addSample(0d, 0d), DELTA);
+        assertEquals(0.5, integrator.addSample(1d, 1d), DELTA);
+        assertEquals(10.5, integrator.addSample(3d, 9d), DELTA);
+    }
+
+    @Test
+    public void integratesStepCurveExactly() {
+        // the step is sampled twice at the same point in time, as by the event-driven scopes
+        TrapezoidEnergyIntegrator integrator = new TrapezoidEnergyIntegrator(0d);
+        assertEquals(0d, integrator.addSample(0d, 100d), DELTA);
+        assertEquals(200d, integrator.addSample(2d, 100d), DELTA);
+        assertEquals(200d, integrator.addSample(2d, 300d), DELTA);
+        assertEquals(1100d, integrator.addSample(5d, 300d), DELTA);
+    }
+
+    @Test
+    public void extendsFirstSampleBackToStartTime() {
+        TrapezoidEnergyIntegrator integrator = new TrapezoidEnergyIntegrator(1d);
+        assertEquals(50d, integrator.addSample(2d, 50d), DELTA);
+        assertEquals(125d, integrator.addSample(3d, 100d), DELTA);
+    }
+}
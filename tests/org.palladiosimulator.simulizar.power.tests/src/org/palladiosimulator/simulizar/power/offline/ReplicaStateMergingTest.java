@@ -0,0 +1,112 @@
+package org.palladiosimulator.simulizar.power.offline;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.measure.Measure;
+import javax.measure.quantity.Dimensionless;
+import javax.measure.quantity.Duration;
+import javax.measure.unit.SI;
+import javax.measure.unit.Unit;
+
+import org.junit.Test;
+import org.palladiosimulator.measurementframework.MeasuringValue;
+import org.palladiosimulator.measurementframework.TupleMeasurement;
+import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
+
+/**
+ * Checks that {@link ReplicaStateMerging} counts the busy replicas of overlapping and interrupted
+ * replica state series, also once the merged series is aggregated by {@link StateSeriesWindowing}.
+ */
+public class ReplicaStateMergingTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void countsOverlappingBusyReplicas() {
+        ReplicaStateMerging merging = new ReplicaStateMerging(
+                Arrays.asList(states(0d, 1, 4d, 0), states(2d, 3, 6d, 0)));
+        assertArrayEquals(new double[] { 0d, 1d, 2d, 2d, 4d, 1d, 6d, 0d }, toArray(merging), DELTA);
+    }
+
+    @Test
+    public void mergesSimultaneousChangesIntoOneState() {
+        ReplicaStateMerging merging = new ReplicaStateMerging(
+                Arrays.asList(states(1d, 1, 3d, 0), states(1d, 2, 3d, 0), states(1d, 0, 2d, 1, 3d, 0)));
+        assertArrayEquals(new double[] { 1d, 2d, 2d, 3d, 3d, 0d }, toArray(merging), DELTA);
+    }
+
+    @Test
+    public void keepsCountOfReplicasAcrossGaps() {
+        // the first replica is idle from 1 s to 3 s, the second one has no states at all
+        ReplicaStateMerging merging = new ReplicaStateMerging(
+                Arrays.asList(states(0d, 1, 0.5, 2, 1d, 0, 3d, 1, 4d, 0), states()));
+        assertArrayEquals(new double[] { 0d, 1d, 0.5, 1d, 1d, 0d, 3d, 1d, 4d, 0d }, toArray(merging), DELTA);
+    }
+
+    @Test
+    public void windowsMergedStatesByBusyCores() {
+        // two cores busy from 0 s to 4 s and from 2 s to 6 s, with a gap from 6 s to 8 s
+        ReplicaStateMerging merging = new ReplicaStateMerging(
+                Arrays.asList(states(0d, 1, 4d, 0, 10d, 0), states(2d, 1, 6d, 0, 8d, 1, 10d, 0)));
+        StateSeriesWindowing windowing = new StateSeriesWindowing(merging, 2d, 2d, 2);
+        assertArrayEquals(new double[] { 2d, 0.5, 4d, 1d, 6d, 0.5, 8d, 0d, 10d, 0.5 }, toArray(windowing),
+                DELTA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMissingReplicas() {
+        new ReplicaStateMerging(Collections.<Iterator<MeasuringValue>> emptyList());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void endsWithAllReplicas() {
+        ReplicaStateMerging merging = new ReplicaStateMerging(Arrays.asList(states(0d, 1), states()));
+        merging.next();
+        assertFalse(merging.hasNext());
+        merging.next();
+    }
+
+    /**
+     * Creates a state series from the given pairs of points in time and numbers of jobs.
+     */
+    private static Iterator<MeasuringValue> states(final Object... pairs) {
+        List<MeasuringValue> states = new ArrayList<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            states.add(new TupleMeasurement(MetricDescriptionConstants.STATE_OF_ACTIVE_RESOURCE_METRIC_TUPLE,
+                    Measure.valueOf((Double) pairs[i], SI.SECOND),
+                    Measure.valueOf(((Integer) pairs[i + 1]).longValue(), Unit.ONE)));
+        }
+        return states.iterator();
+    }
+
+    /**
+     * Flattens the given series into pairs of points in time and their values.
+     */
+    private static double[] toArray(final Iterator<MeasuringValue> series) {
+        List<Double> values = new ArrayList<>();
+        while (series.hasNext()) {
+            MeasuringValue measurement = series.next();
+            Measure<Double, Duration> pointInTime = measurement
+                    .getMeasureForMetric(MetricDescriptionConstants.POINT_IN_TIME_METRIC);
+            values.add(pointInTime.doubleValue(SI.SECOND));
+            if (measurement.isCompatibleWith(MetricDescriptionConstants.STATE_OF_ACTIVE_RESOURCE_METRIC)) {
+                Measure<Long, Dimensionless> jobs = measurement
+                        .getMeasureForMetric(MetricDescriptionConstants.STATE_OF_ACTIVE_RESOURCE_METRIC);
+                values.add(jobs.doubleValue(Unit.ONE));
+            } else {
+                Measure<Double, Dimensionless> utilization = measurement
+                        .getMeasureForMetric(MetricDescriptionConstants.UTILIZATION_OF_ACTIVE_RESOURCE);
+                values.add(utilization.doubleValue(Unit.ONE));
+            }
+        }
+        return values.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+}
@@ -0,0 +1,112 @@
+package org.palladiosimulator.simulizar.power.offline;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.measure.Measure;
+import javax.measure.unit.SI;
+import javax.measure.unit.Unit;
+
+import org.junit.Test;
+import org.palladiosimulator.measurementframework.MeasuringValue;
+import org.palladiosimulator.measurementframework.TupleMeasurement;
+import org.palladiosimulator.metricspec.constants.MetricDescriptionConstants;
+
+/**
+ * Checks that {@link WindowedSeriesValidation} passes on series of the expected sliding windows
+ * and rejects gaps and series of other windows at their first deviating measurement.
+ */
+public class WindowedSeriesValidationTest {
+
+    @Test
+    public void passesOnMatchingWindows() {
+        List<MeasuringValue> series = utilizations(2d, 3d, 4d, 5d);
+        WindowedSeriesValidation validation = new WindowedSeriesValidation(series.iterator(), 2d, 1d);
+        for (MeasuringValue utilization : series) {
+            assertTrue(validation.hasNext());
+            assertSame(utilization, validation.next());
+        }
+        assertFalse(validation.hasNext());
+    }
+
+    @Test
+    public void toleratesRoundingErrors() {
+        // window ends that have been accumulated rather than multiplied
+        List<Double> ends = new ArrayList<>();
+        double end = 0.3;
+        for (int i = 0; i < 1000; ++i) {
+            ends.add(end);
+            end += 0.1;
+        }
+        WindowedSeriesValidation validation = new WindowedSeriesValidation(
+                utilizations(ends.stream().mapToDouble(Double::doubleValue).toArray()).iterator(), 0.3, 0.1);
+        while (validation.hasNext()) {
+            validation.next();
+        }
+    }
+
+    @Test
+    public void rejectsGaps() {
+        assertRejectedAt(2, utilizations(2d, 3d, 5d, 6d), 2d, 1d);
+    }
+
+    @Test
+    public void rejectsOtherIncrement() {
+        assertRejectedAt(1, utilizations(2d, 4d, 6d), 2d, 1d);
+    }
+
+    @Test
+    public void rejectsOtherLength() {
+        assertRejectedAt(0, utilizations(1d, 2d, 3d), 2d, 1d);
+    }
+
+    @Test
+    public void rejectsInstantaneousUtilizations() {
+        assertRejectedAt(0, utilizations(0.25, 0.7, 1.1, 2d), 2d, 1d);
+    }
+
+    @Test
+    public void acceptsEmptySeries() {
+        assertFalse(new WindowedSeriesValidation(Collections.<MeasuringValue> emptyIterator(), 2d, 1d).hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveIncrement() {
+        new WindowedSeriesValidation(Collections.<MeasuringValue> emptyIterator(), 2d, 0d);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUndefinedLength() {
+        new WindowedSeriesValidation(Collections.<MeasuringValue> emptyIterator(), Double.NaN, 1d);
+    }
+
+    private static void assertRejectedAt(final int index, final List<MeasuringValue> series, final double length,
+            final double increment) {
+        Iterator<MeasuringValue> validation = new WindowedSeriesValidation(series.iterator(), length, increment);
+        for (int i = 0; i < index; ++i) {
+            validation.next();
+        }
+        try {
+            validation.next();
+            fail("Utilization " + index + " must not match the windows.");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private static List<MeasuringValue> utilizations(final double... pointsInTime) {
+        List<MeasuringValue> utilizations = new ArrayList<>();
+        for (double pointInTime : pointsInTime) {
+            utilizations.add(new TupleMeasurement(MetricDescriptionConstants.UTILIZATION_OF_ACTIVE_RESOURCE_TUPLE,
+                    Measure.valueOf(pointInTime, SI.SECOND), Measure.valueOf(0.5, Unit.ONE)));
+        }
+        return utilizations;
+    }
+}
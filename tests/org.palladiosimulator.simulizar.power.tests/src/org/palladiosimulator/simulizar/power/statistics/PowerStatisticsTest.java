@@ -0,0 +1,147 @@
+package org.palladiosimulator.simulizar.power.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.junit.Test;
+import org.palladiosimulator.simulizar.power.calculators.IDoubleMeasurementListener;
+
+/**
+ * Checks the time-weighted figures of {@link PowerStatistics} on known power series.
+ */
+public class PowerStatisticsTest {
+
+    private static final double DELTA = 1e-9;
+    private static final double ACCURACY = QuantileSketch.DEFAULT_RELATIVE_ACCURACY;
+
+    @Test
+    public void weightsSamplesByTheTimeTheyHold() {
+        // 100 W for 90 s, 300 W for 8 s and 500 W for 2 s; the last sample holds for no time
+        PowerSummary summary = summarize(0d, 100d, 90d, 300d, 98d, 500d, 100d, 100d);
+        assertEquals(4, summary.getSampleCount());
+        assertEquals(124d, summary.getMeanPower(), DELTA);
+        assertEquals(300d, summary.getP95Power(), 300d * ACCURACY);
+        assertEquals(500d, summary.getP99Power(), 500d * ACCURACY);
+        assertEquals(100d, summary.getMinPower(), 0d);
+        assertEquals(500d, summary.getMaxPower(), 0d);
+        assertEquals(98d, summary.getPeakPointInTime(), 0d);
+        assertEquals(0d, summary.getFirstPointInTime(), 0d);
+        assertEquals(100d, summary.getLastPointInTime(), 0d);
+    }
+
+    @Test
+    public void isNotBiasedByDenseSampling() {
+        // 100 W for 1 s, then 200 W for 9 s sampled every 0.01 s at first
+        PowerStatistics statistics = new PowerStatistics("source", "measuring point");
+        IDoubleMeasurementListener listener = statistics.getPowerListener();
+        listener.newMeasurementAvailable(0d, 100d);
+        for (int i = 0; i <= 90; ++i) {
+            listener.newMeasurementAvailable(1d + i * 0.01, 200d);
+        }
+        listener.newMeasurementAvailable(10d, 100d);
+        PowerSummary summary = statistics.getSummary();
+        assertEquals(190d, summary.getMeanPower(), DELTA);
+        assertEquals(200d, summary.getP95Power(), 200d * ACCURACY);
+    }
+
+    @Test
+    public void matchesExactTimeWeightedFigures() {
+        int sampleCount = 500;
+        double[] series = new double[2 * sampleCount];
+        double pointInTime = 0d;
+        for (int i = 0; i < sampleCount; ++i) {
+            series[2 * i] = pointInTime;
+            series[2 * i + 1] = 80d + (i * 131 % 97) * 3d;
+            // integral durations of 1 to 5 s
+            pointInTime += 1 + i % 5;
+        }
+        PowerSummary summary = summarize(series);
+
+        double duration = series[series.length - 2];
+        double energy = 0d;
+        for (int i = 0; i < sampleCount - 1; ++i) {
+            energy += series[2 * i + 1] * (series[2 * i + 2] - series[2 * i]);
+        }
+        assertEquals(energy / duration, summary.getMeanPower(), DELTA * energy / duration);
+        double p95 = getExactWeightedQuantile(series, 0.95);
+        double p99 = getExactWeightedQuantile(series, 0.99);
+        assertEquals(p95, summary.getP95Power(), p95 * ACCURACY);
+        assertEquals(p99, summary.getP99Power(), p99 * ACCURACY);
+    }
+
+    @Test
+    public void replacesSamplesOfTheSamePointInTime() {
+        PowerSummary single = summarize(3d, 5d, 3d, 7d);
+        assertEquals(2, single.getSampleCount());
+        assertEquals(7d, single.getMeanPower(), 0d);
+        assertEquals(7d, single.getP95Power(), 0d);
+        assertEquals(5d, single.getMinPower(), 0d);
+
+        // the first consumption is replaced before it holds, the last one holds for no time
+        PowerSummary replaced = summarize(0d, 5d, 0d, 7d, 10d, 1d);
+        assertEquals(7d, replaced.getMeanPower(), DELTA);
+        assertEquals(7d, replaced.getP99Power(), 7d * ACCURACY);
+        assertEquals(1d, replaced.getMinPower(), 0d);
+
+        // a replaced consumption in between does not hold either
+        PowerSummary between = summarize(0d, 10d, 5d, 1000d, 5d, 20d, 10d, 0d);
+        assertEquals(15d, between.getMeanPower(), DELTA);
+        assertEquals(1000d, between.getMaxPower(), 0d);
+        assertEquals(20d, between.getP99Power(), 20d * ACCURACY);
+    }
+
+    @Test
+    public void yieldsNaNWithoutSamples() {
+        PowerStatistics statistics = new PowerStatistics("source", "measuring point");
+        statistics.getPowerListener().newMeasurementAvailable(1d, Double.NaN);
+        PowerSummary summary = statistics.getSummary();
+        assertEquals(0, summary.getSampleCount());
+        assertTrue(Double.isNaN(summary.getMeanPower()));
+        assertTrue(Double.isNaN(summary.getP95Power()));
+        assertTrue(Double.isNaN(summary.getTotalEnergy()));
+    }
+
+    @Test
+    public void keepsLastCumulativeEnergy() {
+        PowerStatistics statistics = new PowerStatistics("source", "measuring point");
+        statistics.getEnergyListener().newMeasurementAvailable(1d, 10d);
+        statistics.getEnergyListener().newMeasurementAvailable(2d, 25d);
+        statistics.getEnergyListener().newMeasurementAvailable(3d, Double.NaN);
+        assertEquals(25d, statistics.getSummary().getTotalEnergy(), 0d);
+    }
+
+    /**
+     * Feeds the given pairs of points in time and power consumptions to new statistics.
+     */
+    private static PowerSummary summarize(final double... series) {
+        PowerStatistics statistics = new PowerStatistics("source", "measuring point");
+        for (int i = 0; i < series.length; i += 2) {
+            statistics.getPowerListener().newMeasurementAvailable(series[i], series[i + 1]);
+        }
+        return statistics.getSummary();
+    }
+
+    /**
+     * Gets the least power consumption that is not exceeded for the given share of the time from
+     * the first to the last sample, each sample holding until the next one.
+     */
+    private static double getExactWeightedQuantile(final double[] series, final double quantile) {
+        double[][] samples = new double[series.length / 2 - 1][];
+        for (int i = 0; i < samples.length; ++i) {
+            samples[i] = new double[] { series[2 * i + 1], series[2 * i + 2] - series[2 * i] };
+        }
+        Arrays.sort(samples, Comparator.comparingDouble(sample -> sample[0]));
+        double duration = series[series.length - 2] - series[0];
+        double cumulativeDuration = 0d;
+        for (double[] sample : samples) {
+            cumulativeDuration += sample[1];
+            if (cumulativeDuration >= quantile * duration) {
+                return sample[0];
+            }
+        }
+        return samples[samples.length - 1][0];
+    }
+}
@@ -0,0 +1,149 @@
+package org.palladiosimulator.simulizar.power.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.junit.Test;
+
+/**
+ * Checks the estimates of a {@link QuantileSketch} against the exact weighted quantiles of known
+ * series, also once its lowest buckets have been collapsed.
+ */
+public class QuantileSketchTest {
+
+    private static final double ACCURACY = QuantileSketch.DEFAULT_RELATIVE_ACCURACY;
+    private static final double[] QUANTILES = { 0d, 0.01, 0.25, 0.5, 0.75, 0.95, 0.99, 1d };
+
+    @Test
+    public void estimatesUnweightedQuantilesWithinAccuracy() {
+        QuantileSketch sketch = new QuantileSketch();
+        double[][] series = new double[1000][];
+        for (int i = 0; i < series.length; ++i) {
+            // an arbitrary but fixed order of the values 1 to 1000
+            double value = (i * 379 % 1000) + 1;
+            series[i] = new double[] { value, 1d };
+            sketch.add(value);
+        }
+        assertEquals(1000, sketch.getCount());
+        assertEquals(1000d, sketch.getTotalWeight(), 0d);
+        for (double quantile : QUANTILES) {
+            assertAccurate(quantile, getExactQuantile(series, quantile), sketch.getQuantile(quantile));
+        }
+    }
+
+    @Test
+    public void estimatesWeightedQuantilesWithinAccuracy() {
+        QuantileSketch sketch = new QuantileSketch();
+        double[][] series = new double[200][];
+        for (int i = 0; i < series.length; ++i) {
+            // integral weights, so that the exact cumulative weights do not depend on the order
+            double value = 50d + (i * 37 % 200) * 2.5;
+            double weight = 1 + i % 7;
+            series[i] = new double[] { value, weight };
+            sketch.add(value, weight);
+        }
+        for (double quantile : QUANTILES) {
+            assertAccurate(quantile, getExactQuantile(series, quantile), sketch.getQuantile(quantile));
+        }
+    }
+
+    @Test
+    public void weightsSingleValueByItsWeight() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(100d, 1d);
+        sketch.add(200d, 9d);
+        assertAccurate(0.1, 100d, sketch.getQuantile(0.1));
+        assertAccurate(0.11, 200d, sketch.getQuantile(0.11));
+    }
+
+    @Test
+    public void countsZerosAndIgnoresValuesWithoutWeight() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(0d, 3d);
+        sketch.add(-5d, 1d);
+        sketch.add(10d, 4d);
+        sketch.add(1000d, 0d);
+        sketch.add(Double.NaN, 1d);
+        assertEquals(3, sketch.getCount());
+        assertEquals(8d, sketch.getTotalWeight(), 0d);
+        assertEquals(0d, sketch.getQuantile(0.5), 0d);
+        assertAccurate(0.51, 10d, sketch.getQuantile(0.51));
+        assertAccurate(1d, 10d, sketch.getQuantile(1d));
+    }
+
+    @Test
+    public void yieldsNaNWithoutValues() {
+        assertTrue(Double.isNaN(new QuantileSketch().getQuantile(0.5)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeWeight() {
+        new QuantileSketch().add(1d, -1d);
+    }
+
+    @Test
+    public void keepsUpperQuantilesWhenCollapsingAscendingValues() {
+        assertCollapsedQuantiles(false);
+    }
+
+    @Test
+    public void keepsUpperQuantilesWhenCollapsingDescendingValues() {
+        assertCollapsedQuantiles(true);
+    }
+
+    /**
+     * Adds 40 values that grow by factors of 1.5 to a sketch of 64 buckets, which span a factor of
+     * about 3.6 at the default accuracy. The lowest buckets are thus collapsed, so that only the
+     * quantiles of the highest values remain accurate, while the lower ones are overestimated.
+     */
+    private static void assertCollapsedQuantiles(final boolean descending) {
+        int maxBuckets = 64;
+        QuantileSketch sketch = new QuantileSketch(ACCURACY, maxBuckets);
+        double[][] series = new double[40][];
+        for (int i = 0; i < series.length; ++i) {
+            int exponent = descending ? series.length - 1 - i : i;
+            series[i] = new double[] { Math.pow(1.5, exponent), 1d };
+            sketch.add(series[i][0]);
+        }
+        assertEquals(Double.BYTES * maxBuckets, sketch.getEstimatedBytes());
+        for (double quantile : new double[] { 0.95, 0.99, 1d }) {
+            assertAccurate(quantile, getExactQuantile(series, quantile), sketch.getQuantile(quantile));
+        }
+        double lowestRetained = Math.pow(1.5, series.length - 1) / Math.pow((1 + ACCURACY) / (1 - ACCURACY),
+                maxBuckets);
+        for (double quantile : new double[] { 0d, 0.5, 0.9 }) {
+            double estimate = sketch.getQuantile(quantile);
+            assertTrue("Collapsed quantile " + quantile + " must not be underestimated",
+                    estimate >= getExactQuantile(series, quantile) * (1 - ACCURACY));
+            assertTrue("Collapsed quantile " + quantile + " must lie in the retained range",
+                    estimate >= lowestRetained * (1 - ACCURACY));
+        }
+    }
+
+    /**
+     * Gets the least value such that the given share of the total weight lies on values up to it.
+     */
+    private static double getExactQuantile(final double[][] series, final double quantile) {
+        double[][] sorted = series.clone();
+        Arrays.sort(sorted, Comparator.comparingDouble(sample -> sample[0]));
+        double totalWeight = 0d;
+        for (double[] sample : sorted) {
+            totalWeight += sample[1];
+        }
+        double cumulativeWeight = 0d;
+        for (double[] sample : sorted) {
+            cumulativeWeight += sample[1];
+            if (cumulativeWeight >= quantile * totalWeight && cumulativeWeight > 0) {
+                return sample[0];
+            }
+        }
+        return sorted[sorted.length - 1][0];
+    }
+
+    private static void assertAccurate(final double quantile, final double expected, final double actual) {
+        assertEquals("Quantile " + quantile, expected, actual, expected * ACCURACY);
+    }
+}